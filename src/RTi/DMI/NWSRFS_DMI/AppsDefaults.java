@@ -6,10 +6,14 @@
 package RTi.DMI.NWSRFS_DMI;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 import RTi.Util.IO.IOUtil;
@@ -21,6 +25,11 @@ import RTi.Util.Message.Message;
  * files as name/value pairs.
  * 
  * The search order is defined in {@link #getToken0(String)}
+ * 
+ * By default each file is scanned for each token that is not in the cache.
+ * If {@link #setPreloadTokens(boolean)} is called with true, the files are
+ * parsed once into a table with the file precedence applied and the
+ * refer backs expanded, and the table is reloaded when a file changes.
  * <pre>
  * Usage:
  *   AppsDefaults appsDefaults = new AppsDefaults();
@@ -93,6 +102,65 @@ public class AppsDefaults
    private static final char SINGLE_QUOTE = '\'';
 
    private static final int RECUR_LIMIT = 40;
+
+   /**
+    * Minimum time in milliseconds between checks of the apps defaults file
+    * modification times, when the preloaded token table is used.
+    */
+   private static final long TOKEN_TABLE_CHECK_INTERVAL = 1000;
+
+   /**
+    * Tokens parsed from the apps defaults files, with the file precedence
+    * applied and the refer backs expanded.  The table is not modified after
+    * it is created.
+    */
+   private static class TokenTable
+   {
+      /**
+       * Token values by token name (unmodifiable).
+       */
+      private final Map<String,String> tokens;
+
+      /**
+       * The files that were parsed, in precedence order (null if not defined).
+       */
+      private final String[] filePaths;
+
+      /**
+       * The modification time and length of each file when it was parsed
+       * (0 if the file did not exist).
+       */
+      private final long[] fileStamps;
+
+      /**
+       * The time that the file stamps were last checked.
+       */
+      private volatile long checkTime;
+
+      private TokenTable(Map<String,String> tokens, String[] filePaths)
+      {
+         this.tokens = Collections.unmodifiableMap(tokens);
+         this.filePaths = filePaths;
+         this.fileStamps = getFileStamps(filePaths);
+         this.checkTime = System.currentTimeMillis();
+      }
+
+      /**
+       * Returns whether any of the files has changed since the table was created.
+       */
+      private boolean isStale()
+      {
+         long[] stamps = getFileStamps(filePaths);
+         for (int i = 0; i < stamps.length; i++)
+         {
+            if (stamps[i] != fileStamps[i])
+            {
+               return true;
+            }
+         }
+         return false;
+      }
+   }
    
    /**
    Does the JVM have a working System.getEnv() method?
@@ -112,7 +180,22 @@ public class AppsDefaults
 
    private String _appsDefaultsNationalFilePath = null;
 
-   private HashMap<String,String> cache = new HashMap<String,String>();
+   /**
+    * Token values returned by getToken(), including NULL for tokens that are
+    * not defined.  Concurrent because getToken() is not synchronized.
+    */
+   private Map<String,String> cache = new ConcurrentHashMap<String,String>();
+
+   /**
+    * Whether tokens are resolved from the preloaded token table rather than
+    * by scanning the files for each token.
+    */
+   private boolean _preloadTokens = false;
+
+   /**
+    * The preloaded token table, or null if not loaded.
+    */
+   private volatile TokenTable _tokenTable = null;
    private String NULL = new String("");
 
    // --------------------------------------------------------------
@@ -217,6 +300,16 @@ public class AppsDefaults
    }
    
    public String getToken(String tokenName) {
+       if (tokenName == null) {
+           // ConcurrentHashMap does not allow null keys
+           return null;
+       }
+       if (_preloadTokens) {
+           // Reload the table (and clear the cache) if a file has changed, so
+           // that cached tokens are not kept after the files are edited.  The
+           // files are checked at most once per TOKEN_TABLE_CHECK_INTERVAL.
+           getTokenTable();
+       }
        String token = (String)cache.get(tokenName);
        if (token == null) {
            token = getToken0(tokenName);
@@ -250,7 +343,9 @@ public class AppsDefaults
     * <li>Check if defined in "APPS_DEFAULTS"
     * </ul>
     * The search will terminate as soon as the token is found and the 
-    * token value will be returned.
+    * token value will be returned.  If the preloaded token table is used
+    * (see {@link #setPreloadTokens(boolean)}), the files are not scanned
+    * but the token is looked up in the table, which gives the same result.
     * <p>
     * If the token is not found null will be returned.
     * 
@@ -277,6 +372,11 @@ public class AppsDefaults
       if (envValue != null)
       {
          tokenValue = envValue;
+      } else if (_preloadTokens)
+      {
+         // look up the token in the preloaded table, in which the refer
+         // backs were expanded when the table was loaded
+         return getTokenTable().tokens.get(tokenName);
       } else
       // look for the token in each the files (if they are defined), until
       // find the token, then stop looking as soon as it is found
@@ -382,6 +482,236 @@ public class AppsDefaults
       return tokenValue;
    }
 
+   // -----------------------------------------------------
+
+   /**
+    * Returns the modification time and length of files, used to check
+    * whether the preloaded token table is current.
+    * 
+    * @param filePaths the file paths (null elements are allowed)
+    * @return two values for each file, 0 if the file does not exist
+    */
+   private static long[] getFileStamps(String[] filePaths)
+   {
+      long[] stamps = new long[2*filePaths.length];
+      for (int i = 0; i < filePaths.length; i++)
+      {
+         if (filePaths[i] != null)
+         {
+            File file = new File(filePaths[i]);
+            stamps[2*i] = file.lastModified();
+            stamps[2*i + 1] = file.length();
+         }
+      }
+      return stamps;
+   }
+
+   // -----------------------------------------------------
+
+   /**
+    * Returns the preloaded token table, loading it if it has not been
+    * loaded or if one of the files has changed.  The file modification
+    * times are checked at most once per TOKEN_TABLE_CHECK_INTERVAL.
+    */
+   private TokenTable getTokenTable()
+   {
+      TokenTable table = _tokenTable;
+      if ((table != null) &&
+          (System.currentTimeMillis() - table.checkTime < TOKEN_TABLE_CHECK_INTERVAL))
+      {
+         return table;
+      }
+      synchronized (this)
+      {
+         table = _tokenTable;
+         if ((table == null) || table.isStale())
+         {
+            table = loadTokenTable();
+            _tokenTable = table;
+            // Values cached by getToken() may have come from the old files
+            cache.clear();
+         } else
+         {
+            table.checkTime = System.currentTimeMillis();
+         }
+      }
+      return table;
+   }
+
+   // -----------------------------------------------------
+
+   /**
+    * Returns whether tokens are resolved from the preloaded token table.
+    */
+   public boolean isPreloadTokens()
+   {
+      return _preloadTokens;
+   }
+
+   // -----------------------------------------------------
+
+   /**
+    * Parse the apps defaults files into a token table.  Each file is read
+    * once.  As with {@link #getTokenFromFile(String, String)}, the first
+    * definition of a token in a file is used, and the files are searched in
+    * the order USER, PROG, SITE, national.  Refer backs are then expanded in
+    * the same way as {@link #expandReferBacks(String)}, with environment
+    * variables taking precedence over the files.
+    */
+   private TokenTable loadTokenTable()
+   {
+      String[] filePaths = new String[] { _appsDefaultsUserFilePath,
+         _appsDefaultsProgramFilePath, _appsDefaultsSiteFilePath,
+         _appsDefaultsNationalFilePath };
+      Map<String,String> rawTokens = new HashMap<String,String>();
+      for (int i = 0; i < filePaths.length; i++)
+      {
+         readTokensFromFile(filePaths[i], rawTokens);
+      }
+      Map<String,String> tokens = new HashMap<String,String>();
+      for (String tokenName : rawTokens.keySet())
+      {
+         if (!tokens.containsKey(tokenName))
+         {
+            tokens.put(tokenName, resolveReferBacks(rawTokens.get(tokenName), rawTokens, tokens, 0));
+         }
+      }
+      _logger.info("Loaded " + tokens.size() + " apps defaults tokens.");
+      return new TokenTable(tokens, filePaths);
+   }
+
+   // -----------------------------------------------------
+
+   /**
+    * Read all tokens from a file, adding the tokens that are not already
+    * in the map (so files read earlier and earlier lines take precedence).
+    */
+   private void readTokensFromFile(String filePath, Map<String,String> tokens)
+   {
+      if (filePath == null)
+      {
+         return;
+      }
+      BufferedReader _reader = null;
+      try
+      {
+         _reader = new BufferedReader(new FileReader(filePath));
+      } catch (FileNotFoundException e)
+      {
+         _logger.info("The AppsDefaults file '" + filePath + "' was not found.");
+         return;
+      }
+      Map<String,String> fileTokens = new HashMap<String,String>();
+      String line = null;
+      while ((line = getLine(_reader)) != null)
+      {
+         NameValuePair nameValuePair = parseLine(line);
+         if ((nameValuePair != null) && !fileTokens.containsKey(nameValuePair.getName()))
+         {
+            fileTokens.put(nameValuePair.getName(), nameValuePair.getValue());
+         }
+      }
+      try
+      {
+         _reader.close();
+      } catch (IOException e)
+      {
+         throw new RuntimeException(e);
+      }
+      for (Map.Entry<String,String> entry : fileTokens.entrySet())
+      {
+         if (!tokens.containsKey(entry.getKey()))
+         {
+            tokens.put(entry.getKey(), entry.getValue());
+         }
+      }
+   }
+
+   // -----------------------------------------------------
+
+   /**
+    * Expand the refer backs in a token value using the tokens read from the
+    * files.  Referred tokens are resolved once and saved in the resolved map.
+    * 
+    * @param tokenValue the token value to expand
+    * @param rawTokens the tokens read from the files, without expansion
+    * @param resolvedTokens the tokens that have been expanded
+    * @param depth the recursion depth, limited to RECUR_LIMIT
+    */
+   private String resolveReferBacks(String tokenValue, Map<String,String> rawTokens,
+      Map<String,String> resolvedTokens, int depth)
+   {
+      if (tokenValue == null)
+      {
+         return null;
+      }
+      while (thereAreReferBacks(tokenValue))
+      {
+         int referBackStartIndex = tokenValue.indexOf(RFR_OPEN);
+         int referBackEndIndex = tokenValue.indexOf(RFR_CLOSE);
+         if (referBackEndIndex < referBackStartIndex)
+         {
+            // Not a valid refer back so leave the value as is
+            break;
+         }
+         String newTokenName = tokenValue.substring(referBackStartIndex + RFR_OPEN.length(), referBackEndIndex);
+         String middle = null;
+         if (depth < RECUR_LIMIT)
+         {
+            String envValue = null;
+            if ( __jvmhas_getenv ) {
+                envValue = System.getenv(newTokenName);
+            }
+            else {
+                envValue = NWSRFS_Util.getenv(newTokenName);
+            }
+            if (envValue != null)
+            {
+               middle = resolveReferBacks(envValue, rawTokens, resolvedTokens, depth + 1);
+            } else if (resolvedTokens.containsKey(newTokenName))
+            {
+               middle = resolvedTokens.get(newTokenName);
+            } else
+            {
+               middle = resolveReferBacks(rawTokens.get(newTokenName), rawTokens, resolvedTokens, depth + 1);
+               if (rawTokens.containsKey(newTokenName))
+               {
+                  resolvedTokens.put(newTokenName, middle);
+               }
+            }
+         } else
+         {
+            middle = "ERROR_ERROR_ERROR";
+            _logger.warning("You probably have a cycle in your Apps Defaults File's refer backs at token "
+               + newTokenName + ", please check it");
+         }
+         tokenValue = tokenValue.substring(0, referBackStartIndex) + middle +
+            tokenValue.substring(referBackEndIndex + RFR_CLOSE.length());
+      }
+      return tokenValue;
+   }
+
+   // -----------------------------------------------------
+
+   /**
+    * Set whether tokens are resolved from a preloaded token table.  If true,
+    * the apps defaults files are parsed once (when the first token is
+    * requested) rather than scanned for each token, and are parsed again if
+    * a file's modification time or length changes.  Environment variables
+    * are still checked first for each token.
+    * 
+    * @param preloadTokens true to use the preloaded token table
+    */
+   public synchronized void setPreloadTokens(boolean preloadTokens)
+   {
+      if (preloadTokens != _preloadTokens)
+      {
+         _preloadTokens = preloadTokens;
+         _tokenTable = null;
+         cache.clear();
+      }
+   }
+
    // -----------------------------------------------------
    private String expandReferBacks(String tokenValue)
    {
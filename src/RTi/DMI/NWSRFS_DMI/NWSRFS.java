@@ -54,8 +54,19 @@
 package RTi.DMI.NWSRFS_DMI;
 
 import java.lang.OutOfMemoryError;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import RTi.DMI.NWSRFS_DMI.NWSRFS_CarryoverGroup;
 import RTi.DMI.NWSRFS_DMI.NWSRFS_DMI;
 import RTi.DMI.NWSRFS_DMI.NWSRFS_ForecastGroup;
@@ -79,6 +90,34 @@ The DMI object used in this NWSRFS instance.
 */
 private NWSRFS_DMI __dmi;
 
+/**
+Whether all data were read for the groups and segments.  Used by refresh().
+*/
+private boolean __deepRead = false;
+
+/**
+Whether compact topology (see NWSRFS_DMI.setCompactTopology()) was used to read the groups
+and segments.  Used by refresh() so that refreshed objects are read the same way.
+*/
+private boolean __compactTopology = false;
+
+/**
+The sizes and modification times of the Forecast Component files when the instance was read
+(see NWSRFS_DMI.getForecastComponentFileStamps()), or null if not known.  Used by refresh().
+*/
+private long[] __fileStamps = null;
+
+/**
+The segment definition stamps (see NWSRFS_DMI.readSegmentStamp()) by upper case segment identifier,
+for segments that were read with the instance.  Used by refresh().
+*/
+private Map<String,Long> __segmentStamps = new HashMap<>();
+
+/**
+Whether the segments were read with the instance.  Used by refresh().
+*/
+private boolean __segmentsRead = false;
+
 /**
 Construct a blank NWSRFS instance (no carryover groups).
 */
@@ -145,6 +184,9 @@ throws Exception
 		Message.printStatus(10,routine,"ofs_fs5files: " + ofs_fs5files);
 		
 		NWSRFS_DMI dmi = nwsrfs.getDmiInternal ( ofs_fs5files );
+		nwsrfs.__fileStamps = dmi.getForecastComponentFileStamps();
+		nwsrfs.__deepRead = deepRead;
+		nwsrfs.__compactTopology = dmi.usingCompactTopology();
 
 		// Get the list of carryover group identifiers
 		cgIDs = dmi.readCarryoverGroupList();
@@ -230,6 +272,122 @@ throws Exception
 	return nwsrfs;
 }
 
+/**
+Construct an NWSRFS instance using the processed database binary files, reading the
+carryover groups, forecast groups and (optionally) segments in parallel using a
+temporary thread pool.  See createNWSRFSFromPRD(String,boolean,boolean,ExecutorService).
+@param ofs_fs5files a String holding the directory location of the processed
+database files. If null or empty then the user must have an NWSRFS token
+called <code>ofs_fs5files</code> set either in an APPS_DEFAULTS file or
+the OS environment.
+@param deepRead a boolean specifying whether or not just header or id's are read 
+from the Segment, Operations, and TimeSeries objects. If true read all data.
+@param readSegments if true, also read the segments (and their operations) and add them to the forecast groups.
+@param numThreads the number of threads to use for reading.
+@return a NWSRFS instance.
+@exception Exception if there is an error reading the carryover or forecast groups.
+*/
+public static NWSRFS createNWSRFSFromPRD(String ofs_fs5files, boolean deepRead, boolean readSegments,
+int numThreads)
+throws Exception
+{
+	if (numThreads < 1) {
+		numThreads = 1;
+	}
+	ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+	try {
+		return createNWSRFSFromPRD(ofs_fs5files, deepRead, readSegments, executor);
+	}
+	finally {
+		executor.shutdown();
+	}
+}
+
+/**
+Construct an NWSRFS instance using the processed database binary files, reading the
+carryover groups, forecast groups and (optionally) segments in parallel.
+Concurrent reads (see NWSRFS_DMI.setConcurrentReads()) are enabled on the DMI if they
+are not already enabled, so that each worker thread reads with its own file positions.
+For deep reads, compact topology (see NWSRFS_DMI.setCompactTopology()) is also enabled during the
+reads so that identifiers are shared and carryover values are read on demand, which bounds the
+memory used.  The previous compact topology setting is restored when the reads finish.
+The reads are done in three stages (carryover groups, forecast groups, segments) and
+the objects are added to the tree in the same order as createNWSRFSFromPRD(String,boolean),
+so the result does not depend on the order in which the reads complete.
+An error reading a segment is logged and the segment is not added to its forecast group;
+callers can check NWSRFS_ForecastGroup.getNumberOfSegments() against getNumberOfSegmentIDs()
+and read missing segments individually.
+@param ofs_fs5files a String holding the directory location of the processed
+database files. If null or empty then the user must have an NWSRFS token
+called <code>ofs_fs5files</code> set either in an APPS_DEFAULTS file or
+the OS environment.
+@param deepRead a boolean specifying whether or not just header or id's are read 
+from the Segment, Operations, and TimeSeries objects. If true read all data.
+@param readSegments if true, also read the segments (and their operations) and add them to the forecast groups.
+@param executor the executor used to run the reads.  The executor is not shut down.
+@return a NWSRFS instance.
+@exception Exception if there is an error reading the carryover or forecast groups.
+*/
+public static NWSRFS createNWSRFSFromPRD(String ofs_fs5files, boolean deepRead, boolean readSegments,
+ExecutorService executor)
+throws Exception
+{
+	String routine = "NWSRFS.createNWSRFSFromPRD";
+	NWSRFS nwsrfs = new NWSRFS();
+
+	try {
+		Message.printStatus(10,routine,"ofs_fs5files: " + ofs_fs5files);
+
+		NWSRFS_DMI dmi = nwsrfs.getDmiInternal ( ofs_fs5files );
+		if (!dmi.usingConcurrentReads()) {
+			dmi.setConcurrentReads(true);
+		}
+		boolean compactTopology = dmi.usingCompactTopology();
+		nwsrfs.__fileStamps = dmi.getForecastComponentFileStamps();
+		nwsrfs.__deepRead = deepRead;
+		nwsrfs.__segmentsRead = readSegments;
+		nwsrfs.__compactTopology = deepRead || compactTopology;
+
+		dmi.setCompactTopology(nwsrfs.__compactTopology);
+		try {
+			List<NWSRFS_ForecastGroup> fgList = nwsrfs.readGroups(dmi, deepRead, executor);
+			if (readSegments) {
+				nwsrfs.readSegments(dmi, fgList, deepRead, new HashMap<String,NWSRFS_Segment>(), false, executor);
+			}
+		}
+		finally {
+			// Leave the DMI as it was for other users
+			dmi.setCompactTopology(compactTopology);
+		}
+	}
+	catch(Exception e) {
+		Message.printWarning( 2, routine, e );
+		throw e;
+	}
+
+	return nwsrfs;
+}
+
+/**
+Determine whether a Forecast Component file has changed since the instance was read.
+@param fileNames the file names, in the order of the stamps.
+@param fileStamps the current file stamps (see NWSRFS_DMI.getForecastComponentFileStamps()).
+@param fileName the name of the file to check.
+@return true if the file has changed or the previous stamps are not known.
+*/
+private boolean fileChanged(String[] fileNames, long[] fileStamps, String fileName)
+{
+	if (__fileStamps == null || __fileStamps.length != fileStamps.length) {
+		return true;
+	}
+	for (int i = 0; i < fileNames.length; i++) {
+		if (fileNames[i].equalsIgnoreCase(fileName)) {
+			return (fileStamps[2*i] != __fileStamps[2*i]) || (fileStamps[2*i + 1] != __fileStamps[2*i + 1]);
+		}
+	}
+	return true;
+}
+
 /**
 Return the carryover group at an index.
 @param index Index of carryover group.
@@ -328,6 +486,200 @@ public int getNumberOfCarryoverGroups()
 	return __carryover_groups.size();
 }
 
+/**
+Return the result of a read that was submitted to an executor, rethrowing the exception
+from the read if it failed.
+@param future the future for the read.
+@return the result of the read.
+@exception Exception the exception thrown by the read, or if the read was interrupted.
+*/
+private static <T> T getResult(Future<T> future)
+throws Exception
+{
+	try {
+		return future.get();
+	}
+	catch (ExecutionException e) {
+		Throwable cause = e.getCause();
+		if (cause instanceof Exception) {
+			throw (Exception)cause;
+		}
+		else if (cause instanceof Error) {
+			throw (Error)cause;
+		}
+		throw e;
+	}
+}
+
+/**
+Read the carryover groups and their forecast groups in parallel and add them to this instance,
+in the same order as createNWSRFSFromPRD(String,boolean).  Any existing carryover groups are removed.
+@param dmi the DMI to read from.
+@param deepRead whether to read all data for the groups.
+@param executor the executor used to run the reads.
+@return the forecast groups that were added, in tree order.
+@exception Exception if there is an error reading the carryover or forecast groups.
+*/
+private List<NWSRFS_ForecastGroup> readGroups(final NWSRFS_DMI dmi, final boolean deepRead,
+ExecutorService executor)
+throws Exception
+{
+	String routine = "NWSRFS.readGroups";
+
+	// Read the carryover groups.
+	List<String> cgIDs = dmi.readCarryoverGroupList();
+	Message.printStatus(10,routine,"Number of Carryover groups: " + cgIDs.size() );
+	List<Future<NWSRFS_CarryoverGroup>> cgFutures = new ArrayList<>();
+	for (final String cgID : cgIDs) {
+		cgFutures.add(executor.submit(new Callable<NWSRFS_CarryoverGroup>() {
+			public NWSRFS_CarryoverGroup call() throws Exception {
+				try {
+					return dmi.readCarryoverGroup(cgID, deepRead);
+				}
+				finally {
+					dmi.releaseThreadFiles();
+				}
+			}
+		}));
+	}
+	List<NWSRFS_CarryoverGroup> cgList = new ArrayList<>();
+	for (Future<NWSRFS_CarryoverGroup> cgFuture : cgFutures) {
+		cgList.add(getResult(cgFuture));
+	}
+
+	// Read the forecast groups for all carryover groups, skipping obsolete forecast groups.
+	List<List<Future<NWSRFS_ForecastGroup>>> fgFutures = new ArrayList<>();
+	for (NWSRFS_CarryoverGroup cg : cgList) {
+		List<Future<NWSRFS_ForecastGroup>> cgFGFutures = new ArrayList<>();
+		fgFutures.add(cgFGFutures);
+		List<String> fgIDs = cg.getForecastGroupIDs();
+		int fgSize = cg.getNFG();
+		if (fgSize <= 0) {
+			fgSize = fgIDs.size();
+		}
+		// If there are no FGs even though the CG says there are FGs do not add the CG.
+		if (fgIDs.size() == 0) {
+			continue;
+		}
+		for (int fgIndex = 0; fgIndex < fgSize; fgIndex++) {
+			final String fgID = fgIDs.get(fgIndex);
+			if (fgID == null || fgID.equalsIgnoreCase("OBSOLETE")) {
+				continue;
+			}
+			cgFGFutures.add(executor.submit(new Callable<NWSRFS_ForecastGroup>() {
+				public NWSRFS_ForecastGroup call() throws Exception {
+					try {
+						return dmi.readForecastGroup(fgID, deepRead);
+					}
+					finally {
+						dmi.releaseThreadFiles();
+					}
+				}
+			}));
+		}
+	}
+	__carryover_groups.clear();
+	List<NWSRFS_ForecastGroup> fgList = new ArrayList<>();
+	for (int cgIndex = 0; cgIndex < cgList.size(); cgIndex++) {
+		NWSRFS_CarryoverGroup cg = cgList.get(cgIndex);
+		if (cg.getForecastGroupIDs().size() == 0) {
+			continue;
+		}
+		for (Future<NWSRFS_ForecastGroup> fgFuture : fgFutures.get(cgIndex)) {
+			NWSRFS_ForecastGroup fg = getResult(fgFuture);
+			fg.setCarryoverGroup(cg);
+			cg.addForecastGroup(fg);
+			fgList.add(fg);
+		}
+		addCarryoverGroup(cg);
+	}
+	return fgList;
+}
+
+/**
+Read the segments for forecast groups in parallel and add them to the forecast groups in
+segment identifier order, replacing any segments that were previously added.
+A segment in the reuse map whose definition stamp (see NWSRFS_DMI.readSegmentStamp()) has not
+changed since it was read is reused rather than read again.
+The segment stamps are saved for a later refresh().
+An error reading a segment is logged and the segment is not added to its forecast group.
+@param dmi the DMI to read from.
+@param fgList the forecast groups for which to read segments.
+@param deepRead whether to read all data for the segments.
+@param reuse previously read segments that can be reused, by upper case segment identifier.
+@param rereadCarryover whether to read the carryover again for reused segments (for compact topology
+this recomputes the FCCARRY locations of the carryover values).
+@param executor the executor used to run the reads.
+@exception Exception if the reads are interrupted.
+*/
+private void readSegments(final NWSRFS_DMI dmi, List<NWSRFS_ForecastGroup> fgList, final boolean deepRead,
+Map<String,NWSRFS_Segment> reuse, final boolean rereadCarryover, ExecutorService executor)
+throws Exception
+{
+	String routine = "NWSRFS.readSegments";
+	final Map<String,Long> oldStamps = __segmentStamps;
+	final Map<String,Long> newStamps = new ConcurrentHashMap<>();
+	final AtomicInteger reuseCount = new AtomicInteger();
+	List<List<Future<NWSRFS_Segment>>> segFutures = new ArrayList<>();
+	for (final NWSRFS_ForecastGroup fg : fgList) {
+		List<Future<NWSRFS_Segment>> fgSegFutures = new ArrayList<>();
+		segFutures.add(fgSegFutures);
+		for (int segIndex = 0; segIndex < fg.getNumberOfSegmentIDs(); segIndex++) {
+			final String segID = fg.getSegmentID(segIndex);
+			final String key = (segID == null) ? null : segID.toUpperCase();
+			final NWSRFS_Segment oldSeg = (key == null) ? null : reuse.get(key);
+			fgSegFutures.add(executor.submit(new Callable<NWSRFS_Segment>() {
+				public NWSRFS_Segment call() throws Exception {
+					try {
+						if (key == null) {
+							return dmi.readSegment(segID, fg, deepRead);
+						}
+						long stamp = dmi.readSegmentStamp(segID);
+						newStamps.put(key, Long.valueOf(stamp));
+						Long oldStamp = oldStamps.get(key);
+						if (oldSeg != null && oldStamp != null && oldStamp.longValue() == stamp) {
+							// The segment definition has not changed.
+							oldSeg.setForecastGroup(fg);
+							if (rereadCarryover) {
+								oldSeg.getCarryover().clear();
+								dmi.readCarryover(oldSeg, deepRead);
+							}
+							reuseCount.incrementAndGet();
+							return oldSeg;
+						}
+						return dmi.readSegment(segID, fg, deepRead);
+					}
+					finally {
+						dmi.releaseThreadFiles();
+					}
+				}
+			}));
+		}
+	}
+	int errorCount = 0;
+	int segCount = 0;
+	for (int fgIndex = 0; fgIndex < fgList.size(); fgIndex++) {
+		NWSRFS_ForecastGroup fg = fgList.get(fgIndex);
+		fg.getSegments().clear();
+		for (Future<NWSRFS_Segment> segFuture : segFutures.get(fgIndex)) {
+			try {
+				fg.addSegment(getResult(segFuture));
+				++segCount;
+			}
+			catch (Exception e) {
+				++errorCount;
+				Message.printWarning(3, routine, e);
+			}
+		}
+	}
+	__segmentStamps = newStamps;
+	Message.printStatus(2, routine, "Added " + segCount + " segments (" + reuseCount.get() +
+		" unchanged segments were not read again).");
+	if (errorCount > 0) {
+		Message.printWarning(2, routine, "Error reading " + errorCount + " segments - not added to forecast groups.");
+	}
+}
+
 /**
 Time series is generated by calling the readTimeSeries method from the NWSRFS_DMI. 
 @param tsident_string Time series identifier string.
@@ -379,4 +731,105 @@ public TS readTimeSeries ( String tsident_string,
 	return ts;
 }
 
+/**
+Refresh the carryover groups, forecast groups and segments after the forecast system has been
+changed by another process (e.g., segments redefined with the System Maintenance panel), using a
+temporary thread pool.  See refresh(ExecutorService).
+@param numThreads the number of threads to use for reading.
+@return true if the forecast system files had changed and the instance was refreshed, false if
+the files have not changed.
+@exception Exception if there is an error reading the carryover or forecast groups.
+*/
+public boolean refresh(int numThreads)
+throws Exception
+{
+	if (numThreads < 1) {
+		numThreads = 1;
+	}
+	ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+	try {
+		return refresh(executor);
+	}
+	finally {
+		executor.shutdown();
+	}
+}
+
+/**
+Refresh the carryover groups, forecast groups and segments after the forecast system has been
+changed by another process (e.g., segments redefined with the System Maintenance panel).
+The sizes and modification times of the Forecast Component files
+(see NWSRFS_DMI.getForecastComponentFileStamps()) are compared with those when the instance
+was read and nothing is done if the files have not changed.  Otherwise the files are reset in the
+DMI (see NWSRFS_DMI.resetForecastComponentFiles()) and:
+<ul>
+<li>	if FCCOGDEF, FCFGSTAT or FCFGLIST changed, the carryover and forecast groups are read again
+	(these are small); otherwise the existing group objects are kept</li>
+<li>	if segments were read with the instance, each segment whose FCSEGPTR/FCSEGSTS definition
+	(see NWSRFS_DMI.readSegmentStamp()) has not changed is reused and only new or redefined
+	segments are read again; if FCCARRY or the groups changed, the carryover for reused segments
+	is read again, which also recomputes the FCCARRY locations of carryover values that are read
+	on demand (compact topology), because slots and record positions may have moved</li>
+</ul>
+The carryover group, forecast group and segment objects that are returned by this instance may
+therefore be replaced.  The DMI must not be used by other threads during the refresh.
+@param executor the executor used to run the reads.  The executor is not shut down.
+@return true if the forecast system files had changed and the instance was refreshed, false if
+the files have not changed.
+@exception Exception if there is an error reading the carryover or forecast groups.
+*/
+public boolean refresh(ExecutorService executor)
+throws Exception
+{
+	String routine = "NWSRFS.refresh";
+	NWSRFS_DMI dmi = getDmiInternal(null);
+	long[] fileStamps = dmi.getForecastComponentFileStamps();
+	if (__fileStamps != null && Arrays.equals(fileStamps, __fileStamps)) {
+		Message.printStatus(2, routine, "Forecast system files have not changed.  Not refreshing.");
+		return false;
+	}
+	String[] fileNames = dmi.getForecastComponentFileNames();
+	boolean groupsChanged = fileChanged(fileNames, fileStamps, "FCCOGDEF") ||
+		fileChanged(fileNames, fileStamps, "FCFGSTAT") || fileChanged(fileNames, fileStamps, "FCFGLIST");
+	boolean carryoverChanged = fileChanged(fileNames, fileStamps, "FCCARRY");
+	Message.printStatus(2, routine, "Forecast system files have changed.  Refreshing (groups changed = " +
+		groupsChanged + ").");
+
+	dmi.resetForecastComponentFiles();
+	if (!dmi.usingConcurrentReads()) {
+		dmi.setConcurrentReads(true);
+	}
+	__fileStamps = fileStamps;
+
+	// Save the segments that may be reused.
+	Map<String,NWSRFS_Segment> reuse = new HashMap<>();
+	List<NWSRFS_ForecastGroup> fgList = new ArrayList<>();
+	for (NWSRFS_CarryoverGroup cg : __carryover_groups) {
+		for (int ifg = 0; ifg < cg.getNumberOfForecastGroups(); ifg++) {
+			NWSRFS_ForecastGroup fg = cg.getForecastGroup(ifg);
+			fgList.add(fg);
+			for (NWSRFS_Segment seg : fg.getSegments()) {
+				if (seg.getSegID() != null) {
+					reuse.put(seg.getSegID().toUpperCase(), seg);
+				}
+			}
+		}
+	}
+
+	boolean compactTopology = dmi.usingCompactTopology();
+	dmi.setCompactTopology(__compactTopology);
+	try {
+		if (groupsChanged) {
+			fgList = readGroups(dmi, __deepRead, executor);
+		}
+		if (__segmentsRead) {
+			readSegments(dmi, fgList, __deepRead, reuse, groupsChanged || carryoverChanged, executor);
+		}
+	}
+	finally {
+		dmi.setCompactTopology(compactTopology);
+	}
+	return true;
+}
+
 } // End NWSRFS
@@ -203,9 +203,26 @@ protected String _opName;
 
 /**
 Holds the Carryover values for the Operation (often called the CO array).
+This is null if the values are read on demand (see setCoCarryoverValuesLocation()).
 */
 protected List _coCarryoverValues;
 
+/**
+The DMI used to read the carryover values on demand, or null if the values are stored in
+_coCarryoverValues.
+*/
+private NWSRFS_DMI __dmi = null;
+
+/**
+The byte position of the carryover values in the FCCARRY file, when read on demand.
+*/
+private long __coCarryoverValuesPosition = -1;
+
+/**
+The number of carryover values, when read on demand.
+*/
+private int __coCarryoverValuesCount = 0;
+
 /**
 Constructor.
 @param segment the parent segment for the object.
@@ -228,10 +245,38 @@ throws Exception {
 }
 	
 /**
-Returns the carryover values for the operation.
+Returns the carryover values for the operation.  If the values are read on demand
+(see setCoCarryoverValuesLocation()) they are read from the FCCARRY file each time
+this method is called and are not retained.  Use readCoCarryoverValues() to handle
+read errors as checked exceptions.
 @return the carryover values for the operation.
+@throws IllegalStateException if the values are read on demand and cannot be read
+(e.g., the DMI has been closed), with the read error as the cause.
 */
 public List getCoCarryoverValues() {
+	if (_coCarryoverValues == null && __dmi != null) {
+		try {
+			return readCoCarryoverValues();
+		}
+		catch (Exception e) {
+			throw new IllegalStateException("Unable to read carryover values for segment \"" + _ISEG
+				+ "\" operation \"" + _opName + "\" slot " + _slotNumber + " (" + e + ").", e);
+		}
+	}
+	return _coCarryoverValues;
+}
+
+/**
+Returns the carryover values for the operation, reading them from the FCCARRY file
+if they are read on demand (see setCoCarryoverValuesLocation()).
+@return the carryover values for the operation.
+@throws Exception if the values are read on demand and cannot be read.
+*/
+public List readCoCarryoverValues()
+throws Exception {
+	if (_coCarryoverValues == null && __dmi != null) {
+		return __dmi.readCarryoverValues(__coCarryoverValuesPosition, __coCarryoverValuesCount);
+	}
 	return _coCarryoverValues;
 }
 
@@ -338,6 +383,21 @@ Sets the carryover values for the operation.
 */
 public void setCoCarryoverValues(List coCarryoverValues) {
 	_coCarryoverValues = coCarryoverValues;
+	__dmi = null;
+}
+
+/**
+Sets the location of the carryover values in the FCCARRY file so that the values are
+read on demand by getCoCarryoverValues() rather than stored in this object.
+@param dmi the DMI used to read the values.
+@param position the byte position of the first value in the FCCARRY file.
+@param count the number of values.
+*/
+public void setCoCarryoverValuesLocation(NWSRFS_DMI dmi, long position, int count) {
+	__dmi = dmi;
+	__coCarryoverValuesPosition = position;
+	__coCarryoverValuesCount = count;
+	_coCarryoverValues = null;
 }
 
 /**
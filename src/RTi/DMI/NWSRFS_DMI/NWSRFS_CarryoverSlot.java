@@ -0,0 +1,251 @@
+// NWSRFS_CarryoverSlot - carryover values for all segments in a carryover group for one slot
+
+package RTi.DMI.NWSRFS_DMI;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+The NWSRFS_CarryoverSlot class stores the carryover (C array) values for all of the
+segments in a carryover group for one carryover slot, as read by
+NWSRFS_DMI.readCarryoverSlot().  The values are stored in primitive arrays indexed by
+segment and operation rather than as NWSRFS_Carryover objects, so that carryover for a
+whole carryover group can be processed (e.g., for QA reports) without creating objects
+for each value.  Segments are in the order of their records in the FCSEGSTS file and
+operations are in the order of the C array.
+*/
+public class NWSRFS_CarryoverSlot {
+
+/**
+The carryover group identifier.
+*/
+private String __cgID;
+
+/**
+The carryover slot number (zero based, see NWSRFS_Carryover.getSlotNumber()).
+*/
+private int __slotNumber;
+
+/**
+The segment identifiers.
+*/
+private List<String> __segmentIDs = new ArrayList<>();
+
+/**
+The Julian day of the carryover values for each segment.
+*/
+private NWSRFS_IntList __ICDAY = new NWSRFS_IntList();
+
+/**
+The internal clock hour of the carryover values for each segment.
+*/
+private NWSRFS_IntList __ICHR = new NWSRFS_IntList();
+
+/**
+The length of the C array for each segment.
+*/
+private NWSRFS_IntList __NC = new NWSRFS_IntList();
+
+/**
+The last update times for each segment.
+*/
+private List<int[]> __LUPTIM = new ArrayList<>();
+
+/**
+The operation numbers for each segment, indexed by segment and operation.
+*/
+private List<int[]> __opNumbers = new ArrayList<>();
+
+/**
+The operation names for each segment, indexed by segment and operation.
+*/
+private List<String[]> __opNames = new ArrayList<>();
+
+/**
+The P array pointers for each segment, indexed by segment and operation.
+*/
+private List<int[]> __coOperationPointers = new ArrayList<>();
+
+/**
+The carryover values for each segment, indexed by segment and operation.
+*/
+private List<float[][]> __values = new ArrayList<>();
+
+/**
+Lookup from the upper case segment identifier to segment index.
+*/
+private Map<String,Integer> __segmentIndex = new HashMap<>();
+
+/**
+Constructor.
+@param cgID the carryover group identifier.
+@param slotNumber the carryover slot number (zero based).
+*/
+public NWSRFS_CarryoverSlot(String cgID, int slotNumber) {
+	__cgID = cgID;
+	__slotNumber = slotNumber;
+}
+
+/**
+Add the carryover for a segment.  This is called by NWSRFS_DMI when reading.
+@param segmentID the segment identifier.
+@param ICDAY the Julian day of the carryover values.
+@param ICHR the internal clock hour of the carryover values.
+@param NC the length of the C array.
+@param LUPTIM the last update times (5 values).
+@param opNumbers the operation numbers.
+@param opNames the operation names.
+@param coOperationPointers the P array pointers for the operations.
+@param values the carryover values for each operation.
+*/
+void addSegment(String segmentID, int ICDAY, int ICHR, int NC, int[] LUPTIM, int[] opNumbers,
+String[] opNames, int[] coOperationPointers, float[][] values) {
+	__segmentIndex.put(segmentID.toUpperCase(), Integer.valueOf(__segmentIDs.size()));
+	__segmentIDs.add(segmentID);
+	__ICDAY.addInt(ICDAY);
+	__ICHR.addInt(ICHR);
+	__NC.addInt(NC);
+	__LUPTIM.add(LUPTIM);
+	__opNumbers.add(opNumbers);
+	__opNames.add(opNames);
+	__coOperationPointers.add(coOperationPointers);
+	__values.add(values);
+}
+
+/**
+Returns the carryover group identifier.
+@return the carryover group identifier.
+*/
+public String getCGID() {
+	return __cgID;
+}
+
+/**
+Returns the P array pointer for an operation in a segment.
+@param segmentIndex the segment index.
+@param opIndex the operation index.
+@return the P array pointer for the operation.
+*/
+public int getCoOperationPointer(int segmentIndex, int opIndex) {
+	return __coOperationPointers.get(segmentIndex)[opIndex];
+}
+
+/**
+Returns the carryover values for an operation in a segment.  The array is not copied.
+@param segmentIndex the segment index.
+@param opIndex the operation index.
+@return the carryover values for the operation.
+*/
+public float[] getCoCarryoverValues(int segmentIndex, int opIndex) {
+	return __values.get(segmentIndex)[opIndex];
+}
+
+/**
+Returns the Julian day of the carryover values for a segment.
+@param segmentIndex the segment index.
+@return the Julian day of the carryover values.
+*/
+public int getICDAY(int segmentIndex) {
+	return __ICDAY.getInt(segmentIndex);
+}
+
+/**
+Returns the internal clock hour of the carryover values for a segment.
+@param segmentIndex the segment index.
+@return the internal clock hour of the carryover values.
+*/
+public int getICHR(int segmentIndex) {
+	return __ICHR.getInt(segmentIndex);
+}
+
+/**
+Returns the last update times for a segment.  The array is not copied.
+@param segmentIndex the segment index.
+@return the last update times (5 values).
+*/
+public int[] getLUPTIM(int segmentIndex) {
+	return __LUPTIM.get(segmentIndex);
+}
+
+/**
+Returns the length of the C array for a segment.
+@param segmentIndex the segment index.
+@return the length of the C array.
+*/
+public int getNC(int segmentIndex) {
+	return __NC.getInt(segmentIndex);
+}
+
+/**
+Returns the number of operations with carryover in a segment.
+@param segmentIndex the segment index.
+@return the number of operations.
+*/
+public int getNumberOfOperations(int segmentIndex) {
+	return __opNumbers.get(segmentIndex).length;
+}
+
+/**
+Returns the number of segments.
+@return the number of segments.
+*/
+public int getNumberOfSegments() {
+	return __segmentIDs.size();
+}
+
+/**
+Returns the operation name for an operation in a segment.
+@param segmentIndex the segment index.
+@param opIndex the operation index.
+@return the operation name.
+*/
+public String getOpName(int segmentIndex, int opIndex) {
+	return __opNames.get(segmentIndex)[opIndex];
+}
+
+/**
+Returns the operation number for an operation in a segment.
+@param segmentIndex the segment index.
+@param opIndex the operation index.
+@return the operation number.
+*/
+public int getOpNumber(int segmentIndex, int opIndex) {
+	return __opNumbers.get(segmentIndex)[opIndex];
+}
+
+/**
+Returns the segment identifier at an index.
+@param segmentIndex the segment index.
+@return the segment identifier.
+*/
+public String getSegmentID(int segmentIndex) {
+	return __segmentIDs.get(segmentIndex);
+}
+
+/**
+Returns the index of a segment (case insensitive).
+@param segmentID the segment identifier.
+@return the index of the segment, or -1 if the segment is not in the carryover slot.
+*/
+public int getSegmentIndex(String segmentID) {
+	if (segmentID == null) {
+		return -1;
+	}
+	Integer index = __segmentIndex.get(segmentID.toUpperCase());
+	if (index == null) {
+		return -1;
+	}
+	return index.intValue();
+}
+
+/**
+Returns the carryover slot number (zero based).
+@return the carryover slot number.
+*/
+public int getSlotNumber() {
+	return __slotNumber;
+}
+
+}
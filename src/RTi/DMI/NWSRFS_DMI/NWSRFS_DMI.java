@@ -11,12 +11,31 @@ import java.io.IOException;
 import java.io.OutputStream;
 
 import java.lang.reflect.Array;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Hashtable;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Vector;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 /*
 import RTi.DMI.NWSRFS_DMI.NWSRFS_Carryover;
 import RTi.DMI.NWSRFS_DMI.NWSRFS_CarryoverGroup;
@@ -29,7 +48,7 @@ import RTi.DMI.NWSRFS_DMI.NWSRFS_MAT;
 import RTi.DMI.NWSRFS_DMI.NWSRFS_NTWK;
 import RTi.DMI.NWSRFS_DMI.NWSRFS_Operation;
 import RTi.DMI.NWSRFS_DMI.NWSRFS_ORRS;
-//import RTi.DMI.NWSRFS_DMI.NWSRFS_PDBDLY;
+import RTi.DMI.NWSRFS_DMI.NWSRFS_PDBDLY;
 import RTi.DMI.NWSRFS_DMI.NWSRFS_PDBINDEX;
 import RTi.DMI.NWSRFS_DMI.NWSRFS_PDBRRS;
 import RTi.DMI.NWSRFS_DMI.NWSRFS_PPPINDEX;
@@ -122,6 +141,17 @@ The length of a word in bytes.  Used to avoid magic numbers.
 */
 private final int __WORDSIZE = 4;
 
+/**
+The number of records read in one block when sequentially reading index files with
+NWSRFS_RecordReader.  64 kilobytes for the 16 byte index records.
+*/
+private final int __INDEX_BLOCK_RECORDS = 4096;
+
+/**
+The PPPINDEX parameter types that define stations.
+*/
+private final String[] __PPP_STATION_TYPES = { "GENL", "PCPN", "PE", "RRS", "TEMP" };
+
 /**
 The byte length of a record in the above binary files.
 */
@@ -190,6 +220,14 @@ private boolean[] __isOpen = {
 				false,		// PDBDLY5
 				false};		// USERPARM
 
+/**
+The Forecast Component database files that define the forecast system topology
+(carryover groups, forecast groups, segments, operations and carryover), used to detect changes.
+See getForecastComponentFileStamps().
+*/
+private final int[] __FC_FILES = {
+		__FCCARRY, __FCCOGDEF, __FCFGLIST, __FCFGSTAT, __FCPARAM, __FCRATING, __FCRCPTR, __FCSEGPTR, __FCSEGSTS };
+
 /**
 The filename Strings associated with the above indices.
 */
@@ -386,22 +424,158 @@ use the fs5files, if false do not.
 private boolean __useFS5Files; 
 
 /**
-Hashtable for TS tsid values to check for existence in a very fast manner.
+Cache of time series, keyed by TSID.DataType.Interval (with "~PPDB" appended for
+preprocessor database time series).  Time series found by the processed database
+existence checks are always cached, and time series read with data are cached if
+__cacheTS is true.  See setTimeSeriesCacheLimits().
 */
-private Hashtable<String,NWSRFS_TimeSeries> __tsHashtable = null;
+private NWSRFS_TimeSeriesCache __tsCache = null;
 
 /**
-Hashtable for TS Data Type and Logical Unit values to check for existence in a very fast manner.
+The default maximum number of cached time series.
 */
-private Hashtable<String,Integer> __tsDTUHashtable = null;
+private final static int __DEFAULT_TS_CACHE_ENTRIES = 1000;
+
+/**
+The default maximum estimated size of the cached time series in bytes.
+*/
+private final static long __DEFAULT_TS_CACHE_BYTES = 64L*1024*1024;
+
+/**
+Time series cache sources, used to invalidate the cached time series when the
+processed database (PRD) or preprocessor database (PDB) files change.
+*/
+private final static int
+	__TS_SOURCE_PRD = 0,
+	__TS_SOURCE_PDB = 1;
+
+/**
+Minimum time in milliseconds between checks of the time series database files for
+changes.  See checkTimeSeriesCacheFiles().
+*/
+private final static long __TS_CACHE_CHECK_INTERVAL = 1000;
+
+/**
+The time when the time series database files were last checked for changes.
+*/
+private volatile long __tsCacheCheckTime = 0;
+
+/**
+The stamps of the PRD and PDB files when last checked (see getDBFilesStamp()),
+indexed by __TS_SOURCE_PRD and __TS_SOURCE_PDB.
+*/
+private long[] __tsCacheFileStamps = { 0, 0 };
+
+/**
+Map of TS Data Type to Logical Unit values to check for existence in a very fast manner.
+*/
+private Map<String,Integer> __tsDTUHashtable = null;
 
 /**
 A boolean specifying whether to cache the Time Series values or not.
 It is often advantageous to used cached TS data to speed processes but
-it also makes the data become "Outdated".
+it also makes the data become "Outdated".  See setCacheTimeSeries().
 */
 private boolean __cacheTS = false;
 
+/**
+Whether the topology objects read from the forecast component files are stored compactly.
+See setCompactTopology().
+*/
+private boolean __compactTopology = false;
+
+/**
+The default maximum number of FCPARAM operation parameter records that are cached.
+See setOperationParameterCacheSize().
+*/
+private final static int __DEFAULT_OP_PARAM_CACHE_SIZE = 250;
+
+/**
+Cache of FCPARAM operation parameter records (the P, T, and TS arrays for a segment),
+keyed by the FCPARAM file identity and the segment parameter record (IPREC).
+See setOperationParameterCacheSize().
+*/
+private NWSRFS_LRUCache<String,byte[]> __opParamCache =
+	new NWSRFS_LRUCache<>(__DEFAULT_OP_PARAM_CACHE_SIZE);
+
+/**
+The FCPARAM file identity (path, size and modification time) for the cached
+operation parameter records.  If the file changes the cache is cleared.
+*/
+private volatile String __opParamCacheIdentity = null;
+
+/**
+The time (milliseconds) when the FCPARAM file identity was last checked.  The file is checked
+at most once every __OP_PARAM_CHECK_INTERVAL milliseconds, rather than on every read.
+*/
+private volatile long __opParamCacheCheckTime = 0;
+
+/**
+The interval (milliseconds) between checks of the FCPARAM file identity.  Changes made by this
+DMI clear the cache immediately (see write() and resetForecastComponentFiles()).
+*/
+private final static long __OP_PARAM_CHECK_INTERVAL = 2000;
+
+/**
+Whether concurrent reads are enabled.  See setConcurrentReads().  Volatile because it is read
+by the reading threads without a lock.
+*/
+private volatile boolean __concurrentReads = false;
+
+/**
+The database files opened by each thread when concurrent reads are enabled.
+*/
+private volatile ThreadLocal<EndianRandomAccessFile[]> __threadDBFiles = null;
+
+/**
+Whether each database file is open for each thread when concurrent reads are enabled.
+*/
+private volatile ThreadLocal<boolean[]> __threadIsOpen = null;
+
+/**
+Thread pool used by readTimeSeriesList(List,...,int), created when first needed and reused
+by later calls.  The pool threads end when idle and the pool is shut down by close().
+*/
+private ThreadPoolExecutor __readExecutor = null;
+
+/**
+Record reader for each thread, reused by the read methods that decode single records.
+*/
+private ThreadLocal<NWSRFS_RecordReader> __threadRecordReader = new ThreadLocal<NWSRFS_RecordReader>() {
+	protected NWSRFS_RecordReader initialValue() {
+		return new NWSRFS_RecordReader(__isBigEndian);
+	}
+};
+
+/**
+The per-thread database file arrays by thread, used to close the files.  The files of threads
+that have ended are closed when another thread starts reading (see pruneThreadFiles()).
+This map is also the lock for __threadIsOpenMap.
+*/
+private Map<Thread,EndianRandomAccessFile[]> __threadDBFileMap = new HashMap<>();
+
+/**
+The per-thread open flag arrays by thread, used to reset the flags when the files are closed.
+*/
+private Map<Thread,boolean[]> __threadIsOpenMap = new HashMap<>();
+
+/**
+Whether to access read-only database files through memory-mapped buffers.  See setUseMemoryMappedFiles().
+*/
+private boolean __useMemoryMappedFiles = false;
+
+/**
+The array of read-only memory-mapped buffers for the binary database files, parallel to __NWSRFS_DBFiles.
+An element is null if the file is not open or is not mapped.
+*/
+private MappedByteBuffer[] __mappedDBFiles = null;
+
+/**
+Persistent sidecar cache for the PDBINDEX, PPPINDEX and PRDINDEX index objects, or null if
+sidecar files are not used.  See setIndexCacheDirectory().
+*/
+private NWSRFS_IndexCache __indexCache = null;
+
 /**
 Properties of the fs5files. This includes Apps_defaults tokens fs5files and rfs_sys_dir.
 */
@@ -516,12 +690,18 @@ public NWSRFS_DMI(NWSRFS_DMI dmi) {
 	__input_name = dmi.getInputName();
 	__opened_with_AppsDefaults = dmi.openedWithAppsDefaults();
 	__NWSRFS_DBFiles = dmi.getNWSRFSDBFiles(); 
+	__mappedDBFiles = dmi.__mappedDBFiles;
+	__useMemoryMappedFiles = dmi.usingMemoryMappedFiles();
+	__compactTopology = dmi.usingCompactTopology();
+	__opParamCache = dmi.__opParamCache;
+	__indexCache = dmi.__indexCache;
 	__useFS5Files = dmi.usingFS5Files(); 
 	__isOpen = dmi.isOpen();
 	__isBigEndian = dmi.usingBigEndian();
 	__NWSRFS_properties = dmi.getNWSRFSProperties();
-	__tsHashtable = dmi.getTSHashtable();
-	__tsDTUHashtable = dmi.getTSDTUHashtable();
+	__tsCache = dmi.getTSCache();
+	__tsDTUHashtable = dmi.__tsDTUHashtable;
+	__cacheTS = dmi.usingCachedTimeSeries();
 	_fcrcptr = dmi.getFcrcptr(); 
 	_fcsegptr = dmi.getFcsegptr(); 
 	_pdbindex = dmi.getPDBIndex();
@@ -645,50 +825,55 @@ Checks to see if the file pointed to by filePointer is open.  If not it opens it
 */
 private boolean checkRandomAccessFileOpen(int filePointer, boolean readOFSFS5Files, boolean readWrite) {
 	String routine = "NWSRFS_DMI.checkRandomAccessFileOpen";
+	// The files for the current thread (the shared files unless concurrent reads are enabled)
+	EndianRandomAccessFile[] dbFiles = getDBFileArray();
+	boolean[] isOpen = getIsOpenArray();
 
 	try {
-		// If the__isOpen[fileIndex] is false open the database binary file as a Random Access object
-		if (!__isOpen[filePointer]) {
+		// If the isOpen[fileIndex] is false open the database binary file as a Random Access object
+		if (!isOpen[filePointer]) {
 			if (__useFS5Files && readOFSFS5Files) {
 				if(readWrite) {
-					__NWSRFS_DBFiles[filePointer] 
+					dbFiles[filePointer] 
 						= new EndianRandomAccessFile(__fs5FilesLocation	+ __dbFileNames[filePointer], "rw");
 				
 						Message.printStatus(10,routine,
 						"__dbFileNames[filePointer] = "+ __dbFileNames[filePointer]+ " is now open read/write");
 				}
 				else {
-					__NWSRFS_DBFiles[filePointer] 
+					dbFiles[filePointer] 
 						= new EndianRandomAccessFile(__fs5FilesLocation + __dbFileNames[filePointer], "r");
 				
 						Message.printStatus(10,routine,
 						"__dbFileNames[filePointer] = "+ __dbFileNames[filePointer]+ " is now open read only");
+					mapDBFile(filePointer);
 				}
 			}
 			else {
 				if(readWrite) {
-					__NWSRFS_DBFiles[filePointer] = new EndianRandomAccessFile( __dbFileNames[filePointer], "rw");
+					dbFiles[filePointer] = new EndianRandomAccessFile( __dbFileNames[filePointer], "rw");
 				
 						Message.printStatus(10,routine,
 						"__dbFileNames[filePointer] = "+ __dbFileNames[filePointer]+ " is now open read/write");
 				}
 				else {
-					__NWSRFS_DBFiles[filePointer] = new EndianRandomAccessFile( __dbFileNames[filePointer], "r");
+					dbFiles[filePointer] = new EndianRandomAccessFile( __dbFileNames[filePointer], "r");
 				
 						Message.printStatus(10,routine,
 						"__dbFileNames[filePointer] = "+ __dbFileNames[filePointer]+ " is now open read only");
+					mapDBFile(filePointer);
 				}
 			}
-			__isOpen[filePointer] = true;
+			isOpen[filePointer] = true;
 		}
 		else {
-			rewind(__NWSRFS_DBFiles[filePointer]);
+			rewind(dbFiles[filePointer]);
 		}
 	}
 	catch (Exception e) {
 		// TODO (JTS - 2004-08-18) why not handle the exception, get more information about
 		// what failed and print some warning messages?
-		__isOpen[filePointer] = false;
+		isOpen[filePointer] = false;
 		Message.printWarning(10,routine,e);
 		exceptionCount++;
 		return false;
@@ -696,6 +881,41 @@ private boolean checkRandomAccessFileOpen(int filePointer, boolean readOFSFS5Fil
 	return true;
 }
 
+/**
+Check whether the processed database (PRD) and preprocessor database (PDB) files have
+changed since they were last checked and if so discard the cached time series read from
+the changed files.  The files are checked at most once every __TS_CACHE_CHECK_INTERVAL
+milliseconds so that cached reads do not need to check the files each time.
+*/
+private void checkTimeSeriesCacheFiles() {
+	long now = System.currentTimeMillis();
+	if (now - __tsCacheCheckTime < __TS_CACHE_CHECK_INTERVAL) {
+		return;
+	}
+	__tsCacheCheckTime = now;
+	long[] stamps = {
+		getDBFilesStamp(new int[] { __PRDINDEX, __PRDPARM, __PRDTS1, __PRDTS1 + 1,
+			__PRDTS1 + 2, __PRDTS1 + 3, __PRDTS1 + 4 }),
+		getDBFilesStamp(new int[] { __PDBINDEX, __PDBRRS, __PDBRRS + 1, __PDBRRS + 2,
+			__PDBRRS + 3, __PDBRRS + 4, __PDBRRS + 5 })
+	};
+	synchronized (__tsCacheFileStamps) {
+		for (int i = 0; i < stamps.length; i++) {
+			if (stamps[i] != __tsCacheFileStamps[i]) {
+				if (__tsCacheFileStamps[i] != 0) {
+					Message.printStatus(2, "NWSRFS_DMI.checkTimeSeriesCacheFiles",
+						"Time series database files have changed.  Discarding cached time series.");
+				}
+				__tsCache.invalidate(i);
+				if (i == __TS_SOURCE_PRD) {
+					__tsDTUHashtable.clear();
+				}
+				__tsCacheFileStamps[i] = stamps[i];
+			}
+		}
+	}
+}
+
 /**
 Checks to see if the time series exists in the binary Fortran database.
 @param ts the time series to check.  Cannot be null.
@@ -712,10 +932,11 @@ throws Exception {
 	}
 
 	tsIdentKey = ts.getTSID() + "." + ts.getTSDataType() + "." + ts.getTSDTInterval();
-	Message.printStatus(10, routine, "tsIdentKey = " + tsIdentKey 
-		+ " __tsHashtable.containsKey(tsIdentKey) = " + __tsHashtable.containsKey(tsIdentKey));	
+	checkTimeSeriesCacheFiles();
+	boolean cached = (__tsCache.get(tsIdentKey) != null);
+	Message.printStatus(10, routine, "tsIdentKey = " + tsIdentKey + " in cache = " + cached);
 
-	if(__tsHashtable.containsKey(tsIdentKey)) {
+	if(cached) {
 		if (IOUtil.testing()) {
 			Message.printStatus(10, "", "tsIdentKey '"+ tsIdentKey + "' in hash table.");
 		}
@@ -723,8 +944,8 @@ throws Exception {
 	}
 	
 	if(checkTimeSeriesExists(ts.getTSID(), ts.getTSDataType(), ts.getTSDTInterval())) {
-		// Put the the tsID into the hash table for future checks.
-		__tsHashtable.put(tsIdentKey,ts);
+		// Put the the tsID into the cache for future checks.
+		__tsCache.put(tsIdentKey,ts,__TS_SOURCE_PRD);
 	}
 	else {
 		return false;
@@ -750,10 +971,11 @@ throws Exception {
 	}
 
 	tsIdentKey = ts.getTSID() + "." + ts.getTSDataType() + "." + ts.getTSDTInterval();
-	Message.printStatus(10, routine, "tsIdentKey = " + tsIdentKey 
-		+ " __tsHashtable.containsKey(tsIdentKey) = " + __tsHashtable.containsKey(tsIdentKey));	
+	checkTimeSeriesCacheFiles();
+	boolean cached = (__tsCache.get(tsIdentKey) != null);
+	Message.printStatus(10, routine, "tsIdentKey = " + tsIdentKey + " in cache = " + cached);
 
-	if(__tsHashtable.containsKey(tsIdentKey)) {
+	if(cached) {
 		if (IOUtil.testing()) {
 			Message.printStatus(10, "", "tsIdentKey '" + tsIdentKey + "' in hash table.");
 		}
@@ -761,8 +983,8 @@ throws Exception {
 	}
 	
 	if(checkTimeSeriesExists(ts.getTSID(), ts.getTSDataType(), ts.getTSDTInterval(), alsoCheckDataExist)) {
-		// Put the the tsID into the hash table for future checks.
-		__tsHashtable.put(tsIdentKey,ts);
+		// Put the the tsID into the cache for future checks.
+		__tsCache.put(tsIdentKey,ts,__TS_SOURCE_PRD);
 	}
 	else {
 		return false;
@@ -839,14 +1061,14 @@ throws Exception {
 		// for the Time series in the PRDTSn binary file.
 
 		// Skip the first first record (240 bytes) and go to the 241 byte
-		EDIS = read(__NWSRFS_DBFiles[__PRDPARM],0,240);
+		EDIS = read(getDBFile(__PRDPARM),0,240);
 		EDIS.close();
 	
 		while (true) {
 			// Read until EOF or break.
 			try {
 				// Read the subsequent records (72 bytes) 
-				EDIS = read(__NWSRFS_DBFiles[__PRDPARM], 0,	__byteLength[__PRDPARM]);
+				EDIS = read(getDBFile(__PRDPARM), 0,	__byteLength[__PRDPARM]);
 
 				// Field 1 - [type field name here]
 				charValue = new char[4];
@@ -903,7 +1125,7 @@ throws Exception {
 		}
 
 // TODO (JTS - 2004-08-21) explain the magic number 4 and 5		
-		EDIS = read(__NWSRFS_DBFiles[prdIndex],0, 4, 5);
+		EDIS = read(getDBFile(prdIndex),0, 4, 5);
 		if (unitNum == EDIS.readEndianInt()) {
 			break;
 		}
@@ -913,13 +1135,13 @@ throws Exception {
 	}
 
 	// Check the PRDTSn to see if it is null!
-	if (__NWSRFS_DBFiles[prdIndex] == null) {
+	if (getDBFile(prdIndex) == null) {
 		Message.printWarning(10, routine,"No time series of data type: "+ tsDT + " was found.");
 		return false;
 	}
 
 	// Rewind the PRDTSn to prepare for the TS read.
-	rewind(__NWSRFS_DBFiles[prdIndex]);
+	rewind(getDBFile(prdIndex));
 
 	// Now read the Time Series index object to get the Record number
 	// for the Time series in the PRDTSn binary file.
@@ -933,28 +1155,20 @@ throws Exception {
 	// which matches TSID and TSDT... Ugly but there is no other way to do it
 	// given the structure of the FS5Files.
 
-	prdTSIDSize = ((getPRDIndex()).getTSID()).size();
+	// The index lookup returns only the entries that match the TS ID and TS Data Type.
+	int[] prdPositions = getPRDIndex().getIndexPositions(tsID, tsDT);
+	prdTSIDSize = prdPositions.length;
 	
 	boolean found = false;
 	
 	for (i = 0; i < prdTSIDSize; i++) {
-		// Check the TS ID to see if we match
-		if (!((getPRDIndex()).getTSID(i)).equalsIgnoreCase(tsID)) {
-			continue;
-		}
-
-		// Check the TS Data Type to see if we match
-		if (!((getPRDIndex()).getTSDT(i)).equalsIgnoreCase(tsDT)) {
-			continue;
-		}
-
-		// If we match the TS ID and TS Data Type the get record number
-		recordNum = (getPRDIndex()).getIREC(i);
+		// The TS ID and TS Data Type match so get record number
+		recordNum = (getPRDIndex()).getIREC(prdPositions[i]);
 
 		// Now call readPRDTS to first see if we have the right record
 		// then read the TS datafile to see if TS exists! The false tells the
 		// method not to read all the data.
-		if (readPRDTS(__NWSRFS_DBFiles[prdIndex], recordNum, tsFile,
+		if (readPRDTS(getDBFile(prdIndex), recordNum, tsFile,
 		    false)) {
 			found = true;
 			break;
@@ -980,6 +1194,17 @@ throws Exception {
 	}
 }
 
+/**
+Clear the cache of FCPARAM operation parameter records used by readOperations().
+The cache is cleared automatically when the FCPARAM file changes (checked every few
+seconds), when the DMI writes to a database file, and when resetForecastComponentFiles() is called.
+*/
+public void clearOperationParameterCache() {
+	__opParamCache.clear();
+	__opParamCacheIdentity = null;
+	__opParamCacheCheckTime = 0;
+}
+
 /**
 Close the NWSRFS processed database files. It will loop through the 
 __NWSRFS_DBFiles EndianRandomAccessFile objects and close them.
@@ -990,7 +1215,15 @@ public void close()
 throws Exception {
 	List<String> filenames = new ArrayList<>();
 
+	synchronized (this) {
+		if (__readExecutor != null) {
+			__readExecutor.shutdown();
+			__readExecutor = null;
+		}
+	}
+
 	for (int i = 0; i < __dbFileNames.length; i++) {
+		__mappedDBFiles[i] = null;
 		if (__isOpen[i]) {
 			try {
 				__NWSRFS_DBFiles[i].close();
@@ -1003,6 +1236,14 @@ throws Exception {
 		}
 	}
 
+	// Also close the files that were opened by reading threads, whether or not concurrent
+	// reads are still enabled.  The threads open the files again if they read again.
+	synchronized (__threadDBFileMap) {
+		for (Map.Entry<Thread,EndianRandomAccessFile[]> entry : __threadDBFileMap.entrySet()) {
+			closeThreadFiles(entry.getValue(), __threadIsOpenMap.get(entry.getKey()), filenames);
+		}
+	}
+
 	int size = filenames.size();
 	if (size > 0) {
 		String error = null;
@@ -1023,6 +1264,90 @@ throws Exception {
 	}
 } 
 
+/**
+Close a database file for all threads so that it is opened again (and memory mapped
+again if memory-mapped files are used) on the next read.
+@param filePointer the database file index (e.g., __FCSEGSTS).
+*/
+private synchronized void closeDBFile(int filePointer) {
+	String routine = "NWSRFS_DMI.closeDBFile";
+	__mappedDBFiles[filePointer] = null;
+	if (__isOpen[filePointer]) {
+		try {
+			__NWSRFS_DBFiles[filePointer].close();
+		}
+		catch (Throwable e) {
+			Message.printWarning(3, routine, "Could not close file: " + __dbFileNames[filePointer]);
+		}
+		__isOpen[filePointer] = false;
+	}
+	synchronized (__threadDBFileMap) {
+		for (Map.Entry<Thread,EndianRandomAccessFile[]> entry : __threadDBFileMap.entrySet()) {
+			EndianRandomAccessFile[] dbFiles = entry.getValue();
+			if (dbFiles == __NWSRFS_DBFiles) {
+				continue;
+			}
+			if (dbFiles[filePointer] != null) {
+				try {
+					dbFiles[filePointer].close();
+				}
+				catch (Throwable e) {
+					Message.printWarning(3, routine, "Could not close file: " + __dbFileNames[filePointer]);
+				}
+				dbFiles[filePointer] = null;
+			}
+			boolean[] isOpen = __threadIsOpenMap.get(entry.getKey());
+			if (isOpen != null) {
+				isOpen[filePointer] = false;
+			}
+		}
+	}
+}
+
+/**
+Close the database files opened by one reading thread and reset its open flags.
+The files shared with the thread that enabled concurrent reads are not closed here.
+Must be called while synchronized on __threadDBFileMap.
+@param dbFiles the database files for the thread.
+@param isOpen the open flags for the thread (may be null).
+@param filenames list to which the names of files that could not be closed are added.
+*/
+private void closeThreadFiles(EndianRandomAccessFile[] dbFiles, boolean[] isOpen, List<String> filenames) {
+	if (dbFiles == __NWSRFS_DBFiles) {
+		return;
+	}
+	for (int i = 0; i < dbFiles.length; i++) {
+		if (dbFiles[i] != null) {
+			try {
+				dbFiles[i].close();
+			}
+			catch (Throwable e) {
+				if (!filenames.contains(__dbFileNames[i])) {
+					filenames.add(__dbFileNames[i]);
+				}
+			}
+			dbFiles[i] = null;
+		}
+		if (isOpen != null) {
+			isOpen[i] = false;
+		}
+	}
+}
+
+/**
+Return the string to store in a topology object.  If compact topology is enabled
+(see setCompactTopology()) the interned string is returned so that identifiers that
+are repeated in many operations and segments share one instance.
+@param s the string parsed from a database record.
+@return the string to store.
+*/
+private String compactString(String s) {
+	if (__compactTopology && s != null) {
+		return s.intern();
+	}
+	return s;
+}
+
 /**
 Determine the NWSRFS Fortran database version.
 TODO 05/26/2004 SAT to determine a means by which to tell which version of the NWSRFS binary database it is.
@@ -1057,6 +1382,21 @@ public NWSRFS_FCRCPTR getFcrcptr() {
 	return _fcrcptr;
 }
 
+/**
+Returns the object storing index values for the FCRATING rating curve file, reading
+the FCRCPTR file if it has not been read.  This is synchronized so that the file is
+read only once when several threads read rating curves (see setConcurrentReads()).
+@return the object storing index values for the FCRATING rating curve file.
+@throws Exception if there is an error reading the FCRCPTR file.
+*/
+private synchronized NWSRFS_FCRCPTR getFcrcptrInternal()
+throws Exception {
+	if (_fcrcptr == null) {
+		_fcrcptr = readFCRCPTR();
+	}
+	return _fcrcptr;
+}
+
 /**
 Returns the object storing index values for the FCSEGSTS rating curve file.
 @return the object storing index values for the FCSEGSTS rating curve file.
@@ -1065,6 +1405,21 @@ public NWSRFS_FCSEGPTR getFcsegptr() {
 	return _fcsegptr;
 }
 
+/**
+Returns the object storing index values for the FCSEGSTS file, reading the FCSEGPTR
+file if it has not been read.  This is synchronized so that the file is read only
+once when several threads read segments (see setConcurrentReads()).
+@return the object storing index values for the FCSEGSTS file.
+@throws Exception if there is an error reading the FCSEGPTR file.
+*/
+private synchronized NWSRFS_FCSEGPTR getFcsegptrInternal()
+throws Exception {
+	if (_fcsegptr == null) {
+		_fcsegptr = readFCSEGPTR();
+	}
+	return _fcsegptr;
+}
+
 /**
 Returns the path to the FS5 files.  The private String __fs5FilesLocation holds the path and
 includes a trailing slash. This method removes the trailing slash for applications which are not expecting it.
@@ -1079,6 +1434,104 @@ public String getFS5FilesLocation() {
 	}
 }
 
+/**
+Returns the names of the Forecast Component database files that define the forecast system
+topology, in the order used by getForecastComponentFileStamps().
+@return the names of the Forecast Component database files.
+*/
+public String[] getForecastComponentFileNames() {
+	String[] names = new String[__FC_FILES.length];
+	for (int i = 0; i < __FC_FILES.length; i++) {
+		names[i] = __dbFileNames[__FC_FILES[i]];
+	}
+	return names;
+}
+
+/**
+Returns the sizes and modification times of the Forecast Component database files that
+define the forecast system topology, which can be compared with a previous result to detect
+changes to the forecast system (e.g., by NWSRFS.refresh()).  The files are in the order returned
+by getForecastComponentFileNames().  A file that does not exist has a size and time of zero.
+@return an array with the size (element 2*i) and modification time (element 2*i + 1) of each file.
+*/
+public long[] getForecastComponentFileStamps() {
+	long[] stamps = new long[__FC_FILES.length*2];
+	for (int i = 0; i < __FC_FILES.length; i++) {
+		File f = getDBFileObject(__FC_FILES[i]);
+		stamps[2*i] = f.length();
+		stamps[2*i + 1] = f.lastModified();
+	}
+	return stamps;
+}
+
+/**
+Returns the directory used for index sidecar files, or null if sidecar files are not used.
+@return the directory used for index sidecar files, or null if sidecar files are not used.
+*/
+public String getIndexCacheDirectory() {
+	if (__indexCache == null) {
+		return null;
+	}
+	return __indexCache.getDirectory().getPath();
+}
+
+/**
+Returns the File for a database file.
+@param filePointer the database file index (e.g., __PRDINDEX).
+@return the File for the database file.
+*/
+private File getDBFileObject(int filePointer) {
+	if (__useFS5Files) {
+		return new File(__fs5FilesLocation + __dbFileNames[filePointer]);
+	}
+	else {
+		return new File(__dbFileNames[filePointer]);
+	}
+}
+
+/**
+Returns a value computed from the sizes and modification times of database files,
+which changes if any of the files change.
+@param filePointers the database file indices (e.g., __PRDINDEX).
+@return a value computed from the sizes and modification times of the files.
+*/
+private long getDBFilesStamp(int[] filePointers) {
+	long stamp = 17;
+	for (int i = 0; i < filePointers.length; i++) {
+		File f = getDBFileObject(filePointers[i]);
+		stamp = 31*stamp + f.length();
+		stamp = 31*stamp + f.lastModified();
+	}
+	return stamp;
+}
+
+/**
+Return the open database file for the calling thread.  If concurrent reads are
+enabled each thread has its own set of open files, so that file positions are
+independent, otherwise all threads share the same files.
+@param filePointer the database file index (e.g., __PRDINDEX).
+@return the database file, or null if the file has not been opened by (or for) the calling thread.
+*/
+private EndianRandomAccessFile getDBFile(int filePointer) {
+	ThreadLocal<EndianRandomAccessFile[]> threadDBFiles = __threadDBFiles;
+	if (__concurrentReads && (threadDBFiles != null)) {
+		return threadDBFiles.get()[filePointer];
+	}
+	return __NWSRFS_DBFiles[filePointer];
+}
+
+/**
+Return the array of database files for the calling thread.  See getDBFile().
+@return the array of database files for the calling thread.
+*/
+private EndianRandomAccessFile[] getDBFileArray() {
+	ThreadLocal<EndianRandomAccessFile[]> threadDBFiles = __threadDBFiles;
+	if (__concurrentReads && (threadDBFiles != null)) {
+		return threadDBFiles.get();
+	}
+	return __NWSRFS_DBFiles;
+}
+
 /**
 Return the input name, used with time series identifiers.
 */
@@ -1086,6 +1539,83 @@ public String getInputName ()
 {	return __input_name;
 }
 
+/**
+Return the memory-mapped buffer for an open database file.
+@param raFile the open database file.
+@return the memory-mapped buffer for the file, or null if the file is not one of
+the database files or is not mapped.
+*/
+private MappedByteBuffer getMappedBuffer(EndianRandomAccessFile raFile) {
+	if (!__useMemoryMappedFiles || raFile == null) {
+		return null;
+	}
+	EndianRandomAccessFile[] dbFiles = getDBFileArray();
+	for (int i = 0; i < dbFiles.length; i++) {
+		if (dbFiles[i] == raFile) {
+			return __mappedDBFiles[i];
+		}
+	}
+	return null;
+}
+
+/**
+Return the thread pool used by readTimeSeriesList(List,...,int), creating it if necessary.
+@param numThreads the number of threads for the pool (values less than 1 are treated as 1).
+@return the thread pool.
+*/
+private synchronized ExecutorService getReadExecutor(int numThreads) {
+	if (numThreads < 1) {
+		numThreads = 1;
+	}
+	if (__readExecutor == null || __readExecutor.isShutdown()) {
+		__readExecutor = new ThreadPoolExecutor(numThreads, numThreads, 60L, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+			private int __count = 0;
+			public synchronized Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, "NWSRFS_DMI-read-" + (++__count));
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		__readExecutor.allowCoreThreadTimeOut(true);
+	}
+	else if (numThreads > __readExecutor.getMaximumPoolSize()) {
+		__readExecutor.setMaximumPoolSize(numThreads);
+		__readExecutor.setCorePoolSize(numThreads);
+	}
+	else if (numThreads < __readExecutor.getMaximumPoolSize()) {
+		__readExecutor.setCorePoolSize(numThreads);
+		__readExecutor.setMaximumPoolSize(numThreads);
+	}
+	return __readExecutor;
+}
+
+/**
+Return the record reader for the calling thread, used to decode single records.
+@return the record reader for the calling thread.
+*/
+private NWSRFS_RecordReader getRecordReader() {
+	NWSRFS_RecordReader reader = __threadRecordReader.get();
+	if (reader.isBigEndian() != __isBigEndian) {
+		// The byte order is determined when the database is opened
+		reader = new NWSRFS_RecordReader(__isBigEndian);
+		__threadRecordReader.set(reader);
+	}
+	return reader;
+}
+
+/**
+Return the array indicating which database files are open for the calling thread.  See getDBFile().
+@return the array indicating which database files are open for the calling thread.
+*/
+private boolean[] getIsOpenArray() {
+	ThreadLocal<boolean[]> threadIsOpen = __threadIsOpen;
+	if (__concurrentReads && (threadIsOpen != null)) {
+		return threadIsOpen.get();
+	}
+	return __isOpen;
+}
+
 /**
 Returns the array of NWSRFS Database files.
 @return the array of NWSRFS Database files.
@@ -1102,11 +1632,351 @@ public PropList getNWSRFSProperties() {
 	return __NWSRFS_properties;
 }
 
+/**
+Returns the maximum number of FCPARAM operation parameter records that are cached.
+See setOperationParameterCacheSize().
+@return the maximum number of cached operation parameter records.
+*/
+public int getOperationParameterCacheSize() {
+	return __opParamCache.getMaxEntries();
+}
+
+/**
+Returns the original start date of a time series (the start of the data in the database),
+or the start date if the original start date is not set.
+@param ts the time series.
+@return the original start date, or null if the time series is null or has no dates.
+*/
+private DateTime getOriginalDate1(TS ts) {
+	if (ts == null) {
+		return null;
+	}
+	if (ts.getDate1Original() != null) {
+		return ts.getDate1Original();
+	}
+	return ts.getDate1();
+}
+
+/**
+Returns the original end date of a time series (the end of the data in the database),
+or the end date if the original end date is not set.
+@param ts the time series.
+@return the original end date, or null if the time series is null or has no dates.
+*/
+private DateTime getOriginalDate2(TS ts) {
+	if (ts == null) {
+		return null;
+	}
+	if (ts.getDate2Original() != null) {
+		return ts.getDate2Original();
+	}
+	return ts.getDate2();
+}
+
+/**
+Returns the array location of a station's data in the data record for one day of a daily data type,
+from the PDBINDEX Station Information record.
+@param pdbIndex the PDBINDEX contents.
+@param staIndex the position of the station in the PDBINDEX station list.
+@param readDT the daily read data type.
+@return the one based I*2 word location of the station data, or -1 if the station does not have the data type.
+*/
+private int getPDBDLYArrayLocation(NWSRFS_PDBINDEX pdbIndex, int staIndex, String readDT) {
+	int location = -1;
+	if (readDT.equalsIgnoreCase("PP24")) {
+		location = pdbIndex.getPCPPTR(staIndex);
+	}
+	else if (readDT.equalsIgnoreCase("TM24")) {
+		location = pdbIndex.getTMPPTR(staIndex);
+	}
+	else {
+		int pdbAddDT = pdbIndex.getNADDTP(staIndex);
+		for (int j = 0; j < pdbAddDT; j++) {
+			if ((pdbIndex.getADDDTP(staIndex,j)).equalsIgnoreCase(readDT)) {
+				location = pdbIndex.getADTPTR(staIndex,j);
+				break;
+			}
+		}
+	}
+	if (location <= 0) {
+		return -1;
+	}
+	return location;
+}
+
+/**
+Returns the data units for a preprocessor database daily data type.
+The units are not stored in the database files.
+@param tsDT the data type.
+@return the data units, or null if the units are not known.
+*/
+private String getPDBDLYDataUnits(String tsDT) {
+	if(tsDT.equalsIgnoreCase("PP24")) {
+		return "IN";
+	}
+	else if(tsDT.equalsIgnoreCase("TM24") || tsDT.equalsIgnoreCase("TX24") || tsDT.equalsIgnoreCase("TN24")
+		|| tsDT.equalsIgnoreCase("EA24") || tsDT.equalsIgnoreCase("TA24") || tsDT.equalsIgnoreCase("TD24")) {
+		return "DEGF";
+	}
+	else if(tsDT.equalsIgnoreCase("US24")) {
+		return "MI/HR";
+	}
+	else if(tsDT.equalsIgnoreCase("RP24")) {
+		return "PCTD";
+	}
+	else if(tsDT.equalsIgnoreCase("RI24")) {
+		return "LY";
+	}
+	return null;
+}
+
+/**
+Returns the daily read data type in which a data type is stored in the PDBDLYn files.
+The write data types TX24 and TN24 are stored in TM24, and TA24, TD24, US24, RP24, RI24
+and RC24 are stored in EA24.
+@param tsDT the data type.
+@return the read data type, or null if the data type is not a daily data type that can be read.
+*/
+private String getPDBDLYReadDataType(String tsDT) {
+	if(tsDT.equalsIgnoreCase("PP24")) {
+		return "PP24";
+	}
+	else if(tsDT.equalsIgnoreCase("TM24") || tsDT.equalsIgnoreCase("TX24") || tsDT.equalsIgnoreCase("TN24")) {
+		return "TM24";
+	}
+	else if(tsDT.equalsIgnoreCase("EA24") || tsDT.equalsIgnoreCase("TA24") || tsDT.equalsIgnoreCase("TD24")
+		|| tsDT.equalsIgnoreCase("US24") || tsDT.equalsIgnoreCase("RP24") || tsDT.equalsIgnoreCase("RI24")
+		|| tsDT.equalsIgnoreCase("RC24")) {
+		return "EA24";
+	}
+	return null;
+}
+
+/**
+Returns the factor to convert the I*2 values stored for a daily data type to data units.
+@param tsDT the data type.
+@return the factor to multiply the stored values by.
+*/
+private float getPDBDLYScale(String tsDT) {
+	if(tsDT.equalsIgnoreCase("PP24")) {
+		// Hundredths of an inch
+		return 0.01f;
+	}
+	else if(tsDT.equalsIgnoreCase("RP24") || tsDT.equalsIgnoreCase("RI24") || tsDT.equalsIgnoreCase("RC24")) {
+		return 1.0f;
+	}
+	// Temperatures and wind are in tenths
+	return 0.1f;
+}
+
+/**
+Returns the position of a data type's value within a station's values in the data record for one day.
+TM24 has the maximum and minimum temperature for each station and EA24 has six values for each station.
+@param tsDT the data type.
+@return the zero based position of the value.
+*/
+private int getPDBDLYValueOffset(String tsDT) {
+	if(tsDT.equalsIgnoreCase("TN24")) {
+		return 1;
+	}
+	else if(tsDT.equalsIgnoreCase("TD24")) {
+		return 1;
+	}
+	else if(tsDT.equalsIgnoreCase("US24")) {
+		return 2;
+	}
+	else if(tsDT.equalsIgnoreCase("RP24")) {
+		return 3;
+	}
+	else if(tsDT.equalsIgnoreCase("RI24")) {
+		return 4;
+	}
+	else if(tsDT.equalsIgnoreCase("RC24")) {
+		return 5;
+	}
+	return 0;
+}
+
+/**
+Returns the PDBRRS record number for a station and RRS data type, from the PDBINDEX file.
+@param tsID the station identifier.
+@param tsDT the data type.
+@return the PDBRRS record number (1+), or -1 if the station does not have the data type.
+@throws Exception if the PDBINDEX file cannot be read.
+*/
+private int getPDBRRSRecord(String tsID, String tsDT)
+throws Exception {
+	NWSRFS_PDBINDEX pdbIndex = getPDBIndex();
+	if (pdbIndex == null) {
+		setPDBIndex(readPDBINDEX());
+		pdbIndex = getPDBIndex();
+	}
+	int i = pdbIndex.getSTAIDIndex(tsID);
+	if (i >= 0) {
+		// If the number of additional data types is <= 0 then there are no data types to check.
+		int pdbAddDT = pdbIndex.getNADDTP(i);
+		for (int j = 0; j < pdbAddDT; j++) {
+			if ((pdbIndex.getADDDTP(i,j)).equalsIgnoreCase(tsDT)) {
+				return pdbIndex.getADTPTR(i,j);
+			}
+		}
+	}
+	return -1;
+}
+
+/**
+Returns the data units for a preprocessor database RRS data type.
+The units are not stored in the database files.
+@param tsDT the data type.
+@return the data units, or null if the data type is not a known RRS data type.
+*/
+private String getPDBRRSDataUnits(String tsDT) {
+	if(tsDT.equalsIgnoreCase("AESC")) {
+		return "PCTD";
+	}
+	else if(tsDT.equalsIgnoreCase("DQIN")) {
+		return "CFS";
+	}
+	else if(tsDT.equalsIgnoreCase("DQME")) {
+		return "CFSD";
+	}
+	else if(tsDT.equalsIgnoreCase("FBEL")) {
+		return "FT";
+	}
+	else if(tsDT.equalsIgnoreCase("FGDP")) {
+		return "IN";
+	}
+	else if(tsDT.equalsIgnoreCase("GATE")) {
+		return "FT";
+	}
+	else if(tsDT.equalsIgnoreCase("GTCS")) {
+		return "INT";
+	}
+	else if(tsDT.equalsIgnoreCase("ICET")) {
+		return "IN";
+	}
+	else if(tsDT.equalsIgnoreCase("LAKH")) {
+		return "FT";
+	}
+	else if(tsDT.equalsIgnoreCase("LELV")) {
+		return "FT";
+	}
+	else if(tsDT.equalsIgnoreCase("NFBD")) {
+		return "INT";
+	}
+	else if(tsDT.equalsIgnoreCase("PCFD")) {
+		return "PCTD";
+	}
+	else if(tsDT.equalsIgnoreCase("PELV")) {
+		return "FT";
+	}
+	else if(tsDT.equalsIgnoreCase("QIN")) {
+		return "CFS";
+	}
+	else if(tsDT.equalsIgnoreCase("QME")) {
+		return "CFSD";
+	}
+	else if(tsDT.equalsIgnoreCase("RQGM")) {
+		return "CFSD";
+	}
+	else if(tsDT.equalsIgnoreCase("RQIM")) {
+		return "CFSD";
+	}
+	else if(tsDT.equalsIgnoreCase("RQIN")) {
+		return "CFS";
+	}
+	else if(tsDT.equalsIgnoreCase("RQME")) {
+		return "CFSD";
+	}
+	else if(tsDT.equalsIgnoreCase("RQOT")) {
+		return "CFS";
+	}
+	else if(tsDT.equalsIgnoreCase("RQSW")) {
+		return "CFS";
+	}
+	else if(tsDT.equalsIgnoreCase("RSTO")) {
+		return "CFSD";
+	}
+	else if(tsDT.equalsIgnoreCase("SNOG")) {
+		return "IN";
+	}
+	else if(tsDT.equalsIgnoreCase("SNWE")) {
+		return "IN";
+	}
+	else if(tsDT.equalsIgnoreCase("STG")) {
+		return "FT";
+	}
+	else if(tsDT.equalsIgnoreCase("TID")) {
+		return "FT";
+	}
+	else if(tsDT.equalsIgnoreCase("TWEL")) {
+		return "FT";
+	}
+	else if(tsDT.equalsIgnoreCase("TWSW")) {
+		return "FT";
+	}
+	else if(tsDT.equalsIgnoreCase("ZELV")) {
+		return "FT";
+	}
+	return null;
+}
+
+/**
+Returns the logical unit of the PRDTSn file that holds time series of a data type,
+from the PRDPARM file.  The units for all data types are saved in __tsDTUHashtable
+when the PRDPARM file is read.
+@param tsDT the data type.
+@return the logical unit, or -1 if the data type is not defined.
+@throws Exception if the PRDPARM file cannot be read.
+*/
+private int getPRDDataTypeUnit(String tsDT)
+throws Exception {
+	Integer unit = __tsDTUHashtable.get(tsDT);
+	if (unit != null) {
+		return unit.intValue();
+	}
+	if (!checkRandomAccessFileOpen(__PRDPARM, true)) {
+		throw new Exception("Cannot open the " + __dbFileNames[__PRDPARM] + " binary database file");
+	}
+	// Skip the first record (240 bytes) and then read the data type records in one read
+	// (see checkTimeSeriesExists()).
+	EndianRandomAccessFile raFile = getDBFile(__PRDPARM);
+	int byteLength = __byteLength[__PRDPARM];
+	int numRecords = (int)((raFile.length() - 240)/byteLength);
+	if (numRecords <= 0) {
+		return -1;
+	}
+	NWSRFS_RecordReader reader = new NWSRFS_RecordReader(__isBigEndian, numRecords*byteLength);
+	MappedByteBuffer mapped = getMappedBuffer(raFile);
+	if (mapped == null) {
+		reader.readAt(raFile, 240, numRecords*byteLength);
+	}
+	else {
+		reader.readAt(mapped, 240, numRecords*byteLength);
+	}
+	int unitNum = -1;
+	for (int i = 0; i < numRecords; i++) {
+		reader.setPosition(i*byteLength);
+		String dataType = reader.readString(4);
+		if (dataType.length() == 0) {
+			continue;
+		}
+		int recordUnit = checkInt(reader.readInt(), 0, 100, 0);
+		if (!__tsDTUHashtable.containsKey(dataType)) {
+			__tsDTUHashtable.put(dataType, Integer.valueOf(recordUnit));
+		}
+		if (unitNum < 0 && dataType.equalsIgnoreCase(tsDT)) {
+			unitNum = recordUnit;
+		}
+	}
+	return unitNum;
+}
+
 /**
 Returns the object holding index values for the preprocessor database files PDBLYn and PDBRRS.
 @return the object holding index values for the preprocessor database files PDBLYn and PDBRRS.
 */
-public NWSRFS_PDBINDEX getPDBIndex() {
+public synchronized NWSRFS_PDBINDEX getPDBIndex() {
 	try {
 		if(_pdbindex == null) {
 			_pdbindex = readPDBINDEX();
@@ -1123,7 +1993,7 @@ public NWSRFS_PDBINDEX getPDBIndex() {
 Returns the object holding index values for the preprocessor parametric database file PPPPARMn.
 @return the object holding index values for the preprocessor parametric database file PPPPARMn.
 */
-public NWSRFS_PPPINDEX getPPPIndex() {
+public synchronized NWSRFS_PPPINDEX getPPPIndex() {
 	try {
 		if(_pppindex == null) {
 			_pppindex = readPPPINDEX();
@@ -1136,11 +2006,40 @@ public NWSRFS_PPPINDEX getPPPIndex() {
 	return _pppindex;
 }
 
+/**
+Return the positions of PPPINDEX entries for several parameter types, in the order of the PPPINDEX file.
+@param pppindex the PPPINDEX object.
+@param id the parameter identifier to match, or null to return all entries for the types.
+@param types the parameter types to match.
+@return the positions of the matching entries in the PPPINDEX lists, sorted in file order.
+*/
+private int[] getPPPIndexPositions(NWSRFS_PPPINDEX pppindex, String id, String[] types) {
+	int[][] typePositions = new int[types.length][];
+	int size = 0;
+	for (int it = 0; it < types.length; it++) {
+		if (id == null) {
+			typePositions[it] = pppindex.getIndexPositions(types[it]);
+		}
+		else {
+			typePositions[it] = pppindex.getIndexPositions(id, types[it]);
+		}
+		size += typePositions[it].length;
+	}
+	int[] positions = new int[size];
+	int count = 0;
+	for (int it = 0; it < types.length; it++) {
+		System.arraycopy(typePositions[it], 0, positions, count, typePositions[it].length);
+		count += typePositions[it].length;
+	}
+	Arrays.sort(positions);
+	return positions;
+}
+
 /**
 Returns the object holding index values for the processed database file PRDTSn.
 @return the object holding index values for the processed database file PRDTSn.
 */
-public NWSRFS_PRDINDEX getPRDIndex() {
+public synchronized NWSRFS_PRDINDEX getPRDIndex() {
 	try {
 		if(_prdindex == null) {
 			_prdindex = readPRDINDEX();
@@ -1154,19 +2053,40 @@ public NWSRFS_PRDINDEX getPRDIndex() {
 }
 
 /**
-Returns the time series hashtable.
-@return the time series hashtable.
+Returns the time series cache, which provides the cache counts.
+@return the time series cache.
+*/
+public NWSRFS_TimeSeriesCache getTSCache() {
+	return __tsCache;
+}
+
+/**
+Returns the time series Data Type and Logical Unit hashtable.
+@return a copy of the time series Data Type and Logical Unit map.
+@deprecated Use getTSDTUMap().  Changes to the returned hashtable are not used by the DMI.
+*/
+@Deprecated
+public Hashtable<String,Integer> getTSDTUHashtable() {
+	return new Hashtable<String,Integer>(__tsDTUHashtable);
+}
+
+/**
+Returns the time series Data Type and Logical Unit map.
+@return the time series Data Type and Logical Unit map.
 */
-public Hashtable<String,NWSRFS_TimeSeries> getTSHashtable() {
-	return __tsHashtable;
+public Map<String,Integer> getTSDTUMap() {
+	return __tsDTUHashtable;
 }
 
 /**
-Returns the time series Data Type and Logical Unit hashtable.
-@return the time series Data Type and Logical Unit hashtable.
+Returns the time series hashtable.
+@return a copy of the cached time series, by TSID.DataType.Interval (time series read from
+the preprocessor database have "~PPDB" appended to the key).
+@deprecated Use getTSCache().  Changes to the returned hashtable are not used by the DMI.
 */
-public Hashtable<String,Integer> getTSDTUHashtable() {
-	return __tsDTUHashtable;
+@Deprecated
+public Hashtable<String,NWSRFS_TimeSeries> getTSHashtable() {
+	return new Hashtable<String,NWSRFS_TimeSeries>(__tsCache.getEntries());
 }
 
 /**
@@ -1176,9 +2096,10 @@ private void initialize() {
 	__fs5FilesLocation = null;
 	__isBigEndian = false;
 	__NWSRFS_DBFiles = new EndianRandomAccessFile[__dbFileNames.length];
+	__mappedDBFiles = new MappedByteBuffer[__dbFileNames.length];
 	__NWSRFS_properties = null;
-	__tsHashtable = new Hashtable<>();
-	__tsDTUHashtable = new Hashtable<>();
+	__tsCache = new NWSRFS_TimeSeriesCache(__DEFAULT_TS_CACHE_ENTRIES, __DEFAULT_TS_CACHE_BYTES);
+	__tsDTUHashtable = new ConcurrentHashMap<>();
 	__useFS5Files = true;
 	_fcrcptr = null;
 	_fcsegptr = null;
@@ -1196,6 +2117,45 @@ public boolean[] isOpen() {
 	return __isOpen;
 }
 
+/**
+Map a database file that has just been opened read only into a read-only
+memory-mapped buffer, if memory-mapped access is enabled and the file is not already mapped.  The buffer byte order
+is set from the endianness determined in checkDatabaseEndianess().
+If the file cannot be mapped a warning is printed and the file is read normally.
+@param filePointer the database file index (e.g., __PRDTS1).
+*/
+private synchronized void mapDBFile(int filePointer) {
+	String routine = "NWSRFS_DMI.mapDBFile";
+	if (!__useMemoryMappedFiles || __mappedDBFiles[filePointer] != null) {
+		// Not mapping or already mapped (e.g., by another reading thread)
+		return;
+	}
+	try {
+		FileChannel channel = getDBFile(filePointer).getChannel();
+		long size = channel.size();
+		if (size > Integer.MAX_VALUE) {
+			Message.printWarning(2, routine, "File " + __dbFileNames[filePointer]
+				+ " is too large to memory map (" + size + " bytes).  Reading the file normally.");
+			return;
+		}
+		MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		if (__isBigEndian) {
+			mapped.order(ByteOrder.BIG_ENDIAN);
+		}
+		else {
+			mapped.order(ByteOrder.LITTLE_ENDIAN);
+		}
+		__mappedDBFiles[filePointer] = mapped;
+		Message.printStatus(10, routine, "__dbFileNames[filePointer] = " + __dbFileNames[filePointer]
+			+ " is memory mapped (" + size + " bytes)");
+	}
+	catch (Exception e) {
+		Message.printWarning(2, routine, "Unable to memory map file " + __dbFileNames[filePointer]
+			+ ".  Reading the file normally.");
+		Message.printWarning(3, routine, e);
+	}
+}
+
 /**
 Open the NWSRFS processed database files.
 @throws Exception if an error occurs while trying to determine database endianness 
@@ -1238,9 +2198,12 @@ array may be needed in future development and made protected or possibly public.
 the data for the NWSRFS C array from the FCCARRY binary database file.
 @param carryoverSlot the slot number that this carryover data holds.
 @param segObj the parent NWSRFS_Segment object in which to receive the carryover data.
+@param recordPosition the byte position of the record in the FCCARRY file, used to locate
+the carryover values when they are read on demand (see setCompactTopology()).
 @throws Exception if there is an error parsing the carryover record.
 */	
-private void parseCarryoverRecord(EndianDataInputStream EDIS, NWSRFS_Segment segObj, int carryoverSlot) 
+private void parseCarryoverRecord(EndianDataInputStream EDIS, NWSRFS_Segment segObj, int carryoverSlot,
+long recordPosition) 
 throws Exception
 {
 	int ICDAY = (int)EDIS.readEndianInt();
@@ -1263,8 +2226,12 @@ throws Exception
 	int nextOP = 0;
 	String[] opName = new String[nc];
 	String parseChar = null;
-	@SuppressWarnings("unchecked")
-	List<Float>[] coCarryoverValues = new List[nc];
+	NWSRFS_FloatList[] coCarryoverValues = new NWSRFS_FloatList[nc];
+	// Carryover value positions in the file and counts, used when the values are read on demand.
+	long[] coValuesPosition = new long[nc];
+	int[] coValuesCount = new int[nc];
+	// Byte offset in the record of the next operation (after the segment identifier and header).
+	int offset = 40;
 	while (cIndex * 5 < nc) {
 		try {
 			// Field 1 - operation number
@@ -1280,7 +2247,7 @@ throws Exception
 			}
 			parseChar = new String(charValue).trim();
 			if (parseChar.length() != 0) {
-				opName[cIndex] = parseChar;
+				opName[cIndex] = compactString(parseChar);
 			}
 			else {
 				opName[cIndex] = null;
@@ -1289,10 +2256,24 @@ throws Exception
 			// Field 4 - co operation pointer
 			coOperationPointer[cIndex] = (int)EDIS.readEndianInt();
 
-			// Field 5 - co carryover values - This array of floats will be placed directly into a Vector.
-			coCarryoverValues[cIndex] = new ArrayList<>();
-			for (j = 4; j < nextOP; j++) {
-				coCarryoverValues[cIndex].add(Float.valueOf((float)EDIS.readEndianFloat()));
+			// Field 5 - co carryover values - This array of floats will be placed directly into a list.
+			int count = Math.max(0, nextOP - 4);
+			coValuesPosition[cIndex] = recordPosition + offset + 20;
+			coValuesCount[cIndex] = count;
+			offset += 20 + count*__WORDSIZE;
+			if (__compactTopology) {
+				// Skip the values, which are read on demand.  If the record does not contain all
+				// of the values, stop as if the values had been read past the end of the record.
+				if (EDIS.available() < count*__WORDSIZE) {
+					break;
+				}
+				EDIS.skipBytes(count*__WORDSIZE);
+			}
+			else {
+				coCarryoverValues[cIndex] = new NWSRFS_FloatList(Math.min(count, EDIS.available()/__WORDSIZE));
+				for (j = 0; j < count; j++) {
+					coCarryoverValues[cIndex].addFloat(EDIS.readEndianFloat());
+				}
 			}
 			
 			// SAT 8/24/2004 Ok since exceptions are expensive 
@@ -1338,7 +2319,12 @@ throws Exception
 		CO.setOpNumber(opNumber[i]);
 		CO.setOpName(opName[i]);
 		CO.setCoOperationPointer(coOperationPointer[i]);
-		CO.setCoCarryoverValues(coCarryoverValues[i]);
+		if (__compactTopology) {
+			CO.setCoCarryoverValuesLocation(this, coValuesPosition[i], coValuesCount[i]);
+		}
+		else {
+			CO.setCoCarryoverValues(coCarryoverValues[i]);
+		}
 
 		// Add the Carryover to the segment.
 		segObj.addCarryover(CO);
@@ -1446,7 +2432,7 @@ throws Exception
 		}
 		parseChar = new String(charValue).trim();
 		if (parseChar.length() != 0) {
-			opName[pIndex] = parseChar;
+			opName[pIndex] = compactString(parseChar);
 		}
 		else {
 			opName[pIndex] = null;
@@ -1603,7 +2589,7 @@ throws Exception
 					}
 
 					if (j == 21 && rcExists && parseChar.indexOf(' ') < 0 && parseChar.length() > 2) {
-						rcID[pIndex] = parseChar;
+						rcID[pIndex] = compactString(parseChar);
 						parseChar = "";
 					}
 					else if (j == 21) {
@@ -1840,7 +2826,7 @@ throws Exception
 				}
 
 				if (j == 16 && rcExists) {
-					rcID[pIndex] = parseChar;
+					rcID[pIndex] = compactString(parseChar);
 					parseChar = "";
 				}
 				else if (j == 16) {
@@ -2128,8 +3114,7 @@ Message.printDebug(1,routine,IOe);
 	String[] tsDataFileCode = new String[nts];
 	String[] tsDataType = new String[nts];	
 	String[] tsID = new String[nts];
-	@SuppressWarnings("unchecked")
-	List<Float>[] tsAddInformation = new List[nts];
+	NWSRFS_FloatList[] tsAddInformation = new NWSRFS_FloatList[nts];
 	@SuppressWarnings("unchecked")
 	List<String>[] tsExtLocInformation = new List[nts];
 	nextOPRecord = 0;
@@ -2178,7 +3163,7 @@ Message.printDebug(1,routine,IOe);
 		parseChar = new String(charValue).trim();
 		if (parseChar.length() != 0) 
 		{
-			tsID[tsIndex] = parseChar;
+			tsID[tsIndex] = compactString(parseChar);
 		}
 		else 
 		{
@@ -2194,7 +3179,7 @@ Message.printDebug(1,routine,IOe);
 		parseChar = new String(charValue).trim();
 		if (parseChar.length() != 0) 
 		{
-			tsDataType[tsIndex] = parseChar;
+			tsDataType[tsIndex] = compactString(parseChar);
 		}
 		else 
 		{
@@ -2257,11 +3242,11 @@ Message.printDebug(1,routine,IOe);
 				tsNADD[tsIndex] = (int)EDIS.readEndianFloat();
 
 				// This Array of floats will be placed directly into a List.
-				tsAddInformation[tsIndex] = new ArrayList<>();
+				tsAddInformation[tsIndex] = new NWSRFS_FloatList();
 				opIndex1 = 0;
 // TODO (JTS - 2004-08-21) explain the magic number 10
 				for (j = thisOPRecord + 10; j < nextOPRecord; j++) {
-					tsAddInformation[tsIndex].add( Float.valueOf(EDIS.readEndianFloat()));
+					tsAddInformation[tsIndex].addFloat(EDIS.readEndianFloat());
 					opIndex1++;
 				}
 			}
@@ -2323,11 +3308,11 @@ Message.printDebug(1,routine,IOe);
 
 				// This array of floats will be placed directly into a Vector.
 
-				tsAddInformation[tsIndex] = new ArrayList<>();
+				tsAddInformation[tsIndex] = new NWSRFS_FloatList();
 				opIndex2 = 0;
 // TODO (JTS - 2004-08-21)explain the magic number 13			
 				for (j = (thisOPRecord + 13 + tsExtNVAL[tsIndex]); j<nextOPRecord; j++) {
-					tsAddInformation[tsIndex].add( Float.valueOf(EDIS.readEndianFloat()));
+					tsAddInformation[tsIndex].addFloat(EDIS.readEndianFloat());
 					opIndex1++;
 				}
 			}
@@ -2595,9 +3580,9 @@ throws Exception
 
 		// Now read the parameter file to get the parameter data in the PPPPARMn binary file.
 		// Read the record at recordNum to get the parameter data.
-		__NWSRFS_DBFiles[pppParamIndex].seek(0);
-		__NWSRFS_DBFiles[pppParamIndex].seek((recordNum-1)*__byteLength[pppParamIndex]);
-		EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, 4);
+		getDBFile(pppParamIndex).seek(0);
+		getDBFile(pppParamIndex).seek((recordNum-1)*__byteLength[pppParamIndex]);
+		EDIS = read(getDBFile(pppParamIndex), 0, 4);
 
 		// Start reading in the general parameters.
 		// Field 1 - NWRDS
@@ -2607,7 +3592,7 @@ throws Exception
 		EDIS.close();
 
 		// Read in a new Stream for the remaining fields
-		EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, NWRDS*4);
+		EDIS = read(getDBFile(pppParamIndex), 0, NWRDS*4);
 
 		// Field 2 -- Identifier
 		charValue = new char[8];
@@ -2743,9 +3728,9 @@ throws Exception
 
 		// Now read the parameter file to get the parameter data in the PPPPARMn binary file.
 		// Read the record at recordNum to get the parameter data.
-		__NWSRFS_DBFiles[pppParamIndex].seek(0);
-		__NWSRFS_DBFiles[pppParamIndex].seek((recordNum-1)*__byteLength[pppParamIndex]);
-		EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, 4);
+		getDBFile(pppParamIndex).seek(0);
+		getDBFile(pppParamIndex).seek((recordNum-1)*__byteLength[pppParamIndex]);
+		EDIS = read(getDBFile(pppParamIndex), 0, 4);
 
 		// Start reading in the general parameters.
 		// Field 1 - NWRDS
@@ -2755,7 +3740,7 @@ throws Exception
 		EDIS.close();
 
 		// Read in a new Stream for the remaining fields
-		EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, NWRDS*4);
+		EDIS = read(getDBFile(pppParamIndex), 0, NWRDS*4);
 
 		// Field 2 -- Identifier
 		charValue = new char[8];
@@ -2894,10 +3879,10 @@ throws Exception
 
 // Test read the first few bytes at record number to see what is really \
 // happening.
-//__NWSRFS_DBFiles[pppParamIndex].seek(0);
-//__NWSRFS_DBFiles[pppParamIndex].seek(
+//getDBFile(pppParamIndex).seek(0);
+//getDBFile(pppParamIndex).seek(
 //	(recordNum-1)*__byteLength[pppParamIndex]);
-//EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, 512);
+//EDIS = read(getDBFile(pppParamIndex), 0, 512);
 //charValue = new char[512];
 //for (i = 0; i < 220; i++) {
 //	byte byteValue = EDIS.readByte();
@@ -2908,9 +3893,9 @@ throws Exception
 		// Now read the parameter file to get the parameter data
 		// in the PPPPARMn binary file.
 		// Read the record at recordNum to get the parameter data.
-		__NWSRFS_DBFiles[pppParamIndex].seek(0);
-		__NWSRFS_DBFiles[pppParamIndex].seek((recordNum-1)*__byteLength[pppParamIndex]);
-		EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, 4);
+		getDBFile(pppParamIndex).seek(0);
+		getDBFile(pppParamIndex).seek((recordNum-1)*__byteLength[pppParamIndex]);
+		EDIS = read(getDBFile(pppParamIndex), 0, 4);
 
 		// Start reading in the general parameters.
 		// Field 1 - NWRDS
@@ -2920,7 +3905,7 @@ throws Exception
 		EDIS.close();
 
 		// Read in a new Stream for the remaining fields
-		EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, NWRDS*4);
+		EDIS = read(getDBFile(pppParamIndex), 0, NWRDS*4);
 
 		// Field 2 -- Identifier
 		charValue = new char[8];
@@ -3076,10 +4061,10 @@ throws Exception
 
 // Test read the first 512 bytes at record number to see what is really \
 // happening.
-//__NWSRFS_DBFiles[pppParamIndex].seek(0);
-//__NWSRFS_DBFiles[pppParamIndex].seek(
+//getDBFile(pppParamIndex).seek(0);
+//getDBFile(pppParamIndex).seek(
 //	(recordNum-1)*__byteLength[pppParamIndex]);
-//EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, 512);
+//EDIS = read(getDBFile(pppParamIndex), 0, 512);
 //charValue = new char[512];
 //for (i = 0; i < 512; i++) {
 //	byte byteValue = EDIS.readByte();
@@ -3090,9 +4075,9 @@ throws Exception
 		
 		// Read the parameter file to get the parameter data in the PPPPARMn binary file.
 		// Read the record at recordNum to get the parameter data.
-		__NWSRFS_DBFiles[pppParamIndex].seek(0);
-		__NWSRFS_DBFiles[pppParamIndex].seek((recordNum-1)*__byteLength[pppParamIndex]);
-		EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, 76);
+		getDBFile(pppParamIndex).seek(0);
+		getDBFile(pppParamIndex).seek((recordNum-1)*__byteLength[pppParamIndex]);
+		EDIS = read(getDBFile(pppParamIndex), 0, 76);
 
 		// Start reading in the general parameters.
 		// Field 1 - NWRDS
@@ -3197,7 +4182,7 @@ throws Exception
 		int recLen = 8*(NTYPE*4) + 2*(NMISS*4) + 24*(NDIST*4);
 
 		// Read in a new Stream for the remaining fields
-		EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, recLen);
+		EDIS = read(getDBFile(pppParamIndex), 0, recLen);
 
 		// Field 14 -- Station RRS Data Type Codes
 		for(j=0;j<NTYPE;j++) {
@@ -3310,9 +4295,9 @@ throws Exception
 
 		// Now read the parameter file to get the parameter data in the PPPPARMn binary file.
 		// Read the record at recordNum to get the parameter data.
-		__NWSRFS_DBFiles[pppParamIndex].seek(0);
-		__NWSRFS_DBFiles[pppParamIndex].seek((recordNum-1)*__byteLength[pppParamIndex]);
-		EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, 4);
+		getDBFile(pppParamIndex).seek(0);
+		getDBFile(pppParamIndex).seek((recordNum-1)*__byteLength[pppParamIndex]);
+		EDIS = read(getDBFile(pppParamIndex), 0, 4);
 
 		// Start reading in the general parameters.
 		// Field 1 - NWRDS
@@ -3322,7 +4307,7 @@ throws Exception
 		EDIS.close();
 
 		// Read in a new Stream for the remaining fields
-		EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, NWRDS*4);
+		EDIS = read(getDBFile(pppParamIndex), 0, NWRDS*4);
 
 		// Field 2 -- Identifier
 		charValue = new char[8];
@@ -3492,9 +4477,9 @@ throws Exception
 
 		// Now read the parameter file to get the parameter data in the PPPPARMn binary file.
 		// Read the record at recordNum to get the parameter data.
-		__NWSRFS_DBFiles[pppParamIndex].seek(0);
-		__NWSRFS_DBFiles[pppParamIndex].seek( (recordNum-1)*__byteLength[pppParamIndex]);
-		EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, 4);
+		getDBFile(pppParamIndex).seek(0);
+		getDBFile(pppParamIndex).seek( (recordNum-1)*__byteLength[pppParamIndex]);
+		EDIS = read(getDBFile(pppParamIndex), 0, 4);
 
 		// Start reading in the general parameters.
 		// Field 1 - NWRDS
@@ -3504,7 +4489,7 @@ throws Exception
 		EDIS.close();
 
 		// Read in a new Stream for the remaining fields
-		EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, NWRDS*4);
+		EDIS = read(getDBFile(pppParamIndex), 0, NWRDS*4);
 
 		// Field 2 -- Identifier
 		charValue = new char[8];
@@ -3690,16 +4675,16 @@ throws Exception
 
 		// Read the record at recordNum to get the parameter data.
 		
-		__NWSRFS_DBFiles[pppParamIndex].seek(0);
-		__NWSRFS_DBFiles[pppParamIndex].seek( (recordNum-1)*__byteLength[pppParamIndex]);
-		EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, 4);
+		getDBFile(pppParamIndex).seek(0);
+		getDBFile(pppParamIndex).seek( (recordNum-1)*__byteLength[pppParamIndex]);
+		EDIS = read(getDBFile(pppParamIndex), 0, 4);
 
 		// Start reading in the general parameters.
 		// Field 1 - NWRDS
 		NWRDS = EDIS.readEndianInt();
 
 		EDIS.close();
-		EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, NWRDS*4);
+		EDIS = read(getDBFile(pppParamIndex), 0, NWRDS*4);
 
 		// Field 2 -- Identifier
 		charValue = new char[8];
@@ -3859,9 +4844,9 @@ throws Exception
 
 		// Now read the parameter file to get the parameter data in the PPPPARMn binary file.
 		// Read the record at recordNum to get the parameter data.
-		__NWSRFS_DBFiles[pppParamIndex].seek(0);
-		__NWSRFS_DBFiles[pppParamIndex].seek( (recordNum-1)*__byteLength[pppParamIndex]);
-		EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, 4);
+		getDBFile(pppParamIndex).seek(0);
+		getDBFile(pppParamIndex).seek( (recordNum-1)*__byteLength[pppParamIndex]);
+		EDIS = read(getDBFile(pppParamIndex), 0, 4);
 
 		// Start reading in the general parameters.
 		// Field 1 - NWRDS
@@ -3871,7 +4856,7 @@ throws Exception
 		EDIS.close();
 
 		// Read in a new Stream for the remaining fields
-		EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, NWRDS*4);
+		EDIS = read(getDBFile(pppParamIndex), 0, NWRDS*4);
 
 		// Field 2 -- Identifier
 		charValue = new char[8];
@@ -3977,10 +4962,10 @@ throws Exception
 
 // Test read the first 64 bytes at record number to see what is really \
 // happening.
-//__NWSRFS_DBFiles[pppParamIndex].seek(0);
-//__NWSRFS_DBFiles[pppParamIndex].seek(
+//getDBFile(pppParamIndex).seek(0);
+//getDBFile(pppParamIndex).seek(
 //	(recordNum-1)*__byteLength[pppParamIndex]);
-//EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, 64);
+//EDIS = read(getDBFile(pppParamIndex), 0, 64);
 //charValue = new char[64];
 //for (i = 0; i < 64; i++) {
 //	byte byteValue = EDIS.readByte();
@@ -3991,9 +4976,9 @@ throws Exception
 		
 		// Now read the parameter file to get the parameter data in the PPPPARMn binary file.
 		// Read the record at recordNum to get the parameter data.
-		__NWSRFS_DBFiles[pppParamIndex].seek(0);
-		__NWSRFS_DBFiles[pppParamIndex].seek( (recordNum-1)*__byteLength[pppParamIndex]);
-		EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, 4);
+		getDBFile(pppParamIndex).seek(0);
+		getDBFile(pppParamIndex).seek( (recordNum-1)*__byteLength[pppParamIndex]);
+		EDIS = read(getDBFile(pppParamIndex), 0, 4);
 
 		// Start reading in the general parameters.
 		// Field 1 - NWRDS
@@ -4003,7 +4988,7 @@ throws Exception
 		EDIS.close();
 
 		// Read in a new Stream for the remaining fields
-		EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, NWRDS*4);
+		EDIS = read(getDBFile(pppParamIndex), 0, NWRDS*4);
 
 		// Field 2 -- Identifier
 		charValue = new char[8];
@@ -4166,10 +5151,10 @@ throws Exception
 
 // Test read the first 64 bytes at record number to see what is really \
 // happening.
-//__NWSRFS_DBFiles[pppParamIndex].seek(0);
-//__NWSRFS_DBFiles[pppParamIndex].seek(
+//getDBFile(pppParamIndex).seek(0);
+//getDBFile(pppParamIndex).seek(
 //	(recordNum-1)*__byteLength[pppParamIndex]);
-//EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, 64);
+//EDIS = read(getDBFile(pppParamIndex), 0, 64);
 //charValue = new char[64];
 //for (i = 0; i < 64; i++) {
 //	byte byteValue = EDIS.readByte();
@@ -4180,9 +5165,9 @@ throws Exception
 		
 		// Now read the parameter file to get the parameter data in the PPPPARMn binary file.
 		// Read the record at recordNum to get the parameter data.
-		__NWSRFS_DBFiles[pppParamIndex].seek(0);
-		__NWSRFS_DBFiles[pppParamIndex].seek( (recordNum-1)*__byteLength[pppParamIndex]);
-		EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, 4);
+		getDBFile(pppParamIndex).seek(0);
+		getDBFile(pppParamIndex).seek( (recordNum-1)*__byteLength[pppParamIndex]);
+		EDIS = read(getDBFile(pppParamIndex), 0, 4);
 
 		// Start reading in the general parameters.
 		// Field 1 - NWRDS
@@ -4192,7 +5177,7 @@ throws Exception
 		EDIS.close();
 
 		// Read in a new Stream for the remaining fields
-		EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, NWRDS*4);
+		EDIS = read(getDBFile(pppParamIndex), 0, NWRDS*4);
 
 		// Field 2 -- Identifier
 		charValue = new char[8];
@@ -4256,7 +5241,7 @@ throws Exception
 		EDIS.close();
 
 		// Read in a new Stream for the remaining fields
-		EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, orrsNSTA*4);
+		EDIS = read(getDBFile(pppParamIndex), 0, orrsNSTA*4);
 
 		// Field 9 -- General ORRS Vector of Record numbers
 		for(i=0; i<orrsNSTA; i++) {
@@ -4302,10 +5287,10 @@ throws Exception
 			throw new Exception("Cannot open the " + __dbFileNames[pppParamIndex] + " binary database file");
 		}
 
-//__NWSRFS_DBFiles[pppParamIndex].seek(0);
-//__NWSRFS_DBFiles[pppParamIndex].seek(
+//getDBFile(pppParamIndex).seek(0);
+//getDBFile(pppParamIndex).seek(
 //	(recordNum-1)*__byteLength[pppParamIndex]);
-//EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, 128);
+//EDIS = read(getDBFile(pppParamIndex), 0, 128);
 //charValue = new char[128];
 //byte byteValue;
 //for (i = 0; i < 128; i++) {
@@ -4317,9 +5302,9 @@ throws Exception
 
 		// Now read the parameter file to get the parameter data in the PPPPARMn binary file.
 		// Read the record at recordNum to get the parameter data.
-		__NWSRFS_DBFiles[pppParamIndex].seek(0);
-		__NWSRFS_DBFiles[pppParamIndex].seek((recordNum-1)*__byteLength[pppParamIndex]);
-		EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, 4);
+		getDBFile(pppParamIndex).seek(0);
+		getDBFile(pppParamIndex).seek((recordNum-1)*__byteLength[pppParamIndex]);
+		EDIS = read(getDBFile(pppParamIndex), 0, 4);
 
 		// Start reading in the general parameters.
 		// Field 1 - NWRDS
@@ -4329,7 +5314,7 @@ throws Exception
 		EDIS.close();
 
 		// Read in a new Stream for the remaining fields
-		EDIS = read(__NWSRFS_DBFiles[pppParamIndex], 0, NWRDS*4);
+		EDIS = read(getDBFile(pppParamIndex), 0, NWRDS*4);
 
 		// Field 2 -- Identifier
 		charValue = new char[8];
@@ -4585,24 +5570,7 @@ long recordNumber, int byteLength) throws Exception
 		byteLength = 0;
 	}
 
-	byte[] record = new byte[byteLength]; 
-		// Array of bytes holding binary data retrieved from file
-
-	raFile.skipBytes((int)recordNumber * byteLength);
-
-	// Get the record as a byte array
-	for (int i = 0; i < byteLength; i++) {
-		record[i] = (byte)raFile.readByte();
-	}
-	
-	// Create the ByteArrayInputStream
-	ByteArrayInputStream BAIS = new ByteArrayInputStream(record);
-
-	// Create the EndianDataInputStream and check for the Endianess
-	EndianDataInputStream EDIS = new EndianDataInputStream((InputStream)BAIS,true);
-	EDIS.setBigEndian(__isBigEndian);
-
-	return EDIS;
+	return readRecordStream(raFile, recordNumber, byteLength, byteLength);
 }
 
 /**
@@ -4632,50 +5600,102 @@ throws Exception, EOFException, NullPointerException {
 protected EndianDataInputStream read(EndianRandomAccessFile raFile,
 long recordNumber, int byteLength,int bytesToRead, boolean testing) 
 throws Exception {
-	StopWatch sw1 = new StopWatch();
-	StopWatch sw2 = new StopWatch();
-	StopWatch sw3 = new StopWatch();
-
 	// Check for negative bytesToRead
 	if (bytesToRead < 0) {
 		bytesToRead = 0;
 	}
 
-	sw1.start();
-
-	byte[] record = new byte[bytesToRead];
-		// Array of bytes holding binary data retrieved from file
-	raFile.skipBytes((int)recordNumber*byteLength);
-	
-	sw1.stop();
-	sw2.start();
+	return readRecordStream(raFile, recordNumber, byteLength, bytesToRead);
+}
 
-	// Get the record as a byte array
-	for (int i = 0; i < bytesToRead; i++) {
-		record[i] = (byte)raFile.readByte();
+/**
+Read a block of whole fixed length records from one of the database files into a
+record reader.  If memory-mapped access is enabled the reader is positioned on the
+mapped file contents, otherwise the block is read from the random access file.
+@param reader the record reader to receive the records.
+@param filePointer the database file index (e.g., __PRDINDEX).
+@param firstRecord the zero based index of the first record to read.
+@param numRecords the maximum number of records to read.
+@return the number of complete records read, zero if at the end of the file.
+@throws Exception if an error occurs reading the file.
+*/
+private int readBlock(NWSRFS_RecordReader reader, int filePointer, long firstRecord, int numRecords)
+throws Exception {
+	MappedByteBuffer mapped = __mappedDBFiles[filePointer];
+	if (mapped != null) {
+		return reader.readBlock(mapped, firstRecord, __byteLength[filePointer], numRecords);
 	}
+	return reader.readBlock(getDBFile(filePointer), firstRecord, __byteLength[filePointer], numRecords);
+}
 
-	sw2.stop();
-	sw3.start();
-	
-	// Create the ByteArrayInputStream
-	ByteArrayInputStream BAIS = new ByteArrayInputStream(record);
-	sw3.stop();
+/**
+Read bytes from the current position of a database file plus an offset, leaving the
+file positioned after the bytes that were read, and return a stream to decode them.
+This is the low-level read used by the read() methods.  The bytes are read with a
+single read call, or if memory-mapped access is enabled for the file, decoded directly
+from the mapped file contents without being copied.
+@param raFile the file to read.
+@param recordNumber the number of records to skip from the current file position.
+@param byteLength the record length in bytes.
+@param bytesToRead the number of bytes to read.
+@return the stream to decode the bytes, using the byte order of the database.
+@throws Exception if the bytes cannot be read (including end of file).
+*/
+private EndianDataInputStream readRecordStream(EndianRandomAccessFile raFile, long recordNumber,
+int byteLength, int bytesToRead)
+throws Exception {
+	InputStream in;
+	MappedByteBuffer mapped = getMappedBuffer(raFile);
+	if (mapped == null) {
+		byte[] record = new byte[bytesToRead];
+		raFile.skipBytes((int)recordNumber*byteLength);
+		// Get the record as a byte array with a single read rather than a read per byte
+		raFile.readFully(record);
+		in = new ByteArrayInputStream(record);
+	}
+	else {
+		// The file pointer is still updated because callers position subsequent reads relative to it.
+		long position = raFile.getFilePointer();
+		if (recordNumber*byteLength > 0) {
+			position += recordNumber*byteLength;
+		}
+		NWSRFS_RecordReader reader = getRecordReader();
+		reader.readAt(mapped, position, bytesToRead);
+		in = reader.getInputStream();
+		raFile.seek(position + bytesToRead);
+	}
 
 	// Create the EndianDataInputStream and check for the Endianess
-	EndianDataInputStream EDIS = new EndianDataInputStream((InputStream)BAIS,true);
+	EndianDataInputStream EDIS = new EndianDataInputStream(in,true);
 	EDIS.setBigEndian(__isBigEndian);
 
-	//if (testing) {
-	//	Message.printStatus(1, "", "    1: " + sw1.getSeconds());
-	//	Message.printStatus(1, "", "    2: " + sw2.getSeconds());
-	//	Message.printStatus(1, "", "    3: " + sw3.getSeconds());
-	//	Message.printStatus(1, "", "");
-	//}
-	
 	return EDIS;
 }
 
+/**
+Position the record reader for the calling thread on bytes at an absolute position in a
+database file.  If memory-mapped access is enabled for the file the reader decodes directly
+from the mapped file contents, otherwise the bytes are read with a single read call.
+@param raFile the file to read.
+@param position the byte position in the file at which to start reading.
+@param bytesToRead the number of bytes to read.
+@return the record reader for the calling thread, positioned at the start of the bytes.
+The reader is reused by the next read on the thread so callers should not hold on to it.
+@throws Exception if the bytes cannot be read (including end of file).
+*/
+private NWSRFS_RecordReader readRecordAt(EndianRandomAccessFile raFile, long position, int bytesToRead)
+throws Exception {
+	NWSRFS_RecordReader reader = getRecordReader();
+	MappedByteBuffer mapped = getMappedBuffer(raFile);
+	if (mapped == null) {
+		reader.readAt(raFile, position, bytesToRead);
+	}
+	else {
+		reader.readAt(mapped, position, bytesToRead);
+	}
+	return reader;
+}
+
 /** 
 Reads the preprocessed parameteric database to fill the data members of the
 NWSRFS_BASN object argument. It will read the information from the 
@@ -4760,7 +5780,7 @@ public List<String> readBASNParamList() throws Exception
 	}
 	else {
 		// Loop through the ID.size number of records
-		for(int i=0;i<(pppindex.getID()).size();i++) {
+		for(int i : pppindex.getIndexPositions("BASN")) {
 			// If the type is BASN add to the Vector
 			if(((String)(pppindex.getITYPE()).get(i)).equalsIgnoreCase("BASN")) {
 				basin = new NWSRFS_BASN((String)(pppindex.getID()).get(i));
@@ -4851,15 +5871,15 @@ throws Exception {
 	String parseChar = null;
 	for (int i = 0; i < slotIndex; i++) {
 		// Rewind the file to the beginning.
-		rewind(__NWSRFS_DBFiles[__FCCARRY]);
+		rewind(getDBFile(__FCCARRY));
 
 		// Determine where to "seek" which will be the "slot number"*
 		// "the number of records in a slot" + "segment byte offset"
 		seekPosition = (i + 1) * cgObject.getNRSLOT() + ((segObject.getIWOCRY() - 1) * __WORDSIZE);
-		seek(__NWSRFS_DBFiles[__FCCARRY], seekPosition, readOFSFS5Files);
+		seek(getDBFile(__FCCARRY), seekPosition, readOFSFS5Files);
 
 		// Read the number of bytes for this Segment
-		EDIS = read(__NWSRFS_DBFiles[__FCCARRY], 0, __byteLength[__FCCARRY], bytesToRead);
+		EDIS = read(getDBFile(__FCCARRY), 0, __byteLength[__FCCARRY], bytesToRead);
 
 		// Read the values of the record
 		// Field 1 - [type field name here]
@@ -4880,7 +5900,7 @@ throws Exception {
 				// The Segment ID was already read from the EDIS
 				// stream so it is only needed to parse the rest
 				// of the record which constitutes the C array.
-				parseCarryoverRecord(EDIS,segObject,i);
+				parseCarryoverRecord(EDIS,segObject,i,seekPosition);
 			}
 		}
 
@@ -4891,6 +5911,297 @@ throws Exception {
 	return segObject.getCarryover();
 }
 
+/**
+Read the carryover for all segments in a carryover group for the carryover slot with a
+carryover date.  See readCarryoverSlot(NWSRFS_CarryoverGroup,int).
+@param cg the carryover group.
+@param julianDay the Julian day of the carryover (see NWSRFS_CarryoverGroup.getICODAY()).
+@param hour the internal clock hour of the carryover (see NWSRFS_CarryoverGroup.getICOTIM()).
+@return the carryover for the slot.
+@throws Exception if no slot has the carryover date or the carryover cannot be read.
+*/
+public NWSRFS_CarryoverSlot readCarryoverSlot(NWSRFS_CarryoverGroup cg, int julianDay, int hour)
+throws Exception {
+	if (cg == null) {
+		throw new Exception("The carryover group is null.");
+	}
+	if (cg.getNSLOTS() <= 0) {
+		cg = readCarryoverGroup(cg.getCGID(), true);
+	}
+	int[] ICODAY = cg.getICODAY();
+	int[] ICOTIM = cg.getICOTIM();
+	for (int i = 0; i < cg.getNSLOTS() && i < ICODAY.length && i < ICOTIM.length; i++) {
+		if (ICODAY[i] == julianDay && ICOTIM[i] == hour) {
+			return readCarryoverSlot(cg, i);
+		}
+	}
+	throw new Exception("Carryover group \"" + cg.getCGID() + "\" has no carryover slot for Julian day "
+		+ julianDay + " hour " + hour + ".");
+}
+
+/**
+Read the carryover for all segments in a carryover group for one carryover slot.
+This reads the same values as readCarryover() (for each segment and slot) but without
+reading the segments: the segments in the carryover group are determined with one
+sequential pass over the FCSEGSTS records (using FCSEGPTR) and the carryover records for the
+slot are then read from FCCARRY in file order, with one read for each block of adjacent records.
+The values are returned in primitive arrays rather than NWSRFS_Carryover objects.
+@param cg the carryover group.  If the carryover group was not read with deepRead=true
+it is read again to get the slot information.
+@param slot the carryover slot number (zero based, see NWSRFS_Carryover.getSlotNumber()).
+@return the carryover for the slot.
+@throws Exception if the slot is not valid or the database files cannot be read.
+*/
+public NWSRFS_CarryoverSlot readCarryoverSlot(NWSRFS_CarryoverGroup cg, int slot)
+throws Exception {
+	String routine = "NWSRFS_DMI.readCarryoverSlot";
+	if (cg == null) {
+		throw new Exception("The carryover group is null.");
+	}
+	if (cg.getNSLOTS() <= 0) {
+		// Need the slot information from the full carryover group definition
+		cg = readCarryoverGroup(cg.getCGID(), true);
+	}
+	if (slot < 0 || slot >= cg.getNSLOTS()) {
+		throw new Exception("Carryover slot " + slot + " is not valid for carryover group \""
+			+ cg.getCGID() + "\" (" + cg.getNSLOTS() + " slots).");
+	}
+
+	// Determine the segments in the carryover group from the FCSEGSTS records, in record order.
+	NWSRFS_FCSEGPTR fcsegptr = getFcsegptrInternal();
+	List<Integer> irecList = fcsegptr.getIREC();
+	int size = 0;
+	if (irecList != null && fcsegptr.getISEG() != null) {
+		size = Math.min(irecList.size(), fcsegptr.getISEG().size());
+	}
+	int[] records = new int[size];
+	for (int i = 0; i < size; i++) {
+		records[i] = irecList.get(i).intValue();
+	}
+	Arrays.sort(records);
+
+	if (!checkRandomAccessFileOpen(__FCSEGSTS, true)) {
+		throw new Exception("Cannot open the " + __dbFileNames[__FCSEGSTS] + " binary database file");
+	}
+	EndianRandomAccessFile raFile = getDBFile(__FCSEGSTS);
+	MappedByteBuffer mapped = getMappedBuffer(raFile);
+	int byteLength = __byteLength[__FCSEGSTS];
+	int blockRecords = 100;
+	NWSRFS_RecordReader reader = new NWSRFS_RecordReader(__isBigEndian, blockRecords*byteLength);
+	List<String> segIDs = new ArrayList<>();
+	NWSRFS_IntList segIWOCRY = new NWSRFS_IntList();
+	NWSRFS_IntList segNC = new NWSRFS_IntList();
+	long blockStart = 0;
+	int blockCount = 0;
+	for (int i = 0; i < size; i++) {
+		if (records[i] <= 0 || (i > 0 && records[i] == records[i - 1])) {
+			continue;
+		}
+		long index = records[i] - 1;
+		if (index < blockStart || index >= blockStart + blockCount) {
+			blockStart = index;
+			if (mapped == null) {
+				blockCount = reader.readBlock(raFile, blockStart, byteLength, blockRecords);
+			}
+			else {
+				blockCount = reader.readBlock(mapped, blockStart, byteLength, blockRecords);
+			}
+			if (blockCount == 0) {
+				break;
+			}
+		}
+		// Parse only the fields that are needed (see readSegment() for the record layout)
+		reader.setPosition((int)(index - blockStart)*byteLength);
+		String IDSEG = reader.readString(8);
+		reader.skipBytes(60);
+		int IWOCRY = reader.readInt();
+		reader.skipBytes(8);
+		String ICGID = reader.readString(8);
+		reader.skipBytes(52);
+		int NC = reader.readInt();
+		if (IDSEG.length() > 0 && ICGID.equalsIgnoreCase(cg.getCGID())) {
+			segIDs.add(IDSEG);
+			segIWOCRY.addInt(IWOCRY);
+			segNC.addInt(NC);
+		}
+	}
+	int nseg = segIDs.size();
+	Message.printStatus(10, routine, "Carryover group \"" + cg.getCGID() + "\" has " + nseg + " segments.");
+
+	// Sort the segments by the position of their carryover in FCCARRY.
+	// The position and length are the same as used by readCarryover().
+	final long[] positions = new long[nseg];
+	int[] lengths = new int[nseg];
+	Integer[] order = new Integer[nseg];
+	for (int i = 0; i < nseg; i++) {
+		positions[i] = (long)(slot + 1)*cg.getNRSLOT() + (long)(segIWOCRY.getInt(i) - 1)*__WORDSIZE;
+		lengths[i] = 40 + segNC.getInt(i);
+		order[i] = Integer.valueOf(i);
+	}
+	Arrays.sort(order, new Comparator<Integer>() {
+		public int compare(Integer i1, Integer i2) {
+			return Long.compare(positions[i1.intValue()], positions[i2.intValue()]);
+		}
+	});
+
+	if (!checkRandomAccessFileOpen(__FCCARRY, true)) {
+		throw new Exception("Cannot open the " + __dbFileNames[__FCCARRY] + " binary database file");
+	}
+	raFile = getDBFile(__FCCARRY);
+	mapped = getMappedBuffer(raFile);
+	long fileLength = raFile.length();
+	int maxBlockBytes = 1024*1024;
+	int[] ICDAY = new int[nseg];
+	int[] ICHR = new int[nseg];
+	int[] NC = new int[nseg];
+	int[][] LUPTIM = new int[nseg][];
+	int[][] opNumbers = new int[nseg][];
+	String[][] opNames = new String[nseg][];
+	int[][] coOperationPointers = new int[nseg][];
+	float[][][] values = new float[nseg][][];
+	boolean[] found = new boolean[nseg];
+	int k = 0;
+	while (k < nseg) {
+		// Determine the block of adjacent records to read with one read.
+		long start = positions[order[k].intValue()];
+		long end = start + lengths[order[k].intValue()];
+		int kend = k + 1;
+		while (kend < nseg) {
+			int is = order[kend].intValue();
+			long isEnd = Math.max(end, positions[is] + lengths[is]);
+			if (isEnd - start > maxBlockBytes) {
+				break;
+			}
+			end = isEnd;
+			kend++;
+		}
+		end = Math.min(end, fileLength);
+		if (end > start) {
+			if (mapped == null) {
+				reader.readAt(raFile, start, (int)(end - start));
+			}
+			else {
+				reader.readAt(mapped, start, (int)(end - start));
+			}
+		}
+		for (; k < kend; k++) {
+			int is = order[k].intValue();
+			if (positions[is] + lengths[is] > end) {
+				Message.printWarning(3, routine, "Carryover record for segment \"" + segIDs.get(is)
+					+ "\" slot " + slot + " extends past the end of " + __dbFileNames[__FCCARRY] + ".");
+				continue;
+			}
+			int recordStart = (int)(positions[is] - start);
+			found[is] = parseCarryoverSlotRecord(reader, recordStart, recordStart + lengths[is],
+				segIDs.get(is), segNC.getInt(is), is, ICDAY, ICHR, NC, LUPTIM, opNumbers, opNames,
+				coOperationPointers, values);
+		}
+	}
+
+	NWSRFS_CarryoverSlot coSlot = new NWSRFS_CarryoverSlot(cg.getCGID(), slot);
+	for (int i = 0; i < nseg; i++) {
+		if (found[i]) {
+			coSlot.addSegment(segIDs.get(i), ICDAY[i], ICHR[i], NC[i], LUPTIM[i], opNumbers[i], opNames[i],
+				coOperationPointers[i], values[i]);
+		}
+	}
+	return coSlot;
+}
+
+/**
+Parse the carryover record for one segment and slot from a record reader, for readCarryoverSlot().
+The record is parsed in the same way as parseCarryoverRecord() so that the results are the same
+as readCarryover().
+@param reader the reader containing the record.
+@param recordStart the position of the record in the reader.
+@param recordEnd the position after the end of the record in the reader.
+@param segID the segment identifier.
+@param segNC the length of the C array from the segment definition.
+@param is the segment index in the output arrays.
+@return true if the record is for the segment, false if not.
+*/
+private boolean parseCarryoverSlotRecord(NWSRFS_RecordReader reader, int recordStart, int recordEnd,
+String segID, int segNC, int is, int[] ICDAY, int[] ICHR, int[] NC, int[][] LUPTIM, int[][] opNumbers,
+String[][] opNames, int[][] coOperationPointers, float[][][] values) {
+	reader.setPosition(recordStart);
+	if (recordEnd - recordStart < 40) {
+		return false;
+	}
+	String IDSEG = reader.readString(8);
+	if (!IDSEG.equalsIgnoreCase(segID)) {
+		return false;
+	}
+	ICDAY[is] = reader.readInt();
+	ICHR[is] = reader.readInt();
+	NC[is] = reader.readInt();
+	LUPTIM[is] = new int[5];
+	for (int i = 0; i < 5; i++) {
+		LUPTIM[is][i] = reader.readInt();
+	}
+
+	int[] opNumber = new int[Math.max(0, segNC)];
+	String[] opName = new String[opNumber.length];
+	int[] coOperationPointer = new int[opNumber.length];
+	float[][] coValues = new float[opNumber.length][];
+	int cIndex = 0;
+	while (cIndex * 5 < segNC) {
+		if (recordEnd - reader.getPosition() < 20) {
+			break;
+		}
+		opNumber[cIndex] = reader.readInt();
+		int nextOP = reader.readInt();
+		String parseChar = reader.readString(8);
+		if (parseChar.length() != 0) {
+			opName[cIndex] = compactString(parseChar);
+		}
+		else {
+			opName[cIndex] = null;
+		}
+		coOperationPointer[cIndex] = reader.readInt();
+		int count = Math.max(0, nextOP - 4);
+		if (recordEnd - reader.getPosition() < count*__WORDSIZE) {
+			// Incomplete values - the operation is not included, as in parseCarryoverRecord()
+			break;
+		}
+		coValues[cIndex] = new float[count];
+		reader.readFloats(coValues[cIndex], 0, count);
+		// As in parseCarryoverRecord(), stop if there are not enough bytes for another operation
+		// (the operation that was just read is not included).
+		if (recordEnd - reader.getPosition() < 36) {
+			break;
+		}
+		if (opNumber[cIndex] == -1) {
+			break;
+		}
+		cIndex++;
+	}
+	opNumbers[is] = Arrays.copyOf(opNumber, cIndex);
+	opNames[is] = Arrays.copyOf(opName, cIndex);
+	coOperationPointers[is] = Arrays.copyOf(coOperationPointer, cIndex);
+	values[is] = Arrays.copyOf(coValues, cIndex);
+	return true;
+}
+
+/**
+Read carryover values from the FCCARRY binary database file.  This is used by
+NWSRFS_Carryover to read the values on demand when compact topology is enabled
+(see setCompactTopology()).
+@param position the byte position of the first value in the FCCARRY file.
+@param count the number of values to read.
+@return the carryover values.
+@throws Exception if the FCCARRY file cannot be opened or the values cannot be read.
+*/
+protected NWSRFS_FloatList readCarryoverValues(long position, int count)
+throws Exception {
+	if (count <= 0) {
+		return new NWSRFS_FloatList(0);
+	}
+	if (!checkRandomAccessFileOpen(__FCCARRY, true)) {
+		throw new Exception("Cannot open the " + __dbFileNames[__FCCARRY] + " binary database file");
+	}
+	return new NWSRFS_FloatList(readFloatValues(getDBFile(__FCCARRY), position, count));
+}
+
 /** 
 This method is used to read in the values from the FCCOGDEF NWSRFS Fortran 
 database file into the data members of the NWSRFS_CarryoverGroup class. The data
@@ -4938,10 +6249,10 @@ throws Exception {
 			throw new Exception("Cannot open the " + __dbFileNames[__FCCOGDEF] + " binary database file");
 		}
 	
-		rewind(__NWSRFS_DBFiles[__FCCOGDEF]);
+		rewind(getDBFile(__FCCOGDEF));
 		// Read the first record which holds the record number for the
 		// specific carryover group to get records for.
-		EndianDataInputStream EDIS = read(__NWSRFS_DBFiles[__FCCOGDEF],0,__byteLength[__FCCOGDEF]);
+		EndianDataInputStream EDIS = read(getDBFile(__FCCOGDEF),0,__byteLength[__FCCOGDEF]);
 	
 		// If read only header for CGs then do not store any of the first record but do need to read
 		// a couple of fields to get the record number of the CG_ID have passed in.
@@ -5054,10 +6365,10 @@ throws Exception {
 		}
 	
 		// Now rewind to get the record
-		rewind(__NWSRFS_DBFiles[__FCCOGDEF]);
+		rewind(getDBFile(__FCCOGDEF));
 	
 		//Get the record which holds the members of the CG definition status
-		EDIS = read(__NWSRFS_DBFiles[__FCCOGDEF], recordNum - 1, __byteLength[__FCCOGDEF]);
+		EDIS = read(getDBFile(__FCCOGDEF), recordNum - 1, __byteLength[__FCCOGDEF]);
 		
 		// Now if read only the header only store the CGID, CGNAME, and Number of FGs in this CG
 		if (!deepRead) {
@@ -5212,10 +6523,10 @@ throws Exception
 	}
 
 	// read only the first record to get the CGIDS array
-	rewind(__NWSRFS_DBFiles[__FCCOGDEF]);
+	rewind(getDBFile(__FCCOGDEF));
 	// Read the first record which holds the record number for the
 	// specific carryover group to get records for.
-	EndianDataInputStream EDIS = read(__NWSRFS_DBFiles[__FCCOGDEF], 0, __byteLength[__FCCOGDEF]);
+	EndianDataInputStream EDIS = read(getDBFile(__FCCOGDEF), 0, __byteLength[__FCCOGDEF]);
 		
 	// Create an instance of NWSRFS_CarryoverGroup
 	NWSRFS_CarryoverGroup cgFile = new NWSRFS_CarryoverGroup();
@@ -5423,7 +6734,7 @@ throws Exception {
 	}
 
 	// Get the first record which holds the number of rating curves defined.
-	EndianDataInputStream EDIS = read(__NWSRFS_DBFiles[__FCRCPTR], 0, __byteLength[__FCRCPTR]);
+	EndianDataInputStream EDIS = read(getDBFile(__FCRCPTR), 0, __byteLength[__FCRCPTR]);
 
 	// Now get record one information. The three public int members
 	// will make up the 12 bytes - 4 bytes each. 
@@ -5449,7 +6760,7 @@ throws Exception {
 			segChar = new char[8];
 
 			// Get the record which holds the members of the rating curves index.
-			EDIS = read(__NWSRFS_DBFiles[__FCRCPTR], 0, __byteLength[__FCRCPTR]);
+			EDIS = read(getDBFile(__FCRCPTR), 0, __byteLength[__FCRCPTR]);
 
 			// Now parse the characters in stream
 			for (i = 0; i < 8; i++) {
@@ -5517,7 +6828,7 @@ throws Exception {
 	}
 
 	// Get the first record.
-	EndianDataInputStream EDIS = read(__NWSRFS_DBFiles[__FCSEGPTR], 0, __byteLength[__FCSEGPTR]);
+	EndianDataInputStream EDIS = read(getDBFile(__FCSEGPTR), 0, __byteLength[__FCSEGPTR]);
 
 	// Now get record one information. The three public int members
 	// will make up the 12 bytes - 4 bytes each. 
@@ -5529,7 +6840,7 @@ throws Exception {
 	EDIS.close();
 
 	// Get the second record. 
-	EDIS = read(__NWSRFS_DBFiles[__FCSEGPTR], 0, __byteLength[__FCSEGPTR]);
+	EDIS = read(getDBFile(__FCSEGPTR), 0, __byteLength[__FCSEGPTR]);
 
 	// Now get record one information. The three public int members
 	// will make up the 12 bytes - 4 bytes each. 
@@ -5553,7 +6864,7 @@ throws Exception {
 			segChar = new char[8];
 
 			// Get the record which holds the members of the rating curves index.
-			EDIS = read(__NWSRFS_DBFiles[__FCSEGPTR], 0, __byteLength[__FCSEGPTR]);
+			EDIS = read(getDBFile(__FCSEGPTR), 0, __byteLength[__FCSEGPTR]);
 
 			// Now parse the characters in stream
 			for (i = 0; i < 8; i++) {
@@ -5645,7 +6956,7 @@ throws Exception {
 			+ __dbFileNames[__FCFGSTAT] + " binary database file");
 	}
 
-	rewind(__NWSRFS_DBFiles[__FCFGSTAT]);
+	rewind(getDBFile(__FCFGSTAT));
 
 	char[] charValue;
 	EndianDataInputStream EDIS = null;
@@ -5659,7 +6970,7 @@ throws Exception {
 	while (true) {
 		try {
 			// Read the record 
-			EDIS = read(__NWSRFS_DBFiles[__FCFGSTAT], 0, __byteLength[__FCFGSTAT]);
+			EDIS = read(getDBFile(__FCFGSTAT), 0, __byteLength[__FCFGSTAT]);
 		
 			// Field 1 - [type field name here]
 			charValue = new char[8];
@@ -5763,17 +7074,17 @@ throws Exception {
 	}
 
 	// Set the file position
-	rewind(__NWSRFS_DBFiles[__FCFGLIST]);
+	rewind(getDBFile(__FCFGLIST));
 	if (fgFile.getIREC() > 0) {
 // TODO (JTS - 2004-08-21) explain the magic number 8	
-		seek(__NWSRFS_DBFiles[__FCFGLIST], (fgFile.getIREC() - 1) * 8, readOFSFS5Files);
+		seek(getDBFile(__FCFGLIST), (fgFile.getIREC() - 1) * 8, readOFSFS5Files);
 	}
 
 	int j = 0;
 	int nseg = fgFile.getNSEG();
 	for (i = 0; i < nseg; i++) {
 		// Read the record from the FCFGLIST binary file to get segment ID
-		EDIS = read(__NWSRFS_DBFiles[__FCFGLIST], 0, 8);
+		EDIS = read(getDBFile(__FCFGLIST), 0, 8);
 
 		// Read the values of the record
 		// Field 1 - [type field name here]
@@ -5831,12 +7142,12 @@ throws Exception
 		throw new Exception("Cannot open the "+ __dbFileNames[__FCFGSTAT] + " binary database file");
 	}
 
-	rewind(__NWSRFS_DBFiles[__FCFGSTAT]);
+	rewind(getDBFile(__FCFGSTAT));
 
 	// Need to continue until an EOFException is caught
 	while (true) {
 		try {
-			EDIS = read(__NWSRFS_DBFiles[__FCFGSTAT], 0, __byteLength[__FCFGSTAT]);
+			EDIS = read(getDBFile(__FCFGSTAT), 0, __byteLength[__FCFGSTAT]);
 			// Create a new forecast group to hold the information (add to list if matches CG).
 			NWSRFS_ForecastGroup fgFile = new NWSRFS_ForecastGroup(null);
 	
@@ -6023,7 +7334,7 @@ public List<String> readMAPAreaList() throws Exception
 	}
 	else {
 		// Loop through the ID.size number of records
-		for(int i=0;i<(pppindex.getID()).size();i++) {
+		for(int i : pppindex.getIndexPositions("MAP")) {
 			// If the type is MAP add to the Vector
 			if(((String)(pppindex.getITYPE()).get(i)).equalsIgnoreCase("MAP")) {
 				map = new NWSRFS_MAP((String)(pppindex.getID()).get(i));
@@ -6058,7 +7369,7 @@ public List<String> readMAPEAreaList() throws Exception
 	}
 	
 	// Loop through the ID.size number of records
-	for(int i=0;i<(pppindex.getID()).size();i++) {
+	for(int i : pppindex.getIndexPositions("MAPE")) {
 		// If the type is MAPE add to the Vector
 		if(((String)(pppindex.getITYPE()).get(i)).equalsIgnoreCase("MAPE")) {
 			mapeAreaList.add((String)(pppindex.getID()).get(i));
@@ -6089,7 +7400,7 @@ public List<String> readMAPSAreaList() throws Exception
 	}
 	
 	// Loop through the ID.size number of records
-	for(int i=0;i<(pppindex.getID()).size();i++) {
+	for(int i : pppindex.getIndexPositions("MAPS")) {
 		// If the type is MAPS add to the Vector
 		if(((String)(pppindex.getITYPE()).get(i)).equalsIgnoreCase("MAPS")) {
 			mapsAreaList.add((String)(pppindex.getID()).get(i));
@@ -6120,7 +7431,7 @@ public List<String> readMAPXAreaList() throws Exception
 	}
 	
 	// Loop through the ID.size number of records
-	for(int i=0;i<(pppindex.getID()).size();i++) {
+	for(int i : pppindex.getIndexPositions("MAPX")) {
 		// If the type is MAPX add to the Vector
 		if(((String)(pppindex.getITYPE()).get(i)).equalsIgnoreCase("MAPX")) {
 			mapxAreaList.add((String)(pppindex.getID()).get(i));
@@ -6216,7 +7527,7 @@ public List<String> readMATAreaList() throws Exception
 	}
 	else {
 		// Loop through the ID.size number of records
-		for(int i=0;i<(pppindex.getID()).size();i++) {
+		for(int i : pppindex.getIndexPositions("MAT")) {
 			// If the type is MAT add to the Vector
 			if(((String)(pppindex.getITYPE()).get(i)).equalsIgnoreCase("MAT")) {
 				mat = new NWSRFS_MAT((String)(pppindex.getID()).get(i));
@@ -6317,7 +7628,7 @@ public List<String> readNTWKParamList() throws Exception
 	}
 	else {
 		// Loop through the ID.size number of records
-		for(int i=0;i<(pppindex.getID()).size();i++) {
+		for(int i : pppindex.getIndexPositions("NTWK")) {
 			// If the type is NTWK add to the Vector
 			if(((String)(pppindex.getITYPE()).get(i)).equalsIgnoreCase("NTWK")) {
 				network = new NWSRFS_NTWK((String)(pppindex.getID()).get(i));
@@ -6391,14 +7702,12 @@ throws Exception {
 	//int recordNum = (int)((nwords + recordLengthInWords - 1)/ recordLengthInWords);
 	int bytesToRead = nwords * __WORDSIZE;
 
-	// Read the number of bytes for this Segment
-	rewind(__NWSRFS_DBFiles[__FCPARAM]);
-
+	// Read the number of bytes for this Segment (or use the cached record)
 //sw3.start();
-// TODO (JTS - 2004-08-21)
-// explain the magic number 1
-	EndianDataInputStream EDIS = read(__NWSRFS_DBFiles[__FCPARAM],
-		segObject.getIPREC() - 1, __byteLength[__FCPARAM], bytesToRead, true);
+	byte[] record = readOperationParameterRecord(segObject, bytesToRead);
+	EndianDataInputStream EDIS = new EndianDataInputStream(
+		(InputStream)new ByteArrayInputStream(record),true);
+	EDIS.setBigEndian(__isBigEndian);
 //sw3.stop();
 	// Field 1 - [type field name here]
 	char[] charValue = new char[8];
@@ -6438,6 +7747,52 @@ throws Exception {
 	return segObject.getOperations();
 }
 
+/**
+Read the FCPARAM operation parameter record (the segment identifier and the P, T, and
+TS arrays) for a segment, using the operation parameter cache if enabled.  The returned
+array may be shared with the cache and must not be modified.
+@param segObject the segment, which provides the parameter record (IPREC).
+@param bytesToRead the number of bytes in the segment's parameter arrays.
+@return the bytes of the operation parameter record.
+@throws Exception if the record cannot be read.
+*/
+private byte[] readOperationParameterRecord(NWSRFS_Segment segObject, int bytesToRead)
+throws Exception {
+	if (bytesToRead < 0) {
+		bytesToRead = 0;
+	}
+	String key = null;
+	if (__opParamCache.getMaxEntries() > 0) {
+		String identity = __opParamCacheIdentity;
+		long now = System.currentTimeMillis();
+		if (identity == null || (now - __opParamCacheCheckTime) >= __OP_PARAM_CHECK_INTERVAL) {
+			// Check for changes by other processes, but not on every read
+			File f = getDBFileObject(__FCPARAM);
+			identity = f.getPath() + ":" + f.length() + ":" + f.lastModified();
+			if (!identity.equals(__opParamCacheIdentity)) {
+				// New or changed file so the cached records are out of date
+				__opParamCache.clear();
+				__opParamCacheIdentity = identity;
+			}
+			__opParamCacheCheckTime = now;
+		}
+		key = identity + ":" + segObject.getIPREC() + ":" + bytesToRead;
+		byte[] record = __opParamCache.get(key);
+		if (record != null) {
+			return record;
+		}
+	}
+
+	// IPREC is one based
+	long position = (long)(segObject.getIPREC() - 1)*__byteLength[__FCPARAM];
+	byte[] record = new byte[bytesToRead];
+	readRecordAt(getDBFile(__FCPARAM), position, bytesToRead).getByteBuffer().get(record);
+	if (key != null) {
+		__opParamCache.put(key, record);
+	}
+	return record;
+}
+
 /** 
 Reads the preprocessed parameteric database to fill the data members of the
 NWSRFS_ORRS object argument. It will read the information from the 
@@ -6525,7 +7880,7 @@ public List<String> readORRSParamList() throws Exception
 	}
 	else {
 		// Loop through the ID.size number of records
-		for(int i=0;i<(pppindex.getID()).size();i++) {
+		for(int i : pppindex.getIndexPositions("ORRS")) {
 			// If the type is ORRS add to the Vector
 			if(((String)(pppindex.getITYPE()).get(i)).equalsIgnoreCase("ORRS")) {
 				orrsObj = new NWSRFS_ORRS((String)(pppindex.getID()).get(i));
@@ -6547,30 +7902,258 @@ preprocessor database for daily data types.
 @param tsDT this is the String value of the TimeSeries data type. It is
 necessary that the data type be supplied to get a unique set of Time Series from the data files.
 @param tsDTInterval this is the int value of the TimeSeries data time interval. 
-It is necessary that the data time interval be supplied to get a unique set of 
-Time Series from the data files.
+Daily data are only available with a 24 hour interval (0 is also accepted).
+@param readData if true the data are read, if false only the station array location and the
+period of the data type are determined.
 @return an NWSRFS_PDBDLY object which holds all of the information and data
-from the PDBDLYn binary files.
+from the PDBDLYn binary files, or null if the interval is not 24 hours.
 @throws Exception if there is an error reading from the database.
 */
-/* FIXME SAM 2008-04-07 Uncomment if functionality is enabled.
 private NWSRFS_PDBDLY readPDBDLY(String tsID, String tsDT, int tsDTInterval,
 boolean readData) throws Exception
 {
-	String routine = "NWSRFS_DMI.readPDBDLY";
+	if (tsDTInterval != 0 && tsDTInterval != 24) {
+		return null;
+	}
+	List<String> stationIDs = new ArrayList<>(1);
+	stationIDs.add(tsID);
+	List<NWSRFS_PDBDLY> pdbList = readPDBDLYStations(stationIDs, tsDT, -1, -1, readData);
+	if (pdbList.size() == 0) {
+		return null;
+	}
+	return pdbList.get(0);
+}
 
-	// If we have not previously retreived this time series create a 
-	// new NWSRFS_PDBDLY object
-	//NWSRFS_PDBDLY pdbFile = new NWSRFS_PDBDLY(tsID);
+/**
+Reads the daily data for a list of stations from the NWSRFS preprocessor database.
+The daily data type directory in PDBINDEX is used to locate the data records for the
+data type in the PDBDLYn file, and the records for the period are read with one read
+(two if the period wraps around the end of the circular day records), rather than once
+for each station and day.  Read data types (e.g., PP24, TM24, EA24) and the write data
+types stored in them (e.g., TX24 and TN24 in TM24, TA24 in EA24) can be requested.
+The less than 24-hour, forecast temperature, MDR and stranger station types are not handled.
+@param stationIDs the station identifiers.
+@param tsDT the daily data type.
+@param date1 the start of the period to read, or null to read from the earliest data.
+The value for a day is stored at the end of the day (hour 24).
+@param date2 the end of the period to read, or null to read to the latest data.
+@return a list of NWSRFS_PDBDLY, one for each station in the order requested.  If a station
+does not have the data type, the array location in its NWSRFS_PDBDLY is -1 and there are no values.
+@throws Exception if the data type is not a daily data type that can be read, or there is
+an error reading from the database.
+*/
+public List<NWSRFS_PDBDLY> readPDBDLYList(List<String> stationIDs, String tsDT, DateTime date1,
+DateTime date2)
+throws Exception {
+	int day1 = -1;
+	int day2 = -1;
+	if (date1 != null) {
+		// First day with the value at or after the date
+		int julianHour = NWSRFS_Util.getJulianHour1900FromDate(date1.getMonth(), date1.getDay(),
+			date1.getYear(), date1.getHour());
+		day1 = (julianHour + 23)/24;
+	}
+	if (date2 != null) {
+		// Last day with the value at or before the date
+		int julianHour = NWSRFS_Util.getJulianHour1900FromDate(date2.getMonth(), date2.getDay(),
+			date2.getYear(), date2.getHour());
+		day2 = julianHour/24;
+	}
+	return readPDBDLYStations(stationIDs, tsDT, day1, day2, true);
+}
 
-	// Throw an error since we have not implement this yet!	
-	Message.printWarning(20,routine,"The Time Series Data Type is a daily "
-		+ "data type. Currently only RRS data types are pulled "+
-		"from the preprocessor database.");
-	
-	return null;
+/**
+Reads the daily data for a list of stations from the PDBDLYn file for the data type.
+See readPDBDLYList().
+@param stationIDs the station identifiers.
+@param tsDT the daily data type.
+@param day1 the Julian day of the first day to read, or -1 to read from the earliest data.
+@param day2 the Julian day of the last day to read, or -1 to read to the latest data.
+@param readData if true the data are read, if false only the station array locations and
+the period of the data type are determined.
+@return a list of NWSRFS_PDBDLY, one for each station in the order requested.
+@throws Exception if the data type is not a daily data type that can be read, or there is
+an error reading from the database.
+*/
+private List<NWSRFS_PDBDLY> readPDBDLYStations(List<String> stationIDs, String tsDT, int day1, int day2,
+boolean readData)
+throws Exception {
+	String routine = "NWSRFS_DMI.readPDBDLYStations";
+	List<NWSRFS_PDBDLY> pdbList = new ArrayList<>();
+	if (tsDT == null) {
+		throw new Exception("The time series data type argument is empty.");
+	}
+	String readDT = getPDBDLYReadDataType(tsDT);
+	if (readDT == null) {
+		throw new Exception("The data type \"" + tsDT + "\" is not a daily data type that can be "
+			+ "read from the preprocessor database.");
+	}
+	if (stationIDs == null || stationIDs.size() == 0) {
+		return pdbList;
+	}
+	NWSRFS_PDBINDEX pdbIndex = getPDBIndex();
+	if (pdbIndex == null) {
+		setPDBIndex(readPDBINDEX());
+		pdbIndex = getPDBIndex();
+	}
+
+	// Find the data type in the Daily Data Type Directory
+	int typeIndex = -1;
+	for (int i = 0; i < pdbIndex.getDTYPE().size(); i++) {
+		if (readDT.equalsIgnoreCase(pdbIndex.getDTYPE(i))) {
+			typeIndex = i;
+			break;
+		}
+	}
+	int LUFILE = -1;
+	int EDATE = -1;
+	int LDATE = -1;
+	if (typeIndex >= 0) {
+		LUFILE = pdbIndex.getLUFILE(typeIndex);
+		EDATE = pdbIndex.getEDATE(typeIndex);
+		LDATE = pdbIndex.getLDATEDDT(typeIndex);
+	}
+	else {
+		Message.printWarning(3, routine, "The daily data type \"" + readDT
+			+ "\" is not defined in the preprocessor database.");
+	}
+
+	// Determine the array location of each station
+	int nsta = stationIDs.size();
+	int[] locations = new int[nsta];
+	for (int i = 0; i < nsta; i++) {
+		String staID = stationIDs.get(i);
+		NWSRFS_PDBDLY pdbFile = new NWSRFS_PDBDLY(staID);
+		pdbFile.setDTYPE(readDT);
+		pdbFile.setLUFILE(LUFILE);
+		pdbFile.setEDATE(EDATE);
+		pdbFile.setLDATE(LDATE);
+		locations[i] = -1;
+		int index = (typeIndex < 0) ? -1 : pdbIndex.getSTAIDIndex(staID);
+		if (index >= 0) {
+			pdbFile.setNUMID(pdbIndex.getNUMID(index));
+			locations[i] = getPDBDLYArrayLocation(pdbIndex, index, readDT);
+		}
+		pdbFile.setARRLOC(locations[i]);
+		pdbList.add(pdbFile);
+	}
+	if (!readData || typeIndex < 0 || EDATE <= 0 || LDATE < EDATE) {
+		return pdbList;
+	}
+
+	// Determine the days to read
+	if (day1 < 0 || day1 < EDATE) {
+		day1 = EDATE;
+	}
+	if (day2 < 0 || day2 > LDATE) {
+		day2 = LDATE;
+	}
+	if (day2 < day1) {
+		return pdbList;
+	}
+	if (LUFILE < 1 || LUFILE > 5) {
+		throw new Exception("The daily data file number " + LUFILE + " for data type \"" + readDT
+			+ "\" is not valid.");
+	}
+	int MAXDAY = pdbIndex.getMAXDAY(typeIndex);
+	int NREC1D = pdbIndex.getNREC1D(typeIndex);
+	int DATAR1 = pdbIndex.getDATAR1(typeIndex);
+	int ECRECN = pdbIndex.getECRECN(typeIndex);
+	if (MAXDAY <= 0 || NREC1D <= 0 || DATAR1 <= 0) {
+		throw new Exception("The daily data type directory for data type \"" + readDT + "\" is not valid.");
+	}
+	if (ECRECN <= 0) {
+		ECRECN = DATAR1;
+	}
+
+	// The PDBDLYn files follow PDBRRS in the list of database files
+	int filePointer = __PDBRRS + LUFILE;
+	if (!checkRandomAccessFileOpen(filePointer, true)) {
+		throw new Exception("Cannot open the " + __dbFileNames[filePointer] + " binary database file");
+	}
+	EndianRandomAccessFile raFile = getDBFile(filePointer);
+	MappedByteBuffer mapped = getMappedBuffer(raFile);
+	int dayBytes = NREC1D*__byteLength[filePointer];
+	int dayWords = dayBytes/2;
+	int circularRecords = MAXDAY*NREC1D;
+	int valueOffset = getPDBDLYValueOffset(tsDT);
+	float scale = getPDBDLYScale(tsDT);
+	NWSRFS_RecordReader reader = new NWSRFS_RecordReader(__isBigEndian, dayBytes);
+	int day = day1;
+	while (day <= day2) {
+		// The day records are circular starting at DATAR1 and the earliest day is at ECRECN
+		int record = ECRECN - DATAR1 + (day - EDATE)*NREC1D;
+		record = DATAR1 + ((record%circularRecords) + circularRecords)%circularRecords;
+		int ndays = Math.min(day2 - day + 1, (DATAR1 + circularRecords - record)/NREC1D);
+		if (ndays <= 0) {
+			break;
+		}
+		long position = (long)(record - 1)*__byteLength[filePointer];
+		if (mapped == null) {
+			reader.readAt(raFile, position, ndays*dayBytes);
+		}
+		else {
+			reader.readAt(mapped, position, ndays*dayBytes);
+		}
+		for (int id = 0; id < ndays; id++) {
+			for (int i = 0; i < nsta; i++) {
+				if (locations[i] <= 0) {
+					continue;
+				}
+				NWSRFS_PDBDLY pdbFile = pdbList.get(i);
+				// Array locations are one based I*2 words
+				int word = locations[i] - 1 + valueOffset;
+				float value = NWSRFS_PDBDLY.MISSING;
+				if (word < dayWords) {
+					reader.setPosition(id*dayBytes + word*2);
+					short ivalue = reader.readShort();
+					// Values of -9998 and less are missing data flags
+					if (ivalue > -9998) {
+						value = ivalue*scale;
+					}
+				}
+				pdbFile.addJULDAY(day + id);
+				pdbFile.addDATAVAL(value);
+			}
+		}
+		day += ndays;
+	}
+	Message.printStatus(10, routine, "Read " + (day2 - day1 + 1) + " days of \"" + tsDT + "\" data for "
+		+ nsta + " stations from " + __dbFileNames[filePointer] + ".");
+	return pdbList;
 }
+
+/**
+Read the PDBINDEX index, using the index sidecar file if one is current (see
+setIndexCacheDirectory()).  If the sidecar file is not current, the index is read from the
+PDBINDEX binary file and the sidecar file is rewritten.
+@return the NWSRFS_PDBINDEX object which stores the data from the PDBINDEX binary database file.
+@throws Exception if there were errors reading from the database.
 */
+private NWSRFS_PDBINDEX readPDBINDEX()
+throws Exception {
+	String routine = "NWSRFS_DMI.readPDBINDEX";
+	NWSRFS_IndexCache indexCache = __indexCache;
+	if (indexCache == null) {
+		return readPDBINDEXFile();
+	}
+	File indexFile = new File(__fs5FilesLocation + __dbFileNames[__PDBINDEX]);
+	NWSRFS_PDBINDEX index = indexCache.readPDBINDEX(indexFile, __isBigEndian);
+	if (index != null) {
+		Message.printStatus(10, routine, "Read PDBINDEX from index sidecar file.");
+		return index;
+	}
+	index = readPDBINDEXFile();
+	try {
+		indexCache.writePDBINDEX(index, indexFile, __isBigEndian);
+	}
+	catch (Exception e) {
+		// The sidecar is an optimization so continue with the index that was read.
+		Message.printWarning(3, routine, "Unable to write PDBINDEX index sidecar file in \""
+			+ indexCache.getDirectory() + "\" (" + e + ").");
+	}
+	return index;
+}
 
 /** 
 This method is used to read in the values from the PDBINDEX NWSRFS 
@@ -6582,7 +8165,7 @@ from the PDBINDEX binary database file. This is an index class and will
 be automatically instantiated when the NWSRFS_DMI is instantiated. This 
 is so that the index to the PDBTSn binary file will be in memory.
 */
-private NWSRFS_PDBINDEX readPDBINDEX() 
+private NWSRFS_PDBINDEX readPDBINDEXFile() 
 throws Exception
 {
 	int i = 0, j = 0, k = 0, INFREC, LFILE, NUMTYP, NUMDDF, NADDTP, SNWRDS;
@@ -6591,7 +8174,7 @@ throws Exception
 	EndianDataInputStream EDIS = null;
 	NWSRFS_PDBINDEX pdbindex = null;
 	List<String> tempADDDTPVect = null;
-	List<Integer> tempADTPTRVect = null;
+	NWSRFS_IntList tempADTPTRVect = null;
 
 	try {
 		// Create the RandoAccessFile
@@ -6604,7 +8187,7 @@ throws Exception
 		pdbindex = new NWSRFS_PDBINDEX();
 
 		// Get the first record which holds the parameter control records.
-		EDIS = read(__NWSRFS_DBFiles[__PDBINDEX], 0, __byteLength[__PDBINDEX]);
+		EDIS = read(getDBFile(__PDBINDEX), 0, __byteLength[__PDBINDEX]);
 
 		// Now get record one information. The four public int members
 		// will make up the 16 bytes - 4 bytes each. 
@@ -6636,7 +8219,7 @@ throws Exception
 		for (i = 0; i < NUMDDF; i++) {
 			// Each loop will need to read 16 bytes to get the
 			// position correct even though only 8 bytes are actually pulled from the stream.
-			EDIS = read(__NWSRFS_DBFiles[__PDBINDEX],0,16);
+			EDIS = read(getDBFile(__PDBINDEX),0,16);
 			pdbindex.addMDDFRC(EDIS.readEndianInt());
 			pdbindex.addLDDFRC(EDIS.readEndianInt());
 		
@@ -6645,13 +8228,13 @@ throws Exception
 		}
 	
 		// Read _byteLength bytes to position the stream to read in Daily Data Type Directory records
-		EDIS = read(__NWSRFS_DBFiles[__PDBINDEX],0,	__byteLength[__PDBINDEX]);
+		EDIS = read(getDBFile(__PDBINDEX),0,	__byteLength[__PDBINDEX]);
 		EDIS.close();
 
 		for (i = 0; i < NUMTYP; i++) {
 			// For each Daily Data Type we need to read in 48 bytes
 			// of data into the stream so that the position stays constant at the top of the DDT record.
-			EDIS = read(__NWSRFS_DBFiles[__PDBINDEX],0,48);
+			EDIS = read(getDBFile(__PDBINDEX),0,48);
 
 			pdbindex.addNWRDSDDT((int)EDIS.readEndianShort());
 		
@@ -6690,7 +8273,7 @@ throws Exception
 
 // PLEASE NOTE WE DO NOT CARE about the station index hashes. So we skip over them!
 		// Now get the Station Hash Indexes
-//		EDIS = read(__NWSRFS_DBFiles[__PDBINDEX],0,2*NHASHR);
+//		EDIS = read(getDBFile(__PDBINDEX),0,2*NHASHR);
 //		for (i = 0; i < NHASHR; i++) {
 //			pdbindex.IPDHSC.addElement( Integer.valueOf(EDIS.readEndianShort()));
 //		}
@@ -6698,7 +8281,7 @@ throws Exception
 		// Close the EndianDataInputStream
 //		EDIS.close();
 
-//		EDIS = read(__NWSRFS_DBFiles[__PDBINDEX],0,2*NHASHR);
+//		EDIS = read(getDBFile(__PDBINDEX),0,2*NHASHR);
 //		for (i = 0; i < NHASHR; i++) {
 //			pdbindex.IPDHSI.addElement( Integer.valueOf(EDIS.readEndianShort()));
 //		}
@@ -6707,9 +8290,9 @@ throws Exception
 //		EDIS.close();
 
 // Test read the first 512 bytes at record number to see what is really happening.
-//__NWSRFS_DBFiles[__PDBINDEX].seek(0);
-//__NWSRFS_DBFiles[__PDBINDEX].seek((INFREC)*64);
-//EDIS = read(__NWSRFS_DBFiles[__PDBINDEX], 0, 512);
+//getDBFile(__PDBINDEX).seek(0);
+//getDBFile(__PDBINDEX).seek((INFREC)*64);
+//EDIS = read(getDBFile(__PDBINDEX), 0, 512);
 //char[] charValue = new char[512];
 //for (i = 0; i < 512; i++) {
 //	byte byteValue = EDIS.readByte();
@@ -6719,13 +8302,13 @@ throws Exception
 //}
 	// Now seek to the first Station Information Record in index where 64 is
 	// the number of bytes in a record.
-		__NWSRFS_DBFiles[__PDBINDEX].seek(0);
-		__NWSRFS_DBFiles[__PDBINDEX].seek((INFREC)*64);
+		getDBFile(__PDBINDEX).seek(0);
+		getDBFile(__PDBINDEX).seek((INFREC)*64);
 		for(j=0;j<LFILE-INFREC;j++)
 		{
 			// Get the record which holds the number of words for
 			// the Station Information
-			EDIS = read(__NWSRFS_DBFiles[__PDBINDEX],0,2);
+			EDIS = read(getDBFile(__PDBINDEX),0,2);
 	
 			// Now get the number of words in the record information.
 			SNWRDS = (int)EDIS.readEndianShort();
@@ -6748,7 +8331,7 @@ throws Exception
 				recFactor = (int)(Math.floor(SNWRDS*2/64)+1);
 			}
 			else if(SNWRDS*2 >= 256 || SNWRDS*2 < 0) {
-				EDIS = read(__NWSRFS_DBFiles[__PDBINDEX],0,64*recFactor-2);
+				EDIS = read(getDBFile(__PDBINDEX),0,64*recFactor-2);
 				continue;
 			}
 			else if(SNWRDS == 0) {
@@ -6760,7 +8343,7 @@ throws Exception
 			// length, recFactor is the number of records to read 
 			// for this data line (defaults to 1), We subtract 
 			// 2 bytes for the SNWRDS value we read above!
-			EDIS = read(__NWSRFS_DBFiles[__PDBINDEX],0,64*recFactor-2);
+			EDIS = read(getDBFile(__PDBINDEX),0,64*recFactor-2);
 		
 			// Define the pppChar character array to hold segment info
 			pppChar = new char[8];
@@ -6791,7 +8374,7 @@ throws Exception
 
 			// Now define and loop through station data type records
 			tempADDDTPVect = new Vector<String>();
-			tempADTPTRVect = new Vector<Integer>();
+			tempADTPTRVect = new NWSRFS_IntList();
 			
 			for (i = 0; i < NADDTP; i++) {
 				// Define the pppChar character array to hold segment info
@@ -6806,7 +8389,7 @@ throws Exception
 				parseChar = parseChar.trim();
 				tempADDDTPVect.add(parseChar);
 
-				tempADTPTRVect.add(Integer.valueOf((int)EDIS.readEndianShort()));
+				tempADTPTRVect.addInt(EDIS.readEndianShort());
 			}
 			
 			// Add the temp Vectors to the pdbindex object
@@ -6827,7 +8410,7 @@ throws Exception
 			// necessary to read one addition record of 64 bytes because of this.
 			if(2*SNWRDS <= 64 && NADDTP > 1) {
 				EDIS.close();
-				EDIS = read(__NWSRFS_DBFiles[__PDBINDEX],0,64);
+				EDIS = read(getDBFile(__PDBINDEX),0,64);
 				EDIS.close();
 				continue;
 			}
@@ -6870,13 +8453,12 @@ necessary that the data type be supplied to get a unique set of Time Series from
 private NWSRFS_PDBRRS readPDBRRS(String tsID, String tsDT, int tsDTInterval, boolean readData) throws Exception {
 	char[] charValue = null;
 	EndianDataInputStream EDIS = null;
-	int i=0, j=0, recNum=-1, pdbAddDT=0, numObs=0;
+	int i=0, recNum=-1, numObs=0;
 	int checkInterval = 0;
 	int checkObsTime = 0;
 	float checkDataValue = 0;
 	String parseChar = null;
 	NWSRFS_PDBRRS pdbFile = null;
-	NWSRFS_PDBINDEX pdbIndex = null;
 	//NWSRFS_Station station = null;
 	
 	try {
@@ -6892,7 +8474,7 @@ private NWSRFS_PDBRRS readPDBRRS(String tsID, String tsDT, int tsDTInterval, boo
 	// for the Time series in the PRDTSn binary file.
 
 	// Read the first record to get the global values.
-	EDIS = read(__NWSRFS_DBFiles[__PDBRRS], 0,__byteLength[__PDBRRS]);
+	EDIS = read(getDBFile(__PDBRRS), 0,__byteLength[__PDBRRS]);
 
 	// Field 1 - Maximum primary record.
 	pdbFile.setMAXREC(EDIS.readEndianInt());
@@ -6939,35 +8521,8 @@ private NWSRFS_PDBRRS readPDBRRS(String tsID, String tsDT, int tsDTInterval, boo
 	// Close the Stream since the first record is read.
 	EDIS.close();
 	
-	// Now pull the station data. We loop through PDBINDEX Station Vector till we find the correct station..
-	pdbIndex = getPDBIndex();
-	//station = readStation(tsID,true);
-	
-	for(i = 0; i < (pdbIndex.getSTAID()).size(); i++) {
-		pdbAddDT = pdbIndex.getNADDTP(i);
-//Message.printStatus(10,routine,"  Station ID = "+tsID+"\n  getSTAID("+i+") = "+
-//pdbIndex.getSTAID(i)+"\n   Station Num = "+station.getStationNum()+
-//"\n   getNUMID("+i+") = "+pdbIndex.getNUMID(i));
-		if(tsID.equalsIgnoreCase(pdbIndex.getSTAID(i))) {
-			// If the number of additional data types is <= 0
-			// then no more data types to check so continue!
-			// Now addDTIndex is the true Vector index holding the additional data types!
-			if(pdbAddDT > 0) {
-				for(j = 0; j < pdbAddDT; j++) {
-//Message.printStatus(10,routine,"    DataType = "+tsDT+
-//"\n  ADDDTP("+i+","+j+") = "+pdbIndex.getADDDTP(i,j));
-					if((pdbIndex.getADDDTP(i,j)).equalsIgnoreCase(tsDT)) {
-						recNum = pdbIndex.getADTPTR(i,j);
-						break; // Inner loop
-					}
-				}
-			}
-			break; // Outer loop.
-		}
-	}
-
-	// Set pdbIndex to null to free up memory.
-	pdbIndex = null;
+	// Now pull the station data from the PDBINDEX station list.
+	recNum = getPDBRRSRecord(tsID, tsDT);
 	
 	// We now check to see if we have a valid record number if not
 	// we throw an exception if we intended to read data or return a null if we did not intend to read data!
@@ -6981,8 +8536,8 @@ private NWSRFS_PDBRRS readPDBRRS(String tsID, String tsDT, int tsDTInterval, boo
 	
 	// Now get the PDBRRS record for station and data type.
 	// Read the record at recNum 112 bytes to get the needed values.
-	__NWSRFS_DBFiles[__PDBRRS].seek(0);
-	EDIS = read(__NWSRFS_DBFiles[__PDBRRS], recNum-1,__byteLength[__PDBRRS],112);
+	getDBFile(__PDBRRS).seek(0);
+	EDIS = read(getDBFile(__PDBRRS), recNum-1,__byteLength[__PDBRRS],112);
 	
 	// Field 12 - Number of words in RRS primary record
 	pdbFile.setNWRDS(EDIS.readEndianInt());
@@ -7093,7 +8648,7 @@ private NWSRFS_PDBRRS readPDBRRS(String tsID, String tsDT, int tsDTInterval, boo
 		numObs = pdbFile.getNUMOBS()*3+1;
 		
 		// Open stream
-		EDIS = read(__NWSRFS_DBFiles[__PDBRRS], 0,numObs*4);
+		EDIS = read(getDBFile(__PDBRRS), 0,numObs*4);
 		
 		// Somehow an extra unknown byte needs to be read!!
 		EDIS.readEndianInt();
@@ -7135,7 +8690,7 @@ private NWSRFS_PDBRRS readPDBRRS(String tsID, String tsDT, int tsDTInterval, boo
 		numObs = pdbFile.getNUMOBS()*2+1;
 		
 		// Open stream
-		EDIS = read(__NWSRFS_DBFiles[__PDBRRS], 0,numObs*4);
+		EDIS = read(getDBFile(__PDBRRS), 0,numObs*4);
 		
 		// Somehow an extra unknown byte needs to be read!!
 		EDIS.readEndianInt();
@@ -7191,8 +8746,8 @@ private NWSRFS_PDBRRS readPDBRRS(String tsID, String tsDT, int tsDTInterval, boo
 	// Now get observations in free pool!!
 	// Go to the record. Only get the first 8 bytes so we can find out how many observations we need to get!
 	recNum = pdbFile.getIFREC1();
-	__NWSRFS_DBFiles[__PDBRRS].seek(0);
-	EDIS = read(__NWSRFS_DBFiles[__PDBRRS], recNum-1,__byteLength[__PDBRRS], 8);
+	getDBFile(__PDBRRS).seek(0);
+	EDIS = read(getDBFile(__PDBRRS), recNum-1,__byteLength[__PDBRRS], 8);
 	
 	// Field ... Pointer to next available free pool record
 	pdbFile.setNXTREC(EDIS.readEndianInt());
@@ -7210,7 +8765,7 @@ private NWSRFS_PDBRRS readPDBRRS(String tsID, String tsDT, int tsDTInterval, boo
 		numObs = pdbFile.getNVALSFP()*3;
 		
 		// Open stream
-		EDIS = read(__NWSRFS_DBFiles[__PDBRRS], 0,numObs*4);
+		EDIS = read(getDBFile(__PDBRRS), 0,numObs*4);
 		
 		// Read loop
 		for(i = 0;i < pdbFile.getNVALSFP();i++) {
@@ -7243,7 +8798,7 @@ private NWSRFS_PDBRRS readPDBRRS(String tsID, String tsDT, int tsDTInterval, boo
 		numObs = pdbFile.getNVALSFP()*2;
 		
 		// Open stream
-		EDIS = read(__NWSRFS_DBFiles[__PDBRRS], 0,numObs*4);
+		EDIS = read(getDBFile(__PDBRRS), 0,numObs*4);
 		
 		// Read loop
 		for(i = 0;i < pdbFile.getNVALSFP();i++) {
@@ -7291,6 +8846,38 @@ private NWSRFS_PDBRRS readPDBRRS(String tsID, String tsDT, int tsDTInterval, boo
 	return pdbFile;
 }
 
+/**
+Read the PPPINDEX index, using the index sidecar file if one is current (see
+setIndexCacheDirectory()).  If the sidecar file is not current, the index is read from the
+PPPINDEX binary file and the sidecar file is rewritten.
+@return the NWSRFS_PPPINDEX object which stores the data from the PPPINDEX binary database file.
+@throws Exception if there were errors reading from the database.
+*/
+private NWSRFS_PPPINDEX readPPPINDEX()
+throws Exception {
+	String routine = "NWSRFS_DMI.readPPPINDEX";
+	NWSRFS_IndexCache indexCache = __indexCache;
+	if (indexCache == null) {
+		return readPPPINDEXFile();
+	}
+	File indexFile = new File(__fs5FilesLocation + __dbFileNames[__PPPINDEX]);
+	NWSRFS_PPPINDEX index = indexCache.readPPPINDEX(indexFile, __isBigEndian);
+	if (index != null) {
+		Message.printStatus(10, routine, "Read PPPINDEX from index sidecar file.");
+		return index;
+	}
+	index = readPPPINDEXFile();
+	try {
+		indexCache.writePPPINDEX(index, indexFile, __isBigEndian);
+	}
+	catch (Exception e) {
+		// The sidecar is an optimization so continue with the index that was read.
+		Message.printWarning(3, routine, "Unable to write PPPINDEX index sidecar file in \""
+			+ indexCache.getDirectory() + "\" (" + e + ").");
+	}
+	return index;
+}
+
 /** 
 This method is used to read in the values from the PPPINDEX NWSRFS 
 preprocessor parameteric database file into the data members of the 
@@ -7302,11 +8889,10 @@ be automatically instantiated when the NWSRFS_DMI is instantiated. This
 is so that the index to the PPPPARMn binary file will be in memory.
 @throws Exception if there were errors reading from the database.
 */
-private NWSRFS_PPPINDEX readPPPINDEX() 
+private NWSRFS_PPPINDEX readPPPINDEXFile() 
 throws Exception
 {
 	NWSRFS_PPPINDEX ptrFile = new NWSRFS_PPPINDEX();
-	long randomAccessFileLength = 0;
 	// Define the pppChar character array to hold segment info
 	char[] pppChar = new char[8];
 
@@ -7316,7 +8902,7 @@ throws Exception
 	}
 
 	// Get the first record which holds the parameter control records.
-	EndianDataInputStream EDIS = read(__NWSRFS_DBFiles[__PPPINDEX], 0, __byteLength[__PPPINDEX]);
+	EndianDataInputStream EDIS = read(getDBFile(__PPPINDEX), 0, __byteLength[__PPPINDEX]);
 
 	// Now get record one information. The four public int members
 	// will make up the 16 bytes - 4 bytes each. 
@@ -7328,7 +8914,7 @@ throws Exception
 	EDIS.close();
 
 	// Get the second record which holds the parameter control records.
-	EDIS = read(__NWSRFS_DBFiles[__PPPINDEX], 0, __byteLength[__PPPINDEX]);
+	EDIS = read(getDBFile(__PPPINDEX), 0, __byteLength[__PPPINDEX]);
 
 	// Now get record two information. The two public int members
 	// will make up the 16 bytes - one 4 bytes each, one 8 bytes and one unsed. 
@@ -7350,7 +8936,7 @@ throws Exception
 	int numtyp = ptrFile.getNUMTYP();
 	for (int i = 0; i < numtyp; i++) {
 		// Get the first record set which holds PARMTP, LUFILE, FIRST, and LAST
-		EDIS = read(__NWSRFS_DBFiles[__PPPINDEX], 0, __byteLength[__PPPINDEX]);
+		EDIS = read(getDBFile(__PPPINDEX), 0, __byteLength[__PPPINDEX]);
 
 		// Define the pppChar character array to hold segment info
 		pppChar = new char[4];
@@ -7379,7 +8965,7 @@ throws Exception
 		EDIS.close();
 
 		// Get the second record set which holds NUMPRM and ISNGL
-		EDIS = read(__NWSRFS_DBFiles[__PPPINDEX], 0, __byteLength[__PPPINDEX]);
+		EDIS = read(getDBFile(__PPPINDEX), 0, __byteLength[__PPPINDEX]);
 
 		ptrFile.addNUMPRM(checkInt(EDIS.readEndianInt(), 0, 100000, -1));
 
@@ -7390,68 +8976,73 @@ throws Exception
 	
 	// Now loop through the remaining PPPINDEX file records to read 
 	// in all the record values.
-	randomAccessFileLength = __NWSRFS_DBFiles[__PPPINDEX].length();
-	while(__NWSRFS_DBFiles[__PPPINDEX].getFilePointer()+16 <= randomAccessFileLength) {
-		// keep reading until an exception is caught
-		try {
-			// Get the record which holds the members of the rating curves index.
-			EDIS = read(__NWSRFS_DBFiles[__PPPINDEX], 0, __byteLength[__PPPINDEX]);
-
-			// Define the pppChar character array to hold parameter id
-			pppChar = new char[8];
-
-			// Now parse the characters in stream
-			for (j = 0; j < 8; j++) {
-				pppChar[j] = EDIS.readEndianChar1();
-			}
-			parseChar = new String(pppChar).trim();
+	// Now loop through the remaining PPPINDEX file records to read in all the record values,
+	// reading large blocks of records rather than a record at a time.
+	int recordLength = __byteLength[__PPPINDEX];
+	NWSRFS_RecordReader reader = new NWSRFS_RecordReader(__isBigEndian, __INDEX_BLOCK_RECORDS*recordLength);
+	long firstRecord = getDBFile(__PPPINDEX).getFilePointer()/recordLength;
+	int numRecords = 0;
+	while ((numRecords = readBlock(reader, __PPPINDEX, firstRecord, __INDEX_BLOCK_RECORDS)) > 0) {
+		firstRecord += numRecords;
+		for (int i = 0; i < numRecords; i++) {
+			reader.setPosition(i*recordLength);
 
 			// Add parameter Id
+			parseChar = reader.readString(8);
 			if (parseChar.length() == 0) {
 				continue;
 			}
 			else {
 				ptrFile.addID(parseChar);
 			}
-//Message.printStatus(10,routine,"Parameter ID: "+parseChar);
-
-			// Define the pppChar character array to hold parameter type
-			pppChar = new char[4];
-
-			// Now parse the characters in stream
-			for (j = 0; j < 4; j++) {
-				pppChar[j] = EDIS.readEndianChar1();
-			}
-			parseChar = new String(pppChar).trim();
 
 			// Add parameter type
+			parseChar = reader.readString(4);
 			if (parseChar.length() == 0) {
 				continue;
 			}
 			else {
 				ptrFile.addITYPE(parseChar);
 			}
-//Message.printStatus(10,routine,"Parameter Type: "+parseChar+"\n");
 
 			// Add record number to parameter index definition
-			ptrFile.addIREC(checkInt(EDIS.readEndianInt(), 0, 100000, -1));
-
-			EDIS.close();
-		}
-		catch (EOFException EOFe) {
-			// Should never get here if things are working right.
-			exceptionCount++;
-			EDIS.close();
-			break;
-		}
-		catch (NullPointerException NPe) {
-			exceptionCount++;
-			EDIS.close();
-			break;
+			ptrFile.addIREC(checkInt(reader.readInt(), 0, 100000, -1));
 		}
 	}
-
-	return ptrFile;
+
+	return ptrFile;
+}
+
+/**
+Read the PRDINDEX index, using the index sidecar file if one is current (see
+setIndexCacheDirectory()).  If the sidecar file is not current, the index is read from the
+PRDINDEX binary file and the sidecar file is rewritten.
+@return the NWSRFS_PRDINDEX object which stores the data from the PRDINDEX binary database file.
+@throws Exception if there were errors reading from the database.
+*/
+private NWSRFS_PRDINDEX readPRDINDEX()
+throws Exception {
+	String routine = "NWSRFS_DMI.readPRDINDEX";
+	NWSRFS_IndexCache indexCache = __indexCache;
+	if (indexCache == null) {
+		return readPRDINDEXFile();
+	}
+	File indexFile = new File(__fs5FilesLocation + __dbFileNames[__PRDINDEX]);
+	NWSRFS_PRDINDEX index = indexCache.readPRDINDEX(indexFile, __isBigEndian);
+	if (index != null) {
+		Message.printStatus(10, routine, "Read PRDINDEX from index sidecar file.");
+		return index;
+	}
+	index = readPRDINDEXFile();
+	try {
+		indexCache.writePRDINDEX(index, indexFile, __isBigEndian);
+	}
+	catch (Exception e) {
+		// The sidecar is an optimization so continue with the index that was read.
+		Message.printWarning(3, routine, "Unable to write PRDINDEX index sidecar file in \""
+			+ indexCache.getDirectory() + "\" (" + e + ").");
+	}
+	return index;
 }
 
 /** 
@@ -7465,66 +9056,147 @@ be automatically instantiated when the NWSRFS_DMI is instantiated. This
 is so that the index to the PRDTSn binary file will be in memory.
 @throws Exception if there were errors reading from the database.
 */
-private NWSRFS_PRDINDEX readPRDINDEX() 
+private NWSRFS_PRDINDEX readPRDINDEXFile() 
 throws Exception {
 	NWSRFS_PRDINDEX ptrFile = new NWSRFS_PRDINDEX();
-	int j;
-	EndianDataInputStream EDIS = null;
-	char[] prdChar;
 	String parseChar;
-	long randomAccessFileLength = 0;
 	
 	// Check if the the database binary file is open as a Random Access object
 	if (!checkRandomAccessFileOpen(__PRDINDEX, true)) {
 		throw new Exception("Cannot open the " + __dbFileNames[__PRDINDEX] + " binary database file");
 	}
 
-	randomAccessFileLength = __NWSRFS_DBFiles[__PRDINDEX].length();
-	while(__NWSRFS_DBFiles[__PRDINDEX].getFilePointer()+16 <= randomAccessFileLength) {
-		// Get the first record set which holds PARMTP, LUFILE, FIRST, and LAST
-		EDIS = read(__NWSRFS_DBFiles[__PRDINDEX], 0, __byteLength[__PRDINDEX]);
+	// Read the index in large blocks rather than a record at a time and decode the records from the buffer
+	int recordLength = __byteLength[__PRDINDEX];
+	NWSRFS_RecordReader reader = new NWSRFS_RecordReader(__isBigEndian, __INDEX_BLOCK_RECORDS*recordLength);
+	long firstRecord = getDBFile(__PRDINDEX).getFilePointer()/recordLength;
+	int numRecords = 0;
+	while ((numRecords = readBlock(reader, __PRDINDEX, firstRecord, __INDEX_BLOCK_RECORDS)) > 0) {
+		firstRecord += numRecords;
+		for (int i = 0; i < numRecords; i++) {
+			reader.setPosition(i*recordLength);
 
-		// Define the pppChar character array to hold segment info
-		prdChar = new char[8];
+			// Add TSID
+			parseChar = reader.readString(8);
+			if (parseChar.length() == 0) {
+				continue;
+			}
+			else {
+				ptrFile.addTSID(parseChar);
+			}
 
-		// Now parse the characters in stream
-		for (j = 0; j < 8; j++) {
-			prdChar[j] = EDIS.readEndianChar1();
-		}
-		parseChar = new String(prdChar).trim();
+			// Add DataType
+			parseChar = reader.readString(4);
+			if (parseChar.length() == 0) {
+				continue;
+			}
+			else {
+				ptrFile.addTSDT(parseChar);
+			}
 
-		// Add TSID
-		if (parseChar.length() == 0) {
-			continue;
-		}
-		else {
-			ptrFile.addTSID(parseChar);
+			// Add Record Number
+			ptrFile.addIREC(checkInt(reader.readInt(), 0, 1000000, -1));
 		}
+	}
+	
+	return ptrFile;
+}
 
-		// Define the pppChar character array to hold segment info
-		prdChar = new char[4];
+/**
+Read a sequence of four byte float values starting at an absolute position in a binary file.
+The values are decoded in bulk into one array through a FloatBuffer view of the bytes, using the
+record reader for the calling thread and the memory-mapped buffer for the file if available.
+@param raFile the file to read.
+@param position the byte position of the first value.
+@param count the number of values to read.
+@return the values.
+@throws Exception if the values cannot be read.
+*/
+private float[] readFloatValues(EndianRandomAccessFile raFile, long position, int count)
+throws Exception {
+	if (count <= 0) {
+		return new float[0];
+	}
+	float[] values = new float[count];
+	readRecordAt(raFile, position, count*__WORDSIZE).readFloats(values, 0, count);
+	return values;
+}
 
-		// Now parse the characters in stream
-		for (j = 0; j < 4; j++) {
-			prdChar[j] = EDIS.readEndianChar1();
-		}
-		parseChar = new String(prdChar).trim();
+/**
+Determine the data values of a PRDTS time series (observed or future data) to read for a
+requested period.  The period is extended by one interval on each side so that the nearest
+values at or before the requested dates are included, and at least one value is read if
+there are any values, so that the time series period is defined.  If the period is not
+limited (Integer.MIN_VALUE and Integer.MAX_VALUE) all values are read and the start and
+end Julian hours are those computed from the header.
+@param startJul the Julian hour of the first value.
+@param endJul the Julian hour of the end of the data as computed from the header.
+@param numValues the number of values.
+@param interval the data interval in hours.
+@param windowStartJul the Julian hour of the start of the requested period.
+@param windowEndJul the Julian hour of the end of the requested period.
+@return an array with the index of the first value to read, the number of values to read,
+and the Julian hours of the first and last values to read.
+*/
+private int[] getPRDTSWindow(int startJul, int endJul, int numValues, int interval,
+int windowStartJul, int windowEndJul) {
+	int first = 0;
+	int last = numValues - 1;
+	if (interval > 0 && numValues > 0) {
+		if (windowStartJul != Integer.MIN_VALUE) {
+			// Interval before the one containing the start (rounded down)
+			long offset = (long)windowStartJul - startJul;
+			long index = (offset >= 0) ? offset/interval : -((-offset + interval - 1)/interval);
+			first = (int)Math.max(0, Math.min(last, index - 1));
+		}
+		if (windowEndJul != Integer.MAX_VALUE) {
+			// Interval after the one containing the end (rounded up)
+			long offset = (long)windowEndJul - startJul;
+			long index = (offset >= 0) ? (offset + interval - 1)/interval : -((-offset)/interval);
+			last = (int)Math.max(first, Math.min(last, index + 1));
+		}
+	}
+	int count = Math.max(0, last - first + 1);
+	int firstJul = startJul + first*interval;
+	int lastJul = startJul + (first + count - 1)*interval;
+	if (first + count >= numValues) {
+		// Same as for the full period (the end computed from the header)
+		lastJul = endJul;
+	}
+	return new int[] { first, count, firstJul, lastJul };
+}
 
-		// Add DataType
-		if (parseChar.length() == 0) {
-			continue;
+/**
+Read the logical unit of each PRDTSn file, which is the first word of the file.
+@return the logical unit for each PRDTSn file (PRDTS1 first), or -1 for a file that cannot be read.
+*/
+private int[] readPRDTSUnits() {
+	String routine = "NWSRFS_DMI.readPRDTSUnits";
+	int[] units = new int[5];
+	NWSRFS_RecordReader reader = new NWSRFS_RecordReader(__isBigEndian, __WORDSIZE);
+	for (int i = 0; i < units.length; i++) {
+		units[i] = -1;
+		int prdIndex = __PRDTS1 + i;
+		try {
+			if (!checkRandomAccessFileOpen(prdIndex, true)) {
+				continue;
+			}
+			EndianRandomAccessFile raFile = getDBFile(prdIndex);
+			MappedByteBuffer mapped = getMappedBuffer(raFile);
+			if (mapped == null) {
+				reader.readAt(raFile, 0, __WORDSIZE);
+			}
+			else {
+				reader.readAt(mapped, 0, __WORDSIZE);
+			}
+			units[i] = reader.readInt();
 		}
-		else {
-			ptrFile.addTSDT(parseChar);
+		catch (Exception e) {
+			Message.printWarning(3, routine, "Unable to read the unit number from " + __dbFileNames[prdIndex]
+				+ " (" + e + ").");
 		}
-
-		// Add Record Number
-		ptrFile.addIREC(checkInt(EDIS.readEndianInt(), 0, 1000000, -1));
-
-		EDIS.close();
 	}
-	
-	return ptrFile;
+	return units;
 }
 
 /**
@@ -7542,13 +9214,36 @@ header and data are read into the tsFile object
 */
 public boolean readPRDTS(EndianRandomAccessFile RA, int recordNum,
 NWSRFS_TimeSeries tsFile, boolean readData) throws Exception {
+	return readPRDTS(RA, recordNum, tsFile, readData, Integer.MIN_VALUE, Integer.MAX_VALUE);
+}
+
+/**
+This method reads Time Series directly from the PRDTS<i>n</i> binary database file,
+reading only the data values in a period.  The observed and future time series
+periods are limited to the values that are read (see getPRDTSWindow()); the original
+periods are set to the full period in the database.  Only the part of the data
+record covering the period is read and decoded.
+@param RA is the EndianRandomAccess file object openned to read the binary DB PRDTS<i>n</i>
+@param recordNum is an integer holding the starting record number to start reading Times Series data
+@param tsFile is the NWSRFS_TimeSeries object to store the Time Series Data
+@param readData is a boolean used to determine whether header information is read only or if
+header and data are read into the tsFile object
+@param windowStartJul the Julian hour (see NWSRFS_Util.getJulianHour1900FromDate()) of the start
+of the period to read, or Integer.MIN_VALUE to read from the start of the data.
+@param windowEndJul the Julian hour of the end of the period to read, or Integer.MAX_VALUE
+to read to the end of the data.
+@return boolean whether the read succeeded or not
+@throws Exception if an error occurs
+*/
+public boolean readPRDTS(EndianRandomAccessFile RA, int recordNum,
+NWSRFS_TimeSeries tsFile, boolean readData, int windowStartJul, int windowEndJul) throws Exception {
 
 	String routine = "NWSRFS_DMI.readPRDTS";
 	char[] charValue = null;
 	EndianDataInputStream EDIS = null;
 	int i=0, tsDTInt;
 	String parseChar = null, tsident_string;
-	DateTime dtTemp, dtTempStart, dtTempEnd;
+	DateTime dtTempStart, dtTempEnd;
 
 	try {
 	// Read the header record. Remember that recordNum is the record number
@@ -7646,6 +9341,9 @@ NWSRFS_TimeSeries tsFile, boolean readData) throws Exception {
 	int obsDataNum = 0;
 	int startFutJul = 0;
 	int startObsJul = tsFile.getJULBEG();
+	// First value index, number of values, and start and end Julian hours of the values to read
+	int[] obsWindow = null;
+	int[] futWindow = { 0, 0, 0, 0 };
 
 	if (tsFile.getIPTFUT() == 0) {
 		// No future data so read observed data...
@@ -7656,16 +9354,25 @@ NWSRFS_TimeSeries tsFile, boolean readData) throws Exception {
 		obsDataNum = (int)tsFile.getNTSNUM();
 		futDataNum = 0;
 
+		// Limit the data to the requested period
+		obsWindow = getPRDTSWindow(startObsJul, endObsJul, obsDataNum, (int)tsFile.getIDTINT(),
+			windowStartJul, windowEndJul);
+
 		// Set values in the Observed TS object
 		dtTempStart = NWSRFS_Util.getDateFromJulianHour1900(startObsJul);
 		dtTempStart.setTimeZone("Z");
-		tsFile.getObservedTS().setDate1(dtTempStart);
 		tsFile.getObservedTS().setDate1Original(dtTempStart);
-		
 		dtTempEnd = NWSRFS_Util.getDateFromJulianHour1900(endObsJul);
 		dtTempEnd.setTimeZone("Z");
-		tsFile.getObservedTS().setDate2(dtTempEnd);
 		tsFile.getObservedTS().setDate2Original(dtTempEnd);
+
+		dtTempStart = NWSRFS_Util.getDateFromJulianHour1900(obsWindow[2]);
+		dtTempStart.setTimeZone("Z");
+		tsFile.getObservedTS().setDate1(dtTempStart);
+		
+		dtTempEnd = NWSRFS_Util.getDateFromJulianHour1900(obsWindow[3]);
+		dtTempEnd.setTimeZone("Z");
+		tsFile.getObservedTS().setDate2(dtTempEnd);
 		Message.printStatus (2,routine,"Observed start=" + dtTempStart);
 		Message.printStatus (2,routine,"Observed end=" + dtTempEnd);
 		
@@ -7705,9 +9412,28 @@ NWSRFS_TimeSeries tsFile, boolean readData) throws Exception {
 		obsDataNum = (int)tsFile.getIPTFUT() - (int)tsFile.getIPTREG();
 		futDataNum = (int)tsFile.getNTSNUM() - obsDataNum;
 
+		// Limit the data to the requested period
+		obsWindow = getPRDTSWindow(startObsJul, endObsJul, obsDataNum, (int)tsFile.getIDTINT(),
+			windowStartJul, windowEndJul);
+		futWindow = getPRDTSWindow(startFutJul, endFutJul, futDataNum, (int)tsFile.getIDTINT(),
+			windowStartJul, windowEndJul);
+
 		// Set values into the Observed and Future TS objects
 		dtTempStart = NWSRFS_Util.getDateFromJulianHour1900(startObsJul);
 		dtTempStart.setTimeZone("Z");
+		tsFile.getObservedTS().setDate1Original(dtTempStart);
+		dtTempEnd = NWSRFS_Util.getDateFromJulianHour1900(endObsJul);
+		dtTempEnd.setTimeZone("Z");
+		tsFile.getObservedTS().setDate2Original(dtTempEnd);
+		dtTempStart = NWSRFS_Util.getDateFromJulianHour1900(startFutJul);
+		dtTempStart.setTimeZone("Z");
+		tsFile.getFutureTS().setDate1Original(dtTempStart);
+		dtTempEnd = NWSRFS_Util.getDateFromJulianHour1900(endFutJul);
+		dtTempEnd.setTimeZone("Z");
+		tsFile.getFutureTS().setDate2Original(dtTempEnd);
+
+		dtTempStart = NWSRFS_Util.getDateFromJulianHour1900(obsWindow[2]);
+		dtTempStart.setTimeZone("Z");
 		tsFile.getObservedTS().setDate1(dtTempStart);
 
 		// Set identifier string
@@ -7723,7 +9449,7 @@ NWSRFS_TimeSeries tsFile, boolean readData) throws Exception {
 			tsFile.getObservedTS().setIdentifier(tsident_string);
 		}
 		
-		dtTempEnd = NWSRFS_Util.getDateFromJulianHour1900(endObsJul);
+		dtTempEnd = NWSRFS_Util.getDateFromJulianHour1900(obsWindow[3]);
 		dtTempEnd.setTimeZone("Z");
 		tsFile.getObservedTS().setDate2(dtTempEnd);
 		tsFile.getObservedTS().allocateDataSpace();
@@ -7737,11 +9463,11 @@ NWSRFS_TimeSeries tsFile, boolean readData) throws Exception {
 			" from "+dtTempStart.toString()+" to "+	dtTempEnd.toString()+" using NWSRFS FS5Files \""
 			+__fs5FilesLocation.substring(0,__fs5FilesLocation.length()-1)+"\"");
 
-		dtTempStart = NWSRFS_Util.getDateFromJulianHour1900(startFutJul);
+		dtTempStart = NWSRFS_Util.getDateFromJulianHour1900(futWindow[2]);
 		dtTempStart.setTimeZone("Z");
 		tsFile.getFutureTS().setDate1(dtTempStart);
 
-		dtTempEnd = NWSRFS_Util.getDateFromJulianHour1900(endFutJul);
+		dtTempEnd = NWSRFS_Util.getDateFromJulianHour1900(futWindow[3]);
 		dtTempEnd.setTimeZone("Z");
 		tsFile.getFutureTS().setDate2(dtTempEnd);
 		Message.printStatus (2,routine,"Future start=" + dtTempStart);
@@ -7766,59 +9492,42 @@ NWSRFS_TimeSeries tsFile, boolean readData) throws Exception {
 		return true;
 	}
 
-	// Get the Observed/Regular data.  First rewind the file
-	// Now read from the PRDTSn file to get the actual Time Series data
+	// Get the Observed/Regular data from the PRDTSn file.
 	EDIS.close();
-	rewind(RA);
 
-	// Now seek to the beginning of the record + location of first regular
+	// The position is the beginning of the record + location of first regular
 	// data value in record. Remember the minimum length of a TS header 
 	// is 72 bytes then add the length of any extra header info.
 // TODO (JTS - 2004-08-21) explain the magic number 64 and 72	
+	// Only the values in the requested period are read (see getPRDTSWindow()).
+	long position = 0;
 	if (recordNum > 0) {
-		seek(RA, (recordNum - 1) * 64 + (72 + (int)tsFile.getNXHDR() * __WORDSIZE), true);
+		position = (long)(recordNum - 1) * 64 + (72 + (int)tsFile.getNXHDR() * __WORDSIZE
+			+ obsWindow[0] * __WORDSIZE);
 	}
 
 	// Read the data and insert into the HourTS object
 // TODO (JTS - 2004-08-21) explain the magic number 64	
-	EDIS = read(RA, 0, 64, obsDataNum * __WORDSIZE);
-	float floatValue;
-	for (i = 0;i < obsDataNum; i++) {
-		floatValue = EDIS.readEndianFloat();
-		dtTemp = NWSRFS_Util.getDateFromJulianHour1900(startObsJul + i * (int)tsFile.getIDTINT());
-		dtTemp.setTimeZone("Z");
-		tsFile.getObservedTS().setDataValue(dtTemp,(double)floatValue);
-//Message.printWarning(10,routine,i+": Observation Data["+dtTemp.toString()+"] = "+floatValue);
-	}
+	// The values are decoded in bulk and then set by offset from the start date.
+	float[] values = readFloatValues(RA, position, obsWindow[1]);
+	setDataValues(tsFile.getObservedTS(), obsWindow[2], (int)tsFile.getIDTINT(), values);
 
 	// If there is future data read that into the FutureTS object
 	if (tsFile.getIPTFUT() != 0) {
-		// First rewind the file
-		// Now read from the PRDTSn file to get the actual Time Series data
-		EDIS.close();
-		rewind(RA);
-
-		// Now seek to the beginning of the record + location 
+		// The position is the beginning of the record + location 
 		// of first future data value in record. The minimum length of a TS header is 72.
 // TODO (JTS - 2004-08-21) explain the magic number 64 and 72		
+		position = 0;
 		if (recordNum > 0) {
-			seek(RA,
-				(recordNum - 1) * 64 
+			position = (long)(recordNum - 1) * 64 
 				+ (72 + (int)tsFile.getNXHDR() * __WORDSIZE 
-				+ (obsDataNum) * __WORDSIZE),
-				true);
+				+ (obsDataNum + futWindow[0]) * __WORDSIZE);
 		}
 
 		// Read the data and insert into the HourTS object
 // TODO (JTS - 2004-08-21) explain the magic number 64		
-		EDIS = read(RA, 0, 64, futDataNum * __WORDSIZE);
-		for (i = 0; i < futDataNum; i++) {
-			floatValue = EDIS.readEndianFloat();
-			dtTemp = NWSRFS_Util.getDateFromJulianHour1900(startFutJul + i * (int)tsFile.getIDTINT());
-			dtTemp.setTimeZone("Z");
-			tsFile.getFutureTS().setDataValue(dtTemp,(double)floatValue);
-//Message.printWarning(10,routine,i+": Future Data["+dtTemp.toString()+"] = "+floatValue);
-		}
+		values = readFloatValues(RA, position, futWindow[1]);
+		setDataValues(tsFile.getFutureTS(), futWindow[2], (int)tsFile.getIDTINT(), values);
 	}
 	}
 	finally {
@@ -7847,11 +9556,8 @@ ID could not be found in the database or if there was an error reading the data.
 public NWSRFS_RatingCurve readRatingCurve(String ratingCurveID) 
 throws Exception {
 	// Check to see if the rating curve pointer object exists. If not create it.
-	if (_fcrcptr == null) {
-		_fcrcptr = readFCRCPTR();
-	}
+	getFcrcptrInternal();
 
-	List<Integer> enIREC = _fcrcptr.getIREC();
 	NWSRFS_RatingCurve rcFile = new NWSRFS_RatingCurve(ratingCurveID);
 
 	// Check if the the database binary file is open as a Random Access object
@@ -7861,20 +9567,8 @@ throws Exception {
 		throw new Exception("Cannot open the " + __dbFileNames[__FCRATING] + " binary database file");
 	}
 
-	//Get the records from FCSEGPTR file
-	long recordNum = -1;
-	long tempIREC = -1;
-	String tempIRC = null;
-	List<String> enIRC = _fcrcptr.getRCID();
-	for ( int i = 0; i < enIRC.size(); i++ ) { 
-		tempIRC = enIRC.get(i);
-		tempIREC = enIREC.get(i).longValue();
-
-		if (tempIRC.equalsIgnoreCase(rcFile.getRCID())) {
-			// TODO SAM 2008-12-01 Break?
-			recordNum = tempIREC;
-		}
-	}
+	//Get the record from the FCRCPTR lookup
+	long recordNum = _fcrcptr.getIREC(rcFile.getRCID());
 	
 	if (recordNum == -1) {
 		throw new Exception("NWSRFS_RatingCurve: Rating Curve ID: " + rcFile.getRCID() + " not found");
@@ -7885,10 +9579,10 @@ throws Exception {
 		int i = 0;
 		int j = 0;
 		String parseChar = null;
-		rewind(__NWSRFS_DBFiles[__FCRATING]);
+		rewind(getDBFile(__FCRATING));
 		
 		// Get the record which holds the members of the RC definition status.
-		EndianDataInputStream EDIS = read(__NWSRFS_DBFiles[__FCRATING], recordNum - 1, __byteLength[__FCRATING]);
+		EndianDataInputStream EDIS = read(getDBFile(__FCRATING), recordNum - 1, __byteLength[__FCRATING]);
 		
 		// Field 1 - [type field name here]
 		charValue = new char[8];
@@ -8073,9 +9767,7 @@ public List<String> readRatingCurveList() throws Exception
 	List<String> rcList = new Vector<String>();
 	
 	// Check to see if the rating curve pointer object exists. If not create it.
-	if (_fcrcptr == null) {
-		_fcrcptr = readFCRCPTR();
-	}
+	getFcrcptrInternal();
 
 	// check to see if still null. If so the return and empty list.
 	if (_fcrcptr == null || _fcrcptr.getRCID() == null) {
@@ -8091,6 +9783,33 @@ public List<String> readRatingCurveList() throws Exception
 	return rcList;
 }
 
+/**
+Read a stamp for the definition of a segment, which can be compared with a previous
+stamp to determine whether the segment has been redefined without reading the segment.
+The stamp is computed from the FCSEGPTR record number and the FCSEGSTS record for the segment,
+which includes the pointer to the segment parameters in FCPARAM and the date of the last definition.
+@param segmentID the segment identifier.
+@return the segment stamp, or -1 if the segment is not defined.
+@throws Exception if there are problems reading from the database.
+*/
+public long readSegmentStamp(String segmentID)
+throws Exception {
+	NWSRFS_FCSEGPTR fcsegptr = getFcsegptrInternal();
+	long recordNum = fcsegptr.getIREC(segmentID);
+	if (recordNum == -1) {
+		return -1;
+	}
+	if (!checkRandomAccessFileOpen(__FCSEGSTS, true)) {
+		throw new Exception("Cannot open the " + __dbFileNames[__FCSEGSTS] + " binary database file");
+	}
+	int byteLength = __byteLength[__FCSEGSTS];
+	NWSRFS_RecordReader reader = readRecordAt(getDBFile(__FCSEGSTS), (recordNum - 1)*byteLength, byteLength);
+	// Hash the record contents in place (ByteBuffer.hashCode() depends only on the remaining bytes).
+	long hash = reader.getByteBuffer().hashCode() & 0xffffffffL;
+	// Keep the stamp positive so that -1 is reserved for undefined segments.
+	return ((recordNum << 32) ^ hash) & Long.MAX_VALUE;
+}
+
 /** 
 Reads values from the FCSEGSTS NWSRFS processed database file into 
 the data members of the NWSRFS_Segment class. 
@@ -8151,23 +9870,10 @@ throws Exception
 	// Check to see if the Segment pointer object exists. If not create it to find the record number.
 	StopWatch sw1 = new StopWatch();
 	sw1.start();
-	if (_fcsegptr == null) {
-		_fcsegptr = readFCSEGPTR();
-	}
+	getFcsegptrInternal();
 
-	long recordNum = -1;
-	long tempIREC = -1;
-	List<Integer> enIREC = _fcsegptr.getIREC();
-	List<String> enISEG = _fcsegptr.getISEG();
-	//Get the records from FCSEGPTR file.
-	for ( int i = 0; i < enISEG.size(); i++ ) {
-		String tempISEG = (String)enISEG.get(i);
-		tempIREC = enIREC.get(i).longValue();
-
-		if (tempISEG.equalsIgnoreCase(segmentID)) {
-			recordNum = tempIREC;
-		}
-	}
+	//Get the record from the FCSEGPTR lookup.
+	long recordNum = _fcsegptr.getIREC(segmentID);
 	
 	NWSRFS_Segment segFile = null;
 	sw1.stop();
@@ -8192,10 +9898,10 @@ throws Exception
 			throw new Exception("Cannot open the " + __dbFileNames[__FCSEGSTS] + " binary database file");
 		}
 
-		rewind(__NWSRFS_DBFiles[__FCSEGSTS]);
+		rewind(getDBFile(__FCSEGSTS));
 		
 		// Get the record which holds the members of the segment definition status.
-		EndianDataInputStream EDIS = read(__NWSRFS_DBFiles[__FCSEGSTS],	recordNum-1, __byteLength[__FCSEGSTS]);
+		EndianDataInputStream EDIS = read(getDBFile(__FCSEGSTS),	recordNum-1, __byteLength[__FCSEGSTS]);
 		
 		// Field 1 - [type field name here].
 		charValue = new char[8];
@@ -8427,7 +10133,6 @@ throws Exception {
 		logicalUnitNumPE   = Integer.valueOf(-1), 
 		logicalUnitNumRRS  = Integer.valueOf(-1), 
 		logicalUnitNumTEMP = Integer.valueOf(-1);
-	boolean luDoneGENL=false, luDonePCPN=false, luDonePE=false, luDoneRRS=false, luDoneTEMP=false;
 
 	// Check to see if the pppindex file exists! If not return station.
 	if(pppindex == null) { 
@@ -8441,36 +10146,14 @@ throws Exception {
 	// this routine. If not, we must set initial data!
 	if(station.getLogicalUnitNum("GENL") == -1) {
 		// Get the logical unit for the parameter type.
-		for(int i=0;i<pppindex.getPARMTP().size();i++) {
-			if(pppindex.getPARMTP().get(i).equalsIgnoreCase("GENL") && !luDoneGENL) {
-				logicalUnitNumGENL = pppindex.getLUFILE().get(i);
-					luDoneGENL = true;
-					continue;
-			}
-			else if(pppindex.getPARMTP().get(i).equalsIgnoreCase("PCPN") && !luDonePCPN) {
-				logicalUnitNumPCPN = pppindex.getLUFILE().get(i);
-					luDonePCPN = true;
-					continue;
-			}
-			else if(pppindex.getPARMTP().get(i).equalsIgnoreCase("PE") && !luDonePE) {
-				logicalUnitNumPE = pppindex.getLUFILE().get(i);
-					luDonePE = true;
-					continue;
-			}
-			else if(pppindex.getPARMTP().get(i).equalsIgnoreCase("RRS") && !luDoneRRS) {
-				logicalUnitNumRRS = pppindex.getLUFILE().get(i);
-					luDoneRRS = true;
-					continue;
-			}
-			else if(pppindex.getPARMTP().get(i).equalsIgnoreCase("TEMP") && !luDoneTEMP) {
-				logicalUnitNumTEMP = pppindex.getLUFILE().get(i);
-					luDoneTEMP = true;
-					continue;
-			}
-		}
+		logicalUnitNumGENL = Integer.valueOf(pppindex.getLUFILE("GENL"));
+		logicalUnitNumPCPN = Integer.valueOf(pppindex.getLUFILE("PCPN"));
+		logicalUnitNumPE = Integer.valueOf(pppindex.getLUFILE("PE"));
+		logicalUnitNumRRS = Integer.valueOf(pppindex.getLUFILE("RRS"));
+		logicalUnitNumTEMP = Integer.valueOf(pppindex.getLUFILE("TEMP"));
 		
 		// Next loop through the ID.size number of records
-		for(int i=0;i<pppindex.getID().size();i++) {
+		for(int i : getPPPIndexPositions(pppindex, station.getID(), __PPP_STATION_TYPES)) {
 			// If the type is GENL add to the PropList
 			if(pppindex.getITYPE().get(i).equalsIgnoreCase("GENL") && 
 			pppindex.getID(i).equalsIgnoreCase(station.getID())) {
@@ -8560,8 +10243,6 @@ public Hashtable<String,NWSRFS_Station> readStationHashtable() throws Exception
 		logicalUnitNumPE   = Integer.valueOf(-1), 
 		logicalUnitNumRRS  = Integer.valueOf(-1), 
 		logicalUnitNumTEMP = Integer.valueOf(-1);
-	boolean luDoneGENL=false, luDonePCPN=false, luDonePE=false,
-		luDoneRRS=false, luDoneTEMP=false;
 
 	// Check to see if the pppindex file exists! If not return empty list.
 	if(pppindex == null) { 
@@ -8572,36 +10253,14 @@ public Hashtable<String,NWSRFS_Station> readStationHashtable() throws Exception
 	}
 	
 	// Get the logical unit for the parameter type.
-	for(int i=0;i<(pppindex.getPARMTP()).size();i++) {
-		if(pppindex.getPARMTP().get(i).equalsIgnoreCase("GENL") && !luDoneGENL) {
-			logicalUnitNumGENL = pppindex.getLUFILE().get(i);
-			luDoneGENL = true;
-			continue;
-		}
-		else if(pppindex.getPARMTP().get(i).equalsIgnoreCase("PCPN") && !luDonePCPN) {
-			logicalUnitNumPCPN = pppindex.getLUFILE().get(i);
-			luDonePCPN = true;
-			continue;
-		}
-		else if(pppindex.getPARMTP().get(i).equalsIgnoreCase("PE") && !luDonePE) {
-			logicalUnitNumPE = pppindex.getLUFILE().get(i);
-			luDonePE = true;
-			continue;
-		}
-		else if(pppindex.getPARMTP().get(i).equalsIgnoreCase("RRS") && !luDoneRRS) {
-			logicalUnitNumRRS = (Integer)pppindex.getLUFILE().get(i);
-			luDoneRRS = true;
-			continue;
-		}
-		else if(pppindex.getPARMTP().get(i).equalsIgnoreCase("TEMP") && !luDoneTEMP) {
-			logicalUnitNumTEMP = (Integer)pppindex.getLUFILE().get(i);
-			luDoneTEMP = true;
-			continue;
-		}
-	}
+	logicalUnitNumGENL = Integer.valueOf(pppindex.getLUFILE("GENL"));
+	logicalUnitNumPCPN = Integer.valueOf(pppindex.getLUFILE("PCPN"));
+	logicalUnitNumPE = Integer.valueOf(pppindex.getLUFILE("PE"));
+	logicalUnitNumRRS = Integer.valueOf(pppindex.getLUFILE("RRS"));
+	logicalUnitNumTEMP = Integer.valueOf(pppindex.getLUFILE("TEMP"));
 	
 	// Next loop through the ID.size number of records.
-	for(int i=0;i<pppindex.getID().size();i++) {
+	for(int i : getPPPIndexPositions(pppindex, null, __PPP_STATION_TYPES)) {
 		// If the type is GENL add to the PropList.
 		if(((String)(pppindex.getITYPE()).get(i)).equalsIgnoreCase("GENL")) {
 			if(!stationList.containsKey( pppindex.getID().get(i))) {
@@ -8719,37 +10378,13 @@ public Hashtable<String,NWSRFS_Station> readStationHashtable(String paramType) t
 		logicalUnitNumRRS  = Integer.valueOf(-1), 
 		logicalUnitNumTEMP = Integer.valueOf(-1),
 		logicalUnitNum     = Integer.valueOf(-1);
-	boolean luDoneGENL=false, luDonePCPN=false, luDonePE=false,
-		luDoneRRS=false, luDoneTEMP=false;
 	
 	// Get the logical unit for the parameter type.
-	for(int i=0;i<pppindex.getPARMTP().size();i++) {
-		if(pppindex.getPARMTP().get(i).equalsIgnoreCase("GENL") && !luDoneGENL) {
-			logicalUnitNumGENL = pppindex.getLUFILE().get(i);
-			luDoneGENL = true;
-			continue;
-		}
-		else if(pppindex.getPARMTP().get(i).equalsIgnoreCase("PCPN") && !luDonePCPN) {
-			logicalUnitNumPCPN = pppindex.getLUFILE().get(i);
-			luDonePCPN = true;
-			continue;
-		}
-		else if(pppindex.getPARMTP().get(i).equalsIgnoreCase("PE") && !luDonePE) {
-			logicalUnitNumPE = pppindex.getLUFILE().get(i);
-			luDonePE = true;
-			continue;
-		}
-		else if(pppindex.getPARMTP().get(i).equalsIgnoreCase("RRS") && !luDoneRRS) {
-			logicalUnitNumRRS = pppindex.getLUFILE().get(i);
-			luDoneRRS = true;
-			continue;
-		}
-		else if(pppindex.getPARMTP().get(i).equalsIgnoreCase("TEMP") && !luDoneTEMP) {
-			logicalUnitNumTEMP = pppindex.getLUFILE().get(i);
-			luDoneTEMP = true;
-			continue;
-		}
-	}
+	logicalUnitNumGENL = Integer.valueOf(pppindex.getLUFILE("GENL"));
+	logicalUnitNumPCPN = Integer.valueOf(pppindex.getLUFILE("PCPN"));
+	logicalUnitNumPE = Integer.valueOf(pppindex.getLUFILE("PE"));
+	logicalUnitNumRRS = Integer.valueOf(pppindex.getLUFILE("RRS"));
+	logicalUnitNumTEMP = Integer.valueOf(pppindex.getLUFILE("TEMP"));
 
 	if(paramType.equalsIgnoreCase("PCPN")) {
 		logicalUnitNum = logicalUnitNumPCPN;
@@ -8771,7 +10406,7 @@ public Hashtable<String,NWSRFS_Station> readStationHashtable(String paramType) t
 	}
 	
 	// Next loop through the ID.size number of records
-	for(int i=0;i<pppindex.getID().size();i++) {
+	for(int i : pppindex.getIndexPositions("GENL")) {
 		// If the type is GENL add to the PropList
 		if(((String)(pppindex.getITYPE()).get(i)).equalsIgnoreCase("GENL")) { 
 			if(!stationListTemp.containsKey(pppindex.getID().get(i))) {
@@ -8784,7 +10419,7 @@ public Hashtable<String,NWSRFS_Station> readStationHashtable(String paramType) t
 	}
 	
 	// Next loop through the ID.size number of records
-	for(int i=0;i<pppindex.getID().size();i++) {
+	for(int i : pppindex.getIndexPositions(paramType)) {
 		// If the type is GENL add to the PropList
 		if(pppindex.getITYPE().get(i).equalsIgnoreCase("GENL") && paramType.equalsIgnoreCase("GENL")) {
 			if(!stationList.containsKey(pppindex.getID().get(i))) {
@@ -8928,6 +10563,18 @@ throws Exception
 		req_date2.setTimeZone("Z");
 	}
 
+	// The requested period as Julian hours, used to read only the PRD data in the period
+	int windowStartJul = Integer.MIN_VALUE;
+	int windowEndJul = Integer.MAX_VALUE;
+	if ( req_date1 != null ) {
+		windowStartJul = NWSRFS_Util.getJulianHour1900FromDate(req_date1.getMonth(), req_date1.getDay(),
+			req_date1.getYear(), req_date1.getHour());
+	}
+	if ( req_date2 != null ) {
+		windowEndJul = NWSRFS_Util.getJulianHour1900FromDate(req_date2.getMonth(), req_date2.getDay(),
+			req_date2.getYear(), req_date2.getHour());
+	}
+
 //Message.printStatus(10,routine,"TSIdent String = "+tsident_string);
 
 	// Get TSIdent parts to do the read.
@@ -9016,7 +10663,9 @@ throws Exception
 			dataScenario = "obs";
 		}
 		else {
-			tsObject = readTimeSeriesPRD(dataLoc, dataType, tsDTInterval, read_data);
+			// Only read the data for the requested period
+			tsObject = readTimeSeriesPRD(dataLoc, dataType, tsDTInterval, read_data,
+				windowStartJul, windowEndJul);
 		}
 		
 		// TODO SAM 2006-11-22 Why not return null or throw an exception if nothing returned
@@ -9078,7 +10727,8 @@ throws Exception
 			// then set in the future time series.  This is confusing and needs to be corrected.
 			Message.printStatus( 2, routine, "Requested time series is MAP so read FMAP for " + dataLoc );
 			try {
-				NWSRFS_TimeSeries tsObject2 = readTimeSeriesPRD(dataLoc,"FMAP",tsDTInterval,true);
+				NWSRFS_TimeSeries tsObject2 = readTimeSeriesPRD(dataLoc,"FMAP",tsDTInterval,true,
+					windowStartJul,windowEndJul);
 				if ( tsObject2 == null ) {
 					Message.printStatus(2, routine,
 					    "No FMAP time series available for "+ dataLoc + " FMAP " + tsDTInterval );
@@ -9162,24 +10812,26 @@ throws Exception
 
 		DateTime d1 = null;	// For transfer
 		DateTime d2 = null;
+		// The original dates are the full period in the database, which may be longer than the
+		// period that was read (see readPRDTS()).
 		if ( observedTS != null ) {
 			// Transfer observed data into returned time series...
-			d1 = observedTS.getDate1();
+			d1 = getOriginalDate1(observedTS);
 			if ( d1 != null ) {
 				ts.setDate1Original(d1);
 			}
-			d2 = observedTS.getDate2();	
+			d2 = getOriginalDate2(observedTS);	
 			if ( d2 != null ) {
 				ts.setDate2Original(d2);
 			}
 		}
 		if ( futureTS != null ) {
 			// Transfer future data into returned time series...
-			d1 = futureTS.getDate1();
+			d1 = getOriginalDate1(futureTS);
 			if ( (d1 != null) &&d1.lessThan(ts.getDate1Original())){
 				ts.setDate1Original(d1);
 			}
-			d2 = futureTS.getDate2();
+			d2 = getOriginalDate2(futureTS);
 			if((d2 != null)&&d2.greaterThan(ts.getDate2Original())){
 				ts.setDate2Original(d2);
 			}
@@ -9227,7 +10879,11 @@ throws Exception
 		// available, because the observed data are more relevant.
 
 		if ( (futureTS != null) && (futureTS.getDate1() != null) && (futureTS.getDate2() != null) ) {
-			d1 = observedTS.getDate2();
+			// Use the end of all observed data, which may be after the observed data that were read
+			d1 = getOriginalDate2(observedTS);
+			if ( d1 != null ) {
+				d1 = new DateTime(d1);
+			}
 			if ( d1 == null ) {
 				// Just iterate through all future data...
 				tsi = tsObject.getFutureTS().iterator();
@@ -9311,11 +10967,9 @@ public List<TS> readTimeSeriesList(String tsident_string, DateTime req_date1,
 DateTime req_date2, String req_units, boolean read_data) 
 throws Exception {
 	String routine = "NWSRFS_DMI.readTimeSeriesList";
-	int i, j, k, tsDTInterval = -1;
+	int i, tsDTInterval = -1;
 	List<TS> tsList = new ArrayList<>();
-	List<TSIdent> tsIdentList = new ArrayList<>();
 	TimeInterval timeInt = null;
-	String parseDataType;
 	
 	// Get TSIdent info
 	TSIdent tsident = new TSIdent(tsident_string);
@@ -9366,102 +11020,339 @@ throws Exception {
 			dataScenario = "Both";
 		}
 		
-		// Get the Vector of TSIdentList returned from the database.
-		if(subDataType.equalsIgnoreCase("PPDB")) {
-		    // Preprocessor database for observations.
-			tsIdentList = readTSIdentListPDB(dataLoc,dataType,interval);
+		// Get the list of identifiers matching the request, which may contain wildcards.
+		List<String> tsidentStringList = readTimeSeriesIdentifierList(dataLoc, dataType, subDataType,
+			interval, tsDTInterval, dataScenario);
+		int size = tsidentStringList.size();
+		for ( i = 0; i < size; i++ ) {			
+			// The try/catch here so that an error on one time
+			// series does not error out the whole read process.
+			// For now assume it is not needed because the header was read successfully.
+			try {
+				ts = readTimeSeries( tsidentStringList.get(i), req_date1, req_date2, req_units, read_data);
+				if ( ts == null ) {
+					Message.printWarning (20, routine, "Unable to read time series for \"" +
+					tsidentStringList.get(i) + "\" - not adding to returned list." );
+				}
+				else {	
+					tsList.add(ts);
+				}
+			} catch(Exception e) {
+				Message.printWarning(10,routine,e);
+			}
+		}
+	}
+	
+	return tsList;
+}
+
+/**
+Read a list of time series in parallel.  This is intended for bulk extraction of many
+time series from the processed database (e.g., nightly export of all MAP, MAT and QINE time series).
+Each identifier is read as if readTimeSeries() were called; identifiers with wildcards
+are expanded as in readTimeSeriesList(String,...).  The processed database time series are
+grouped by the logical unit of the PRDTS<i>n</i> file that holds their data type (LUFILE in
+PRDPARM), so that data types that share a file are read by one task, and are sorted by the
+record number in PRDINDEX so that each group is read in one forward sweep through the file.
+Preprocessor database time series are grouped by data type.
+Each group is read by one task on the executor.
+The reads are only done in parallel if concurrent reads are enabled (see setConcurrentReads());
+otherwise the time series are read in the calling thread and the executor is not used.
+An error reading one time series is logged and does not stop the other reads.
+@param tsident_strings list of time series identifier strings, which may contain wildcards in the
+location and data type, as documented for readTimeSeriesList(String,...).
+@param req_date1 Optional date to specify the start of the query (specify null to read the entire time series).
+@param req_date2 Optional date to specify the end of the query (specify null to read the entire time series).
+@param req_units requested data units (specify null or blank string to return units from the database).
+@param read_data Indicates whether data should be read (specify false to only read header information).
+@param executor the executor used to run the reads.  The executor is not shut down.
+@return the list of time series that were read, in the order of the (expanded) identifiers.
+@exception Exception if there is an error expanding the identifiers or the reads are interrupted.
+*/
+public List<TS> readTimeSeriesList(List<String> tsident_strings, final DateTime req_date1,
+final DateTime req_date2, final String req_units, final boolean read_data, ExecutorService executor) 
+throws Exception {
+	String routine = "NWSRFS_DMI.readTimeSeriesList";
+	boolean parallel = usingConcurrentReads();
+
+	// Expand wildcards to get the full list of identifiers to read.
+	final List<String> tsidentList = new ArrayList<>();
+	for (String tsident_string : tsident_strings) {
+		if (tsident_string.indexOf('*') < 0) {
+			tsidentList.add(tsident_string);
+			continue;
+		}
+		TSIdent tsident = new TSIdent(tsident_string);
+		int tsDTInterval = -1;
+		String interval = tsident.getInterval();
+		if (!interval.equalsIgnoreCase("*")) {
+			tsDTInterval = TimeInterval.parseInterval(interval).getMultiplier();
+		}
+		String dataScenario = tsident.getScenario();
+		if (dataScenario == null || dataScenario.equalsIgnoreCase("")) {
+			dataScenario = "Both";
+		}
+		tsidentList.addAll(readTimeSeriesIdentifierList(tsident.getLocation(), tsident.getMainType(),
+			tsident.getSubType(), interval, tsDTInterval, dataScenario));
+	}
+	int size = tsidentList.size();
+	if (parallel) {
+		Message.printStatus(2, routine, "Reading " + size + " time series using parallel reads.");
+	}
+	else {
+		Message.printStatus(2, routine, "Reading " + size +
+			" time series in the calling thread (concurrent reads are not enabled).");
+	}
+
+	// Determine the group (PRDTS file unit, or data type for the PPDB) and PRDINDEX record number
+	// for each time series.
+	NWSRFS_PRDINDEX prdindex = getPRDIndex();
+	final String[] groups = new String[size];
+	final int[] records = new int[size];
+	Integer[] order = new Integer[size];
+	for (int i = 0; i < size; i++) {
+		order[i] = Integer.valueOf(i);
+		TSIdent tsident = new TSIdent(tsidentList.get(i));
+		String tsDT = tsident.getMainType().toUpperCase();
+		if (tsident.getSubType().equalsIgnoreCase("PPDB")) {
+			groups[i] = "PPDB-" + tsDT;
 		}
 		else {
-			if(dataType.equals("*")) {
+			int unit = -1;
+			try {
+				unit = getPRDDataTypeUnit(tsDT);
+			}
+			catch (Exception e) {
+				Message.printWarning(3, routine, "Unable to determine the PRDTS file for data type \""
+					+ tsDT + "\" (" + e + ").");
+			}
+			if (unit > 0) {
+				groups[i] = "PRD-" + unit;
+			}
+			else {
+				// Unknown data type - the read will report the error
+				groups[i] = "PRD-" + tsDT;
+			}
+		}
+		records[i] = Integer.MAX_VALUE;
+		if (prdindex != null) {
+			for (int j : prdindex.getIndexPositions(tsident.getLocation(), tsident.getMainType())) {
+				if (prdindex.getIREC(j) < records[i]) {
+					records[i] = prdindex.getIREC(j);
+				}
+			}
+		}
+	}
+	Arrays.sort(order, new Comparator<Integer>() {
+		public int compare(Integer i1, Integer i2) {
+			int c = groups[i1.intValue()].compareTo(groups[i2.intValue()]);
+			if (c != 0) {
+				return c;
+			}
+			return Integer.compare(records[i1.intValue()], records[i2.intValue()]);
+		}
+	});
+
+	final TS[] tsArray = new TS[size];
+	if (!parallel) {
+		// Read in the calling thread, which uses the shared files, in the same order.
+		readTimeSeriesGroup(Arrays.asList(order), tsidentList, tsArray, req_date1, req_date2, req_units, read_data);
+	}
+
+	// Otherwise submit one task per group, each reading its time series in record order.
+	List<Future<?>> futures = new ArrayList<>();
+	int groupStart = 0;
+	while (parallel && groupStart < size) {
+		int groupEnd = groupStart + 1;
+		while (groupEnd < size && groups[order[groupEnd].intValue()].equals(groups[order[groupStart].intValue()])) {
+			groupEnd++;
+		}
+		final List<Integer> groupOrder = Arrays.asList(order).subList(groupStart, groupEnd);
+		futures.add(executor.submit(new Runnable() {
+			public void run() {
+				try {
+					readTimeSeriesGroup(groupOrder, tsidentList, tsArray, req_date1, req_date2, req_units, read_data);
+				}
+				finally {
+					releaseThreadFiles();
+				}
+			}
+		}));
+		groupStart = groupEnd;
+	}
+	for (Future<?> future : futures) {
+		future.get();
+	}
+
+	List<TS> tsList = new ArrayList<>();
+	for (int i = 0; i < size; i++) {
+		if (tsArray[i] != null) {
+			tsList.add(tsArray[i]);
+		}
+	}
+	return tsList;
+}
+
+/**
+Read a group of time series for readTimeSeriesList(), in the order given.
+An error reading one time series is logged and does not stop the other reads.
+@param indexes the positions in tsidentList of the time series to read.
+@param tsidentList the time series identifiers.
+@param tsArray the array to receive the time series, at the same positions as tsidentList.
+@param req_date1 Optional date to specify the start of the query.
+@param req_date2 Optional date to specify the end of the query.
+@param req_units requested data units.
+@param read_data Indicates whether data should be read.
+*/
+private void readTimeSeriesGroup(List<Integer> indexes, List<String> tsidentList, TS[] tsArray,
+DateTime req_date1, DateTime req_date2, String req_units, boolean read_data) {
+	String routine = "NWSRFS_DMI.readTimeSeriesList";
+	for (Integer index : indexes) {
+		String tsident_string = tsidentList.get(index.intValue());
+		try {
+			tsArray[index.intValue()] = readTimeSeries(tsident_string, req_date1, req_date2,
+				req_units, read_data);
+			if (tsArray[index.intValue()] == null) {
+				Message.printWarning (20, routine, "Unable to read time series for \"" +
+				tsident_string + "\" - not adding to returned list." );
+			}
+		}
+		catch (Exception e) {
+			Message.printWarning(10, routine, "Error reading time series \"" + tsident_string + "\".");
+			Message.printWarning(10, routine, e);
+		}
+	}
+}
+
+/**
+Read a list of time series in parallel using a thread pool owned by the DMI, which is reused
+by later calls.  See readTimeSeriesList(List,DateTime,DateTime,String,boolean,ExecutorService),
+including the requirement that concurrent reads are enabled for the reads to be done in parallel.
+@param tsident_strings list of time series identifier strings, which may contain wildcards.
+@param req_date1 Optional date to specify the start of the query (specify null to read the entire time series).
+@param req_date2 Optional date to specify the end of the query (specify null to read the entire time series).
+@param req_units requested data units (specify null or blank string to return units from the database).
+@param read_data Indicates whether data should be read (specify false to only read header information).
+@param numThreads the number of threads to use for reading.  The DMI pool is resized if a
+different number of threads was used by an earlier call.
+@return the list of time series that were read, in the order of the (expanded) identifiers.
+@exception Exception if there is an error expanding the identifiers or the reads are interrupted.
+*/
+public List<TS> readTimeSeriesList(List<String> tsident_strings, DateTime req_date1,
+DateTime req_date2, String req_units, boolean read_data, int numThreads) 
+throws Exception {
+	return readTimeSeriesList(tsident_strings, req_date1, req_date2, req_units, read_data,
+		getReadExecutor(numThreads));
+}
+
+/**
+Return the list of time series identifier strings matching a time series request that
+may contain wildcards, as used by readTimeSeriesList().
+@param dataLoc the location (TSID), which may contain * wildcards.
+@param dataType the data type, or * for all data types.
+@param subDataType the data sub-type, "PPDB" to read from the preprocessor database.
+@param interval the interval string, or * for all intervals.
+@param tsDTInterval the interval in hours, or -1 if interval is *.
+@param dataScenario the scenario (Both, OBS, FUT).
+@return the list of matching time series identifier strings (never null).
+@exception Exception if there is an error reading the identifiers.
+*/
+private List<String> readTimeSeriesIdentifierList(String dataLoc, String dataType, String subDataType,
+String interval, int tsDTInterval, String dataScenario) 
+throws Exception {
+	String routine = "NWSRFS_DMI.readTimeSeriesIdentifierList";
+	int i, j, k;
+	List<TSIdent> tsIdentList = new ArrayList<>();
+	String parseDataType;
+	List<String> tsidentStringList = new ArrayList<>();
+
+	// Get the Vector of TSIdentList returned from the database.
+	if(subDataType.equalsIgnoreCase("PPDB")) {
+	    // Preprocessor database for observations.
+		tsIdentList = readTSIdentListPDB(dataLoc,dataType,interval);
+	}
+	else {
+		if(dataType.equals("*")) {
 //				readDataTypeList();
-				List<DataType> v = DataType.getDataTypesData();
-				int size = 0;
-				if ( v != null ) {
-					size = v.size();
-				}
-				DataType dt = null;
-				List<TSIdent> parseIdentList = null;
-				for ( i = 0; i < size; i++ ) {
-					parseIdentList = new ArrayList<>();
-					dt = v.get(i);
-					parseDataType = dt.getAbbreviation();
-
-					// If interval is * we need to loop through some default intervals
-					// like 1Hour,3Hour, 6Hour,12Hour, 18Hour, and 24Hour.
-					if ( interval.equalsIgnoreCase("*") ) {
-						int intervalArray[] = new int[6];
-						intervalArray[0] = 1;
-						intervalArray[1] = 3;
-						intervalArray[2] = 6;
-						intervalArray[3] = 12;
-						intervalArray[4] = 18;
-						intervalArray[5] = 24;
-						for(j = 0; j < 6; j++) {
-							parseIdentList = readTSIdentListPRD( parseDataType,	intervalArray[j], dataScenario);
-					
-							for(k = 0; k < parseIdentList.size(); k++) {
-								tsIdentList.add( parseIdentList.get(k));
-							}
-						}
-					}
-					else {
-						parseIdentList = readTSIdentListPRD( parseDataType, tsDTInterval, dataScenario);
-					
+			List<DataType> v = DataType.getDataTypesData();
+			int size = 0;
+			if ( v != null ) {
+				size = v.size();
+			}
+			DataType dt = null;
+			List<TSIdent> parseIdentList = null;
+			for ( i = 0; i < size; i++ ) {
+				parseIdentList = new ArrayList<>();
+				dt = v.get(i);
+				parseDataType = dt.getAbbreviation();
+
+				// If interval is * we need to loop through some default intervals
+				// like 1Hour,3Hour, 6Hour,12Hour, 18Hour, and 24Hour.
+				if ( interval.equalsIgnoreCase("*") ) {
+					int intervalArray[] = new int[6];
+					intervalArray[0] = 1;
+					intervalArray[1] = 3;
+					intervalArray[2] = 6;
+					intervalArray[3] = 12;
+					intervalArray[4] = 18;
+					intervalArray[5] = 24;
+					for(j = 0; j < 6; j++) {
+						parseIdentList = readTSIdentListPRD( parseDataType,	intervalArray[j], dataScenario);
+				
 						for(k = 0; k < parseIdentList.size(); k++) {
 							tsIdentList.add( parseIdentList.get(k));
 						}
 					}
 				}
+				else {
+					parseIdentList = readTSIdentListPRD( parseDataType, tsDTInterval, dataScenario);
+				
+					for(k = 0; k < parseIdentList.size(); k++) {
+						tsIdentList.add( parseIdentList.get(k));
+					}
+				}
 			}
-			else {
-				tsIdentList=readTSIdentListPRD(dataType, tsDTInterval,dataScenario);
-			}
-		}
-		
-		// Loop through the Vector of TSIdents returned by TSIdentList
-		// to match the tsids coming from the TSIdent supplied above.
-		// Can have wildcard characters in the tsid such as APP* or *5M or AP*5M or just a *.
-		int size = 0;
-		if ( tsIdentList != null ) {
-			size = tsIdentList.size();
-		}
-		Message.printStatus ( 10, routine, "Read " + size + " time series identifiers." );
-		boolean transfer_all = false; // Should all time series be transferred?  Allows wildcard check to be skipped.
-		String parseString = null; // Java-style wildcard string
-		if ( dataLoc.equals("*") ) {
-			transfer_all = true;
 		}
-		else {	
-			parseString = StringUtil.replaceString(dataLoc,"*",".*");
+		else {
+			tsIdentList=readTSIdentListPRD(dataType, tsDTInterval,dataScenario);
 		}
-		for ( i = 0; i < size; i++ ) {			
-			// The try/catch here so that an error on one time
-			// series does not error out the whole read process.
-			// For now assume it is not needed because the header was read successfully.
-			try {
-				if ( transfer_all || StringUtil.matchesIgnoreCase(
-					((TSIdent)tsIdentList.get(i)).getLocation(),parseString)) {
-					if(((TSIdent)tsIdentList.get(i)).getIdentifier() == null) {
-						Message.printWarning (2, routine, "Unable to read time series - the TS Ident String is null." );
-						continue;
-					}
-					
-					ts = readTimeSeries( tsIdentList.get(i).getIdentifier(), req_date1, req_date2, req_units, read_data);
-					if ( ts == null ) {
-						Message.printWarning (20, routine, "Unable to read time series for \"" +
-						tsIdentList.get(i).getIdentifier() + "\" - not adding to returned list." );
-					}
-					else {	
-						tsList.add(ts);
-					}
+	}
+	
+	// Loop through the Vector of TSIdents returned by TSIdentList
+	// to match the tsids coming from the TSIdent supplied above.
+	// Can have wildcard characters in the tsid such as APP* or *5M or AP*5M or just a *.
+	int size = 0;
+	if ( tsIdentList != null ) {
+		size = tsIdentList.size();
+	}
+	Message.printStatus ( 10, routine, "Read " + size + " time series identifiers." );
+	boolean transfer_all = false; // Should all time series be transferred?  Allows wildcard check to be skipped.
+	String parseString = null; // Java-style wildcard string
+	if ( dataLoc.equals("*") ) {
+		transfer_all = true;
+	}
+	else {	
+		parseString = StringUtil.replaceString(dataLoc,"*",".*");
+	}
+	for ( i = 0; i < size; i++ ) {			
+		// The try/catch here so that an error on one time
+		// series does not error out the whole read process.
+		// For now assume it is not needed because the header was read successfully.
+		try {
+			if ( transfer_all || StringUtil.matchesIgnoreCase(
+				((TSIdent)tsIdentList.get(i)).getLocation(),parseString)) {
+				if(((TSIdent)tsIdentList.get(i)).getIdentifier() == null) {
+					Message.printWarning (2, routine, "Unable to read time series - the TS Ident String is null." );
+					continue;
 				}
-			} catch(Exception e) {
-				Message.printWarning(10,routine,e);
+				tsidentStringList.add(tsIdentList.get(i).getIdentifier());
 			}
+		} catch(Exception e) {
+			Message.printWarning(10,routine,e);
 		}
 	}
-	
-	return tsList;
+
+	return tsidentStringList;
 }
 
 /**
@@ -9725,7 +11616,7 @@ throws Exception {
 
 	// Now read the Time Series parameter file to get the parameters
 	// for the Time series in the PRDTSn binary file. Read the first record first (240 bytes)
-	EndianDataInputStream EDISParm = read(__NWSRFS_DBFiles[__PRDPARM], 0, 240);
+	EndianDataInputStream EDISParm = read(getDBFile(__PRDPARM), 0, 240);
 	char[] charValue = null;
 	int i = -1;
 	int unitNumber = -1;
@@ -9735,7 +11626,7 @@ throws Exception {
 		try {
 			// Read in subsequent record (72 bytes each)
 			// Read the record 
-			EDISParm = read(__NWSRFS_DBFiles[__PRDPARM],0,72);
+			EDISParm = read(getDBFile(__PRDPARM),0,72);
 
 			// Field 1 - [type field name here]
 			charValue = new char[4];
@@ -9790,7 +11681,7 @@ throws Exception {
 			throw new Exception("Cannot open the " + __dbFileNames[prdIndex] + " binary database file");
 		}
 
-		EDISData = read(__NWSRFS_DBFiles[prdIndex],0,4,5);
+		EDISData = read(getDBFile(prdIndex),0,4,5);
 
 		if (unitNumber == EDISData.readEndianInt()) {
 			break;
@@ -9818,7 +11709,7 @@ throws Exception {
 		// Read until EOF or break.
 		try {
 			// Read the record 
-			EDISIndex = read(__NWSRFS_DBFiles[__PRDINDEX],0,16);
+			EDISIndex = read(getDBFile(__PRDINDEX),0,16);
 
 			// Field 1 - [type field name here]
 			charValue = new char[8]; 
@@ -9862,11 +11753,11 @@ throws Exception {
 			recordNum = EDISIndex.readEndianInt();
 
 			// Now go to the record which has the data interval
-			rewind(__NWSRFS_DBFiles[prdIndex]);
+			rewind(getDBFile(prdIndex));
 
 			// Read the header record. Remember that recordNum is the record number
 			// read from the PRDINDEX file. First must get the length of the header prior to the full read.
-			EDISData = read(__NWSRFS_DBFiles[prdIndex],	recordNum - 1, 64, 6);
+			EDISData = read(getDBFile(prdIndex),	recordNum - 1, 64, 6);
 
 			// Field 1 - [type field name here]
 			EDISData.readByte();
@@ -9955,13 +11846,15 @@ throws Exception {
 		throw new Exception("The time series interval argument is empty.");
 	}
 
-	// Set the TSIdent String
-	tsIdentKey = tsID+"."+tsDT+"."+tsDTInterval;
+	// Set the TSIdent String.  Preprocessor database time series are kept separate from
+	// the processed database time series and existence checks, which use the same identifiers.
+	tsIdentKey = tsID+"."+tsDT+"."+tsDTInterval+"~PPDB";
 
 	// If we have already looked at this time series just return it and do not retrieve it again!
-	if(__tsHashtable.containsKey(tsIdentKey) && __cacheTS) {
-		tsFile = (NWSRFS_TimeSeries)__tsHashtable.get(tsIdentKey);
-		if(tsFile.getIsDataFilled()) {
+	checkTimeSeriesCacheFiles();
+	if(__cacheTS) {
+		tsFile = __tsCache.get(tsIdentKey);
+		if(tsFile != null && tsFile.getIsDataFilled()) {
 			return tsFile;
 		}
 	}
@@ -9971,12 +11864,95 @@ throws Exception {
 
 	// Check the data type to see if it is a RRS data type or daily data.  Then populate the pdbFile object
 	if ( !NWSRFS_PDBINDEX.getIsRRSType(tsDT) ) {
-		//NWSRFS_PDBDLY pdbFile = readPDBDLY(tsID, tsDT, tsDTInterval, readData);
-			
-		// Not implemented yet return a null
-	    Message.printWarning(3, routine, "Non-RRS data types (like \"" + tsDT +
-	            "\") from the preprocessor database are not yet handled." );
-		return null;
+		if (getPDBDLYReadDataType(tsDT) == null) {
+		    Message.printWarning(3, routine, "Daily data types like \"" + tsDT +
+		            "\" from the preprocessor database are not yet handled." );
+			return null;
+		}
+		if (tsDTInterval != 0 && tsDTInterval != 24) {
+		    Message.printWarning(3, routine, "Daily data type \"" + tsDT +
+		            "\" is only available with a 24 hour interval." );
+			return null;
+		}
+		tsDTInterval = 24;
+		NWSRFS_PDBDLY pdbFile = readPDBDLY(tsID, tsDT, tsDTInterval, readData);
+
+		// Set identifier string
+		tsident_string = tsID+".NWSRFS."+tsDT+"-PPDB."+tsDTInterval+"Hour~NWSRFS_FS5Files~" +
+			getFS5FilesLocation();
+		ITS.setIdentifier(tsident_string);
+
+		// Check to see if we have data!
+		if (pdbFile == null || pdbFile.getARRLOC() <= 0 || pdbFile.getLDATE() < pdbFile.getEDATE()
+			|| pdbFile.getEDATE() <= 0) {
+			if (!readData) {
+			    Message.printWarning ( 3, routine,
+			            "The time series \"" + tsident_string + "\" does not have data.  Returning null." );
+				return null;
+			}
+			throw new Exception("The time series "+tsID+".NWSRFS."+tsDT+" is empty.");
+		}
+
+		// Get station info
+		station = readStation(tsID, true);
+		
+		// Start filling TS information
+		ITS.setDescription(station.getDescription());
+		ITS.addToComments((String)tsFile.getTSID());
+		ITS.addToComments((String)tsFile.getTSDataType());
+		
+		ITS.setDataInterval(TimeInterval.HOUR, tsDTInterval);
+
+		String units = getPDBDLYDataUnits(tsDT);
+		if(units != null) {
+			ITS.setDataUnits(units);
+			ITS.setDataUnitsOriginal(units);
+		}
+
+		tsFile.setMINDT(tsDTInterval); 
+		tsFile.setIPROC(1);
+		tsFile.setIFDAT(0); 
+		tsFile.setTSID(pdbFile.getSTAID());
+		tsFile.setTSDataType(tsDT);
+		tsFile.setIDTINT((byte)tsDTInterval); 
+
+		// The value for a Julian day is at the end of the day
+		tsFile.setJULBEG(pdbFile.getEDATE()*24);
+	
+		dtTempStart = NWSRFS_Util.getDateFromJulianHour1900(tsFile.getJULBEG());
+		dtTempStart.setTimeZone("Z");
+		ITS.setDate1(dtTempStart);
+		ITS.setDate1Original(dtTempStart);
+	
+		dtTempEnd = NWSRFS_Util.getDateFromJulianHour1900(pdbFile.getLDATE()*24);
+		dtTempEnd.setTimeZone("Z");
+		ITS.setDate2(dtTempEnd);
+		ITS.setDate2Original(dtTempEnd);
+	
+		ITS.addToGenesis("Read time series from the preprocessor database for "+
+			tsFile.getTSID()+" from "+dtTempStart.toString()+" to "+
+			dtTempEnd.toString()+" using NWSRFS FS5Files \""
+			+__fs5FilesLocation.substring(0,__fs5FilesLocation.length()-1)+"\"");
+
+		if(!readData) {
+			tsFile.setHasData(false);
+			tsFile.setObservedTS(ITS);
+			return tsFile;
+		}
+
+		// Allocate space for the data!
+		ITS.allocateDataSpace();
+		tsFile.setHasData(true);
+		
+		for (i = 0;i < (pdbFile.getDATAVAL()).size(); i++) {
+			float floatValue = pdbFile.getDATAVAL(i);
+			if (floatValue == NWSRFS_PDBDLY.MISSING) {
+				continue;
+			}
+			dtTemp = NWSRFS_Util.getDateFromJulianHour1900(pdbFile.getJULDAY(i)*24);
+			dtTemp.setTimeZone("Z");
+			ITS.setDataValue(dtTemp,(double)floatValue);
+		}
 	}
 	else {
 		NWSRFS_PDBRRS pdbFile = readPDBRRS(tsID, tsDT, tsDTInterval, readData);
@@ -10018,121 +11994,10 @@ throws Exception {
 			
 			ITS.setDataInterval(TimeInterval.HOUR, tsDTInterval);
 
-			if(tsDT.equalsIgnoreCase("AESC")) {
-				ITS.setDataUnits("PCTD");
-				ITS.setDataUnitsOriginal("PCTD");
-			}
-			else if(tsDT.equalsIgnoreCase("DQIN")) {
-				ITS.setDataUnits("CFS");
-				ITS.setDataUnitsOriginal("CFS");
-			}
-			else if(tsDT.equalsIgnoreCase("DQME")) {
-				ITS.setDataUnits("CFSD");
-				ITS.setDataUnitsOriginal("CFSD");
-			}
-			else if(tsDT.equalsIgnoreCase("FBEL")) {
-				ITS.setDataUnits("FT");
-				ITS.setDataUnitsOriginal("FT");
-			}
-			else if(tsDT.equalsIgnoreCase("FGDP")) {
-				ITS.setDataUnits("IN");
-				ITS.setDataUnitsOriginal("IN");
-			}
-			else if(tsDT.equalsIgnoreCase("GATE")) {
-				ITS.setDataUnits("FT");
-				ITS.setDataUnitsOriginal("FT");
-			}
-			else if(tsDT.equalsIgnoreCase("GTCS")) {
-				ITS.setDataUnits("INT");
-				ITS.setDataUnitsOriginal("INT");
-			}
-			else if(tsDT.equalsIgnoreCase("ICET")) {
-				ITS.setDataUnits("IN");
-				ITS.setDataUnitsOriginal("IN");
-			}
-			else if(tsDT.equalsIgnoreCase("LAKH")) {
-				ITS.setDataUnits("FT");
-				ITS.setDataUnitsOriginal("FT");
-			}
-			else if(tsDT.equalsIgnoreCase("LELV")) {
-				ITS.setDataUnits("FT");
-				ITS.setDataUnitsOriginal("FT");
-			}
-			else if(tsDT.equalsIgnoreCase("NFBD")) {
-				ITS.setDataUnits("INT");
-				ITS.setDataUnitsOriginal("INT");
-			}
-			else if(tsDT.equalsIgnoreCase("PCFD")) {
-				ITS.setDataUnits("PCTD");
-				ITS.setDataUnitsOriginal("PCTD");
-			}
-			else if(tsDT.equalsIgnoreCase("PELV")) {
-				ITS.setDataUnits("FT");
-				ITS.setDataUnitsOriginal("FT");
-			}
-			else if(tsDT.equalsIgnoreCase("QIN")) {
-				ITS.setDataUnits("CFS");
-				ITS.setDataUnitsOriginal("CFS");
-			}
-			else if(tsDT.equalsIgnoreCase("QME")) {
-				ITS.setDataUnits("CFSD");
-				ITS.setDataUnitsOriginal("CFSD");
-			}
-			else if(tsDT.equalsIgnoreCase("RQGM")) {
-				ITS.setDataUnits("CFSD");
-				ITS.setDataUnitsOriginal("CFSD");
-			}
-			else if(tsDT.equalsIgnoreCase("RQIM")) {
-				ITS.setDataUnits("CFSD");
-				ITS.setDataUnitsOriginal("CFSD");
-			}
-			else if(tsDT.equalsIgnoreCase("RQIN")) {
-				ITS.setDataUnits("CFS");
-				ITS.setDataUnitsOriginal("CFS");
-			}
-			else if(tsDT.equalsIgnoreCase("RQME")) {
-				ITS.setDataUnits("CFSD");
-				ITS.setDataUnitsOriginal("CFSD");
-			}
-			else if(tsDT.equalsIgnoreCase("RQOT")) {
-				ITS.setDataUnits("CFS");
-				ITS.setDataUnitsOriginal("CFS");
-			}
-			else if(tsDT.equalsIgnoreCase("RQSW")) {
-				ITS.setDataUnits("CFS");
-				ITS.setDataUnitsOriginal("CFS");
-			}
-			else if(tsDT.equalsIgnoreCase("RSTO")) {
-				ITS.setDataUnits("CFSD");
-				ITS.setDataUnitsOriginal("CFSD");
-			}
-			else if(tsDT.equalsIgnoreCase("SNOG")) {
-				ITS.setDataUnits("IN");
-				ITS.setDataUnitsOriginal("IN");
-			}
-			else if(tsDT.equalsIgnoreCase("SNWE")) {
-				ITS.setDataUnits("IN");
-				ITS.setDataUnitsOriginal("IN");
-			}
-			else if(tsDT.equalsIgnoreCase("STG")) {
-				ITS.setDataUnits("FT");
-				ITS.setDataUnitsOriginal("FT");
-			}
-			else if(tsDT.equalsIgnoreCase("TID")) {
-				ITS.setDataUnits("FT");
-				ITS.setDataUnitsOriginal("FT");
-			}
-			else if(tsDT.equalsIgnoreCase("TWEL")) {
-				ITS.setDataUnits("FT");
-				ITS.setDataUnitsOriginal("FT");
-			}
-			else if(tsDT.equalsIgnoreCase("TWSW")) {
-				ITS.setDataUnits("FT");
-				ITS.setDataUnitsOriginal("FT");
-			}
-			else if(tsDT.equalsIgnoreCase("ZELV")) {
-				ITS.setDataUnits("FT");
-				ITS.setDataUnitsOriginal("FT");
+			String units = getPDBRRSDataUnits(tsDT);
+			if(units != null) {
+				ITS.setDataUnits(units);
+				ITS.setDataUnitsOriginal(units);
 			}
 			
 			// Now fill the NWSRFS_Timeseries object with values from the pdbFile object
@@ -10224,10 +12089,12 @@ throws Exception {
 		}
 	}
 		
-	// Put the the tsID into the hash table for future checks.
+	// Put the the tsID into the cache for future checks.
 	tsFile.setObservedTS(ITS);
 	tsFile.setIsDataFilled(true);
-	__tsHashtable.put(tsIdentKey, tsFile);
+	if (__cacheTS) {
+		__tsCache.put(tsIdentKey, tsFile, __TS_SOURCE_PDB);
+	}
 	
 	// Return the NWSRFS_TimeSeries Object!
 	return tsFile;
@@ -10291,6 +12158,29 @@ from the PRDPARM and PRDTSn binary files.
 @throws NullPointerException if the time series identifier is null.
 */
 private NWSRFS_TimeSeries readTimeSeriesPRD(String tsID, String tsDT, int tsDTInterval, boolean readData) 
+throws Exception {
+	return readTimeSeriesPRD(tsID, tsDT, tsDTInterval, readData, Integer.MIN_VALUE, Integer.MAX_VALUE);
+}
+
+/**
+Reads a time series from the processed database, reading only the data in a period.
+See readPRDTS(EndianRandomAccessFile,int,NWSRFS_TimeSeries,boolean,int,int).
+A time series read for a limited period is not cached, but a cached time series
+(read for the full period) is returned if available.
+@param tsID the time series identifier.
+@param tsDT the time series data type.
+@param tsDTInterval the time series data interval in hours.
+@param readData whether to read the data (true) or only determine if the time series exists.
+@param windowStartJul the Julian hour of the start of the period to read, or
+Integer.MIN_VALUE to read from the start of the data.
+@param windowEndJul the Julian hour of the end of the period to read, or
+Integer.MAX_VALUE to read to the end of the data.
+@return an NWSRFS_TimeSeries object which holds all of the information and data
+from the PRDPARM and PRDTSn binary files, or null if the time series is not found.
+@throws Exception if there is an error reading from the database.
+*/
+private NWSRFS_TimeSeries readTimeSeriesPRD(String tsID, String tsDT, int tsDTInterval, boolean readData,
+int windowStartJul, int windowEndJul) 
 throws Exception {
 	String routine = "NWSRFS_DMI.readTimeSeriesPRD";
 	char[] charValue = null;
@@ -10318,9 +12208,10 @@ throws Exception {
 	tsIdentKey = tsID+"."+tsDT+"."+tsDTInterval;
 
 	// If we have already looked at this time series just return it and do not retreive it again!
-	if(__tsHashtable.containsKey(tsIdentKey) && __cacheTS) {
-		tsFile = (NWSRFS_TimeSeries)__tsHashtable.get(tsIdentKey);
-		if(tsFile.getIsDataFilled()) {
+	checkTimeSeriesCacheFiles();
+	if(__cacheTS) {
+		tsFile = __tsCache.get(tsIdentKey);
+		if(tsFile != null && tsFile.getIsDataFilled()) {
 			return tsFile;
 		}
 	}
@@ -10337,7 +12228,7 @@ throws Exception {
 	// for the Time series in the PRDTSn binary file.
 
 	// Read the first record to get the global values (240 bytes)
-	EDIS = read(__NWSRFS_DBFiles[__PRDPARM], 0, 240);
+	EDIS = read(getDBFile(__PRDPARM), 0, 240);
 
 	// Field 1 - [type field name here]
 	charValue = new char[8];
@@ -10378,7 +12269,7 @@ throws Exception {
 		// Read until EOF or break.
 		try {
 			// Read the subsequent records 
-			EDIS = read(__NWSRFS_DBFiles[__PRDPARM],0,__byteLength[__PRDPARM]);
+			EDIS = read(getDBFile(__PRDPARM),0,__byteLength[__PRDPARM]);
 
 			// Field 1 - [type field name here]
 			charValue = new char[4];
@@ -10485,7 +12376,7 @@ throws Exception {
 
 // TODO (JTS - 2004-08-21)
 // explain the magic number 4 and 5		
-		EDIS = read(__NWSRFS_DBFiles[prdIndex],0, 4, 5);
+		EDIS = read(getDBFile(prdIndex),0, 4, 5);
 		if (tsFile.getIUNIT() == EDIS.readEndianInt()) {
 			break;
 		}
@@ -10499,13 +12390,13 @@ throws Exception {
 	tsFile.setPrdIndex(prdIndex);
 	
 	// Check the PRDTSn to see if it is null!
-	if (__NWSRFS_DBFiles[prdIndex] == null) {
+	if (getDBFile(prdIndex) == null) {
 		Message.printWarning(10, routine, "No Time Series of data type: " + tsDT + " was found.");
 		return (NWSRFS_TimeSeries)null;
 	}
 
 	// Rewind the PRDTSn to prepare for the TS read.
-	rewind(__NWSRFS_DBFiles[prdIndex]);
+	rewind(getDBFile(prdIndex));
 
 	// Now read the Time Series index object to get the Record number
 	// for the Time series in the PRDTSn binary file.
@@ -10518,27 +12409,19 @@ throws Exception {
 	// break out of the PRDTSn read and go to the next record in PRDINDEX
 	// which matches TSID and TSDT... Ugly but there is no other way to do it
 	// given the structure of the FS5Files.
-	prdTSIDSize = ((getPRDIndex()).getTSID()).size();
+	// The index lookup returns only the entries that match the TS ID and TS Data Type.
+	int[] prdPositions = getPRDIndex().getIndexPositions(tsID, tsDT);
+	prdTSIDSize = prdPositions.length;
 
 	for(i = 0; i < prdTSIDSize; i++) {
-		// Check the TS ID to see if we match
-		if (!((getPRDIndex()).getTSID(i)).equalsIgnoreCase(tsID)) {
-			continue;
-		}
-
-		// Check the TS Data Type to see if we match
-		if (!((getPRDIndex()).getTSDT(i)).equalsIgnoreCase(tsDT)) {
-			continue;
-		}
-
-		// If we match the TS ID and TS Data Type the get record number
-		recordNum = (getPRDIndex()).getIREC(i);
+		// The TS ID and TS Data Type match so get record number
+		recordNum = (getPRDIndex()).getIREC(prdPositions[i]);
 
 		// Check now to if we are reading the data if so continue; if not return tsFile!
 		if(!readData) {
 			// Now call readPRDTS to first see if we have the right record then read the TS datafile 
 			// to see if TS exists! 
-			if(readPRDTS(__NWSRFS_DBFiles[prdIndex],recordNum,tsFile,false)) {
+			if(readPRDTS(getDBFile(prdIndex),recordNum,tsFile,false)) {
 				break;
 			}
 			else {
@@ -10546,7 +12429,7 @@ throws Exception {
 			}
 		}
 		else {
-			if(readPRDTS(__NWSRFS_DBFiles[prdIndex],recordNum,tsFile,true)) {
+			if(readPRDTS(getDBFile(prdIndex),recordNum,tsFile,true,windowStartJul,windowEndJul)) {
 				break;
 			}
 			else {
@@ -10563,13 +12446,248 @@ throws Exception {
 	}
 //	EDIS.close();
 	
-	// Put the the tsID into the hash table for future checks.
+	// Put the the tsID into the cache for future checks.  Time series read for
+	// part of the period are not cached because they do not have all of the data.
 	tsFile.setIsDataFilled(true);
-	__tsHashtable.put(tsIdentKey, tsFile);
+	if (__cacheTS && windowStartJul == Integer.MIN_VALUE && windowEndJul == Integer.MAX_VALUE) {
+		__tsCache.put(tsIdentKey, tsFile, __TS_SOURCE_PRD);
+	}
 	
 	return tsFile;
 }
 
+/**
+Read the header information for a time series without reading the data.
+See readTimeSeriesSummaryList().
+@param tsident_string the time series identifier, as for readTimeSeries().
+@return the time series summary.  If the time series is not found, exists() is false and
+getMessage() describes why.
+*/
+public NWSRFS_TimeSeriesSummary readTimeSeriesSummary(String tsident_string) {
+	List<String> tsident_strings = new ArrayList<>(1);
+	tsident_strings.add(tsident_string);
+	return readTimeSeriesSummaryList(tsident_strings).get(0);
+}
+
+/**
+Read the header information for a list of time series without reading the data, for
+example to validate time series identifiers before they are read.  For the processed
+database (PRD) only the PRDINDEX and PRDPARM files and the header record in the PRDTSn
+file are read.  For the preprocessor database (PDB, data sub-type "PPDB") only the
+PDBINDEX file and the header of the PDBRRS record are read (only RRS data types are
+supported, as for readTimeSeries()).  The summaries are not added to the time series cache.
+@param tsident_strings the time series identifiers, as for readTimeSeries().
+@return the time series summaries, in the same order as the identifiers.  If a time series
+is not found, exists() is false and getMessage() describes why.
+*/
+public List<NWSRFS_TimeSeriesSummary> readTimeSeriesSummaryList(List<String> tsident_strings) {
+	String routine = "NWSRFS_DMI.readTimeSeriesSummaryList";
+	List<NWSRFS_TimeSeriesSummary> summaries = new ArrayList<>(tsident_strings.size());
+	checkTimeSeriesCacheFiles();
+	NWSRFS_RecordReader reader = new NWSRFS_RecordReader(__isBigEndian, 72);
+	// Logical unit for each PRDTSn file, read when first needed
+	int[] prdtsUnits = null;
+	for (String tsident_string : tsident_strings) {
+		NWSRFS_TimeSeriesSummary summary = null;
+		try {
+			TSIdent tsident = new TSIdent(tsident_string);
+			String interval = tsident.getInterval();
+			int tsDTInterval = 0;
+			if (!interval.equalsIgnoreCase("*") && interval.length() > 0) {
+				tsDTInterval = TimeInterval.parseInterval(interval).getMultiplier();
+			}
+			summary = new NWSRFS_TimeSeriesSummary(tsident_string, tsident.getLocation(),
+				tsident.getMainType(), tsDTInterval);
+			String inputType = tsident.getInputType();
+			if (inputType.length() > 0 && !inputType.equalsIgnoreCase("NWSRFS_FS5Files")) {
+				summary.setMessage("Input type \"" + inputType + "\" is not supported.");
+			}
+			else if (tsDTInterval <= 0) {
+				summary.setMessage("The time series interval must be specified.");
+			}
+			else if (tsident.getSubType().equalsIgnoreCase("PPDB")) {
+				readTimeSeriesSummaryPDB(summary, reader);
+			}
+			else {
+				if (prdtsUnits == null) {
+					prdtsUnits = readPRDTSUnits();
+				}
+				readTimeSeriesSummaryPRD(summary, reader, prdtsUnits);
+			}
+		}
+		catch (Exception e) {
+			if (summary == null) {
+				summary = new NWSRFS_TimeSeriesSummary(tsident_string, null, null, 0);
+			}
+			summary.setExists(false);
+			summary.setMessage("Error reading the time series header (" + e + ").");
+			Message.printWarning(3, routine, e);
+		}
+		summaries.add(summary);
+	}
+	return summaries;
+}
+
+/**
+Fill in a time series summary from the preprocessor database, reading only the PDBINDEX
+file and, for RRS data types, the header of the PDBRRS record.
+@param summary the summary to fill in.
+@param reader the record reader to use.
+@throws Exception if there is an error reading the files.
+*/
+private void readTimeSeriesSummaryPDB(NWSRFS_TimeSeriesSummary summary, NWSRFS_RecordReader reader)
+throws Exception {
+	summary.setDatabase("PDB");
+	String tsDT = summary.getTSDataType();
+	if (!NWSRFS_PDBINDEX.getIsRRSType(tsDT)) {
+		if (getPDBDLYReadDataType(tsDT) == null) {
+			summary.setMessage("Daily data types like \"" + tsDT
+				+ "\" from the preprocessor database are not yet handled.");
+			return;
+		}
+		// Only the PDBINDEX file is read for daily data types
+		NWSRFS_PDBDLY pdbFile = readPDBDLY(summary.getTSID(), tsDT, 24, false);
+		if (pdbFile == null || pdbFile.getARRLOC() <= 0) {
+			summary.setMessage("The time series is not defined in the preprocessor database.");
+			return;
+		}
+		summary.setExists(true);
+		summary.setTSUNIT(getPDBDLYDataUnits(tsDT));
+		if (pdbFile.getEDATE() > 0 && pdbFile.getLDATE() >= pdbFile.getEDATE()) {
+			summary.setNumberOfObservedValues(pdbFile.getLDATE() - pdbFile.getEDATE() + 1);
+			summary.setHasData(true);
+			DateTime date1 = NWSRFS_Util.getDateFromJulianHour1900(pdbFile.getEDATE()*24);
+			date1.setTimeZone("Z");
+			summary.setDate1(date1);
+			DateTime date2 = NWSRFS_Util.getDateFromJulianHour1900(pdbFile.getLDATE()*24);
+			date2.setTimeZone("Z");
+			summary.setDate2(date2);
+		}
+		return;
+	}
+	int recNum = getPDBRRSRecord(summary.getTSID(), tsDT);
+	if (recNum <= 0) {
+		summary.setMessage("The time series is not defined in the preprocessor database.");
+		return;
+	}
+	if (!checkRandomAccessFileOpen(__PDBRRS, true)) {
+		throw new Exception("Cannot open the " + __dbFileNames[__PDBRRS] + " binary database file");
+	}
+	// Read the header of the record, up to the Julian hour of the last observation (see readPDBRRS())
+	EndianRandomAccessFile raFile = getDBFile(__PDBRRS);
+	MappedByteBuffer mapped = getMappedBuffer(raFile);
+	long position = (long)(recNum - 1)*__byteLength[__PDBRRS];
+	if (mapped == null) {
+		reader.readAt(raFile, position, 64);
+	}
+	else {
+		reader.readAt(mapped, position, 64);
+	}
+	reader.skipBytes(28);
+	int NUMOBS = reader.readInt();
+	reader.skipBytes(28);
+	int LSTHR = reader.readInt();
+
+	summary.setExists(true);
+	summary.setTSUNIT(getPDBRRSDataUnits(tsDT));
+	summary.setNumberOfObservedValues(NUMOBS);
+	summary.setHasData(NUMOBS > 0);
+	if (NUMOBS > 0 && LSTHR > 0) {
+		DateTime date2 = NWSRFS_Util.getDateFromJulianHour1900(LSTHR);
+		date2.setTimeZone("Z");
+		summary.setDate2(date2);
+	}
+}
+
+/**
+Fill in a time series summary from the processed database, reading only the PRDINDEX and
+PRDPARM files and the header record in the PRDTSn file.  The period is computed in the same
+way as in readPRDTS().
+@param summary the summary to fill in.
+@param reader the record reader to use.
+@param prdtsUnits the logical unit for each PRDTSn file (see readPRDTSUnits()).
+@throws Exception if there is an error reading the files.
+*/
+private void readTimeSeriesSummaryPRD(NWSRFS_TimeSeriesSummary summary, NWSRFS_RecordReader reader,
+int[] prdtsUnits)
+throws Exception {
+	summary.setDatabase("PRD");
+	String tsID = summary.getTSID();
+	String tsDT = summary.getTSDataType();
+	int tsDTInterval = summary.getTSDTInterval();
+	int unitNum = getPRDDataTypeUnit(tsDT);
+	int prdIndex = -1;
+	for (int i = 0; i < prdtsUnits.length; i++) {
+		if (unitNum >= 0 && prdtsUnits[i] == unitNum) {
+			prdIndex = __PRDTS1 + i;
+			break;
+		}
+	}
+	if (prdIndex < 0) {
+		summary.setMessage("No time series of data type \"" + tsDT + "\" are defined in the processed database.");
+		return;
+	}
+
+	int[] prdPositions = getPRDIndex().getIndexPositions(tsID, tsDT);
+	EndianRandomAccessFile raFile = getDBFile(prdIndex);
+	MappedByteBuffer mapped = getMappedBuffer(raFile);
+	for (int i = 0; i < prdPositions.length; i++) {
+		int recordNum = getPRDIndex().getIREC(prdPositions[i]);
+		if (recordNum <= 0) {
+			continue;
+		}
+		// Read the fixed part of the header (see readPRDTS())
+		long position = (long)(recordNum - 1)*__byteLength[prdIndex];
+		if (mapped == null) {
+			reader.readAt(raFile, position, 72);
+		}
+		else {
+			reader.readAt(mapped, position, 72);
+		}
+		reader.readByte();	// LTSHDR
+		int IDTINT = reader.readByte();
+		if (IDTINT != tsDTInterval) {
+			// Not the right interval so try the next time series with the identifier and data type
+			continue;
+		}
+		reader.skipBytes(4);	// NVLINT, unused, NTSMAX
+		int NTSNUM = reader.readShort();
+		int IPTREG = reader.readShort();
+		int IPTFUT = reader.readShort();
+		reader.skipBytes(12);	// TSID and data type
+		String TSUNIT = reader.readString(4);
+		reader.skipBytes(8);	// Latitude and longitude
+		int JULBEG = reader.readInt();
+		reader.skipBytes(12);	// ITSFUT, unused, NRECNX
+		String TSDESC = reader.readString(20);
+
+		int obsDataNum = NTSNUM;
+		int futDataNum = 0;
+		if (IPTFUT != 0) {
+			obsDataNum = IPTFUT - IPTREG;
+			futDataNum = NTSNUM - obsDataNum;
+		}
+		summary.setExists(true);
+		summary.setHasData(NTSNUM > 0);
+		if (TSUNIT.length() > 0) {
+			summary.setTSUNIT(TSUNIT);
+		}
+		if (TSDESC.length() > 0) {
+			summary.setTSDESC(TSDESC);
+		}
+		summary.setNumberOfObservedValues(obsDataNum);
+		summary.setNumberOfFutureValues(futDataNum);
+		DateTime date1 = NWSRFS_Util.getDateFromJulianHour1900(JULBEG);
+		date1.setTimeZone("Z");
+		summary.setDate1(date1);
+		DateTime date2 = NWSRFS_Util.getDateFromJulianHour1900(JULBEG + NTSNUM*IDTINT);
+		date2.setTimeZone("Z");
+		summary.setDate2(date2);
+		return;
+	}
+	summary.setMessage("The time series is not defined in the processed database.");
+}
+
 /**
 Read a Time Series object from the database.
 @param opObject this is an NWSRFS_Operation object that is the parent
@@ -10689,7 +12807,7 @@ public List<NWSRFS_USER> readUSERParamList() throws Exception {
 	}
 	else {
 		// Loop through the ID.size number of records.
-		for(int i=0;i<(pppindex.getID()).size();i++) {
+		for(int i : pppindex.getIndexPositions("USER")) {
 			// If the type is BASN add to the list.
 			if(pppindex.getITYPE().get(i).equalsIgnoreCase("USER")) {
 				user = new NWSRFS_USER(pppindex.getID().get(i));
@@ -10718,7 +12836,7 @@ throws Exception {
 	if (!checkRandomAccessFileOpen(__USERPARM, true)) {
 		throw new Exception("Cannot open the " + __dbFileNames[__USERPARM] + " binary database file");
 	}
-	EndianRandomAccessFile eraf = __NWSRFS_DBFiles[__USERPARM];
+	EndianRandomAccessFile eraf = getDBFile(__USERPARM);
 	// Position at the start of the file...
 	eraf.seek ( 0 );
 	// Read the records in the file...
@@ -10731,6 +12849,74 @@ throws Exception {
 	return rec;
 }
 
+/**
+Reset the Forecast Component database files after they have been changed by another
+process (e.g., segments redefined with the System Maintenance panel).  The files are closed
+so that they are opened (and memory mapped) again on the next read, and the FCRCPTR and
+FCSEGPTR index objects are discarded so that they are read again.
+This must not be called while other threads are reading from the DMI.
+*/
+public synchronized void resetForecastComponentFiles() {
+	for (int i = 0; i < __FC_FILES.length; i++) {
+		closeDBFile(__FC_FILES[i]);
+	}
+	_fcrcptr = null;
+	_fcsegptr = null;
+	clearOperationParameterCache();
+}
+
+/**
+Close the database files opened by reading threads that have ended, so that the files
+of short-lived threads (e.g., threads of a pool that has been shut down) are not held open.
+Must be called while synchronized on __threadDBFileMap.
+*/
+private void pruneThreadFiles() {
+	String routine = "NWSRFS_DMI.pruneThreadFiles";
+	List<String> filenames = new ArrayList<>();
+	Iterator<Map.Entry<Thread,EndianRandomAccessFile[]>> it = __threadDBFileMap.entrySet().iterator();
+	while (it.hasNext()) {
+		Map.Entry<Thread,EndianRandomAccessFile[]> entry = it.next();
+		if (!entry.getKey().isAlive()) {
+			closeThreadFiles(entry.getValue(), __threadIsOpenMap.remove(entry.getKey()), filenames);
+			it.remove();
+		}
+	}
+	if (filenames.size() > 0) {
+		Message.printWarning(3, routine, "Could not close files: " + filenames);
+	}
+}
+
+/**
+Close the database files that the calling thread opened for concurrent reads (see
+setConcurrentReads()).  Tasks that read from the DMI on a thread pool call this when they
+finish so that the pool threads do not hold files open between uses.  The files are opened
+again if the thread reads again.  This has no effect if concurrent reads are not enabled or
+if called from the thread that enabled concurrent reads, which uses the shared files.
+*/
+public void releaseThreadFiles() {
+	String routine = "NWSRFS_DMI.releaseThreadFiles";
+	ThreadLocal<EndianRandomAccessFile[]> threadDBFiles = __threadDBFiles;
+	ThreadLocal<boolean[]> threadIsOpen = __threadIsOpen;
+	if (!__concurrentReads || threadDBFiles == null || threadIsOpen == null) {
+		return;
+	}
+	List<String> filenames = new ArrayList<>();
+	Thread thread = Thread.currentThread();
+	synchronized (__threadDBFileMap) {
+		EndianRandomAccessFile[] dbFiles = __threadDBFileMap.get(thread);
+		if (dbFiles == null || dbFiles == __NWSRFS_DBFiles) {
+			return;
+		}
+		closeThreadFiles(dbFiles, __threadIsOpenMap.remove(thread), filenames);
+		__threadDBFileMap.remove(thread);
+	}
+	threadDBFiles.remove();
+	threadIsOpen.remove();
+	if (filenames.size() > 0) {
+		Message.printWarning(3, routine, "Could not close files: " + filenames);
+	}
+}
+
 /**
 Rewind a binary file for future reading or writing.
 @param raFile this is the EndianRandomAccessFile to the binary file to rewind. 
@@ -10784,6 +12970,54 @@ protected void setupDatabaseProperties() {
 	}
 }
 
+/**
+Set the directory used for persistent index sidecar files.  When set, the PDBINDEX, PPPINDEX
+and PRDINDEX index objects are loaded from compact sidecar files in the directory if the
+sidecar files are current with the binary index files (same length and modification time),
+which avoids parsing the binary index files each time the DMI is opened.  If a sidecar
+file is missing or stale, the index is read from the binary file and the sidecar file
+is rewritten.  Sidecar files are never used when the directory is null (the default).
+@param directory the directory for index sidecar files, or null to not use sidecar files.
+*/
+public synchronized void setIndexCacheDirectory(String directory) {
+	if (directory == null || directory.trim().length() == 0) {
+		__indexCache = null;
+	}
+	else {
+		__indexCache = new NWSRFS_IndexCache(directory.trim());
+	}
+}
+
+/**
+Set consecutive data values in an hourly time series.  The date for each value is computed by
+advancing a single DateTime by the interval, rather than converting the Julian hour for each value.
+@param ts the time series to fill (data space must be allocated).
+@param startJulianHour the Julian hour (since 1900) of the first value.
+@param intervalHours the data interval in hours.
+@param values the values to set.
+*/
+private void setDataValues(TS ts, int startJulianHour, int intervalHours, float[] values) {
+	DateTime date = NWSRFS_Util.getDateFromJulianHour1900(startJulianHour);
+	date.setTimeZone("Z");
+	for (int i = 0; i < values.length; i++) {
+		if (i > 0) {
+			date.addHour(intervalHours);
+		}
+		ts.setDataValue(date, (double)values[i]);
+	}
+}
+
+/**
+Set the maximum number of FCPARAM operation parameter records (one per segment) that are
+cached by readOperations(), so that segments that are read repeatedly with deepRead=true
+(e.g., when expanding the system tree or displaying properties) do not read FCPARAM again.
+The least recently used records are discarded when the cache is full.  The default is 250.
+@param maxEntries the maximum number of cached records, or zero to disable the cache.
+*/
+public void setOperationParameterCacheSize(int maxEntries) {
+	__opParamCache.setMaxEntries(maxEntries);
+}
+
 /**
 Sets the object holding index values for the preprocessor database files PDBLYn and PDBRRS.
 @param pdbindex the object holding index values for the preprocessor 
@@ -10811,6 +13045,128 @@ public void setPRDIndex(NWSRFS_PRDINDEX prdindex) {
 	_prdindex = prdindex;
 }
 
+/**
+Set whether time series read with data are cached, so that reading the same time series
+again returns the cached time series.  Cached time series are discarded when the database
+files change (checked at most once a second), when the DMI writes to a database file, and
+when the cache limits are exceeded (see setTimeSeriesCacheLimits()).
+@param cacheTS true to cache time series read with data.
+*/
+public void setCacheTimeSeries(boolean cacheTS) {
+	__cacheTS = cacheTS;
+}
+
+/**
+Set whether the topology objects read from the forecast component files (segments,
+operations, time series and carryover) are stored compactly.  When enabled, the
+identifiers parsed from the records are interned so that repeated identifiers share one
+instance, and carryover values are not stored in the NWSRFS_Carryover objects but are
+read from FCCARRY when NWSRFS_Carryover.getCoCarryoverValues() is called, using the
+carryover slot and position recorded when the segment was read.  This bounds the memory
+used by a deep read of all segments (see NWSRFS.createNWSRFSFromPRD()).  The DMI must
+remain open while carryover values are requested.
+@param compactTopology true to store topology objects compactly.
+*/
+public void setCompactTopology(boolean compactTopology) {
+	__compactTopology = compactTopology;
+}
+
+/**
+Set whether the DMI can be used to read from several threads at the same time.
+When enabled, each thread that reads from the DMI opens its own set of database files,
+so file positions are independent between threads, and the lazily read index objects
+are read only once.  The index objects (FCRCPTR, FCSEGPTR, PDBINDEX, PPPINDEX,
+PRDINDEX) and memory-mapped buffers (see setUseMemoryMappedFiles()) are shared.
+Concurrent reads are intended for read-only use of the database; methods that write
+to the database files must not be called while other threads are reading.
+Files that the calling thread has already opened remain open for that thread.
+The files opened by a thread are closed by releaseThreadFiles(), or when another thread starts
+reading after the thread has ended.  close() closes the files for all threads, and disabling
+concurrent reads closes the files opened by the other threads.
+@param concurrentReads true to allow concurrent reads from several threads.
+*/
+public synchronized void setConcurrentReads(boolean concurrentReads) {
+	if (concurrentReads == __concurrentReads) {
+		return;
+	}
+	if (concurrentReads) {
+		final EndianRandomAccessFile[] callerDBFiles = __NWSRFS_DBFiles;
+		final boolean[] callerIsOpen = __isOpen;
+		final Thread caller = Thread.currentThread();
+		__threadDBFiles = new ThreadLocal<EndianRandomAccessFile[]>() {
+			@Override
+			protected EndianRandomAccessFile[] initialValue() {
+				EndianRandomAccessFile[] dbFiles = callerDBFiles;
+				if (Thread.currentThread() != caller) {
+					dbFiles = new EndianRandomAccessFile[__dbFileNames.length];
+				}
+				synchronized (__threadDBFileMap) {
+					pruneThreadFiles();
+					__threadDBFileMap.put(Thread.currentThread(), dbFiles);
+				}
+				return dbFiles;
+			}
+		};
+		__threadIsOpen = new ThreadLocal<boolean[]>() {
+			@Override
+			protected boolean[] initialValue() {
+				boolean[] isOpen = callerIsOpen;
+				if (Thread.currentThread() != caller) {
+					isOpen = new boolean[__dbFileNames.length];
+				}
+				synchronized (__threadDBFileMap) {
+					__threadIsOpenMap.put(Thread.currentThread(), isOpen);
+				}
+				return isOpen;
+			}
+		};
+	}
+	else {
+		// Clear the flag first so that reading threads go back to the shared files
+		__concurrentReads = false;
+		// The per-thread files are no longer used so close them
+		String routine = "NWSRFS_DMI.setConcurrentReads";
+		List<String> filenames = new ArrayList<>();
+		synchronized (__threadDBFileMap) {
+			for (Map.Entry<Thread,EndianRandomAccessFile[]> entry : __threadDBFileMap.entrySet()) {
+				closeThreadFiles(entry.getValue(), __threadIsOpenMap.get(entry.getKey()), filenames);
+			}
+			__threadDBFileMap.clear();
+			__threadIsOpenMap.clear();
+		}
+		if (filenames.size() > 0) {
+			Message.printWarning(3, routine, "Could not close files: " + filenames);
+		}
+		__threadDBFiles = null;
+		__threadIsOpen = null;
+	}
+	__concurrentReads = concurrentReads;
+}
+
+/**
+Set the limits for the time series cache.  The least recently used time series are
+discarded when either limit is exceeded.  The defaults are 1000 time series and 64 MB.
+@param maxEntries the maximum number of cached time series (zero to disable the cache).
+@param maxBytes the maximum estimated size of the cached time series in bytes.
+*/
+public void setTimeSeriesCacheLimits(int maxEntries, long maxBytes) {
+	__tsCache.setLimits(maxEntries, maxBytes);
+}
+
+/**
+Set whether the binary database files that are opened read only should be accessed
+through read-only memory-mapped buffers.  This is an opt-in mode intended for
+processes that repeatedly read a read-only snapshot of the fs5files, so that the
+operating system page cache serves the data without read calls.  The setting
+applies to files opened after the call, so it should normally be set before open().
+Files opened for writing are never mapped.  The mapped contents are not updated
+if the size of a file changes while it is open.
+@param useMemoryMappedFiles true to memory map database files that are opened read only.
+*/
+public void setUseMemoryMappedFiles(boolean useMemoryMappedFiles) {
+	__useMemoryMappedFiles = useMemoryMappedFiles;
+}
+
 /**
 Write to a data file. This method appends byte length bytes to the file 
 referenced by raFile. It will call the overloaded write method setting 
@@ -10871,6 +13227,11 @@ protected void write(EndianRandomAccessFile raFile, boolean isBigEndian,
 byte[] record, int recordNumber, int byteLength, String insertFlag, boolean useFS5Files) 
 throws Exception
 {
+	// Records that are cached may be changed by the write
+	clearOperationParameterCache();
+	__tsCache.clear();
+	__tsDTUHashtable.clear();
+
 	// Get the current DateTime for the temp file.
 	DateTime nowDT = new DateTime((Date)new Date());
 
@@ -11036,6 +13397,11 @@ protected EndianDataOutputStream write(String fileName, boolean isBigEndian,
 String insertFlag, boolean useFS5Files) 
 throws Exception {
 	String routine = "NWSRFS_DMI.write()";
+
+	// Records that are cached may be changed by the write
+	clearOperationParameterCache();
+	__tsCache.clear();
+	__tsDTUHashtable.clear();
 	
 	// Now determine if append to the end of the file or  replace a specific record.		
 	// To replace a specific record is much more complicated but can still be done.
@@ -11078,6 +13444,38 @@ public boolean usingFS5Files() {
 	return __useFS5Files;
 }
 
+/**
+Returns whether concurrent reads from several threads are enabled.
+@return whether concurrent reads from several threads are enabled.
+*/
+public boolean usingConcurrentReads() {
+	return __concurrentReads;
+}
+
+/**
+Returns whether time series read with data are cached.  See setCacheTimeSeries().
+@return true if time series read with data are cached.
+*/
+public boolean usingCachedTimeSeries() {
+	return __cacheTS;
+}
+
+/**
+Returns whether topology objects are stored compactly.  See setCompactTopology().
+@return whether topology objects are stored compactly.
+*/
+public boolean usingCompactTopology() {
+	return __compactTopology;
+}
+
+/**
+Returns whether database files opened read only are accessed through memory-mapped buffers.
+@return whether database files opened read only are accessed through memory-mapped buffers.
+*/
+public boolean usingMemoryMappedFiles() {
+	return __useMemoryMappedFiles;
+}
+
 //////////////////////////////////////////////////////////////////////
 // JTS testing area
 // Looks like Sean hadn't really heard of "methods" before, as there is a ton
@@ -11106,42 +13504,21 @@ float errorValue) {
 }
 
 // In particular, every time a string is read in a new char array is created.
-// that's just wasteful.  A method like the following, with a 
-// statically-allocated array, can be re-used without having to worry about
-// how many arrays are being created in a single pass of reading one of
-// the files.
-
-// haven't fully implemented yet, but could work out well ... just need some
-// spare time in which to try it out.
-private static char[] __working4Char = new char[4];
-private static char[] __working8Char = new char[8];
-private static char[] __working20Char = new char[20];
-private static int __workingIncr = 0;
+// that's just wasteful.
+// The following originally re-used statically-allocated arrays, but that made
+// the DMI unsafe to use from more than one thread (even separate instances),
+// so the character array is now local to each call.
 
 public String getCharString(EndianDataInputStream EDIS, int length, 
 boolean nullAsEmpty) 
 throws Exception {
 	String s = null;
-	if (length == 4) {
-		for (__workingIncr = 0; __workingIncr < length; __workingIncr++) {
-			__working4Char[__workingIncr] = 0;
-			__working4Char[__workingIncr] = EDIS.readEndianChar1();
-		}
-		s = new String(__working4Char);
-	}
-	else if (length == 8) {
-		for (__workingIncr = 0; __workingIncr < length; __workingIncr++) {
-			__working8Char[__workingIncr] = 0;
-			__working8Char[__workingIncr] = EDIS.readEndianChar1();
-		}
-		s = new String(__working8Char);
-	}
-	else if (length == 20) {
-		for (__workingIncr = 0; __workingIncr < length; __workingIncr++) {
-			__working20Char[__workingIncr] = 0;
-			__working20Char[__workingIncr] = EDIS.readEndianChar1();
+	if (length == 4 || length == 8 || length == 20) {
+		char[] workingChar = new char[length];
+		for (int i = 0; i < length; i++) {
+			workingChar[i] = EDIS.readEndianChar1();
 		}
-		s = new String(__working20Char);
+		s = new String(workingChar);
 	}
 		
 	s = s.trim();
@@ -1193,6 +1193,16 @@ public int getDataIntervalHours ()
 {	return __ts_dt;
 }
 
+/**
+Return the number of data values stored in the file for each conditional month of a trace.
+@return the number of data values stored in the file for each conditional month of a trace.
+*/
+private int getDataPerMonth ()
+{	int ndata = __rec_words/4;	// Floats per line - should be 31
+	int nrecpermonth = (ndata/31)*(24/__ts_dt);
+	return nrecpermonth*ndata;
+}
+
 /**
 Return the data units.
 @return the data units.
@@ -1493,114 +1503,23 @@ throws Exception
 		Message.printWarning ( 2, routine, "ESP trace ensemble data are already read from file - rereading." );
 	}
 
-	int ndata = __rec_words/4;	// Floats per line - should be 31
-	int nrecpermonth = (ndata/31)*(24/__ts_dt);
-	float [] data = new float[744];	// Enough for 31 days x 24 1-hour values...
-	//byte [] record = new byte[4]; 	// This is the byte value returned from the read.
-	int icm;	// Loop counter for conditional months in each trace.
-	int ndays;	// Number of days per month.
-	int i;		// Position in loop for data per record
-	int idata;	// Position in data array for month
-	int ntran;	// Number of data to transfer for a month's data
-	DateTime date;	// Date/time to used to transfer data array to time series.
-	DateTime hdate;	// Date/time to used to evaluate a historical date/time.
-	EndianDataInputStream EDIS;
+	int ndatapermonth = getDataPerMonth();
+	float [] data = new float[Math.max(744,ndatapermonth)];	// Enough for 31 days x 24 1-hour values...
+	// Each trace is read with a single read of all of its records and then decoded in bulk.
+	NWSRFS_RecordReader reader = new NWSRFS_RecordReader(__dmi.usingBigEndian(), __ncm*ndatapermonth*4);
 
 	try {
-	// Position the file pointer...
 	// Check to see if RandomAccessFile is open
 	if(!__traceRAFOpen)	{
 		__traceRAF = new EndianRandomAccessFile(__filename,"r"); 
 		__traceRAFOpen = true;
 	}
 
-	__dmi.rewind(__traceRAF);
-	__dmi.seek(__traceRAF,(long)((__irec - 1)*__rec_words*4),false);
-
 	// Loop through the number of time series traces...
 	for ( int its = 0; its < __n_traces; its++ ) {
 		// The data space is not allocated in readHeader() so do it here...
 		__ts[its].allocateDataSpace();
-		// Initialize the date that will be used to transfer data to
-		// the starting interval in the data file.
-		// The dates in the file use the hour 1-24.  However,
-		// the time series have been allocated in readHeader()
-		// using hour 0-23.  Therefore, the starting date/time
-		// must be properly set.  Each month of data in the file
-		// corresponds to hour __ts_dt of the first day of the
-		// HISTORICAL month, which will only be an issue if
-		// __ts_dt == 24.  Take care to
-		// set the starting date correctly and then just add the
-		// interval as the data are processed.
-		// First determine the hour 24 date/time, mainly to get
-		// the correct month, and year.
-		// Start by setting to the initial value...
-		date = NWSRFS_Util.toDateTime24(__start_date,true);
-		// Set the day to 1 and the hour to the interval...
-		date.setDay ( 1 );
-		date.setHour ( __ts_dt );
-		// Convert back to 0-23 hour...
-		date = NWSRFS_Util.toDateTime23(date,true);
-		// Loop through the number of conditional months (the month is incr???...
-		for ( icm = 0; icm < __ncm; icm++ ) {
-			// Loop through the records in the month...
-			idata = 0;	// Reset array position.
-			if ( Message.isDebugOn ) {
-				Message.printDebug ( 1, routine, "Reading trace [" + its + "] " +
-				__ts[its].getSequenceID() + " conditional month [" + icm + "]" );
-			}
-			for (	int ir = 0; ir < nrecpermonth; ir++ ) {
-				// Loop through the data in the month, incrementing the hour to assign the data...
-				for ( i = 0; i < ndata; i++ ) {
-					// Read the data from the DMI
-					EDIS = __dmi.read(__traceRAF,0,4);
-					//EDIS.setBigEndian(__big_endian);
-
-					// Convert to a float
-					data[idata++] = EDIS.readEndianFloat();
-
-					// Close the stream to get new record
-					EDIS.close();
-				}
-			}
-			// Now a complete month has been read.  Determine the
-			// number of values available in the file to be
-			// transferred.  The months in the file correspond to
-			// the historical months, not the real-time forecast
-			// years.  Therefore, for example, if the forecast
-			// period is May 2002 through May 2004 but the
-			// starting historical years are 1995 - 1998 (4 traces),
-			// the second trace (historical years 1996-1997) will
-			// have 28 days in February in the data file, even
-			// though 2004 in the forecast period has 29.
-			// Therefore, calculate the number of data values in
-			// the file based on the historical year and only
-			// increment the date for the time series as values are transferred.
-			hdate = new DateTime(DateTime.PRECISION_MONTH);
-			// Set the year to the historical year...
-			hdate.setYear ( __iy + its );
-			hdate.setMonth ( __im );
-			// Now add the number of months that have been processed...
-			hdate.addMonth ( icm );
-			// Now get the number of days in the month.  This does not look at the hour so an hour of 24 is OK...
-			ndays = TimeUtil.numDaysInMonth ( hdate );
-			// Now compute the number of data that will need to be
-			// transferred.  It may be less than the number read
-			// because of the number of days in the month...
-			ntran = ndays*24/__ts_dt;
-			// Now loop through the data, using the actual 0-23
-			// hour and the number of intervals.  It is OK to
-			// attempt transferring data outside the actual TS
-			// period because data outside the period will be
-			// ignored (and should be missing).
-			if ( Message.isDebugOn ) {
-				Message.printDebug ( 1, routine, "Transferring " + ndays + " days, " + ntran +
-				" values for historical " + hdate +	" starting at " + date );
-			}
-			for ( idata = 0; idata < ntran; idata++, date.addHour(__ts_dt) ) {
-				__ts[its].setDataValue(date,data[idata]);
-			}
-		}
+		readTraceData ( reader, data, its, __ts[its], null, null );
 	}
 	}
 	catch ( Exception e ) {
@@ -2195,6 +2114,202 @@ public TS readTimeSeries (String tsident_string, DateTime req_date1, DateTime re
 	return ts;
 }
 
+/**
+Read a single trace from the ESP trace ensemble file, without reading the other traces.
+The file header must have been read (e.g., by constructing the ensemble with read_data=false).
+The returned time series is a new object; the time series in the ensemble (see getTimeSeries())
+are not modified, so only the requested trace is held in memory.
+@param its the index of the trace (0 to getNTraces() - 1).
+@return the time series for the trace, with data for the full trace period.
+@exception Exception if the trace cannot be read.
+*/
+public TS readTrace ( int its )
+throws Exception
+{	return readTrace ( its, null, null );
+}
+
+/**
+Read a single trace from the ESP trace ensemble file, limited to a period.
+Only the records for the conditional months that overlap the period are read.
+The file header must have been read (e.g., by constructing the ensemble with read_data=false).
+The returned time series is a new object; the time series in the ensemble (see getTimeSeries())
+are not modified.
+@param its the index of the trace (0 to getNTraces() - 1).
+@param date1 the start of the period to read, or null to read from the start of the trace.
+@param date2 the end of the period to read, or null to read to the end of the trace.
+@return the time series for the trace, with its period set to the requested period (limited to the trace period).
+@exception Exception if the trace cannot be read.
+*/
+public synchronized TS readTrace ( int its, DateTime date1, DateTime date2 )
+throws Exception
+{	if ( (its < 0) || (its >= __n_traces) ) {
+		throw new Exception ( "Trace index " + its + " is not in the range 0 to " + (__n_traces - 1) +
+			" for \"" + __filename + "\"" );
+	}
+	if(!__traceRAFOpen)	{
+		__traceRAF = new EndianRandomAccessFile(__filename,"r"); 
+		__traceRAFOpen = true;
+	}
+	HourTS ts = new HourTS ( __ts[its] );
+	DateTime tsdate1 = new DateTime ( __ts[its].getDate1() );
+	DateTime tsdate2 = new DateTime ( __ts[its].getDate2() );
+	if ( (date1 != null) && date1.greaterThan(tsdate1) ) {
+		tsdate1 = new DateTime ( date1 );
+	}
+	if ( (date2 != null) && date2.lessThan(tsdate2) ) {
+		tsdate2 = new DateTime ( date2 );
+	}
+	ts.setDate1 ( tsdate1 );
+	ts.setDate2 ( tsdate2 );
+	ts.allocateDataSpace();
+	if ( tsdate1.greaterThan(tsdate2) ) {
+		// Requested period does not overlap the trace so return the empty time series.
+		return ts;
+	}
+	int ndatapermonth = getDataPerMonth();
+	NWSRFS_RecordReader reader = new NWSRFS_RecordReader(__dmi.usingBigEndian(), ndatapermonth*4);
+	float [] data = new float[Math.max(744,ndatapermonth)];
+	readTraceData ( reader, data, its, ts, tsdate1, tsdate2 );
+	return ts;
+}
+
+/**
+Read the data for a trace from the ESP trace ensemble file and transfer to a time series.
+Because the file has a fixed record layout, the position of each conditional month of each trace
+can be computed from __irec, __rec_words, and __ncm, and only the conditional months that
+overlap the requested period are read, with a single read.
+@param reader the reader used to read and decode the data.
+@param data work array for one month of data.
+@param its the index of the trace.
+@param ts the time series to receive the data (data space must be allocated).
+@param date1 the start of the period to read, or null to read from the start of the trace.
+@param date2 the end of the period to read, or null to read to the end of the trace.
+@exception Exception if the data cannot be read.
+*/
+private void readTraceData ( NWSRFS_RecordReader reader, float [] data, int its, TS ts,
+	DateTime date1, DateTime date2 )
+throws Exception
+{	String routine = "NWSRFS_ESPTraceEnsemble.readTraceData";
+	int ndatapermonth = getDataPerMonth();
+	int icm;	// Loop counter for conditional months in each trace.
+	int ndays;	// Number of days per month.
+	int idata;	// Position in data array for month
+	int [] ntran = new int[__ncm];	// Number of data to transfer for each month's data
+	DateTime [] mdate = new DateTime[__ncm];	// Starting date/time for each month's data
+	DateTime date;	// Date/time to used to transfer data array to time series.
+	DateTime hdate;	// Date/time to used to evaluate a historical date/time.
+
+	// Initialize the date that will be used to transfer data to
+	// the starting interval in the data file.
+	// The dates in the file use the hour 1-24.  However,
+	// the time series have been allocated in readHeader()
+	// using hour 0-23.  Therefore, the starting date/time
+	// must be properly set.  Each month of data in the file
+	// corresponds to hour __ts_dt of the first day of the
+	// HISTORICAL month, which will only be an issue if
+	// __ts_dt == 24.  Take care to
+	// set the starting date correctly and then just add the
+	// interval as the data are processed.
+	// First determine the hour 24 date/time, mainly to get
+	// the correct month, and year.
+	// Start by setting to the initial value...
+	date = NWSRFS_Util.toDateTime24(__start_date,true);
+	// Set the day to 1 and the hour to the interval...
+	date.setDay ( 1 );
+	date.setHour ( __ts_dt );
+	// Convert back to 0-23 hour...
+	date = NWSRFS_Util.toDateTime23(date,true);
+
+	// Determine the number of values and starting date/time for each conditional month.
+	// The months in the file correspond to
+	// the historical months, not the real-time forecast
+	// years.  Therefore, for example, if the forecast
+	// period is May 2002 through May 2004 but the
+	// starting historical years are 1995 - 1998 (4 traces),
+	// the second trace (historical years 1996-1997) will
+	// have 28 days in February in the data file, even
+	// though 2004 in the forecast period has 29.
+	// Therefore, calculate the number of data values in
+	// the file based on the historical year and only
+	// increment the date for the time series as values are transferred.
+	// Also determine the range of months that overlap the requested period.
+	int icm1 = -1, icm2 = -1;
+	for ( icm = 0; icm < __ncm; icm++ ) {
+		hdate = new DateTime(DateTime.PRECISION_MONTH);
+		// Set the year to the historical year...
+		hdate.setYear ( __iy + its );
+		hdate.setMonth ( __im );
+		// Now add the number of months that have been processed...
+		hdate.addMonth ( icm );
+		// Now get the number of days in the month.  This does not look at the hour so an hour of 24 is OK...
+		ndays = TimeUtil.numDaysInMonth ( hdate );
+		// Now compute the number of data that will need to be
+		// transferred.  It may be less than the number read
+		// because of the number of days in the month...
+		ntran[icm] = ndays*24/__ts_dt;
+		mdate[icm] = new DateTime ( date );
+		date.addHour ( ntran[icm]*__ts_dt );
+		// date is now the start of the next month so the month overlaps if it
+		// starts before date2 and the next month starts after date1.
+		if ( ((date2 == null) || !mdate[icm].greaterThan(date2)) && ((date1 == null) || date.greaterThan(date1)) ) {
+			if ( icm1 < 0 ) {
+				icm1 = icm;
+			}
+			icm2 = icm;
+		}
+	}
+	if ( icm1 < 0 ) {
+		// No months overlap the requested period.
+		return;
+	}
+
+	// Read all of the records for the months with a single read...
+	long position = ((long)(__irec - 1)*__rec_words + ((long)its*__ncm + icm1)*ndatapermonth)*4;
+	reader.readAt ( __traceRAF, position, (icm2 - icm1 + 1)*ndatapermonth*4 );
+
+	// Loop through the conditional months...
+	for ( icm = icm1; icm <= icm2; icm++ ) {
+		if ( Message.isDebugOn ) {
+			Message.printDebug ( 1, routine, "Reading trace [" + its + "] " +
+			ts.getSequenceID() + " conditional month [" + icm + "]" );
+		}
+		// Decode all of the records in the month...
+		reader.readFloats ( data, 0, ndatapermonth );
+		// Now loop through the data, using the actual 0-23
+		// hour and the number of intervals.  It is OK to
+		// attempt transferring data outside the actual TS
+		// period because data outside the period will be
+		// ignored (and should be missing).
+		date = mdate[icm];
+		if ( Message.isDebugOn ) {
+			Message.printDebug ( 1, routine, "Transferring " + ntran[icm] +
+			" values starting at " + date );
+		}
+		for ( idata = 0; idata < ntran[icm]; idata++, date.addHour(__ts_dt) ) {
+			ts.setDataValue(date,data[idata]);
+		}
+	}
+}
+
+/**
+Read several traces from the ESP trace ensemble file, limited to a period.  Each trace
+is read with a separate read of only the conditional months that overlap the period, so
+this can be used to extract a window (e.g., one month) across all traces without
+reading the full ensemble.
+@param date1 the start of the period to read, or null to read from the start of the traces.
+@param date2 the end of the period to read, or null to read to the end of the traces.
+@return the list of time series for the traces, in trace order.
+@exception Exception if a trace cannot be read.
+*/
+public List<TS> readTraces ( DateTime date1, DateTime date2 )
+throws Exception
+{	List<TS> tslist = new ArrayList<TS>(__n_traces);
+	for ( int its = 0; its < __n_traces; its++ ) {
+		tslist.add ( readTrace(its, date1, date2) );
+	}
+	return tslist;
+}
+
 /**
 Set properties on the time series, based on ensemble trace information.  Currently there is no
 property list at the ensemble level.
@@ -3,6 +3,7 @@
 package RTi.DMI.NWSRFS_DMI;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Vector;
 
 /**
@@ -81,6 +82,12 @@ The list holding all of the rating curve identifiers.
 */
 protected List<String> _RCID;
 
+/**
+Lookup from the upper case rating curve identifier to the record number, built from the lists on the
+first lookup and discarded when an entry is added.
+*/
+private volatile Map<String,Integer> __irecById = null;
+
 /**
 Constructor.
 If the calling class uses this constructor then it will need to call the 
@@ -108,6 +115,7 @@ public void addIREC(Integer I) {
 		_IREC = new Vector<Integer>();
 	}
 	_IREC.add(I);
+	__irecById = null;
 }
 
 /**
@@ -119,6 +127,7 @@ public void addRCID(String s) {
 		_RCID = new Vector<String>();
 	}
 	_RCID.add(s);
+	__irecById = null;
 }
 
 /**
@@ -163,6 +172,41 @@ public List<String> getRCID() {
 	return _RCID;
 }
 
+/**
+Returns the record number for a rating curve identifier (case insensitive).  If the identifier
+is defined more than once, the last entry is used, consistent with the previous sequential search.
+@param ratingCurveID the rating curve identifier.
+@return the record number for the rating curve identifier, or -1 if the identifier is not defined.
+*/
+public int getIREC(String ratingCurveID) {
+	Map<String,Integer> irecById = __irecById;
+	if (irecById == null) {
+		irecById = buildIrecById();
+	}
+	if (ratingCurveID == null) {
+		return -1;
+	}
+	Integer irec = irecById.get(ratingCurveID.toUpperCase());
+	if (irec == null) {
+		return -1;
+	}
+	return irec.intValue();
+}
+
+/**
+Build the lookup from upper case identifier to record number.
+@return the lookup map.
+*/
+private synchronized Map<String,Integer> buildIrecById() {
+	Map<String,Integer> irecById = __irecById;
+	if (irecById != null) {
+		return irecById;
+	}
+	irecById = NWSRFS_Util.buildRecordLookup(_RCID, _IREC);
+	__irecById = irecById;
+	return irecById;
+}
+
 /**
 Initialize data members.
 */
@@ -172,6 +216,7 @@ private void initialize() {
 	_MRCF = 0;
 	_RCID = null;
 	_IREC = null;
+	__irecById = null;
 }
 
 /**
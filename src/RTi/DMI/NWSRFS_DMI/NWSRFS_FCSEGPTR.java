@@ -3,6 +3,7 @@
 package RTi.DMI.NWSRFS_DMI;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Vector;
 
 /**
@@ -110,6 +111,12 @@ List holding segment identifier.
 */
 protected List<String> _ISEG;
 
+/**
+Lookup from the upper case segment identifier to the record number, built from the lists on the
+first lookup and discarded when an entry is added.
+*/
+private volatile Map<String,Integer> __irecById = null;
+
 /**
 Constructor.
 */
@@ -134,6 +141,7 @@ public void addIREC(Integer I) {
 		_IREC = new Vector<Integer>();
 	}
 	_IREC.add(I);
+	__irecById = null;
 }
 
 /**
@@ -145,6 +153,7 @@ public void addISEG(String s) {
 		_ISEG = new Vector<String>();
 	}
 	_ISEG.add(s);
+	__irecById = null;
 }
 
 /**
@@ -211,6 +220,41 @@ public List<String> getISEG() {
 	return _ISEG;
 }
 
+/**
+Returns the record number for a segment identifier (case insensitive).  If the identifier
+is defined more than once, the last entry is used, consistent with the previous sequential search.
+@param segmentID the segment identifier.
+@return the record number for the segment identifier, or -1 if the identifier is not defined.
+*/
+public int getIREC(String segmentID) {
+	Map<String,Integer> irecById = __irecById;
+	if (irecById == null) {
+		irecById = buildIrecById();
+	}
+	if (segmentID == null) {
+		return -1;
+	}
+	Integer irec = irecById.get(segmentID.toUpperCase());
+	if (irec == null) {
+		return -1;
+	}
+	return irec.intValue();
+}
+
+/**
+Build the lookup from upper case identifier to record number.
+@return the lookup map.
+*/
+private synchronized Map<String,Integer> buildIrecById() {
+	Map<String,Integer> irecById = __irecById;
+	if (irecById != null) {
+		return irecById;
+	}
+	irecById = NWSRFS_Util.buildRecordLookup(_ISEG, _IREC);
+	__irecById = irecById;
+	return irecById;
+}
+
 /**
 Initialize data members.
 */
@@ -222,7 +266,8 @@ private void initialize() {
 	_NWPRP  = 0;
 	_MAXRP = 0;
 	_ISEG = null;
-	_IREC = null; 
+	_IREC = null;
+	__irecById = null;
 }
 
 /**
@@ -0,0 +1,207 @@
+// NWSRFS_FloatList - growable list of float values backed by a primitive array
+
+package RTi.DMI.NWSRFS_DMI;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+The NWSRFS_FloatList class stores float values in a growable primitive array.  It is used by
+the index classes (e.g., NWSRFS_PDBINDEX) to hold real values without creating a Float
+object for each value.  The class implements
+List&lt;Float&gt; so that the index getters that return lists continue to work; values are
+only boxed when accessed through the List methods.  Use addFloat() and getFloat() to avoid boxing.
+*/
+public class NWSRFS_FloatList extends AbstractList<Float> implements RandomAccess {
+
+/**
+Default initial capacity.
+*/
+private final static int __DEFAULT_CAPACITY = 16;
+
+/**
+The values.  Only the first __size values are used.
+*/
+private float[] __values = null;
+
+/**
+The number of values in the list.
+*/
+private int __size = 0;
+
+/**
+Construct an empty list with the default capacity.
+*/
+public NWSRFS_FloatList() {
+	this(__DEFAULT_CAPACITY);
+}
+
+/**
+Construct an empty list.
+@param capacity the initial capacity of the list.
+*/
+public NWSRFS_FloatList(int capacity) {
+	if (capacity < 0) {
+		capacity = 0;
+	}
+	__values = new float[capacity];
+}
+
+/**
+Construct a list holding values that have already been read.  The array is used as the
+storage for the list (it is not copied) so the caller must not modify it afterwards.
+@param values the values for the list.
+*/
+public NWSRFS_FloatList(float[] values) {
+	__values = values;
+	__size = values.length;
+}
+
+/**
+Insert a value in the list.
+@param index the position at which to insert the value.
+@param value the value to insert (null is not allowed).
+*/
+public void add(int index, Float value) {
+	if (index < 0 || index > __size) {
+		throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + __size);
+	}
+	ensureCapacity(__size + 1);
+	System.arraycopy(__values, index, __values, index + 1, __size - index);
+	__values[index] = value.floatValue();
+	__size++;
+	modCount++;
+}
+
+/**
+Add a value to the end of the list.
+@param value the value to add.
+*/
+public void addFloat(float value) {
+	ensureCapacity(__size + 1);
+	__values[__size++] = value;
+	modCount++;
+}
+
+/**
+Add a value to a list, without boxing if the list is a NWSRFS_FloatList.  This allows fields declared
+as List&lt;Float&gt; to use a NWSRFS_FloatList for storage while still accepting other List implementations.
+@param list the list to add to.
+@param value the value to add.
+*/
+public static void addFloat(List<Float> list, float value) {
+	if (list instanceof NWSRFS_FloatList) {
+		((NWSRFS_FloatList)list).addFloat(value);
+	}
+	else {
+		list.add(Float.valueOf(value));
+	}
+}
+
+/**
+Remove all values from the list.
+*/
+public void clear() {
+	__size = 0;
+	modCount++;
+}
+
+/**
+Make sure that the list can hold the requested number of values without reallocating.
+@param capacity the number of values needed.
+*/
+public void ensureCapacity(int capacity) {
+	if (capacity > __values.length) {
+		int newCapacity = Math.max(capacity, __values.length + (__values.length >> 1) + 1);
+		__values = Arrays.copyOf(__values, newCapacity);
+	}
+}
+
+/**
+Return the value at a position as a Float.
+@param index the position of the value.
+@return the value at the position.
+*/
+public Float get(int index) {
+	return Float.valueOf(getFloat(index));
+}
+
+/**
+Return a value from a list, without unboxing if the list is a NWSRFS_FloatList.  See addFloat(List,float).
+@param list the list.
+@param index the position of the value.
+@return the value at the position.
+*/
+public static float getFloat(List<Float> list, int index) {
+	if (list instanceof NWSRFS_FloatList) {
+		return ((NWSRFS_FloatList)list).getFloat(index);
+	}
+	return list.get(index).floatValue();
+}
+
+/**
+Return the value at a position.
+@param index the position of the value.
+@return the value at the position.
+@throws IndexOutOfBoundsException if the index is not in the list.
+*/
+public float getFloat(int index) {
+	if (index < 0 || index >= __size) {
+		throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + __size);
+	}
+	return __values[index];
+}
+
+/**
+Remove the value at a position.
+@param index the position of the value to remove.
+@return the value that was removed.
+*/
+public Float remove(int index) {
+	float value = getFloat(index);
+	System.arraycopy(__values, index + 1, __values, index, __size - index - 1);
+	__size--;
+	modCount++;
+	return Float.valueOf(value);
+}
+
+/**
+Set the value at a position.
+@param index the position of the value.
+@param value the new value (null is not allowed).
+@return the previous value.
+*/
+public Float set(int index, Float value) {
+	float previous = getFloat(index);
+	__values[index] = value.floatValue();
+	return Float.valueOf(previous);
+}
+
+/**
+Return the number of values in the list.
+@return the number of values in the list.
+*/
+public int size() {
+	return __size;
+}
+
+/**
+Return a copy of the values as an array.
+@return a copy of the values as an array.
+*/
+public float[] toFloatArray() {
+	return Arrays.copyOf(__values, __size);
+}
+
+/**
+Release unused capacity.  This can be called when a list is fully populated.
+*/
+public void trimToSize() {
+	if (__values.length > __size) {
+		__values = Arrays.copyOf(__values, __size);
+	}
+}
+
+}
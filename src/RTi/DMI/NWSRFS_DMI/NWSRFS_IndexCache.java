@@ -0,0 +1,709 @@
+// NWSRFS_IndexCache - persistent sidecar files for the PRDINDEX, PDBINDEX and PPPINDEX index objects
+
+package RTi.DMI.NWSRFS_DMI;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import RTi.Util.Message.Message;
+
+/**
+The NWSRFS_IndexCache class saves and loads compact, versioned "sidecar" snapshots of the
+in-memory index objects that NWSRFS_DMI builds from the PRDINDEX, PDBINDEX and PPPINDEX
+binary database files.  Building the index objects from the binary files reads every index
+record one field at a time, which dominates the time to open the DMI in short-lived processes
+(e.g., command line tools that look up a single time series).  Loading a sidecar file is a
+single sequential read of primitive values.
+<p>
+Each sidecar file records the canonical path, length and modification time of the binary
+index file that it was built from and the endianness of the database, so that a sidecar
+directory shared by several databases is not used for the wrong database.  If any of these do not match
+the current binary file, the sidecar is considered stale and is not used, and the
+NWSRFS_DMI will rebuild the index from the binary file and rewrite the sidecar.
+Sidecar files are named for the index file with a ".jidx" extension (e.g., "PRDINDEX.jidx").
+The sidecar directory is set with NWSRFS_DMI.setIndexCacheDirectory().
+<p>
+The entries are stored in the same order as in the binary index file, because the DMI
+searches the index in file order.
+*/
+public class NWSRFS_IndexCache {
+
+/**
+Identifier written at the start of every sidecar file.
+*/
+private final static int __MAGIC = 0x4E575849; // "NWXI"
+
+/**
+Version of the sidecar file format.  Increment when the format changes so that old sidecar files are rebuilt.
+*/
+private final static int __VERSION = 2;
+
+/**
+Extension appended to the index file name to form the sidecar file name.
+*/
+public final static String SIDECAR_EXTENSION = ".jidx";
+
+/**
+Directory where sidecar files are read and written.
+*/
+private File __directory = null;
+
+/**
+Construct an index cache for a directory.
+@param directory the directory in which sidecar files are read and written.
+The directory will be created when the first sidecar is written if it does not exist.
+*/
+public NWSRFS_IndexCache(String directory) {
+	__directory = new File(directory);
+}
+
+/**
+Return the directory in which sidecar files are read and written.
+@return the directory in which sidecar files are read and written.
+*/
+public File getDirectory() {
+	return __directory;
+}
+
+/**
+Return the sidecar file for an index file.
+@param indexName the name of the binary index file (e.g., "PRDINDEX").
+@return the sidecar file.
+*/
+public File getSidecarFile(String indexName) {
+	return new File(__directory, indexName + SIDECAR_EXTENSION);
+}
+
+/**
+Open a sidecar file for reading and check its header against the binary index file.
+@param indexName the name of the binary index file (e.g., "PRDINDEX").
+@param indexFile the binary index file.
+@param isBigEndian the endianness of the database.
+@return a stream positioned at the start of the index data, or null if the sidecar does not
+exist or is stale.
+*/
+private DataInputStream openForRead(String indexName, File indexFile, boolean isBigEndian) {
+	String routine = "NWSRFS_IndexCache.openForRead";
+	File sidecar = getSidecarFile(indexName);
+	if (!sidecar.canRead() || !indexFile.exists()) {
+		return null;
+	}
+	DataInputStream in = null;
+	try {
+		in = new DataInputStream(new BufferedInputStream(new FileInputStream(sidecar), 65536));
+		if (in.readInt() != __MAGIC || in.readInt() != __VERSION || !in.readUTF().equals(indexName)
+			|| !in.readUTF().equals(indexFile.getCanonicalPath())
+			|| in.readLong() != indexFile.length() || in.readLong() != indexFile.lastModified()
+			|| in.readBoolean() != isBigEndian) {
+			Message.printStatus(10, routine, "Index sidecar \"" + sidecar + "\" is stale - will rebuild.");
+			in.close();
+			return null;
+		}
+		return in;
+	}
+	catch (IOException e) {
+		Message.printWarning(3, routine, "Error reading index sidecar \"" + sidecar + "\" - will rebuild.");
+		Message.printWarning(3, routine, e);
+		close(in);
+		return null;
+	}
+}
+
+/**
+Create a uniquely named temporary file in the sidecar directory, so that processes writing the
+same sidecar at the same time do not write to the same temporary file.
+@param indexName the name of the binary index file (e.g., "PRDINDEX").
+@return the temporary file.
+@throws IOException if the file cannot be created.
+*/
+private File createTempFile(String indexName)
+throws IOException {
+	if (!__directory.exists()) {
+		__directory.mkdirs();
+	}
+	return File.createTempFile(indexName + "-", SIDECAR_EXTENSION + ".tmp", __directory);
+}
+
+/**
+Open a temporary sidecar file for writing and write the header.
+@param indexName the name of the binary index file (e.g., "PRDINDEX").
+@param indexFile the binary index file.
+@param isBigEndian the endianness of the database.
+@param tempFile the temporary file to write, which is moved to the sidecar file when complete.
+@return a stream positioned to write the index data.
+@throws IOException if the file cannot be written.
+*/
+private DataOutputStream openForWrite(String indexName, File indexFile, boolean isBigEndian, File tempFile)
+throws IOException {
+	DataOutputStream out = null;
+	try {
+		out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), 65536));
+		out.writeInt(__MAGIC);
+		out.writeInt(__VERSION);
+		out.writeUTF(indexName);
+		out.writeUTF(indexFile.getCanonicalPath());
+		out.writeLong(indexFile.length());
+		out.writeLong(indexFile.lastModified());
+		out.writeBoolean(isBigEndian);
+		return out;
+	}
+	catch (IOException e) {
+		if (out != null) {
+			out.close();
+		}
+		tempFile.delete();
+		throw e;
+	}
+}
+
+/**
+Close a stream, ignoring errors.
+@param in the stream to close (may be null).
+*/
+private void close(DataInputStream in) {
+	if (in != null) {
+		try {
+			in.close();
+		}
+		catch (IOException e) {
+			// Ignore.
+		}
+	}
+}
+
+/**
+Finish writing a sidecar file, moving the temporary file over the sidecar file in one atomic
+step so that readers see either the old or the new sidecar and never a missing or partially
+written file.
+@param indexName the name of the binary index file (e.g., "PRDINDEX").
+@param out the stream being written.
+@param tempFile the temporary file that was written.
+@throws IOException if the file cannot be written or moved.
+*/
+private void finishWrite(String indexName, DataOutputStream out, File tempFile)
+throws IOException {
+	File sidecar = getSidecarFile(indexName);
+	try {
+		out.close();
+		try {
+			Files.move(tempFile.toPath(), sidecar.toPath(), StandardCopyOption.ATOMIC_MOVE,
+				StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (AtomicMoveNotSupportedException e) {
+			// The temporary file is in the same directory so this should only happen on unusual file systems
+			Files.move(tempFile.toPath(), sidecar.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+	catch (IOException e) {
+		tempFile.delete();
+		throw new IOException("Unable to replace index sidecar \"" + sidecar + "\" (" + e + ")");
+	}
+}
+
+/**
+Read a PDBINDEX sidecar.
+@param indexFile the PDBINDEX binary file.
+@param isBigEndian the endianness of the database.
+@return the index, or null if the sidecar does not exist, is stale, or cannot be read.
+*/
+public NWSRFS_PDBINDEX readPDBINDEX(File indexFile, boolean isBigEndian) {
+	DataInputStream in = openForRead("PDBINDEX", indexFile, isBigEndian);
+	if (in == null) {
+		return null;
+	}
+	try {
+		NWSRFS_PDBINDEX pdbindex = new NWSRFS_PDBINDEX();
+		pdbindex.setH8CREC(in.readInt());
+		pdbindex.setHINTRC(in.readInt());
+		pdbindex.setINFREC(in.readInt());
+		pdbindex.setLFILE(in.readInt());
+		pdbindex.setLRECL1(in.readInt());
+		pdbindex.setLRECL2(in.readInt());
+		pdbindex.setLRECL3(in.readInt());
+		pdbindex.setLURRS(in.readInt());
+		pdbindex.setMAXDDF(in.readInt());
+		pdbindex.setMAXTYP(in.readInt());
+		pdbindex.setMFILE(in.readInt());
+		pdbindex.setNHASHR(in.readInt());
+		pdbindex.setNUMDDF(in.readInt());
+		pdbindex.setNUMTYP(in.readInt());
+		pdbindex.setNWRDS(in.readInt());
+		pdbindex.setTYPREC(in.readInt());
+		pdbindex._ACDCP = readFloatList(in);
+		pdbindex._ACPSQ = readFloatList(in);
+		pdbindex._ADDDTP = readStringListList(in);
+		pdbindex._ADTPTR = readIntegerListList(in);
+		pdbindex._BDATE = readIntegerList(in);
+		pdbindex._DATAR1 = readIntegerList(in);
+		pdbindex._DTYPE = readStringList(in);
+		pdbindex._ECRECN = readIntegerList(in);
+		pdbindex._EDATE = readIntegerList(in);
+		pdbindex._L2DATE = readIntegerList(in);
+		pdbindex._LDATE = readIntegerList(in);
+		pdbindex._LDATEDDT = readIntegerList(in);
+		pdbindex._LDDFRC = readIntegerList(in);
+		pdbindex._LDRECN = readIntegerList(in);
+		pdbindex._LSTDTA = readIntegerList(in);
+		pdbindex._LSTPTR = readIntegerList(in);
+		pdbindex._LUFILE = readIntegerList(in);
+		pdbindex._MAXDAY = readIntegerList(in);
+		pdbindex._MAXSTA = readIntegerList(in);
+		pdbindex._MDDFRC = readIntegerList(in);
+		pdbindex._NADDTP = readIntegerList(in);
+		pdbindex._NDATA = readIntegerList(in);
+		pdbindex._NDAYS = readIntegerList(in);
+		pdbindex._NPNTRS = readIntegerList(in);
+		pdbindex._NREC1D = readIntegerList(in);
+		pdbindex._NSTATS = readIntegerList(in);
+		pdbindex._NTOTAL = readIntegerList(in);
+		pdbindex._NUMID = readIntegerList(in);
+		pdbindex._NUMSTA = readIntegerList(in);
+		pdbindex._NWRDSDDT = readIntegerList(in);
+		pdbindex._NWRDSSTI = readIntegerList(in);
+		pdbindex._NWRDSO = readIntegerList(in);
+		pdbindex._NZERO = readIntegerList(in);
+		pdbindex._PCPPTR = readIntegerList(in);
+		pdbindex._PNTR = readIntegerList(in);
+		pdbindex._PRMPTR = readIntegerList(in);
+		pdbindex._RDATE = readIntegerList(in);
+		pdbindex._RPT2LG = readIntegerList(in);
+		pdbindex._RPTLG = readIntegerList(in);
+		pdbindex._SMNOZO = readIntegerList(in);
+		pdbindex._STAID = readStringList(in);
+		pdbindex._TMPPTR = readIntegerList(in);
+		return pdbindex;
+	}
+	catch (IOException e) {
+		Message.printWarning(3, "NWSRFS_IndexCache.readPDBINDEX", e);
+		return null;
+	}
+	finally {
+		close(in);
+	}
+}
+
+/**
+Read a PPPINDEX sidecar.
+@param indexFile the PPPINDEX binary file.
+@param isBigEndian the endianness of the database.
+@return the index, or null if the sidecar does not exist, is stale, or cannot be read.
+*/
+public NWSRFS_PPPINDEX readPPPINDEX(File indexFile, boolean isBigEndian) {
+	DataInputStream in = openForRead("PPPINDEX", indexFile, isBigEndian);
+	if (in == null) {
+		return null;
+	}
+	try {
+		NWSRFS_PPPINDEX pppindex = new NWSRFS_PPPINDEX();
+		pppindex.setFSTIDX(in.readInt());
+		pppindex.setMAXREC(in.readInt());
+		pppindex.setMAXTYP(in.readInt());
+		pppindex.setNUMFIL(in.readInt());
+		pppindex.setNUMTYP(in.readInt());
+		if (in.readBoolean()) {
+			pppindex.setUSERID(in.readUTF());
+		}
+		pppindex._FIRST = readIntegerList(in);
+		pppindex._IREC = readIntegerList(in);
+		pppindex._ISNGL = readIntegerList(in);
+		pppindex._LAST = readIntegerList(in);
+		pppindex._LUFILE = readIntegerList(in);
+		pppindex._NUMPRM = readIntegerList(in);
+		pppindex._ID = readStringList(in);
+		pppindex._ITYPE = readStringList(in);
+		pppindex._PARMTP = readStringList(in);
+		return pppindex;
+	}
+	catch (IOException e) {
+		Message.printWarning(3, "NWSRFS_IndexCache.readPPPINDEX", e);
+		return null;
+	}
+	finally {
+		close(in);
+	}
+}
+
+/**
+Read a PRDINDEX sidecar.
+@param indexFile the PRDINDEX binary file.
+@param isBigEndian the endianness of the database.
+@return the index, or null if the sidecar does not exist, is stale, or cannot be read.
+*/
+public NWSRFS_PRDINDEX readPRDINDEX(File indexFile, boolean isBigEndian) {
+	DataInputStream in = openForRead("PRDINDEX", indexFile, isBigEndian);
+	if (in == null) {
+		return null;
+	}
+	try {
+		NWSRFS_PRDINDEX prdindex = new NWSRFS_PRDINDEX();
+		prdindex._TSID = readStringList(in);
+		prdindex._TSDataType = readStringList(in);
+		prdindex._IREC = readIntegerList(in);
+		return prdindex;
+	}
+	catch (IOException e) {
+		Message.printWarning(3, "NWSRFS_IndexCache.readPRDINDEX", e);
+		return null;
+	}
+	finally {
+		close(in);
+	}
+}
+
+/**
+Read a list of Float written by writeFloatList().
+@param in the stream to read.
+@return the list, or null if a null list was written.
+@throws IOException if there is an error reading.
+*/
+private NWSRFS_FloatList readFloatList(DataInputStream in)
+throws IOException {
+	int size = in.readInt();
+	if (size < 0) {
+		return null;
+	}
+	NWSRFS_FloatList list = new NWSRFS_FloatList(size);
+	for (int i = 0; i < size; i++) {
+		list.addFloat(in.readFloat());
+	}
+	return list;
+}
+
+/**
+Read a list of Integer written by writeIntegerList().
+@param in the stream to read.
+@return the list, or null if a null list was written.
+@throws IOException if there is an error reading.
+*/
+private NWSRFS_IntList readIntegerList(DataInputStream in)
+throws IOException {
+	int size = in.readInt();
+	if (size < 0) {
+		return null;
+	}
+	NWSRFS_IntList list = new NWSRFS_IntList(size);
+	for (int i = 0; i < size; i++) {
+		list.addInt(in.readInt());
+	}
+	return list;
+}
+
+/**
+Read a list of Integer lists written by writeIntegerListList().
+@param in the stream to read.
+@return the list, or null if a null list was written.
+@throws IOException if there is an error reading.
+*/
+private List<List<Integer>> readIntegerListList(DataInputStream in)
+throws IOException {
+	int size = in.readInt();
+	if (size < 0) {
+		return null;
+	}
+	List<List<Integer>> list = new ArrayList<>(size);
+	for (int i = 0; i < size; i++) {
+		list.add(readIntegerList(in));
+	}
+	return list;
+}
+
+/**
+Read a list of String written by writeStringList().
+@param in the stream to read.
+@return the list, or null if a null list was written.
+@throws IOException if there is an error reading.
+*/
+private List<String> readStringList(DataInputStream in)
+throws IOException {
+	int size = in.readInt();
+	if (size < 0) {
+		return null;
+	}
+	List<String> list = new ArrayList<>(size);
+	for (int i = 0; i < size; i++) {
+		list.add(in.readUTF());
+	}
+	return list;
+}
+
+/**
+Read a list of String lists written by writeStringListList().
+@param in the stream to read.
+@return the list, or null if a null list was written.
+@throws IOException if there is an error reading.
+*/
+private List<List<String>> readStringListList(DataInputStream in)
+throws IOException {
+	int size = in.readInt();
+	if (size < 0) {
+		return null;
+	}
+	List<List<String>> list = new ArrayList<>(size);
+	for (int i = 0; i < size; i++) {
+		list.add(readStringList(in));
+	}
+	return list;
+}
+
+/**
+Write a PDBINDEX sidecar.
+@param pdbindex the index to write.
+@param indexFile the PDBINDEX binary file from which the index was read.
+@param isBigEndian the endianness of the database.
+@throws IOException if the sidecar cannot be written.
+*/
+public void writePDBINDEX(NWSRFS_PDBINDEX pdbindex, File indexFile, boolean isBigEndian)
+throws IOException {
+	File tempFile = createTempFile("PDBINDEX");
+	DataOutputStream out = openForWrite("PDBINDEX", indexFile, isBigEndian, tempFile);
+	try {
+		out.writeInt(pdbindex.getH8CREC());
+		out.writeInt(pdbindex.getHINTRC());
+		out.writeInt(pdbindex.getINFREC());
+		out.writeInt(pdbindex.getLFILE());
+		out.writeInt(pdbindex.getLRECL1());
+		out.writeInt(pdbindex.getLRECL2());
+		out.writeInt(pdbindex.getLRECL3());
+		out.writeInt(pdbindex.getLURRS());
+		out.writeInt(pdbindex.getMAXDDF());
+		out.writeInt(pdbindex.getMAXTYP());
+		out.writeInt(pdbindex.getMFILE());
+		out.writeInt(pdbindex.getNHASHR());
+		out.writeInt(pdbindex.getNUMDDF());
+		out.writeInt(pdbindex.getNUMTYP());
+		out.writeInt(pdbindex.getNWRDS());
+		out.writeInt(pdbindex.getTYPREC());
+		writeFloatList(out, pdbindex.getACDCP());
+		writeFloatList(out, pdbindex.getACPSQ());
+		writeStringListList(out, pdbindex.getADDDTP());
+		writeIntegerListList(out, pdbindex.getADTPTR());
+		writeIntegerList(out, pdbindex.getBDATE());
+		writeIntegerList(out, pdbindex.getDATAR1());
+		writeStringList(out, pdbindex.getDTYPE());
+		writeIntegerList(out, pdbindex.getECRECN());
+		writeIntegerList(out, pdbindex.getEDATE());
+		writeIntegerList(out, pdbindex.getL2DATE());
+		writeIntegerList(out, pdbindex.getLDATE());
+		writeIntegerList(out, pdbindex.getLDATEDDT());
+		writeIntegerList(out, pdbindex.getLDDFRC());
+		writeIntegerList(out, pdbindex.getLDRECN());
+		writeIntegerList(out, pdbindex.getLSTDTA());
+		writeIntegerList(out, pdbindex.getLSTPTR());
+		writeIntegerList(out, pdbindex.getLUFILE());
+		writeIntegerList(out, pdbindex.getMAXDAY());
+		writeIntegerList(out, pdbindex.getMAXSTA());
+		writeIntegerList(out, pdbindex.getMDDFRC());
+		writeIntegerList(out, pdbindex.getNADDTP());
+		writeIntegerList(out, pdbindex.getNDATA());
+		writeIntegerList(out, pdbindex.getNDAYS());
+		writeIntegerList(out, pdbindex.getNPNTRS());
+		writeIntegerList(out, pdbindex.getNREC1D());
+		writeIntegerList(out, pdbindex.getNSTATS());
+		writeIntegerList(out, pdbindex.getNTOTAL());
+		writeIntegerList(out, pdbindex.getNUMID());
+		writeIntegerList(out, pdbindex.getNUMSTA());
+		writeIntegerList(out, pdbindex.getNWRDSDDT());
+		writeIntegerList(out, pdbindex.getNWRDSSTI());
+		writeIntegerList(out, pdbindex.getNWRDSO());
+		writeIntegerList(out, pdbindex.getNZERO());
+		writeIntegerList(out, pdbindex.getPCPPTR());
+		writeIntegerList(out, pdbindex.getPNTR());
+		writeIntegerList(out, pdbindex.getPRMPTR());
+		writeIntegerList(out, pdbindex.getRDATE());
+		writeIntegerList(out, pdbindex.getRPT2LG());
+		writeIntegerList(out, pdbindex.getRPTLG());
+		writeIntegerList(out, pdbindex.getSMNOZO());
+		writeStringList(out, pdbindex.getSTAID());
+		writeIntegerList(out, pdbindex.getTMPPTR());
+	}
+	catch (IOException e) {
+		out.close();
+		tempFile.delete();
+		throw e;
+	}
+	finishWrite("PDBINDEX", out, tempFile);
+}
+
+/**
+Write a PPPINDEX sidecar.
+@param pppindex the index to write.
+@param indexFile the PPPINDEX binary file from which the index was read.
+@param isBigEndian the endianness of the database.
+@throws IOException if the sidecar cannot be written.
+*/
+public void writePPPINDEX(NWSRFS_PPPINDEX pppindex, File indexFile, boolean isBigEndian)
+throws IOException {
+	File tempFile = createTempFile("PPPINDEX");
+	DataOutputStream out = openForWrite("PPPINDEX", indexFile, isBigEndian, tempFile);
+	try {
+		out.writeInt(pppindex.getFSTIDX());
+		out.writeInt(pppindex.getMAXREC());
+		out.writeInt(pppindex.getMAXTYP());
+		out.writeInt(pppindex.getNUMFIL());
+		out.writeInt(pppindex.getNUMTYP());
+		out.writeBoolean(pppindex.getUSERID() != null);
+		if (pppindex.getUSERID() != null) {
+			out.writeUTF(pppindex.getUSERID());
+		}
+		writeIntegerList(out, pppindex.getFIRST());
+		writeIntegerList(out, pppindex.getIREC());
+		writeIntegerList(out, pppindex.getISNGL());
+		writeIntegerList(out, pppindex.getLAST());
+		writeIntegerList(out, pppindex.getLUFILE());
+		writeIntegerList(out, pppindex.getNUMPRM());
+		writeStringList(out, pppindex.getID());
+		writeStringList(out, pppindex.getITYPE());
+		writeStringList(out, pppindex.getPARMTP());
+	}
+	catch (IOException e) {
+		out.close();
+		tempFile.delete();
+		throw e;
+	}
+	finishWrite("PPPINDEX", out, tempFile);
+}
+
+/**
+Write a PRDINDEX sidecar.
+@param prdindex the index to write.
+@param indexFile the PRDINDEX binary file from which the index was read.
+@param isBigEndian the endianness of the database.
+@throws IOException if the sidecar cannot be written.
+*/
+public void writePRDINDEX(NWSRFS_PRDINDEX prdindex, File indexFile, boolean isBigEndian)
+throws IOException {
+	File tempFile = createTempFile("PRDINDEX");
+	DataOutputStream out = openForWrite("PRDINDEX", indexFile, isBigEndian, tempFile);
+	try {
+		writeStringList(out, prdindex.getTSID());
+		writeStringList(out, prdindex.getTSDT());
+		writeIntegerList(out, prdindex.getIREC());
+	}
+	catch (IOException e) {
+		out.close();
+		tempFile.delete();
+		throw e;
+	}
+	finishWrite("PRDINDEX", out, tempFile);
+}
+
+/**
+Write a list of Float as a count followed by the values (count of -1 for a null list).
+@param out the stream to write.
+@param list the list to write (may be null).
+@throws IOException if there is an error writing.
+*/
+private void writeFloatList(DataOutputStream out, List<Float> list)
+throws IOException {
+	if (list == null) {
+		out.writeInt(-1);
+		return;
+	}
+	int size = list.size();
+	out.writeInt(size);
+	if (list instanceof NWSRFS_FloatList) {
+		NWSRFS_FloatList floatList = (NWSRFS_FloatList)list;
+		for (int i = 0; i < size; i++) {
+			out.writeFloat(floatList.getFloat(i));
+		}
+		return;
+	}
+	for (Float f : list) {
+		out.writeFloat(f.floatValue());
+	}
+}
+
+/**
+Write a list of Integer as a count followed by the values (count of -1 for a null list).
+@param out the stream to write.
+@param list the list to write (may be null).
+@throws IOException if there is an error writing.
+*/
+private void writeIntegerList(DataOutputStream out, List<Integer> list)
+throws IOException {
+	if (list == null) {
+		out.writeInt(-1);
+		return;
+	}
+	int size = list.size();
+	out.writeInt(size);
+	if (list instanceof NWSRFS_IntList) {
+		NWSRFS_IntList intList = (NWSRFS_IntList)list;
+		for (int i = 0; i < size; i++) {
+			out.writeInt(intList.getInt(i));
+		}
+		return;
+	}
+	for (Integer i : list) {
+		out.writeInt(i.intValue());
+	}
+}
+
+/**
+Write a list of Integer lists (count of -1 for a null list).
+@param out the stream to write.
+@param list the list to write (may be null).
+@throws IOException if there is an error writing.
+*/
+private void writeIntegerListList(DataOutputStream out, List<List<Integer>> list)
+throws IOException {
+	if (list == null) {
+		out.writeInt(-1);
+		return;
+	}
+	out.writeInt(list.size());
+	for (List<Integer> l : list) {
+		writeIntegerList(out, l);
+	}
+}
+
+/**
+Write a list of String as a count followed by the values (count of -1 for a null list).
+@param out the stream to write.
+@param list the list to write (may be null).
+@throws IOException if there is an error writing.
+*/
+private void writeStringList(DataOutputStream out, List<String> list)
+throws IOException {
+	if (list == null) {
+		out.writeInt(-1);
+		return;
+	}
+	out.writeInt(list.size());
+	for (String s : list) {
+		out.writeUTF(s);
+	}
+}
+
+/**
+Write a list of String lists (count of -1 for a null list).
+@param out the stream to write.
+@param list the list to write (may be null).
+@throws IOException if there is an error writing.
+*/
+private void writeStringListList(DataOutputStream out, List<List<String>> list)
+throws IOException {
+	if (list == null) {
+		out.writeInt(-1);
+		return;
+	}
+	out.writeInt(list.size());
+	for (List<String> l : list) {
+		writeStringList(out, l);
+	}
+}
+
+}
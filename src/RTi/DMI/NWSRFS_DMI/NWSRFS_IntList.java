@@ -0,0 +1,197 @@
+// NWSRFS_IntList - growable list of int values backed by a primitive array
+
+package RTi.DMI.NWSRFS_DMI;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+The NWSRFS_IntList class stores int values in a growable primitive array.  It is used by
+the index classes (e.g., NWSRFS_PDBINDEX, NWSRFS_PRDINDEX) to hold record pointers and other
+integer values without creating an Integer object for each value.  The class implements
+List&lt;Integer&gt; so that the index getters that return lists continue to work; values are
+only boxed when accessed through the List methods.  Use addInt() and getInt() to avoid boxing.
+*/
+public class NWSRFS_IntList extends AbstractList<Integer> implements RandomAccess {
+
+/**
+Default initial capacity.
+*/
+private final static int __DEFAULT_CAPACITY = 16;
+
+/**
+The values.  Only the first __size values are used.
+*/
+private int[] __values = null;
+
+/**
+The number of values in the list.
+*/
+private int __size = 0;
+
+/**
+Construct an empty list with the default capacity.
+*/
+public NWSRFS_IntList() {
+	this(__DEFAULT_CAPACITY);
+}
+
+/**
+Construct an empty list.
+@param capacity the initial capacity of the list.
+*/
+public NWSRFS_IntList(int capacity) {
+	if (capacity < 0) {
+		capacity = 0;
+	}
+	__values = new int[capacity];
+}
+
+/**
+Insert a value in the list.
+@param index the position at which to insert the value.
+@param value the value to insert (null is not allowed).
+*/
+public void add(int index, Integer value) {
+	if (index < 0 || index > __size) {
+		throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + __size);
+	}
+	ensureCapacity(__size + 1);
+	System.arraycopy(__values, index, __values, index + 1, __size - index);
+	__values[index] = value.intValue();
+	__size++;
+	modCount++;
+}
+
+/**
+Add a value to the end of the list.
+@param value the value to add.
+*/
+public void addInt(int value) {
+	ensureCapacity(__size + 1);
+	__values[__size++] = value;
+	modCount++;
+}
+
+/**
+Add a value to a list, without boxing if the list is a NWSRFS_IntList.  This allows fields declared
+as List&lt;Integer&gt; to use a NWSRFS_IntList for storage while still accepting other List implementations.
+@param list the list to add to.
+@param value the value to add.
+*/
+public static void addInt(List<Integer> list, int value) {
+	if (list instanceof NWSRFS_IntList) {
+		((NWSRFS_IntList)list).addInt(value);
+	}
+	else {
+		list.add(Integer.valueOf(value));
+	}
+}
+
+/**
+Remove all values from the list.
+*/
+public void clear() {
+	__size = 0;
+	modCount++;
+}
+
+/**
+Make sure that the list can hold the requested number of values without reallocating.
+@param capacity the number of values needed.
+*/
+public void ensureCapacity(int capacity) {
+	if (capacity > __values.length) {
+		int newCapacity = Math.max(capacity, __values.length + (__values.length >> 1) + 1);
+		__values = Arrays.copyOf(__values, newCapacity);
+	}
+}
+
+/**
+Return the value at a position as an Integer.
+@param index the position of the value.
+@return the value at the position.
+*/
+public Integer get(int index) {
+	return Integer.valueOf(getInt(index));
+}
+
+/**
+Return a value from a list, without unboxing if the list is a NWSRFS_IntList.  See addInt(List,int).
+@param list the list.
+@param index the position of the value.
+@return the value at the position.
+*/
+public static int getInt(List<Integer> list, int index) {
+	if (list instanceof NWSRFS_IntList) {
+		return ((NWSRFS_IntList)list).getInt(index);
+	}
+	return list.get(index).intValue();
+}
+
+/**
+Return the value at a position.
+@param index the position of the value.
+@return the value at the position.
+@throws IndexOutOfBoundsException if the index is not in the list.
+*/
+public int getInt(int index) {
+	if (index < 0 || index >= __size) {
+		throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + __size);
+	}
+	return __values[index];
+}
+
+/**
+Remove the value at a position.
+@param index the position of the value to remove.
+@return the value that was removed.
+*/
+public Integer remove(int index) {
+	int value = getInt(index);
+	System.arraycopy(__values, index + 1, __values, index, __size - index - 1);
+	__size--;
+	modCount++;
+	return Integer.valueOf(value);
+}
+
+/**
+Set the value at a position.
+@param index the position of the value.
+@param value the new value (null is not allowed).
+@return the previous value.
+*/
+public Integer set(int index, Integer value) {
+	int previous = getInt(index);
+	__values[index] = value.intValue();
+	return Integer.valueOf(previous);
+}
+
+/**
+Return the number of values in the list.
+@return the number of values in the list.
+*/
+public int size() {
+	return __size;
+}
+
+/**
+Return a copy of the values as an array.
+@return a copy of the values as an array.
+*/
+public int[] toIntArray() {
+	return Arrays.copyOf(__values, __size);
+}
+
+/**
+Release unused capacity.  This can be called when a list is fully populated.
+*/
+public void trimToSize() {
+	if (__values.length > __size) {
+		__values = Arrays.copyOf(__values, __size);
+	}
+}
+
+}
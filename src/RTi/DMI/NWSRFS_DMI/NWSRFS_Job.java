@@ -0,0 +1,687 @@
+// NWSRFS_Job - one NWSRFS batch utility run (punch, print, dump, redefine, etc.) for an NWSRFS_JobQueue
+
+package RTi.DMI.NWSRFS_DMI;
+
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+
+/**
+The NWSRFS_Job class holds one run of an NWSRFS batch utility, to be run by an NWSRFS_JobQueue.
+A job records its status, the times that it was queued, started and finished, and the output from
+the command.
+<p>
+Where NWSRFS_Util has a start_*() method for the command, the job runs the command with an
+NWSRFS_Process, so that a running job can be canceled (see cancelRunning()) and only the last
+NWSRFS_Process.DEFAULT_MAX_OUTPUT_LINES lines of output are kept.  Other jobs call the synchronous
+run_*() method (e.g., the punch and print commands, which edit their input file or post-process
+the output inside the method) and cannot be canceled once started.
+<p>
+Each job names the ".GUI" input file that the command uses.  Jobs that use the same input file must
+not run at the same time because they would overwrite each other's input, so the job queue runs them
+one at a time in the order they were queued.  Each job also names the ofs program (e.g., "fcinit").
+ofs writes a "&lt;program&gt;_log.&lt;timestamp&gt;" log file with a timestamp to the second, so the
+job queue also runs jobs for the same program one at a time so that their logs do not collide.
+Jobs that write to the forecast or preprocessor databases (fs5files), such as redefine and delete,
+are run alone.  Use the create*Job() methods to create jobs for the NWSRFS_Util commands.
+*/
+public class NWSRFS_Job {
+
+/**
+Job status - queued and waiting to run.
+*/
+public final static int STATUS_QUEUED = 0;
+
+/**
+Job status - running.
+*/
+public final static int STATUS_RUNNING = 1;
+
+/**
+Job status - finished and the command output did not indicate a failure.
+*/
+public final static int STATUS_COMPLETED = 2;
+
+/**
+Job status - finished and the command failed or could not be run.
+*/
+public final static int STATUS_FAILED = 3;
+
+/**
+Job status - canceled before it was run.
+*/
+public final static int STATUS_CANCELED = 4;
+
+/**
+Job name, for display.
+*/
+private String __name = null;
+
+/**
+Name of the ".GUI" input file used by the command.  Jobs with the same input file are not run at the same time.
+*/
+private String __inputFile = null;
+
+/**
+The ofs program run by the command (e.g., "fcinit").  Jobs with the same program are not run at the same time.
+*/
+private String __program = null;
+
+/**
+Whether the command writes to the fs5files.
+*/
+private boolean __writesDatabase = false;
+
+/**
+Task that runs the command and returns its output, for jobs that call a run_*() method.
+*/
+private Callable<List<String>> __task = null;
+
+/**
+Task that starts the command and returns the process (null if the command cannot be run),
+for jobs that call a start_*() method.
+*/
+private Callable<NWSRFS_Process> __processTask = null;
+
+/**
+The running process for jobs that call a start_*() method, null if not running.
+Used while synchronized on this object.
+*/
+private NWSRFS_Process __process = null;
+
+/**
+Whether cancelRunning() has been called.  Used while synchronized on this object.
+*/
+private boolean __cancelRequested = false;
+
+/**
+Job status, one of STATUS_*.
+*/
+private volatile int __status = STATUS_QUEUED;
+
+/**
+Times (milliseconds since 1970) when the job was queued, started and finished, or -1 if not yet set.
+*/
+private volatile long __queueTime = -1;
+private volatile long __startTime = -1;
+private volatile long __endTime = -1;
+
+/**
+Output from the command, null until the job has finished.
+*/
+private volatile List<String> __output = null;
+
+/**
+Exception thrown while running the command, if any.
+*/
+private volatile Throwable __exception = null;
+
+/**
+Released when the job is finished or canceled.
+*/
+private CountDownLatch __done = new CountDownLatch ( 1 );
+
+/**
+Construct a job.
+@param name job name, for display.
+@param inputFile name of the ".GUI" input file used by the command (e.g., "PUNCH.STATIONS.GUI"),
+or null if the command does not use a shared input file.
+@param writesDatabase true if the command writes to the fs5files, in which case the job is run alone.
+@param task task that runs the command and returns its output.
+*/
+public NWSRFS_Job ( String name, String inputFile, boolean writesDatabase, Callable<List<String>> task )
+{
+	this ( name, inputFile, null, writesDatabase, task );
+}
+
+/**
+Construct a job.
+@param name job name, for display.
+@param inputFile name of the ".GUI" input file used by the command (e.g., "PUNCH.STATIONS.GUI"),
+or null if the command does not use a shared input file.
+@param program the ofs program run by the command (e.g., "fcinit"), or null if not an ofs command.
+@param writesDatabase true if the command writes to the fs5files, in which case the job is run alone.
+@param task task that runs the command and returns its output.
+*/
+public NWSRFS_Job ( String name, String inputFile, String program, boolean writesDatabase,
+	Callable<List<String>> task )
+{
+	__name = name;
+	__inputFile = inputFile;
+	__program = program;
+	__writesDatabase = writesDatabase;
+	__task = task;
+}
+
+/**
+Cancel the job if it is running a command with an NWSRFS_Process.  The process is destroyed and the
+job finishes with STATUS_CANCELED.  Jobs that call a run_*() method cannot be canceled once started.
+Use NWSRFS_JobQueue.cancel() to cancel a job whether or not it has started.
+@return true if the job is running (or starting) a process that can be canceled, false otherwise.
+*/
+public boolean cancelRunning ()
+{
+	NWSRFS_Process process;
+	synchronized ( this ) {
+		if ( (__processTask == null) || (__status != STATUS_RUNNING) ) {
+			return false;
+		}
+		__cancelRequested = true;
+		process = __process;
+	}
+	if ( process != null ) {
+		process.cancel();
+	}
+	return true;
+}
+
+/**
+Create a job that runs a command with an NWSRFS_Process, started by one of the NWSRFS_Util.start_*() methods.
+@param name job name, for display.
+@param inputFile name of the ".GUI" input file used by the command, or null if none.
+@param program the ofs program run by the command (e.g., "fcinit"), or null if not an ofs command.
+@param writesDatabase true if the command writes to the fs5files, in which case the job is run alone.
+@param processTask task that starts the command and returns the process, or null if the command cannot be run.
+@return the job.
+*/
+public static NWSRFS_Job createProcessJob ( String name, String inputFile, String program, boolean writesDatabase,
+	Callable<NWSRFS_Process> processTask )
+{
+	NWSRFS_Job job = new NWSRFS_Job ( name, inputFile, program, writesDatabase, (Callable<List<String>>)null );
+	job.__processTask = processTask;
+	return job;
+}
+
+/**
+Create a job that calls NWSRFS_Util.start_delete_ratingCurve().  The job does not ask the user to
+confirm the deletion, so the caller must confirm it on the Swing event thread before submitting the job.
+@param rcid rating curve identifier.
+@return the job.
+*/
+public static NWSRFS_Job createDeleteRatingCurveJob ( final String rcid )
+{
+	return createProcessJob ( "Delete rating curve " + rcid, "DELETERC.GUI", "fcinit", true, new Callable<NWSRFS_Process>() {
+		public NWSRFS_Process call () {
+			return NWSRFS_Util.start_delete_ratingCurve ( rcid, null );
+		}
+	});
+}
+
+/**
+Create a job that calls NWSRFS_Util.start_dump_obs().
+@return the job.
+*/
+public static NWSRFS_Job createDumpObsJob ()
+{
+	return createProcessJob ( "Dump observations", "DUMPOBS.GUI", "ppdutil", false, new Callable<NWSRFS_Process>() {
+		public NWSRFS_Process call () {
+			return NWSRFS_Util.start_dump_obs ( null );
+		}
+	});
+}
+
+/**
+Create a job that calls NWSRFS_Util.start_dump_ts().
+@return the job.
+*/
+public static NWSRFS_Job createDumpTSJob ()
+{
+	return createProcessJob ( "Dump time series", "DUMPTS.GUI", "prdutil", false, new Callable<NWSRFS_Process>() {
+		public NWSRFS_Process call () {
+			return NWSRFS_Util.start_dump_ts ( null );
+		}
+	});
+}
+
+/**
+Create a job that calls NWSRFS_Util.start_newRatingCurve().
+@return the job.
+*/
+public static NWSRFS_Job createNewRatingCurveJob ()
+{
+	return createProcessJob ( "Define new rating curve", "NEWRC.GUI", "fcinit", true, new Callable<NWSRFS_Process>() {
+		public NWSRFS_Process call () {
+			return NWSRFS_Util.start_newRatingCurve ( null );
+		}
+	});
+}
+
+/**
+Create a job that calls NWSRFS_Util.start_newstation().
+@return the job.
+*/
+public static NWSRFS_Job createNewStationJob ()
+{
+	return createProcessJob ( "Define new station", "NEWSTATION.GUI", "ppinit", true, new Callable<NWSRFS_Process>() {
+		public NWSRFS_Process call () {
+			return NWSRFS_Util.start_newstation ( null );
+		}
+	});
+}
+
+/**
+Create a job that calls NWSRFS_Util.run_print_ratingCurves().  The output is the
+output file line ("==> file <=="), as shown in the System Maintenance output window.
+@param ratingCurve_id rating curve identifier.
+@return the job.
+*/
+public static NWSRFS_Job createPrintRatingCurvesJob ( final String ratingCurve_id )
+{
+	return new NWSRFS_Job ( "Print rating curve " + ratingCurve_id, "PRINTRC.GUI", "fcinit", false, new Callable<List<String>>() {
+		public List<String> call () {
+			return toOutputFileList ( NWSRFS_Util.run_print_ratingCurves ( ratingCurve_id ) );
+		}
+	});
+}
+
+/**
+Create a job that calls NWSRFS_Util.run_print_segs().  The output is the
+output file line ("==> file <=="), as shown in the System Maintenance output window.
+@param segment_id segment identifier.
+@return the job.
+*/
+public static NWSRFS_Job createPrintSegmentsJob ( final String segment_id )
+{
+	return new NWSRFS_Job ( "Print segment " + segment_id, "PRINTSEGS.GUI", "fcinit", false, new Callable<List<String>>() {
+		public List<String> call () {
+			return toOutputFileList ( NWSRFS_Util.run_print_segs ( segment_id ) );
+		}
+	});
+}
+
+/**
+Create a job that calls NWSRFS_Util.run_punch_ratingCurves().
+@param ratingCurve_id rating curve identifier.
+@return the job.
+*/
+public static NWSRFS_Job createPunchRatingCurvesJob ( final String ratingCurve_id )
+{
+	return new NWSRFS_Job ( "Punch rating curve " + ratingCurve_id, "PUNCHRC.GUI", "fcinit", false, new Callable<List<String>>() {
+		public List<String> call () {
+			return NWSRFS_Util.run_punch_ratingCurves ( ratingCurve_id );
+		}
+	});
+}
+
+/**
+Create a job that calls NWSRFS_Util.run_punch_segments().
+@param segment_id segment identifier.
+@return the job.
+*/
+public static NWSRFS_Job createPunchSegmentsJob ( final String segment_id )
+{
+	return new NWSRFS_Job ( "Punch segment " + segment_id, "PUNCHSEGS.GUI", "fcinit", false, new Callable<List<String>>() {
+		public List<String> call () {
+			return NWSRFS_Util.run_punch_segments ( segment_id );
+		}
+	});
+}
+
+/**
+Create a job that calls NWSRFS_Util.run_punch_stations().
+@param station_id station identifier.
+@return the job.
+*/
+public static NWSRFS_Job createPunchStationsJob ( final String station_id )
+{
+	return new NWSRFS_Job ( "Punch station " + station_id, "PUNCH.STATIONS.GUI", "ppinit", false, new Callable<List<String>>() {
+		public List<String> call () {
+			return NWSRFS_Util.run_punch_stations ( station_id );
+		}
+	});
+}
+
+/**
+Create a job that calls NWSRFS_Util.start_redefine_ratingCurves().
+@return the job.
+*/
+public static NWSRFS_Job createRedefineRatingCurvesJob ()
+{
+	return createProcessJob ( "Redefine rating curves", "DEFRC.GUI", "fcinit", true, new Callable<NWSRFS_Process>() {
+		public NWSRFS_Process call () {
+			return NWSRFS_Util.start_redefine_ratingCurves ( null );
+		}
+	});
+}
+
+/**
+Create a job that calls NWSRFS_Util.start_redefine_segments().
+@return the job.
+*/
+public static NWSRFS_Job createRedefineSegmentsJob ()
+{
+	return createProcessJob ( "Redefine segments", "RESEGDEF.GUI", "fcinit", true, new Callable<NWSRFS_Process>() {
+		public NWSRFS_Process call () {
+			return NWSRFS_Util.start_redefine_segments ( null );
+		}
+	});
+}
+
+/**
+Create a job that calls NWSRFS_Util.start_redefine_stations().
+@return the job.
+*/
+public static NWSRFS_Job createRedefineStationsJob ()
+{
+	return createProcessJob ( "Redefine stations", "REDEFINE.STATIONS.GUI", "ppinit", true, new Callable<NWSRFS_Process>() {
+		public NWSRFS_Process call () {
+			return NWSRFS_Util.start_redefine_stations ( null );
+		}
+	});
+}
+
+/**
+Return the time that the job waited in the queue before it started.
+@return the time in milliseconds that the job waited in the queue, or -1 if it has not started.
+*/
+public long getWaitMilliseconds ()
+{
+	if ( (__queueTime < 0) || (__startTime < 0) ) {
+		return -1;
+	}
+	return __startTime - __queueTime;
+}
+
+/**
+Return the time that the job ran.
+@return the time in milliseconds that the job ran (so far, if still running), or -1 if it has not started.
+*/
+public long getElapsedMilliseconds ()
+{
+	if ( __startTime < 0 ) {
+		return -1;
+	}
+	else if ( __endTime < 0 ) {
+		return System.currentTimeMillis() - __startTime;
+	}
+	return __endTime - __startTime;
+}
+
+/**
+Return the time that the job finished.
+@return the time (milliseconds since 1970) that the job finished, or -1 if it has not finished.
+*/
+public long getEndTime ()
+{
+	return __endTime;
+}
+
+/**
+Return the exception thrown while running the command.
+@return the exception thrown while running the command, or null if none.
+*/
+public Throwable getException ()
+{
+	return __exception;
+}
+
+/**
+Return the name of the ".GUI" input file used by the command.
+@return the name of the input file used by the command, or null if none.
+*/
+public String getInputFile ()
+{
+	return __inputFile;
+}
+
+/**
+Return the job name.
+@return the job name.
+*/
+public String getName ()
+{
+	return __name;
+}
+
+/**
+Return the output from the command.
+@return the output from the command, or null if the job has not finished.
+*/
+public List<String> getOutput ()
+{
+	return __output;
+}
+
+/**
+Return the ofs program run by the command.
+@return the ofs program run by the command (e.g., "fcinit"), or null if not known.
+*/
+public String getProgram ()
+{
+	return __program;
+}
+
+/**
+Return the time that the job was queued.
+@return the time (milliseconds since 1970) that the job was queued, or -1 if it has not been queued.
+*/
+public long getQueueTime ()
+{
+	return __queueTime;
+}
+
+/**
+Return the time that the job started.
+@return the time (milliseconds since 1970) that the job started, or -1 if it has not started.
+*/
+public long getStartTime ()
+{
+	return __startTime;
+}
+
+/**
+Return the job status.
+@return the job status, one of STATUS_*.
+*/
+public int getStatus ()
+{
+	return __status;
+}
+
+/**
+Return the job status as a string, for display.
+@return the job status as a string.
+*/
+public String getStatusString ()
+{
+	switch ( __status ) {
+		case STATUS_QUEUED: return "Queued";
+		case STATUS_RUNNING: return "Running";
+		case STATUS_COMPLETED: return "Completed";
+		case STATUS_FAILED: return "Failed";
+		case STATUS_CANCELED: return "Canceled";
+		default: return "Unknown";
+	}
+}
+
+/**
+Indicate whether the job has finished or was canceled.
+@return true if the job has finished or was canceled.
+*/
+public boolean isDone ()
+{
+	return __done.getCount() == 0;
+}
+
+/**
+Indicate whether the output from a command indicates that it failed.  The run_*() methods
+put "failed" or "Unable to run" in the output when the command cannot be run or has a non-zero
+exit status, and ofs prints "FAIL" in the output for errors in the input file.
+@param output output from a command.
+@return true if the output indicates that the command failed.
+*/
+private static boolean outputIndicatesFailure ( List<String> output )
+{
+	if ( output == null ) {
+		return true;
+	}
+	for ( String line : output ) {
+		if ( line == null ) {
+			continue;
+		}
+		String lower = line.toLowerCase();
+		if ( (lower.indexOf("fail") > -1) || (lower.indexOf("unable to run") > -1) ) {
+			return true;
+		}
+	}
+	return false;
+}
+
+/**
+Run the command, called by the job queue after setRunning().  The status, end time and output are set.
+*/
+void run ()
+{
+	List<String> output = null;
+	boolean canceled = false;
+	try {
+		if ( __processTask != null ) {
+			output = runProcess();
+			canceled = (output == null);
+		}
+		else {
+			output = __task.call();
+		}
+	}
+	catch ( Throwable e ) {
+		__exception = e;
+	}
+	__output = output;
+	__endTime = System.currentTimeMillis();
+	if ( canceled ) {
+		__status = STATUS_CANCELED;
+	}
+	else if ( (__exception != null) || outputIndicatesFailure(output) ) {
+		__status = STATUS_FAILED;
+	}
+	else {
+		__status = STATUS_COMPLETED;
+	}
+	__done.countDown();
+}
+
+/**
+Start the command with the process task and wait for it to finish.
+@return the output, in the same form as the run_*() methods (the first line indicates the command
+that was run or that it failed), or null if the job was canceled.
+@exception Exception if the process task throws an exception.
+*/
+private List<String> runProcess ()
+throws Exception
+{
+	NWSRFS_Process process = __processTask.call();
+	List<String> output = new Vector<String>();
+	if ( process == null ) {
+		// The start_*() method printed the reason
+		output.add ( "Unable to run command for job \"" + __name + "\"" );
+		return output;
+	}
+	boolean canceled;
+	synchronized ( this ) {
+		__process = process;
+		canceled = __cancelRequested;
+	}
+	if ( canceled ) {
+		// Canceled while starting
+		process.cancel();
+	}
+	int exitStatus = process.waitFor();
+	synchronized ( this ) {
+		__process = null;
+		canceled = __cancelRequested;
+	}
+	if ( canceled || process.isCancelled() ) {
+		return null;
+	}
+	String cmd = process.getCommand();
+	if ( exitStatus != 0 ) {
+		output.add ( "Command \"" + cmd + "\" failed" );
+	}
+	else {
+		output.add ( "Command Run: \"" + cmd + "\"" );
+	}
+	List<String> lines = process.getOutputLines();
+	int dropped = process.getOutputLineCount() - lines.size();
+	if ( dropped > 0 ) {
+		output.add ( "(" + dropped + " earlier output lines are not shown)" );
+	}
+	output.addAll ( lines );
+	return output;
+}
+
+/**
+Mark the job as canceled, called by the job queue for a job that has not started.
+*/
+void setCanceled ()
+{
+	__endTime = System.currentTimeMillis();
+	__status = STATUS_CANCELED;
+	__done.countDown();
+}
+
+/**
+Set the job status to running and set the start time, called by the job queue when the job starts.
+*/
+void setRunning ()
+{
+	__startTime = System.currentTimeMillis();
+	__status = STATUS_RUNNING;
+}
+
+/**
+Set the time that the job was queued, called by the job queue.
+@param queueTime the time (milliseconds since 1970) that the job was queued.
+*/
+void setQueueTime ( long queueTime )
+{
+	__queueTime = queueTime;
+}
+
+/**
+Convert the output file returned by the print run_*() methods to a list for getOutput().
+@param output_file output file line from the print run_*() method, or null if the command failed.
+@return a list containing the output file line, or a failure message.
+*/
+private static List<String> toOutputFileList ( String output_file )
+{
+	List<String> output = new Vector<String>();
+	if ( output_file == null ) {
+		output.add ( "Unable to run command - no output file was created." );
+	}
+	else {
+		output.add ( "OUTPUT FILE: " );
+		output.add ( output_file );
+	}
+	return output;
+}
+
+/**
+Return a string representation of the job, for display.
+@return the job name and status.
+*/
+public String toString ()
+{
+	return __name + " (" + getStatusString() + ")";
+}
+
+/**
+Indicate whether the command writes to the fs5files.
+@return true if the command writes to the fs5files.
+*/
+public boolean writesDatabase ()
+{
+	return __writesDatabase;
+}
+
+/**
+Wait for the job to finish or be canceled.
+@throws InterruptedException if the current thread is interrupted while waiting.
+*/
+public void waitFor ()
+throws InterruptedException
+{
+	__done.await();
+}
+
+}
@@ -0,0 +1,19 @@
+// NWSRFS_JobListener - receive status changes for jobs in an NWSRFS_JobQueue
+
+package RTi.DMI.NWSRFS_DMI;
+
+/**
+The NWSRFS_JobListener interface is implemented by classes that want to know when jobs in an
+NWSRFS_JobQueue start and finish (e.g., to update a job status table).  The method is called on
+a job queue thread, not the Swing event thread, so GUI code must use SwingUtilities.invokeLater()
+to update components.
+*/
+public interface NWSRFS_JobListener {
+
+/**
+Called when the status of a job changes.
+@param job the job, which can be queried for the new status (NWSRFS_Job.getStatus()), timing and output.
+*/
+public void jobStatusChanged ( NWSRFS_Job job );
+
+}
@@ -0,0 +1,399 @@
+// NWSRFS_JobQueue - run queued NWSRFS batch utility jobs concurrently
+
+package RTi.DMI.NWSRFS_DMI;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+import RTi.Util.IO.IOUtil;
+import RTi.Util.Message.Message;
+import RTi.Util.String.StringUtil;
+
+/**
+The NWSRFS_JobQueue class runs NWSRFS_Job objects (punch, print, dump, redefine, etc.) in
+background threads, running independent jobs at the same time up to a limit.  Jobs are started in
+the order that they are queued, subject to the following rules:
+<ul>
+<li>	At most getMaxConcurrentJobs() jobs run at the same time.</li>
+<li>	Jobs that use the same ".GUI" input file run one at a time, in the order queued, because
+	each run_*() method edits its input file before running ofs.</li>
+<li>	Jobs that run the same ofs program (NWSRFS_Job.getProgram(), e.g., "fcinit") run one at a time,
+	in the order queued, because ofs names the program log "&lt;program&gt;_log.&lt;timestamp&gt;" with a
+	timestamp to the second, so jobs started together would write the same log file.</li>
+<li>	Jobs that write to the fs5files (NWSRFS_Job.writesDatabase()) run alone, after all earlier
+	jobs have finished and before any later job starts.</li>
+</ul>
+Usage:
+<pre>
+NWSRFS_JobQueue queue = new NWSRFS_JobQueue();
+queue.addJobListener ( listener );
+queue.submit ( NWSRFS_Job.createPunchStationsJob("STN1") );
+queue.submit ( NWSRFS_Job.createPunchSegmentsJob("SEG1") );
+...
+queue.waitForJobs();
+</pre>
+*/
+public class NWSRFS_JobQueue {
+
+/**
+Default maximum number of jobs to run at the same time.
+*/
+public final static int DEFAULT_MAX_CONCURRENT_JOBS = 4;
+
+/**
+Maximum number of jobs to run at the same time.
+*/
+private int __maxConcurrentJobs = DEFAULT_MAX_CONCURRENT_JOBS;
+
+/**
+Jobs that have been queued and not started, in the order queued.
+*/
+private LinkedList<NWSRFS_Job> __queuedJobs = new LinkedList<NWSRFS_Job>();
+
+/**
+Jobs that are running.
+*/
+private List<NWSRFS_Job> __runningJobs = new ArrayList<NWSRFS_Job>();
+
+/**
+All jobs that have been submitted, in the order submitted.
+*/
+private List<NWSRFS_Job> __jobs = new CopyOnWriteArrayList<NWSRFS_Job>();
+
+/**
+Listeners to receive job status changes.
+*/
+private List<NWSRFS_JobListener> __listeners = new CopyOnWriteArrayList<NWSRFS_JobListener>();
+
+/**
+Threads that run the jobs.  The number of running jobs is limited by startJobs().
+*/
+private ExecutorService __executor = null;
+
+/**
+Whether shutdown() has been called, after which submitted jobs are canceled rather than queued.
+*/
+private boolean __shutdown = false;
+
+/**
+Construct a job queue.  The maximum number of jobs to run at the same time is taken from the
+"MaxConcurrentJobs" property (see IOUtil.getPropValue()) if set, or DEFAULT_MAX_CONCURRENT_JOBS.
+*/
+public NWSRFS_JobQueue ()
+{
+	this ( DEFAULT_MAX_CONCURRENT_JOBS );
+	String prop_value = IOUtil.getPropValue ( "MaxConcurrentJobs" );
+	if ( (prop_value != null) && StringUtil.isInteger(prop_value) ) {
+		setMaxConcurrentJobs ( Integer.parseInt(prop_value.trim()) );
+	}
+}
+
+/**
+Construct a job queue.
+@param maxConcurrentJobs the maximum number of jobs to run at the same time.
+*/
+public NWSRFS_JobQueue ( int maxConcurrentJobs )
+{
+	setMaxConcurrentJobs ( maxConcurrentJobs );
+	__executor = Executors.newCachedThreadPool ( new ThreadFactory() {
+		private int __count = 0;
+		public synchronized Thread newThread ( Runnable r )
+		{
+			Thread thread = new Thread ( r, "NWSRFS_JobQueue-" + (++__count) );
+			thread.setDaemon ( true );
+			return thread;
+		}
+	});
+}
+
+/**
+Add a listener to receive job status changes.
+@param listener listener to add.
+*/
+public void addJobListener ( NWSRFS_JobListener listener )
+{
+	if ( listener != null ) {
+		__listeners.add ( listener );
+	}
+}
+
+/**
+Cancel a job.  A job that has not started is removed from the queue.  A running job is canceled if
+it runs its command with an NWSRFS_Process (see NWSRFS_Job.cancelRunning()); jobs that call a
+run_*() method cannot be canceled once started.
+@param job job to cancel.
+@return true if the job was canceled, false if it cannot be canceled or is not in the queue.
+*/
+public boolean cancel ( NWSRFS_Job job )
+{
+	synchronized ( this ) {
+		if ( !__queuedJobs.remove(job) ) {
+			if ( __runningJobs.contains(job) ) {
+				// Listeners are notified when the job finishes
+				return job.cancelRunning();
+			}
+			return false;
+		}
+		job.setCanceled();
+		// A canceled job may have been holding back later jobs
+		startJobs();
+		notifyAll();
+	}
+	notifyListeners ( job );
+	return true;
+}
+
+/**
+Cancel all jobs that have not started.
+@return the number of jobs that were canceled.
+*/
+public int cancelAll ()
+{
+	List<NWSRFS_Job> canceled;
+	synchronized ( this ) {
+		canceled = new ArrayList<NWSRFS_Job> ( __queuedJobs );
+		__queuedJobs.clear();
+		for ( NWSRFS_Job job : canceled ) {
+			job.setCanceled();
+		}
+		notifyAll();
+	}
+	for ( NWSRFS_Job job : canceled ) {
+		notifyListeners ( job );
+	}
+	return canceled.size();
+}
+
+/**
+Return all jobs that have been submitted, in the order submitted, including finished jobs.
+@return a copy of the list of jobs.
+*/
+public List<NWSRFS_Job> getJobs ()
+{
+	return new ArrayList<NWSRFS_Job> ( __jobs );
+}
+
+/**
+Return the maximum number of jobs to run at the same time.
+@return the maximum number of jobs to run at the same time.
+*/
+public synchronized int getMaxConcurrentJobs ()
+{
+	return __maxConcurrentJobs;
+}
+
+/**
+Return the number of jobs that are queued or running.
+@return the number of jobs that are queued or running.
+*/
+public synchronized int getPendingJobCount ()
+{
+	return __queuedJobs.size() + __runningJobs.size();
+}
+
+/**
+Called in a job thread when a job has finished.
+@param job the job that finished.
+*/
+private void jobFinished ( NWSRFS_Job job )
+{
+	synchronized ( this ) {
+		__runningJobs.remove ( job );
+		startJobs();
+		notifyAll();
+	}
+	notifyListeners ( job );
+}
+
+/**
+Notify listeners of a job status change.
+@param job job whose status has changed.
+*/
+private void notifyListeners ( NWSRFS_Job job )
+{
+	String routine = "NWSRFS_JobQueue.notifyListeners";
+	for ( NWSRFS_JobListener listener : __listeners ) {
+		try {
+			listener.jobStatusChanged ( job );
+		}
+		catch ( Exception e ) {
+			// Don't let a listener stop the queue
+			Message.printWarning ( 3, routine, e );
+		}
+	}
+}
+
+/**
+Remove a listener.
+@param listener listener to remove.
+*/
+public void removeJobListener ( NWSRFS_JobListener listener )
+{
+	__listeners.remove ( listener );
+}
+
+/**
+Set the maximum number of jobs to run at the same time.  If the limit is increased, queued jobs
+are started.  If the limit is decreased, running jobs are not affected.
+@param maxConcurrentJobs the maximum number of jobs to run at the same time (values less than 1 are treated as 1).
+*/
+public synchronized void setMaxConcurrentJobs ( int maxConcurrentJobs )
+{
+	if ( maxConcurrentJobs < 1 ) {
+		maxConcurrentJobs = 1;
+	}
+	__maxConcurrentJobs = maxConcurrentJobs;
+	if ( __executor != null ) {
+		startJobs();
+	}
+}
+
+/**
+Stop accepting jobs, cancel queued jobs and let running jobs finish.  Jobs submitted after this
+is called are canceled.
+*/
+public void shutdown ()
+{
+	synchronized ( this ) {
+		__shutdown = true;
+	}
+	cancelAll();
+	__executor.shutdown();
+}
+
+/**
+Start queued jobs that can run, in the order queued.  Must be called while synchronized on this object.
+*/
+private void startJobs ()
+{
+	// Input files used by running jobs and jobs that have been passed over, so that later
+	// jobs with the same input file do not start before them
+	Set<String> busyInputFiles = new HashSet<String>();
+	// Likewise for the ofs programs, because each run writes a program log named by the time to the second
+	Set<String> busyPrograms = new HashSet<String>();
+	boolean databaseWriteRunning = false;
+	for ( NWSRFS_Job job : __runningJobs ) {
+		if ( job.getInputFile() != null ) {
+			busyInputFiles.add ( job.getInputFile() );
+		}
+		if ( job.getProgram() != null ) {
+			busyPrograms.add ( job.getProgram() );
+		}
+		if ( job.writesDatabase() ) {
+			databaseWriteRunning = true;
+		}
+	}
+	if ( databaseWriteRunning ) {
+		// Nothing else can run with a job that writes to the database
+		return;
+	}
+	for ( int i = 0; i < __queuedJobs.size(); ) {
+		if ( __runningJobs.size() >= __maxConcurrentJobs ) {
+			break;
+		}
+		final NWSRFS_Job job = __queuedJobs.get(i);
+		if ( job.writesDatabase() ) {
+			// Must wait for all earlier jobs, and later jobs must wait for it
+			if ( (i == 0) && __runningJobs.isEmpty() ) {
+				__queuedJobs.remove ( i );
+				startJob ( job );
+			}
+			break;
+		}
+		String inputFile = job.getInputFile();
+		String program = job.getProgram();
+		boolean inputFileBusy = (inputFile != null) && busyInputFiles.contains(inputFile);
+		boolean programBusy = (program != null) && busyPrograms.contains(program);
+		if ( inputFile != null ) {
+			busyInputFiles.add ( inputFile );
+		}
+		if ( program != null ) {
+			busyPrograms.add ( program );
+		}
+		if ( inputFileBusy || programBusy ) {
+			// An earlier job uses the same input file or program - leave in the queue
+			++i;
+			continue;
+		}
+		__queuedJobs.remove ( i );
+		startJob ( job );
+	}
+}
+
+/**
+Start a job in a job thread.  Must be called while synchronized on this object.
+@param job job to start.
+*/
+private void startJob ( final NWSRFS_Job job )
+{
+	__runningJobs.add ( job );
+	try {
+		__executor.execute ( new Runnable() {
+			public void run ()
+			{
+				job.setRunning();
+				notifyListeners ( job );
+				try {
+					job.run();
+				}
+				finally {
+					jobFinished ( job );
+				}
+			}
+		});
+	}
+	catch ( RejectedExecutionException e ) {
+		// Should not happen because submit() does not queue jobs after shutdown(), but don't
+		// leave the job in the running list or waitForJobs() will never return
+		Message.printWarning ( 3, "NWSRFS_JobQueue.startJob", "Unable to start job \"" +
+			job.getName() + "\" - canceling." );
+		__runningJobs.remove ( job );
+		job.setCanceled();
+		notifyAll();
+	}
+}
+
+/**
+Add a job to the queue.  The job is started as soon as the rules described for this class allow.
+If shutdown() has been called, the job is canceled instead of being queued.
+@param job job to run.
+@return the job, for convenience.
+*/
+public NWSRFS_Job submit ( NWSRFS_Job job )
+{
+	synchronized ( this ) {
+		job.setQueueTime ( System.currentTimeMillis() );
+		__jobs.add ( job );
+		if ( __shutdown ) {
+			job.setCanceled();
+		}
+		else {
+			__queuedJobs.add ( job );
+			startJobs();
+		}
+	}
+	notifyListeners ( job );
+	return job;
+}
+
+/**
+Wait until all queued and running jobs have finished.
+@throws InterruptedException if the current thread is interrupted while waiting.
+*/
+public synchronized void waitForJobs ()
+throws InterruptedException
+{
+	while ( !__queuedJobs.isEmpty() || !__runningJobs.isEmpty() ) {
+		wait();
+	}
+}
+
+}
@@ -0,0 +1,99 @@
+// NWSRFS_LRUCache - bounded least recently used cache
+
+package RTi.DMI.NWSRFS_DMI;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+The NWSRFS_LRUCache class is a bounded cache that discards the least recently used
+entry when the maximum number of entries is exceeded.  It is used by NWSRFS_DMI to
+retain decoded records that are read repeatedly (e.g., the FCPARAM operation parameter
+records for segments).  All methods are synchronized so the cache can be shared by
+threads reading from the DMI (see NWSRFS_DMI.setConcurrentReads()).
+*/
+class NWSRFS_LRUCache<K,V> {
+
+/**
+The cached entries, in access order (least recently used first).
+*/
+private LinkedHashMap<K,V> __map = null;
+
+/**
+The maximum number of entries.  If zero, nothing is cached.
+*/
+private int __maxEntries = 0;
+
+/**
+Construct a cache.
+@param maxEntries the maximum number of entries (zero to disable the cache).
+*/
+NWSRFS_LRUCache(int maxEntries) {
+	__maxEntries = Math.max(0, maxEntries);
+	__map = new LinkedHashMap<K,V>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+		protected boolean removeEldestEntry(Map.Entry<K,V> eldest) {
+			return size() > __maxEntries;
+		}
+	};
+}
+
+/**
+Remove all entries.
+*/
+synchronized void clear() {
+	__map.clear();
+}
+
+/**
+Returns the cached value for a key and marks the entry as most recently used.
+@param key the key.
+@return the cached value, or null if the key is not cached.
+*/
+synchronized V get(K key) {
+	return __map.get(key);
+}
+
+/**
+Returns the maximum number of entries.
+@return the maximum number of entries.
+*/
+synchronized int getMaxEntries() {
+	return __maxEntries;
+}
+
+/**
+Add a value to the cache, discarding the least recently used entries if the cache is full.
+@param key the key.
+@param value the value.
+*/
+synchronized void put(K key, V value) {
+	if (__maxEntries > 0) {
+		__map.put(key, value);
+	}
+}
+
+/**
+Set the maximum number of entries, discarding the least recently used entries if
+the cache is larger than the new size.
+@param maxEntries the maximum number of entries (zero to disable the cache).
+*/
+synchronized void setMaxEntries(int maxEntries) {
+	__maxEntries = Math.max(0, maxEntries);
+	Iterator<K> it = __map.keySet().iterator();
+	while (__map.size() > __maxEntries && it.hasNext()) {
+		it.next();
+		it.remove();
+	}
+}
+
+/**
+Returns the number of entries.
+@return the number of entries.
+*/
+synchronized int size() {
+	return __map.size();
+}
+
+}
@@ -10,6 +10,8 @@
 
 package RTi.DMI.NWSRFS_DMI;
 
+import java.util.List;
+
 /**
 The NWSRFS_PDBDLY - class to contain the preprocessor record data for Daily data
 and is used to retrieve the data record for a specific time series. This class 
@@ -190,15 +192,53 @@ RECORD STRUCTURE:
 </pre>
 */
 
-// REVISIT SAT 2004-11-3 Need to finish filling this class out.
 public class NWSRFS_PDBDLY {
 
+/**
+Array location (one based I*2 word) of the station data in the data record for one day.
+*/
+protected int _ARRLOC;
+
+/**
+Daily data values for the station, one per day, scaled to the data units.
+Missing values are stored as MISSING.
+*/
+protected NWSRFS_FloatList _DATAVAL;
+
+/**
+Read data type (e.g., TM24 for the TX24 and TN24 write data types).
+*/
 protected String _DTYPE;
 
+/**
+Julian day (since 1900) of the earliest data for the data type.
+*/
+protected int _EDATE;
+
+/**
+Julian day (since 1900) of each data value.
+*/
+protected NWSRFS_IntList _JULDAY;
+
+/**
+Julian day (since 1900) of the latest data for the data type.
+*/
+protected int _LDATE;
+
+/**
+Ordinal number (1-5) of the PDBDLYn file containing the data.
+*/
+protected int _LUFILE;
+
 protected int _NUMID;
 
 protected String _STAID;
 
+/**
+Value stored for missing data.
+*/
+public final static float MISSING = -999.0f;
+
 /**
 Constructor.
 */
@@ -208,40 +248,101 @@ public NWSRFS_PDBDLY(String ID) {
 }
 
 // Add methods for Vector structures
+public void addDATAVAL(float DATAVAL) {
+	_DATAVAL.addFloat(DATAVAL);
+}
+
+public void addJULDAY(int JULDAY) {
+	_JULDAY.addInt(JULDAY);
+}
 
 // Get methods
-public String getSTAID() {
-	return _STAID; 
+public int getARRLOC() {
+	return _ARRLOC; 
 }
 
-public int getNUMID() {
-	return _NUMID; 
+public List<Float> getDATAVAL() {
+	return _DATAVAL; 
+}
+
+public float getDATAVAL(int DATAVALindex) { 
+	return _DATAVAL.getFloat(DATAVALindex);
 }
 
 public String getDTYPE() {
 	return _DTYPE; 
 }
 
+public int getEDATE() {
+	return _EDATE; 
+}
+
+public List<Integer> getJULDAY() {
+	return _JULDAY; 
+}
+
+public int getJULDAY(int JULDAYindex) { 
+	return _JULDAY.getInt(JULDAYindex);
+}
+
+public int getLDATE() {
+	return _LDATE; 
+}
+
+public int getLUFILE() {
+	return _LUFILE; 
+}
+
+public int getNUMID() {
+	return _NUMID; 
+}
+
+public String getSTAID() {
+	return _STAID; 
+}
+
 /**
 Initialize global objects.
 */
 private void initialize() {
-	_STAID		= new String();
-	_NUMID		= -1;
+	_ARRLOC		= -1;
+	_DATAVAL	= new NWSRFS_FloatList();
 	_DTYPE		= new String();
+	_EDATE		= -1;
+	_JULDAY		= new NWSRFS_IntList();
+	_LDATE		= -1;
+	_LUFILE		= -1;
+	_NUMID		= -1;
+	_STAID		= new String();
 }
 
 // Set methods
-public void setSTAID(String STAID) {
-	_STAID = STAID; 
+public void setARRLOC(int ARRLOC) {
+	_ARRLOC = ARRLOC; 
+}
+
+public void setDTYPE(String DTYPE) {
+	_DTYPE = DTYPE; 
+}
+
+public void setEDATE(int EDATE) {
+	_EDATE = EDATE; 
+}
+
+public void setLDATE(int LDATE) {
+	_LDATE = LDATE; 
+}
+
+public void setLUFILE(int LUFILE) {
+	_LUFILE = LUFILE; 
 }
 
 public void setNUMID(int NUMID) {
 	_NUMID = NUMID; 
 }
 
-public void setDTYPE(String DTYPE) {
-	_DTYPE = DTYPE; 
+public void setSTAID(String STAID) {
+	_STAID = STAID; 
 }
 
 }
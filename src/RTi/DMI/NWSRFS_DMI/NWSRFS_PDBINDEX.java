@@ -3,7 +3,9 @@
 package RTi.DMI.NWSRFS_DMI;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
 The NWSRFS_PDBINDEX - class to contain the preprocessor record 
@@ -329,6 +331,41 @@ protected List<Integer> _SMNOZO;
 protected List<String> _STAID;
 protected List<Integer> _TMPPTR;
 
+/**
+Lookup of the station list position by upper case station identifier, built when
+first needed.  See getSTAIDIndex().
+*/
+private static class StationLookup {
+	/**
+	The position of the first occurrence of each station identifier in _STAID.
+	*/
+	private final Map<String,Integer> indexById;
+	/**
+	The size of _STAID when the lookup was built, used to detect stations added later.
+	*/
+	private final int size;
+
+	private StationLookup(List<String> staIDs) {
+		size = staIDs.size();
+		indexById = new HashMap<>(size*2);
+		for (int i = 0; i < size; i++) {
+			String staID = staIDs.get(i);
+			if (staID != null) {
+				String key = staID.toUpperCase();
+				if (!indexById.containsKey(key)) {
+					indexById.put(key, Integer.valueOf(i));
+				}
+			}
+		}
+	}
+}
+
+/**
+The station lookup, or null if not built.  Read once into a local variable so that
+concurrent readers see a complete lookup.
+*/
+private volatile StationLookup __stationLookup = null;
+
 /**
 Constructor.
 If the calling class uses this constructor then it will need to call the 
@@ -340,11 +377,11 @@ public NWSRFS_PDBINDEX() {
 }
 
 public void addACDCP(float ACDCP) {
-	_ACDCP.add(Float.valueOf(ACDCP)); 
+	NWSRFS_FloatList.addFloat(_ACDCP, ACDCP); 
 }
 
 public void addACPSQ(float ACPSQ) {
-	_ACPSQ.add(Float.valueOf(ACPSQ)); 
+	NWSRFS_FloatList.addFloat(_ACPSQ, ACPSQ); 
 }
 
 public void addADDDTP(List<String> ADDDTP) {
@@ -356,11 +393,11 @@ public void addADTPTR(List<Integer> ADTPTR) {
 }
 
 public void addBDATE(int BDATE) {
-	_BDATE.add(Integer.valueOf(BDATE)); 
+	NWSRFS_IntList.addInt(_BDATE, BDATE); 
 }
 
 public void addDATAR1(int DATAR1) {
-	_DATAR1.add(Integer.valueOf(DATAR1)); 
+	NWSRFS_IntList.addInt(_DATAR1, DATAR1); 
 }
 
 public void addDTYPE(String DTYPE) {
@@ -368,135 +405,135 @@ public void addDTYPE(String DTYPE) {
 }
 
 public void addECRECN(int ECRECN) {
-	_ECRECN.add(Integer.valueOf(ECRECN)); 
+	NWSRFS_IntList.addInt(_ECRECN, ECRECN); 
 }
 
 public void addEDATE(int EDATE) {
-	_EDATE.add(Integer.valueOf(EDATE)); 
+	NWSRFS_IntList.addInt(_EDATE, EDATE); 
 }
 
 public void addL2DATE(int L2DATE) {
-	_L2DATE.add(Integer.valueOf(L2DATE)); 
+	NWSRFS_IntList.addInt(_L2DATE, L2DATE); 
 }
 
 public void addLDATE(int LDATE) {
-	_LDATE.add(Integer.valueOf(LDATE)); 
+	NWSRFS_IntList.addInt(_LDATE, LDATE); 
 }
 
 public void addLDATEDDT(int LDATEDDT) {
-	_LDATEDDT.add(Integer.valueOf(LDATEDDT)); 
+	NWSRFS_IntList.addInt(_LDATEDDT, LDATEDDT); 
 }
 
 public void addLDDFRC(int LDDFRC) {
-	_LDDFRC.add(Integer.valueOf(LDDFRC)); 
+	NWSRFS_IntList.addInt(_LDDFRC, LDDFRC); 
 }
 
 public void addLDRECN(int LDRECN) {
-	_LDRECN.add(Integer.valueOf(LDRECN)); 
+	NWSRFS_IntList.addInt(_LDRECN, LDRECN); 
 }
 
 public void addLSTDTA(int LSTDTA) {
-	_LSTDTA.add(Integer.valueOf(LSTDTA)); 
+	NWSRFS_IntList.addInt(_LSTDTA, LSTDTA); 
 }
 
 public void addLSTPTR(int LSTPTR) {
-	_LSTPTR.add(Integer.valueOf(LSTPTR)); 
+	NWSRFS_IntList.addInt(_LSTPTR, LSTPTR); 
 }
 
 public void addLUFILE(int LUFILE) {
-	_LUFILE.add(Integer.valueOf(LUFILE)); 
+	NWSRFS_IntList.addInt(_LUFILE, LUFILE); 
 }
 
 public void addMAXDAY(int MAXDAY) {
-	_MAXDAY.add(Integer.valueOf(MAXDAY)); 
+	NWSRFS_IntList.addInt(_MAXDAY, MAXDAY); 
 }
 
 public void addMAXSTA(int MAXSTA) {
-	_MAXSTA.add(Integer.valueOf(MAXSTA)); 
+	NWSRFS_IntList.addInt(_MAXSTA, MAXSTA); 
 }
 
 public void addMDDFRC(int MDDFRC) {
-	_MDDFRC.add(Integer.valueOf(MDDFRC)); 
+	NWSRFS_IntList.addInt(_MDDFRC, MDDFRC); 
 }
 
 public void addNADDTP(int NADDTP) {
-	_NADDTP.add(Integer.valueOf(NADDTP)); 
+	NWSRFS_IntList.addInt(_NADDTP, NADDTP); 
 }
 
 public void addNDATA(int NDATA) {
-	_NDATA.add(Integer.valueOf(NDATA)); 
+	NWSRFS_IntList.addInt(_NDATA, NDATA); 
 }
 
 public void addNDAYS(int NDAYS) {
-	_NDAYS.add(Integer.valueOf(NDAYS)); 
+	NWSRFS_IntList.addInt(_NDAYS, NDAYS); 
 }
 
 public void addNPNTRS(int NPNTRS) {
-	_NPNTRS.add(Integer.valueOf(NPNTRS)); 
+	NWSRFS_IntList.addInt(_NPNTRS, NPNTRS); 
 }
 
 public void addNREC1D(int NREC1D) {
-	_NREC1D.add(Integer.valueOf(NREC1D)); 
+	NWSRFS_IntList.addInt(_NREC1D, NREC1D); 
 }
 
 public void addNSTATS(int NSTATS) {
-	_NSTATS.add(Integer.valueOf(NSTATS)); 
+	NWSRFS_IntList.addInt(_NSTATS, NSTATS); 
 }
 
 public void addNTOTAL(int NTOTAL) {
-	_NTOTAL.add(Integer.valueOf(NTOTAL)); 
+	NWSRFS_IntList.addInt(_NTOTAL, NTOTAL); 
 }
 
 public void addNUMID(int NUMID) {
-	_NUMID.add(Integer.valueOf(NUMID)); 
+	NWSRFS_IntList.addInt(_NUMID, NUMID); 
 }
 
 public void addNUMSTA(int NUMSTA) {
-	_NUMSTA.add(Integer.valueOf(NUMSTA)); 
+	NWSRFS_IntList.addInt(_NUMSTA, NUMSTA); 
 }
 
 public void addNWRDSDDT(int NWRDSDDT) {
-	_NWRDSDDT.add(Integer.valueOf(NWRDSDDT)); 
+	NWSRFS_IntList.addInt(_NWRDSDDT, NWRDSDDT); 
 }
 
 public void addNWRDSSTI(int NWRDSSTI) {
-	_NWRDSSTI.add(Integer.valueOf(NWRDSSTI)); 
+	NWSRFS_IntList.addInt(_NWRDSSTI, NWRDSSTI); 
 }
 
 public void addNWRDSO(int NWRDSO) {
-	_NWRDSO.add(Integer.valueOf(NWRDSO)); 
+	NWSRFS_IntList.addInt(_NWRDSO, NWRDSO); 
 }
 
 public void addNZERO(int NZERO) {
-	_NZERO.add(Integer.valueOf(NZERO)); 
+	NWSRFS_IntList.addInt(_NZERO, NZERO); 
 }
 
 public void addPCPPTR(int PCPPTR) {
-	_PCPPTR.add(Integer.valueOf(PCPPTR)); 
+	NWSRFS_IntList.addInt(_PCPPTR, PCPPTR); 
 }
 
 public void addPNTR(int PNTR) {
-	_PNTR.add(Integer.valueOf(PNTR)); 
+	NWSRFS_IntList.addInt(_PNTR, PNTR); 
 }
 
 public void addPRMPTR(int PRMPTR) {
-	_PRMPTR.add(Integer.valueOf(PRMPTR)); 
+	NWSRFS_IntList.addInt(_PRMPTR, PRMPTR); 
 }
 
 public void addRDATE(int RDATE) {
-	_RDATE.add(Integer.valueOf(RDATE)); 
+	NWSRFS_IntList.addInt(_RDATE, RDATE); 
 }
 
 public void addRPT2LG(int RPT2LG) {
-	_RPT2LG.add(Integer.valueOf(RPT2LG)); 
+	NWSRFS_IntList.addInt(_RPT2LG, RPT2LG); 
 }
 
 public void addRPTLG(int RPTLG) {
-	_RPTLG.add(Integer.valueOf(RPTLG)); 
+	NWSRFS_IntList.addInt(_RPTLG, RPTLG); 
 }
 
 public void addSMNOZO(int SMNOZO) {
-	_SMNOZO.add(Integer.valueOf(SMNOZO)); 
+	NWSRFS_IntList.addInt(_SMNOZO, SMNOZO); 
 }
 
 public void addSTAID(String STAID) {
@@ -504,7 +541,7 @@ public void addSTAID(String STAID) {
 }
 
 public void addTMPPTR(int TMPPTR) {
-	_TMPPTR.add(Integer.valueOf(TMPPTR)); 
+	NWSRFS_IntList.addInt(_TMPPTR, TMPPTR); 
 }
 
 public int getH8CREC() {
@@ -674,14 +711,14 @@ public List<Float> getACDCP() {
 	return _ACDCP; 
 }  
 public float getACDCP(int ACDCPindex) { 
-	return (float)((Float)_ACDCP.get(ACDCPindex)).floatValue();
+	return NWSRFS_FloatList.getFloat(_ACDCP, ACDCPindex);
 }
 
 public List<Float> getACPSQ() {
 	return _ACPSQ; 
 }  
 public float getACPSQ(int ACPSQindex) { 
-	return (float)((Float)_ACPSQ.get(ACPSQindex)).floatValue();
+	return NWSRFS_FloatList.getFloat(_ACPSQ, ACPSQindex);
 }
 
 public List<List<String>> getADDDTP() {
@@ -702,22 +739,21 @@ public List<Integer> getADTPTR(int ADTPTRVindex) {
 	return (List<Integer>)_ADTPTR.get(ADTPTRVindex);
 }
 public int getADTPTR(int ADTPTRVindex, int ADTPTRindex) { 
-	List<Integer> adtptrVect = (List<Integer>)_ADTPTR.get(ADTPTRVindex);
-	return (int)((Integer)adtptrVect.get(ADTPTRindex)).intValue();
+	return NWSRFS_IntList.getInt((List<Integer>)_ADTPTR.get(ADTPTRVindex), ADTPTRindex);
 }
 
 public List<Integer> getBDATE() {
 	return _BDATE; 
 }  
 public int getBDATE(int BDATEindex) { 
-	return (int)((Integer)_BDATE.get(BDATEindex)).intValue();
+	return NWSRFS_IntList.getInt(_BDATE, BDATEindex);
 }
 
 public List<Integer> getDATAR1() {
 	return _DATAR1; 
 }  
 public int getDATAR1(int DATAR1index) { 
-	return (int)(_DATAR1.get(DATAR1index)).intValue();
+	return NWSRFS_IntList.getInt(_DATAR1, DATAR1index);
 }
 
 public List<String> getDTYPE() {
@@ -731,231 +767,231 @@ public List<Integer> getECRECN() {
 	return _ECRECN; 
 }  
 public int getECRECN(int ECRECNindex) { 
-	return (int)(_ECRECN.get(ECRECNindex)).intValue();
+	return NWSRFS_IntList.getInt(_ECRECN, ECRECNindex);
 }
 
 public List<Integer> getEDATE() {
 	return _EDATE; 
 }  
 public int getEDATE(int EDATEindex) { 
-	return (int)(_EDATE.get(EDATEindex)).intValue();
+	return NWSRFS_IntList.getInt(_EDATE, EDATEindex);
 }
 
 public List<Integer> getL2DATE() {
 	return _L2DATE; 
 }  
 public int getL2DATE(int L2DATEindex) { 
-	return (int)(_L2DATE.get(L2DATEindex)).intValue();
+	return NWSRFS_IntList.getInt(_L2DATE, L2DATEindex);
 }
 
 public List<Integer> getLDATE() {
 	return _LDATE; 
 }  
 public int getLDATE(int LDATEindex) { 
-	return (int)(_LDATE.get(LDATEindex)).intValue();
+	return NWSRFS_IntList.getInt(_LDATE, LDATEindex);
 }
 
 public List<Integer> getLDATEDDT() {
 	return _LDATEDDT; 
 }  
 public int getLDATEDDT(int LDATEDDTindex) { 
-	return (int)(_LDATEDDT.get(LDATEDDTindex)).intValue();
+	return NWSRFS_IntList.getInt(_LDATEDDT, LDATEDDTindex);
 }
 
 public List<Integer> getLDDFRC() {
 	return _LDDFRC; 
 }  
 public int getLDDFRC(int LDDFRCindex) { 
-	return (int)(_LDDFRC.get(LDDFRCindex)).intValue();
+	return NWSRFS_IntList.getInt(_LDDFRC, LDDFRCindex);
 }
 
 public List<Integer> getLDRECN() {
 	return _LDRECN; 
 }  
 public int getLDRECN(int LDRECNindex) { 
-	return (int)(_LDRECN.get(LDRECNindex)).intValue();
+	return NWSRFS_IntList.getInt(_LDRECN, LDRECNindex);
 }
 
 public List<Integer> getLSTDTA() {
 	return _LSTDTA; 
 }  
 public int getLSTDTA(int LSTDTAindex) { 
-	return (int)(_LSTDTA.get(LSTDTAindex)).intValue();
+	return NWSRFS_IntList.getInt(_LSTDTA, LSTDTAindex);
 }
 
 public List<Integer> getLSTPTR() {
 	return _LSTPTR; 
 }  
 public int getLSTPTR(int LSTPTRindex) { 
-	return (int)(_LSTPTR.get(LSTPTRindex)).intValue();
+	return NWSRFS_IntList.getInt(_LSTPTR, LSTPTRindex);
 }
 
 public List<Integer> getLUFILE() {
 	return _LUFILE; 
 }  
 public int getLUFILE(int LUFILEindex) { 
-	return (int)(_LUFILE.get(LUFILEindex)).intValue();
+	return NWSRFS_IntList.getInt(_LUFILE, LUFILEindex);
 }
 
 public List<Integer> getMAXDAY() {
 	return _MAXDAY; 
 }  
 public int getMAXDAY(int MAXDAYindex) { 
-	return (int)(_MAXDAY.get(MAXDAYindex)).intValue();
+	return NWSRFS_IntList.getInt(_MAXDAY, MAXDAYindex);
 }
 
 public List<Integer> getMAXSTA() {
 	return _MAXSTA; 
 }  
 public int getMAXSTA(int MAXSTAindex) { 
-	return (int)(_MAXSTA.get(MAXSTAindex)).intValue();
+	return NWSRFS_IntList.getInt(_MAXSTA, MAXSTAindex);
 }
 
 public List<Integer> getMDDFRC() {
 	return _MDDFRC; 
 }  
 public int getMDDFRC(int MDDFRCindex) { 
-	return (int)(_MDDFRC.get(MDDFRCindex)).intValue();
+	return NWSRFS_IntList.getInt(_MDDFRC, MDDFRCindex);
 }
 
 public List<Integer> getNADDTP() {
 	return _NADDTP; 
 }  
 public int getNADDTP(int NADDTPindex) { 
-	return (int)(_NADDTP.get(NADDTPindex)).intValue();
+	return NWSRFS_IntList.getInt(_NADDTP, NADDTPindex);
 }
 
 public List<Integer> getNDATA() {
 	return _NDATA; 
 }  
 public int getNDATA(int NDATAindex) { 
-	return (int)(_NDATA.get(NDATAindex)).intValue();
+	return NWSRFS_IntList.getInt(_NDATA, NDATAindex);
 }
 
 public List<Integer> getNDAYS() {
 	return _NDAYS; 
 }  
 public int getNDAYS(int NDAYSindex) { 
-	return (int)(_NDAYS.get(NDAYSindex)).intValue();
+	return NWSRFS_IntList.getInt(_NDAYS, NDAYSindex);
 }
 
 public List<Integer> getNPNTRS() {
 	return _NPNTRS; 
 }  
 public int getNPNTRS(int NPNTRSindex) { 
-	return (int)(_NPNTRS.get(NPNTRSindex)).intValue();
+	return NWSRFS_IntList.getInt(_NPNTRS, NPNTRSindex);
 }
 
 public List<Integer> getNREC1D() {
 	return _NREC1D; 
 }  
 public int getNREC1D(int NREC1Dindex) { 
-	return (int)(_NREC1D.get(NREC1Dindex)).intValue();
+	return NWSRFS_IntList.getInt(_NREC1D, NREC1Dindex);
 }
 
 public List<Integer> getNSTATS() {
 	return _NSTATS; 
 }  
 public int getNSTATS(int NSTATSindex) { 
-	return (int)((Integer)_NSTATS.get(NSTATSindex)).intValue();
+	return NWSRFS_IntList.getInt(_NSTATS, NSTATSindex);
 }
 
 public List<Integer> getNTOTAL() {
 	return _NTOTAL; 
 }
 public int getNTOTAL(int NTOTALindex) { 
-	return (int)(_NTOTAL.get(NTOTALindex)).intValue();
+	return NWSRFS_IntList.getInt(_NTOTAL, NTOTALindex);
 }
 
 public List<Integer> getNUMID() {
 	return _NUMID; 
 }  
 public int getNUMID(int NUMIDindex) { 
-	return (int)(_NUMID.get(NUMIDindex)).intValue();
+	return NWSRFS_IntList.getInt(_NUMID, NUMIDindex);
 }
 
 public List<Integer> getNUMSTA() {
 	return _NUMSTA; 
 }  
 public int getNUMSTA(int NUMSTAindex) { 
-	return (int)(_NUMSTA.get(NUMSTAindex)).intValue();
+	return NWSRFS_IntList.getInt(_NUMSTA, NUMSTAindex);
 }
 
 public List<Integer> getNWRDSDDT() {
 	return _NWRDSDDT; 
 }  
 public int getNWRDSDDT(int NWRDSDDTindex) { 
-	return (int)(_NWRDSDDT.get(NWRDSDDTindex)).intValue();
+	return NWSRFS_IntList.getInt(_NWRDSDDT, NWRDSDDTindex);
 }
 
 public List<Integer> getNWRDSSTI() {
 	return _NWRDSSTI; 
 }  
 public int getNWRDSSTI(int NWRDSSTIindex) { 
-	return (int)((Integer)_NWRDSSTI.get(NWRDSSTIindex)).intValue();
+	return NWSRFS_IntList.getInt(_NWRDSSTI, NWRDSSTIindex);
 }
 
 public List<Integer> getNWRDSO() {
 	return _NWRDSO; 
 }  
 public int getNWRDSO(int NWRDSOindex) { 
-	return (int)((Integer)_NWRDSO.get(NWRDSOindex)).intValue();
+	return NWSRFS_IntList.getInt(_NWRDSO, NWRDSOindex);
 }
 
 public List<Integer> getNZERO() {
 	return _NZERO; 
 }  
 public int getNZERO(int NZEROindex) { 
-	return (int)((Integer)_NZERO.get(NZEROindex)).intValue();
+	return NWSRFS_IntList.getInt(_NZERO, NZEROindex);
 }
 
 public List<Integer> getPCPPTR() {
 	return _PCPPTR; 
 }  
 public int getPCPPTR(int PCPPTRindex) { 
-	return (int)((Integer)_PCPPTR.get(PCPPTRindex)).intValue();
+	return NWSRFS_IntList.getInt(_PCPPTR, PCPPTRindex);
 }
 
 public List<Integer> getPNTR() {
 	return _PNTR; 
 }  
 public int getPNTR(int PNTRindex) { 
-	return (int)((Integer)_PNTR.get(PNTRindex)).intValue();
+	return NWSRFS_IntList.getInt(_PNTR, PNTRindex);
 }
 
 public List<Integer> getPRMPTR() {
 	return _PRMPTR; 
 }  
 public int getPRMPTR(int PRMPTRindex) { 
-	return (int)((Integer)_PRMPTR.get(PRMPTRindex)).intValue();
+	return NWSRFS_IntList.getInt(_PRMPTR, PRMPTRindex);
 }
 
 public List<Integer> getRDATE() {
 	return _RDATE; 
 }  
 public int getRDATE(int RDATEindex) { 
-	return (int)((Integer)_RDATE.get(RDATEindex)).intValue();
+	return NWSRFS_IntList.getInt(_RDATE, RDATEindex);
 }
 
 public List<Integer> getRPT2LG() {
 	return _RPT2LG; 
 }  
 public int getRPT2LG(int RPT2LGindex) { 
-	return (int)((Integer)_RPT2LG.get(RPT2LGindex)).intValue();
+	return NWSRFS_IntList.getInt(_RPT2LG, RPT2LGindex);
 }
 
 public List<Integer> getRPTLG() {
 	return _RPTLG; 
 }  
 public int getRPTLG(int RPTLGindex) { 
-	return (int)((Integer)_RPTLG.get(RPTLGindex)).intValue();
+	return NWSRFS_IntList.getInt(_RPTLG, RPTLGindex);
 }
 
 public List<Integer> getSMNOZO() {
 	return _SMNOZO; 
 }  
 public int getSMNOZO(int SMNOZOindex) { 
-	return (int)((Integer)_SMNOZO.get(SMNOZOindex)).intValue();
+	return NWSRFS_IntList.getInt(_SMNOZO, SMNOZOindex);
 }
 
 public List<String> getSTAID() {
@@ -965,74 +1001,94 @@ public String getSTAID(int STAIDindex) {
 	return (String)_STAID.get(STAIDindex);
 }
 
+/**
+Returns the position of a station in the station list, using a lookup that is built
+once rather than searching the list for each station.
+@param staID the station identifier (case is ignored).
+@return the position of the first occurrence of the station in the station list, or -1
+if the station is not found.
+*/
+public int getSTAIDIndex(String staID) {
+	if (staID == null) {
+		return -1;
+	}
+	StationLookup lookup = __stationLookup;
+	if (lookup == null || lookup.size != _STAID.size()) {
+		lookup = new StationLookup(_STAID);
+		__stationLookup = lookup;
+	}
+	Integer index = lookup.indexById.get(staID.toUpperCase());
+	return (index == null) ? -1 : index.intValue();
+}
+
 public List<Integer> getTMPPTR() {
 	return _TMPPTR; 
 }  
 public int getTMPPTR(int TMPPTRindex) { 
-	return (int)((Integer)_TMPPTR.get(TMPPTRindex)).intValue();
+	return NWSRFS_IntList.getInt(_TMPPTR, TMPPTRindex);
 }
 
 /**
 Initialize global objects.
 */
 private void initialize() {
-	_ACDCP 		= new ArrayList<>();
-	_ACPSQ 		= new ArrayList<>();
+	_ACDCP 		= new NWSRFS_FloatList();
+	_ACPSQ 		= new NWSRFS_FloatList();
 	_ADDDTP 	= new ArrayList<>();
 	_ADTPTR 	= new ArrayList<>();
-	_BDATE 		= new ArrayList<>();
-	_DATAR1 	= new ArrayList<>();
+	_BDATE 		= new NWSRFS_IntList();
+	_DATAR1 	= new NWSRFS_IntList();
 	_DTYPE 		= new ArrayList<>();
-	_ECRECN 	= new ArrayList<>();
-	_EDATE 		= new ArrayList<>();
+	_ECRECN 	= new NWSRFS_IntList();
+	_EDATE 		= new NWSRFS_IntList();
 	_H8CREC 	= -1;
 	_HINTRC 	= -1;
 	_INFREC 	= -1;
-	_L2DATE 	= new ArrayList<>();
-	_LDATE 		= new ArrayList<>();
-	_LDATEDDT 	= new ArrayList<>();
-	_LDDFRC 	= new ArrayList<>();
-	_LDRECN 	= new ArrayList<>();
+	_L2DATE 	= new NWSRFS_IntList();
+	_LDATE 		= new NWSRFS_IntList();
+	_LDATEDDT 	= new NWSRFS_IntList();
+	_LDDFRC 	= new NWSRFS_IntList();
+	_LDRECN 	= new NWSRFS_IntList();
 	_LFILE 		= -1;
 	_LRECL1 	= -1;
 	_LRECL2 	= -1;
 	_LRECL3 	= -1;
-	_LSTDTA 	= new ArrayList<>();
-	_LSTPTR 	= new ArrayList<>();
-	_LUFILE 	= new ArrayList<>();
+	_LSTDTA 	= new NWSRFS_IntList();
+	_LSTPTR 	= new NWSRFS_IntList();
+	_LUFILE 	= new NWSRFS_IntList();
 	_LURRS 		= -1;
-	_MAXDAY 	= new ArrayList<>();
+	_MAXDAY 	= new NWSRFS_IntList();
 	_MAXDDF 	= -1;
-	_MAXSTA 	= new ArrayList<>();
+	_MAXSTA 	= new NWSRFS_IntList();
 	_MAXTYP 	= -1;
-	_MDDFRC 	= new ArrayList<>();
+	_MDDFRC 	= new NWSRFS_IntList();
 	_MFILE 		= -1;
-	_NADDTP 	= new ArrayList<>();
-	_NDATA 		= new ArrayList<>();
-	_NDAYS 		= new ArrayList<>();
+	_NADDTP 	= new NWSRFS_IntList();
+	_NDATA 		= new NWSRFS_IntList();
+	_NDAYS 		= new NWSRFS_IntList();
 	_NHASHR 	= -1;
-	_NPNTRS 	= new ArrayList<>();
-	_NREC1D 	= new ArrayList<>();
-	_NSTATS 	= new ArrayList<>();
-	_NTOTAL 	= new ArrayList<>();
+	_NPNTRS 	= new NWSRFS_IntList();
+	_NREC1D 	= new NWSRFS_IntList();
+	_NSTATS 	= new NWSRFS_IntList();
+	_NTOTAL 	= new NWSRFS_IntList();
 	_NUMDDF 	= -1;
-	_NUMID 		= new ArrayList<>();
-	_NUMSTA 	= new ArrayList<>();
+	_NUMID 		= new NWSRFS_IntList();
+	_NUMSTA 	= new NWSRFS_IntList();
 	_NUMTYP 	= -1;
 	_NWRDS 		= -1;
-	_NWRDSDDT 	= new ArrayList<>();
-	_NWRDSSTI 	= new ArrayList<>();
-	_NWRDSO 	= new ArrayList<>();
-	_NZERO 		= new ArrayList<>();
-	_PCPPTR 	= new ArrayList<>();
-	_PNTR 		= new ArrayList<>();
-	_PRMPTR 	= new ArrayList<>();
-	_RDATE 		= new ArrayList<>();
-	_RPT2LG 	= new ArrayList<>();
-	_RPTLG 		= new ArrayList<>();
-	_SMNOZO 	= new ArrayList<>();
+	_NWRDSDDT 	= new NWSRFS_IntList();
+	_NWRDSSTI 	= new NWSRFS_IntList();
+	_NWRDSO 	= new NWSRFS_IntList();
+	_NZERO 		= new NWSRFS_IntList();
+	_PCPPTR 	= new NWSRFS_IntList();
+	_PNTR 		= new NWSRFS_IntList();
+	_PRMPTR 	= new NWSRFS_IntList();
+	_RDATE 		= new NWSRFS_IntList();
+	_RPT2LG 	= new NWSRFS_IntList();
+	_RPTLG 		= new NWSRFS_IntList();
+	_SMNOZO 	= new NWSRFS_IntList();
 	_STAID 		= new ArrayList<>();
-	_TMPPTR 	= new ArrayList<>();
+	_TMPPTR 	= new NWSRFS_IntList();
 	_TYPREC 	= -1;
 }
 
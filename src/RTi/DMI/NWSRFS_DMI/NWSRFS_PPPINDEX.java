@@ -3,7 +3,10 @@
 package RTi.DMI.NWSRFS_DMI;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
 The NWSRFS_PPPINDEX - class to contain the preprocessor parametric record 
@@ -195,6 +198,18 @@ Holds the available parameter types.
 */
 protected List<String> _PARMTP;
 
+/**
+Empty position array returned when a lookup does not match any entries.
+*/
+private final static int[] __NO_POSITIONS = new int[0];
+
+/**
+The lookups from identifier and type to list positions and from parameter type to logical unit.
+Built on the first lookup and discarded when an entry is added.  The lookups are replaced as a
+whole so that a reader that copies this field once sees a consistent set.
+*/
+private volatile Lookups __lookups = null;
+
 /**
 Constructor.
 If the calling class uses this constructor then it will need to call the 
@@ -213,6 +228,24 @@ public void addFIRST(int i) {
 	addFIRST(Integer.valueOf(i));
 }
 
+/**
+Add a position to a lookup map.
+@param positionsByKey the lookup map.
+@param key the lookup key.
+@param position the position of the entry in the lists.
+*/
+private static void addPosition(Map<String,int[]> positionsByKey, String key, int position) {
+	int[] positions = positionsByKey.get(key);
+	if (positions == null) {
+		positions = new int[] { position };
+	}
+	else {
+		positions = Arrays.copyOf(positions, positions.length + 1);
+		positions[positions.length - 1] = position;
+	}
+	positionsByKey.put(key, positions);
+}
+
 /**
 Adds a value to the _FIRST list.
 @param I the Integer to add.
@@ -298,6 +331,7 @@ public void addLUFILE(Integer I) {
 		_LUFILE = new ArrayList<>();
 	}
 	_LUFILE.add(I);
+	clearLookups();
 }
 
 /**
@@ -328,6 +362,7 @@ public void addID(String s) {
 		_ID = new ArrayList<>();
 	}
 	_ID.add(s);
+	clearLookups();
 }
 
 /**
@@ -339,6 +374,7 @@ public void addITYPE(String s) {
 		_ITYPE = new ArrayList<>();
 	}
 	_ITYPE.add(s);
+	clearLookups();
 }
 
 /**
@@ -350,6 +386,7 @@ public void addPARMTP(String s) {
 		_PARMTP = new ArrayList<>();
 	}
 	_PARMTP.add(s);
+	clearLookups();
 }
 
 /**
@@ -400,6 +437,89 @@ public String getUSERID() {
 	return _USERID;
 }
 
+/**
+Build the lookups from identifier and type to list positions and from parameter type to logical unit.
+The identifiers and types are converted to upper case once here so that lookups do not
+need to compare each entry with equalsIgnoreCase().
+*/
+private synchronized Lookups buildLookups() {
+	if (__lookups != null) {
+		return __lookups;
+	}
+	int size = 0;
+	if (_ID != null && _ITYPE != null) {
+		size = Math.min(_ID.size(), _ITYPE.size());
+	}
+	Map<String,int[]> positionsByKey = new HashMap<>(Math.max(16, size*4/3 + 1));
+	Map<String,int[]> positionsByType = new HashMap<>();
+	for (int i = 0; i < size; i++) {
+		String type = toKey(_ITYPE.get(i));
+		addPosition(positionsByKey, toKey(_ID.get(i)) + " " + type, i);
+		addPosition(positionsByType, type, i);
+	}
+	Map<String,Integer> lufileByType = new HashMap<>();
+	if (_PARMTP != null && _LUFILE != null) {
+		int parmtpSize = Math.min(_PARMTP.size(), _LUFILE.size());
+		for (int i = 0; i < parmtpSize; i++) {
+			String type = toKey(_PARMTP.get(i));
+			if (!lufileByType.containsKey(type)) {
+				lufileByType.put(type, _LUFILE.get(i));
+			}
+		}
+	}
+	__lookups = new Lookups(positionsByKey, positionsByType, lufileByType);
+	return __lookups;
+}
+
+/**
+Discard the lookups so that they are rebuilt with the new entries on the next lookup.
+*/
+private synchronized void clearLookups() {
+	__lookups = null;
+}
+
+/**
+Return the positions in the _ID/_ITYPE/_IREC lists of the entries matching a parameter identifier
+and parameter type (case insensitive), in the order of the PPPINDEX file.
+@param id the parameter identifier (e.g., station identifier).
+@param type the parameter type (e.g., "GENL").
+@return the positions of the matching entries, or an empty array if none match.
+*/
+public int[] getIndexPositions(String id, String type) {
+	int[] positions = getLookups().positionsByKey.get(toKey(id) + " " + toKey(type));
+	if (positions == null) {
+		return __NO_POSITIONS;
+	}
+	return positions;
+}
+
+/**
+Return the positions in the _ID/_ITYPE/_IREC lists of the entries for a parameter type
+(case insensitive), in the order of the PPPINDEX file.
+@param type the parameter type (e.g., "GENL").
+@return the positions of the matching entries, or an empty array if none match.
+*/
+public int[] getIndexPositions(String type) {
+	int[] positions = getLookups().positionsByType.get(toKey(type));
+	if (positions == null) {
+		return __NO_POSITIONS;
+	}
+	return positions;
+}
+
+/**
+Return the lookups, building them if necessary.  The volatile field is read once so that
+the lookups cannot be discarded by another thread between the check and the use.
+@return the lookups.
+*/
+private Lookups getLookups() {
+	Lookups lookups = __lookups;
+	if (lookups == null) {
+		lookups = buildLookups();
+	}
+	return lookups;
+}
+
 /**
 Returns the Vector of record numbers of the first parameters.
 @return the Vector of record numbers of the first parameters.
@@ -485,6 +605,19 @@ public int getLUFILE(int lufileIndex) {
 	return (int)((Integer)_LUFILE.get(lufileIndex)).intValue();
 }
 
+/**
+Returns the logical unit of the file for a parameter type (the first match in _PARMTP, case insensitive).
+@param parameterType the parameter type (e.g., "GENL").
+@return the logical unit of the file for the parameter type, or -1 if the parameter type is not defined.
+*/
+public int getLUFILE(String parameterType) {
+	Integer lufile = getLookups().lufileByType.get(toKey(parameterType));
+	if (lufile == null) {
+		return -1;
+	}
+	return lufile.intValue();
+}
+
 /**
 Returns the List of the number of parameter records.
 @return the List of the number of parameter records.
@@ -572,6 +705,7 @@ private void initialize() {
 	_ID = null;
 	_ITYPE = null;
 	_IREC = null;
+	clearLookups();
 }
 
 /**
@@ -622,4 +756,46 @@ public void setUSERID(String USERID) {
 	_USERID = USERID;
 }
 
+/**
+Return the lookup key for an identifier or type.
+@param s the identifier or type.
+@return the upper case lookup key.
+*/
+private static String toKey(String s) {
+	if (s == null) {
+		return "";
+	}
+	return s.toUpperCase();
+}
+
+/**
+The lookups built by buildLookups(), which are not modified after they are built.
+*/
+private static class Lookups {
+
+/**
+Lookup from the upper case "ID ITYPE" key to the positions of the matching entries in the
+_ID/_ITYPE/_IREC lists, in file order.
+*/
+final Map<String,int[]> positionsByKey;
+
+/**
+Lookup from the upper case ITYPE to the positions of the matching entries in the
+_ID/_ITYPE/_IREC lists, in file order.
+*/
+final Map<String,int[]> positionsByType;
+
+/**
+Lookup from the upper case PARMTP to the first matching logical unit in _LUFILE.
+*/
+final Map<String,Integer> lufileByType;
+
+Lookups(Map<String,int[]> positionsByKey, Map<String,int[]> positionsByType, Map<String,Integer> lufileByType) {
+	this.positionsByKey = positionsByKey;
+	this.positionsByType = positionsByType;
+	this.lufileByType = lufileByType;
+}
+
+}
+
 }
@@ -3,7 +3,10 @@
 package RTi.DMI.NWSRFS_DMI;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
 The NWSRFS_PRDINDEX - class to contain the processed database record 
@@ -71,6 +74,18 @@ The Record Number in the PRDTSn file containing the Time Series data.
 */
 protected List<Integer> _IREC; 
 
+/**
+Empty position array returned when a lookup does not match any entries.
+*/
+private final static int[] __NO_POSITIONS = new int[0];
+
+/**
+Lookup from the upper case "TSID DTYPE" key to the positions of the matching entries in the
+lists, in file order.  This is built from the lists on the first lookup and is discarded when
+an entry is added.
+*/
+private volatile Map<String,int[]> __positionsByKey = null;
+
 /**
 Constructor.
 If the calling class uses this constructor then it will need to call the readFile method manually.
@@ -82,10 +97,32 @@ public NWSRFS_PRDINDEX() {
 
 /**
 Adds a value to the _IREC list.
-@param i the int to add (added as an Integer).
+@param i the int to add.
 */
 public void addIREC(int i) {
-	addIREC(Integer.valueOf(i));
+	if (_IREC == null) {
+		_IREC = new NWSRFS_IntList();
+	}
+	NWSRFS_IntList.addInt(_IREC, i);
+	__positionsByKey = null;
+}
+
+/**
+Add a position to the lookup map.
+@param positionsByKey the lookup map.
+@param key the lookup key.
+@param position the position of the entry in the lists.
+*/
+private static void addPosition(Map<String,int[]> positionsByKey, String key, int position) {
+	int[] positions = positionsByKey.get(key);
+	if (positions == null) {
+		positions = new int[] { position };
+	}
+	else {
+		positions = Arrays.copyOf(positions, positions.length + 1);
+		positions[positions.length - 1] = position;
+	}
+	positionsByKey.put(key, positions);
 }
 
 /**
@@ -93,10 +130,7 @@ Adds a value to the _IREC list.
 @param I the Integer to add.
 */
 public void addIREC(Integer I) {
-	if (_IREC == null) {
-		_IREC = new ArrayList<>();
-	}
-	_IREC.add(I);
+	addIREC(I.intValue());
 }
 
 /**
@@ -108,6 +142,7 @@ public void addTSDT(String s) {
 		_TSDataType = new ArrayList<>();
 	}
 	_TSDataType.add(s);
+	__positionsByKey = null;
 }
 
 /**
@@ -119,6 +154,50 @@ public void addTSID(String s) {
 		_TSID = new ArrayList<>();
 	}
 	_TSID.add(s);
+	__positionsByKey = null;
+}
+
+/**
+Build the lookup from time series identifier and data type to list positions.
+The identifiers are converted to upper case once here so that lookups do not need to
+compare each entry with equalsIgnoreCase().
+@return the lookup map.
+*/
+private synchronized Map<String,int[]> buildPositionsByKey() {
+	Map<String,int[]> positionsByKey = __positionsByKey;
+	if (positionsByKey != null) {
+		return positionsByKey;
+	}
+	int size = 0;
+	if (_TSID != null && _TSDataType != null) {
+		size = Math.min(_TSID.size(), _TSDataType.size());
+	}
+	positionsByKey = new HashMap<>(Math.max(16, size*4/3 + 1));
+	for (int i = 0; i < size; i++) {
+		addPosition(positionsByKey, getKey(_TSID.get(i), _TSDataType.get(i)), i);
+	}
+	__positionsByKey = positionsByKey;
+	return positionsByKey;
+}
+
+/**
+Return the positions in the lists of the entries matching a time series identifier and data
+type (case insensitive), in the order of the PRDINDEX file.  Because the index does not
+include the data interval, more than one entry can match.
+@param tsID the time series identifier.
+@param tsDT the time series data type.
+@return the positions of the matching entries, or an empty array if none match.
+*/
+public int[] getIndexPositions(String tsID, String tsDT) {
+	Map<String,int[]> positionsByKey = __positionsByKey;
+	if (positionsByKey == null) {
+		positionsByKey = buildPositionsByKey();
+	}
+	int[] positions = positionsByKey.get(getKey(tsID, tsDT));
+	if (positions == null) {
+		return __NO_POSITIONS;
+	}
+	return positions;
 }
 
 /**
@@ -135,7 +214,7 @@ Return the Record Number at an index.
 @return the Record Number at an index.
 */
 public int getIREC(int index) {
-	return _IREC.get(index).intValue();
+	return NWSRFS_IntList.getInt(_IREC, index);
 }
 
 /**
@@ -172,6 +251,22 @@ public String getTSID(int index) {
 	return _TSID.get(index);
 }
 
+/**
+Return the lookup key for a time series identifier and data type.
+@param tsID the time series identifier.
+@param tsDT the time series data type.
+@return the upper case lookup key.
+*/
+private static String getKey(String tsID, String tsDT) {
+	if (tsID == null) {
+		tsID = "";
+	}
+	if (tsDT == null) {
+		tsDT = "";
+	}
+	return tsID.toUpperCase() + " " + tsDT.toUpperCase();
+}
+
 /**
 Initialize global objects.
 */
@@ -179,6 +274,7 @@ private void initialize() {
 	_IREC = null;
 	_TSDataType = null;
 	_TSID = null;
+	__positionsByKey = null;
 }
 
 }
\ No newline at end of file
@@ -0,0 +1,364 @@
+// NWSRFS_Process - run an NWSRFS command asynchronously, streaming its output
+
+package RTi.DMI.NWSRFS_DMI;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import RTi.Util.IO.IOUtil;
+import RTi.Util.Message.Message;
+
+/**
+The NWSRFS_Process class runs a command (e.g., an "ofs" command) in a background thread and
+passes each line of output to NWSRFS_ProcessListener objects as it is produced.  This is used
+instead of the synchronous NWSRFS_Util.run_*() methods when the caller must not block (e.g., the
+Swing event thread) or when the output can be large.  Only the last getMaxOutputLines() lines are
+kept by the object, so that long dumps are not held in memory.
+<p>
+The command is run with the command shell ("/bin/sh -c" on UNIX, "cmd.exe /C" on Windows), as with
+the String commands passed to ProcessManager.  Standard error is merged with standard output.
+<p>
+Usage:
+<pre>
+NWSRFS_Process process = new NWSRFS_Process ( "ofs -p prdutil -i DUMPTS.GUI -o DUMPTS.GUI.out" );
+process.addProcessListener ( listener );
+process.start();
+...
+int exitStatus = process.waitFor();	// or process.getCompletion(), or process.cancel()
+</pre>
+*/
+public class NWSRFS_Process {
+
+/**
+Exit status used when the process did not run to completion (failed to start or was canceled).
+*/
+public final static int EXIT_STATUS_UNKNOWN = -999;
+
+/**
+Default number of output lines kept by the object.
+*/
+public final static int DEFAULT_MAX_OUTPUT_LINES = 1000;
+
+/**
+Command that is run.
+*/
+private String __command = null;
+
+/**
+Listeners to receive output, called on the output reader thread.
+*/
+private List<NWSRFS_ProcessListener> __listeners = new CopyOnWriteArrayList<NWSRFS_ProcessListener>();
+
+/**
+The last output lines, at most __maxOutputLines.
+*/
+private LinkedList<String> __outputLines = new LinkedList<String>();
+
+/**
+Maximum number of output lines to keep.
+*/
+private int __maxOutputLines = DEFAULT_MAX_OUTPUT_LINES;
+
+/**
+Total number of output lines read.
+*/
+private int __outputLineCount = 0;
+
+/**
+Task that runs the process, the result of which is the exit status.  Null until start() is called.
+*/
+private volatile FutureTask<Integer> __future = null;
+
+/**
+The running process, null if not started or finished.  Set while synchronized on __processLock.
+*/
+private volatile Process __process = null;
+
+/**
+Whether cancel() has been called.  Used while synchronized on __processLock so that a process
+that is started at the same time as it is canceled is destroyed.
+*/
+private boolean __cancelRequested = false;
+
+/**
+Lock for __process and __cancelRequested.
+*/
+private final Object __processLock = new Object();
+
+/**
+Construct an object to run a command.  The command is not started until start() is called.
+@param command the command to run.
+*/
+public NWSRFS_Process ( String command )
+{
+	this ( command, DEFAULT_MAX_OUTPUT_LINES );
+}
+
+/**
+Construct an object to run a command.  The command is not started until start() is called.
+@param command the command to run.
+@param maxOutputLines the number of output lines to keep (the last lines are kept),
+0 to keep none (output is only passed to listeners).
+*/
+public NWSRFS_Process ( String command, int maxOutputLines )
+{
+	__command = command;
+	__maxOutputLines = maxOutputLines;
+}
+
+/**
+Add a listener to receive the output.  Listeners should be added before start() is called,
+to receive all of the output.
+@param listener listener to add.
+*/
+public void addProcessListener ( NWSRFS_ProcessListener listener )
+{
+	if ( listener != null ) {
+		__listeners.add ( listener );
+	}
+}
+
+/**
+Cancel the process.  The process is destroyed and listeners are notified that the process
+finished with EXIT_STATUS_UNKNOWN.
+@return true if the process was canceled, false if it had already finished or was not started.
+*/
+public boolean cancel ()
+{
+	FutureTask<Integer> future = __future;
+	if ( future == null ) {
+		return false;
+	}
+	boolean canceled = future.cancel ( true );
+	// Reading the output blocks and does not respond to interrupt so also destroy the process.
+	// If the process has not been created yet, execute() destroys it when it is created.
+	Process process;
+	synchronized ( __processLock ) {
+		__cancelRequested = true;
+		process = __process;
+	}
+	if ( process != null ) {
+		process.destroy();
+	}
+	return canceled;
+}
+
+/**
+Run the process, called in the background thread.
+@return the exit status of the process.
+*/
+private Integer execute ()
+throws Exception
+{
+	String routine = "NWSRFS_Process.execute";
+	int exitStatus = EXIT_STATUS_UNKNOWN;
+	BufferedReader in = null;
+	try {
+		ProcessBuilder builder = new ProcessBuilder ( getShellCommand() );
+		builder.redirectErrorStream ( true );
+		Process process = builder.start();
+		synchronized ( __processLock ) {
+			__process = process;
+			if ( __cancelRequested ) {
+				// Canceled while starting
+				throw new CancellationException ( "Command \"" + __command + "\" was canceled." );
+			}
+		}
+		// Close the input so commands that prompt do not wait
+		__process.getOutputStream().close();
+		in = new BufferedReader ( new InputStreamReader(__process.getInputStream()) );
+		String line;
+		while ( (line = in.readLine()) != null ) {
+			addOutputLine ( line );
+			for ( NWSRFS_ProcessListener listener : __listeners ) {
+				listener.processOutput ( this, line );
+			}
+		}
+		exitStatus = __process.waitFor();
+		if ( Thread.currentThread().isInterrupted() ) {
+			// Canceled while waiting - the process was destroyed
+			exitStatus = EXIT_STATUS_UNKNOWN;
+		}
+		return Integer.valueOf(exitStatus);
+	}
+	catch ( IOException e ) {
+		if ( isCancelled() ) {
+			// Expected because the process was destroyed
+			throw new CancellationException ( "Command \"" + __command + "\" was canceled." );
+		}
+		Message.printWarning ( 3, routine, "Error running command \"" + __command + "\" (" + e + ")." );
+		throw e;
+	}
+	finally {
+		if ( in != null ) {
+			try {
+				in.close();
+			}
+			catch ( IOException e ) {
+				// Ignore - nothing more can be done
+			}
+		}
+		synchronized ( __processLock ) {
+			if ( __process != null ) {
+				__process.destroy();
+				__process = null;
+			}
+		}
+		for ( NWSRFS_ProcessListener listener : __listeners ) {
+			listener.processFinished ( this, exitStatus );
+		}
+	}
+}
+
+/**
+Add a line to the retained output, discarding the oldest line if the limit is reached.
+@param line output line to add.
+*/
+private synchronized void addOutputLine ( String line )
+{
+	++__outputLineCount;
+	if ( __maxOutputLines <= 0 ) {
+		return;
+	}
+	if ( __outputLines.size() == __maxOutputLines ) {
+		__outputLines.removeFirst();
+	}
+	__outputLines.add ( line );
+}
+
+/**
+Return the command that is run.
+@return the command that is run.
+*/
+public String getCommand ()
+{
+	return __command;
+}
+
+/**
+Return the future that completes when the process finishes, with the exit status as the result.
+@return the completion future, or null if start() has not been called.
+*/
+public Future<Integer> getCompletion ()
+{
+	return __future;
+}
+
+/**
+Return the maximum number of output lines that are kept.
+@return the maximum number of output lines that are kept.
+*/
+public int getMaxOutputLines ()
+{
+	return __maxOutputLines;
+}
+
+/**
+Return the total number of output lines read, including lines that are no longer kept.
+@return the total number of output lines read.
+*/
+public synchronized int getOutputLineCount ()
+{
+	return __outputLineCount;
+}
+
+/**
+Return a copy of the kept output lines (the last getMaxOutputLines() lines).
+@return a copy of the kept output lines.
+*/
+public synchronized List<String> getOutputLines ()
+{
+	return new ArrayList<String> ( __outputLines );
+}
+
+/**
+Return the command line to run the command with the command shell.
+@return the command line to run the command with the command shell.
+*/
+private String [] getShellCommand ()
+{
+	if ( IOUtil.isUNIXMachine() ) {
+		return new String [] { "/bin/sh", "-c", __command };
+	}
+	else {
+		return new String [] { "cmd.exe", "/C", __command };
+	}
+}
+
+/**
+Indicate whether the process was canceled.
+@return true if the process was canceled.
+*/
+public boolean isCancelled ()
+{
+	return (__future != null) && __future.isCancelled();
+}
+
+/**
+Indicate whether the process has finished (including failure to start or cancellation).
+@return true if the process has finished.
+*/
+public boolean isDone ()
+{
+	return (__future != null) && __future.isDone();
+}
+
+/**
+Start the command in a background (daemon) thread.  Calling this method more than once has no effect.
+@return this object, for convenience.
+*/
+public synchronized NWSRFS_Process start ()
+{
+	if ( __future != null ) {
+		return this;
+	}
+	__future = new FutureTask<Integer> ( new Callable<Integer>() {
+		public Integer call ()
+		throws Exception
+		{
+			return execute();
+		}
+	});
+	Thread thread = new Thread ( __future, "NWSRFS_Process " + __command );
+	thread.setDaemon ( true );
+	thread.start();
+	return this;
+}
+
+/**
+Wait for the process to finish.
+@return the exit status of the process, or EXIT_STATUS_UNKNOWN if the process was not started,
+could not be run, or was canceled.
+*/
+public int waitFor ()
+{
+	FutureTask<Integer> future = __future;
+	if ( future == null ) {
+		return EXIT_STATUS_UNKNOWN;
+	}
+	try {
+		return future.get().intValue();
+	}
+	catch ( CancellationException e ) {
+		return EXIT_STATUS_UNKNOWN;
+	}
+	catch ( ExecutionException e ) {
+		return EXIT_STATUS_UNKNOWN;
+	}
+	catch ( InterruptedException e ) {
+		Thread.currentThread().interrupt();
+		return EXIT_STATUS_UNKNOWN;
+	}
+}
+
+}
@@ -0,0 +1,28 @@
+// NWSRFS_ProcessListener - receive output and completion from an NWSRFS_Process
+
+package RTi.DMI.NWSRFS_DMI;
+
+/**
+The NWSRFS_ProcessListener interface is implemented by classes that want to receive
+the output of an NWSRFS_Process as it is produced, rather than after the command finishes.
+The methods are called on the thread that reads the process output, not the Swing event
+thread, so GUI code must use SwingUtilities.invokeLater() to update components.
+*/
+public interface NWSRFS_ProcessListener {
+
+/**
+Called for each line of output (standard output and standard error) from the process.
+@param process the process that produced the output.
+@param line line of output, without the line terminator.
+*/
+public void processOutput ( NWSRFS_Process process, String line );
+
+/**
+Called once when the process has finished, has been canceled, or could not be started.
+@param process the process that finished.
+@param exitStatus the exit status of the process, or NWSRFS_Process.EXIT_STATUS_UNKNOWN if the
+process did not run to completion.
+*/
+public void processFinished ( NWSRFS_Process process, int exitStatus );
+
+}
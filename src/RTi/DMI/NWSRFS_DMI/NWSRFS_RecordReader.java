@@ -0,0 +1,418 @@
+// NWSRFS_RecordReader - block-buffered reader for fixed length NWSRFS binary records
+
+package RTi.DMI.NWSRFS_DMI;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+The NWSRFS_RecordReader class reads whole records (or blocks of records) from the
+NWSRFS binary database files with a single bulk read into a reusable buffer and
+then decodes values from that buffer using the byte order of the database files.
+This replaces the byte-at-a-time read and the creation of a new
+ByteArrayInputStream/EndianDataInputStream for every record in code that needs
+to read many records, for example index files and time series data.
+<p>
+The reader can also decode directly from a read-only MappedByteBuffer (see
+NWSRFS_DMI.setUseMemoryMappedFiles()), in which case no bytes are copied and no
+file read occurs.
+<p>
+The decode methods mirror the EndianDataInputStream methods that are used to parse
+records (readEndianInt(), readEndianFloat(), readEndianChar1(), skipBytes()) so that
+parsing code can be switched over with little change.
+A reader instance is not thread safe; create one reader per thread/read operation.
+*/
+public class NWSRFS_RecordReader {
+
+/**
+Default initial buffer size in bytes, large enough for all of the fixed length records.
+*/
+private final static int __DEFAULT_BUFFER_SIZE = 1200;
+
+/**
+Array holding the bytes from the last read.  This is reused between reads and is
+only reallocated when a larger read is requested.
+*/
+private byte[] __buffer = null;
+
+/**
+ByteBuffer wrapping __buffer, used to decode values with the correct byte order.
+*/
+private ByteBuffer __arrayBuffer = null;
+
+/**
+ByteBuffer used to decode values.  This is either __arrayBuffer or a view of a
+memory-mapped file.
+*/
+private ByteBuffer __byteBuffer = null;
+
+/**
+Whether the data are big endian.
+*/
+private boolean __isBigEndian = false;
+
+/**
+Construct a record reader.
+@param isBigEndian true if the binary data are big endian, false if little endian.
+*/
+public NWSRFS_RecordReader(boolean isBigEndian) {
+	this(isBigEndian, __DEFAULT_BUFFER_SIZE);
+}
+
+/**
+Construct a record reader.
+@param isBigEndian true if the binary data are big endian, false if little endian.
+@param bufferSize the initial size of the buffer in bytes.  The buffer will be
+expanded if a larger read is requested.
+*/
+public NWSRFS_RecordReader(boolean isBigEndian, int bufferSize) {
+	__isBigEndian = isBigEndian;
+	allocate(bufferSize);
+	__byteBuffer.limit(0);
+}
+
+/**
+Allocate the buffer, preserving the byte order.
+@param bufferSize the size of the buffer in bytes.
+*/
+private void allocate(int bufferSize) {
+	if (bufferSize < 0) {
+		bufferSize = 0;
+	}
+	__buffer = new byte[bufferSize];
+	__arrayBuffer = ByteBuffer.wrap(__buffer);
+	__arrayBuffer.order(getByteOrder());
+	__byteBuffer = __arrayBuffer;
+}
+
+/**
+Make sure that the buffer can hold the requested number of bytes.
+@param size the number of bytes needed.
+*/
+private void ensureCapacity(int size) {
+	if (size > __buffer.length) {
+		allocate(size);
+	}
+}
+
+/**
+Return the ByteBuffer holding the data from the last read.  The position of the
+buffer is the current decode position and the limit is the number of bytes read.
+The buffer is reused by the next read so callers should not hold on to it.
+@return the ByteBuffer holding the data from the last read.
+*/
+public ByteBuffer getByteBuffer() {
+	return __byteBuffer;
+}
+
+/**
+Return the byte order corresponding to the endianness of the data.
+@return the byte order corresponding to the endianness of the data.
+*/
+private ByteOrder getByteOrder() {
+	if (__isBigEndian) {
+		return ByteOrder.BIG_ENDIAN;
+	}
+	else {
+		return ByteOrder.LITTLE_ENDIAN;
+	}
+}
+
+/**
+Return an InputStream over the bytes from the current decode position to the end of the last read,
+for code that parses records with an EndianDataInputStream.  If the reader is positioned on a
+memory-mapped file the stream reads directly from the mapped buffer and no bytes are copied.
+The stream has its own position and remains valid after the next readAt() on a mapped buffer,
+but not after a read from a file, which reuses the array buffer.
+@return an InputStream over the remaining bytes.
+*/
+public InputStream getInputStream() {
+	final ByteBuffer data = __byteBuffer.duplicate();
+	return new InputStream() {
+		public int available() {
+			return data.remaining();
+		}
+
+		public int read() {
+			if (!data.hasRemaining()) {
+				return -1;
+			}
+			return data.get() & 0xff;
+		}
+
+		public int read(byte[] b, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+			if (!data.hasRemaining()) {
+				return -1;
+			}
+			len = Math.min(len, data.remaining());
+			data.get(b, off, len);
+			return len;
+		}
+
+		public long skip(long n) {
+			if (n <= 0) {
+				return 0;
+			}
+			int skipped = (int)Math.min(n, data.remaining());
+			data.position(data.position() + skipped);
+			return skipped;
+		}
+	};
+}
+
+/**
+Return the current decode position in the buffer.
+@return the current decode position in the buffer.
+*/
+public int getPosition() {
+	return __byteBuffer.position();
+}
+
+/**
+Return the number of bytes read by the last read.
+@return the number of bytes read by the last read.
+*/
+public int getLength() {
+	return __byteBuffer.limit();
+}
+
+/**
+Return whether the reader decodes big endian data.
+@return true if the reader decodes big endian data.
+*/
+public boolean isBigEndian() {
+	return __isBigEndian;
+}
+
+/**
+Read bytes from a binary file into the buffer using the same positioning rules as
+NWSRFS_DMI.read():  the file is advanced by recordNumber*byteLength bytes from
+its current position and then bytesToRead bytes are read with a single read call.
+The decode position is reset to the start of the buffer.
+@param raFile the file to read.
+@param recordNumber the number of records to skip from the current file position.
+@param byteLength the record length in bytes.
+@param bytesToRead the number of bytes to read.
+@return the number of bytes read.
+@throws IOException if the bytes cannot be read (including end of file).
+*/
+public int read(RandomAccessFile raFile, long recordNumber, int byteLength, int bytesToRead)
+throws IOException {
+	if (bytesToRead < 0) {
+		bytesToRead = 0;
+	}
+	if (recordNumber*byteLength > 0) {
+		raFile.seek(raFile.getFilePointer() + recordNumber*byteLength);
+	}
+	ensureCapacity(bytesToRead);
+	raFile.readFully(__buffer, 0, bytesToRead);
+	__byteBuffer = __arrayBuffer;
+	__byteBuffer.clear();
+	__byteBuffer.limit(bytesToRead);
+	return bytesToRead;
+}
+
+/**
+Read bytes from an absolute position in a binary file into the buffer with a
+single read call.  The decode position is reset to the start of the buffer.
+@param raFile the file to read.
+@param position the byte position in the file at which to start reading.
+@param bytesToRead the number of bytes to read.
+@return the number of bytes read.
+@throws IOException if the bytes cannot be read (including end of file).
+*/
+public int readAt(RandomAccessFile raFile, long position, int bytesToRead)
+throws IOException {
+	if (position < 0) {
+		position = 0;
+	}
+	raFile.seek(position);
+	return read(raFile, 0, 0, bytesToRead);
+}
+
+/**
+Position the reader on a range of bytes in a memory-mapped file.  No data are
+copied; subsequent decode calls read directly from the mapped buffer.
+The decode position is set to the start of the range.
+@param mappedBuffer the mapped file contents (the position and limit of this buffer are not modified).
+@param position the byte position in the file at which to start reading.
+@param bytesToRead the number of bytes to make available for decoding.
+@return the number of bytes available for decoding.
+@throws EOFException if the range extends past the end of the mapped file.
+*/
+public int readAt(ByteBuffer mappedBuffer, long position, int bytesToRead)
+throws EOFException {
+	if (position < 0) {
+		position = 0;
+	}
+	if (bytesToRead < 0) {
+		bytesToRead = 0;
+	}
+	if (position + bytesToRead > mappedBuffer.capacity()) {
+		throw new EOFException("Attempt to read past the end of the mapped file (position "
+			+ position + ", bytes " + bytesToRead + ", file length " + mappedBuffer.capacity() + ")");
+	}
+	ByteBuffer view = mappedBuffer.duplicate();
+	view.order(getByteOrder());
+	view.limit((int)position + bytesToRead);
+	view.position((int)position);
+	__byteBuffer = view.slice();
+	__byteBuffer.order(getByteOrder());
+	return bytesToRead;
+}
+
+/**
+Read a block of whole records starting at an absolute record index (zero based)
+from a memory-mapped file.  No data are copied.
+If the end of the file is reached before numRecords are available, only the
+complete records that are available are made available.
+@param mappedBuffer the mapped file contents.
+@param firstRecord the zero based index of the first record to read.
+@param byteLength the record length in bytes.
+@param numRecords the maximum number of records to read.
+@return the number of complete records available, zero if at the end of the file.
+@throws EOFException if the block cannot be positioned.
+*/
+public int readBlock(ByteBuffer mappedBuffer, long firstRecord, int byteLength, int numRecords)
+throws EOFException {
+	long position = firstRecord*byteLength;
+	long available = (mappedBuffer.capacity() - position)/byteLength;
+	if (available <= 0 || numRecords <= 0) {
+		__byteBuffer = __arrayBuffer;
+		__byteBuffer.clear();
+		__byteBuffer.limit(0);
+		return 0;
+	}
+	if (available < numRecords) {
+		numRecords = (int)available;
+	}
+	readAt(mappedBuffer, position, numRecords*byteLength);
+	return numRecords;
+}
+
+/**
+Read a block of whole records starting at an absolute record index (zero based).
+If the end of the file is reached before numRecords are available, only the
+complete records that are available are read.
+@param raFile the file to read.
+@param firstRecord the zero based index of the first record to read.
+@param byteLength the record length in bytes.
+@param numRecords the maximum number of records to read.
+@return the number of complete records read, zero if at the end of the file.
+@throws IOException if the records cannot be read.
+*/
+public int readBlock(RandomAccessFile raFile, long firstRecord, int byteLength, int numRecords)
+throws IOException {
+	long position = firstRecord*byteLength;
+	long available = (raFile.length() - position)/byteLength;
+	if (available <= 0 || numRecords <= 0) {
+		__byteBuffer = __arrayBuffer;
+		__byteBuffer.clear();
+		__byteBuffer.limit(0);
+		return 0;
+	}
+	if (available < numRecords) {
+		numRecords = (int)available;
+	}
+	readAt(raFile, position, numRecords*byteLength);
+	return numRecords;
+}
+
+/**
+Decode a single byte at the current position.
+@return the byte value.
+*/
+public byte readByte() {
+	return __byteBuffer.get();
+}
+
+/**
+Decode a one byte character at the current position.
+@return the character.
+*/
+public char readChar1() {
+	return (char)(__byteBuffer.get() & 0xff);
+}
+
+/**
+Decode a four byte float at the current position.
+@return the float value.
+*/
+public float readFloat() {
+	return __byteBuffer.getFloat();
+}
+
+/**
+Decode a sequence of four byte floats at the current position.
+@param values the array to receive the values.
+@param offset the first index in the array to fill.
+@param count the number of values to decode.
+*/
+public void readFloats(float[] values, int offset, int count) {
+	__byteBuffer.asFloatBuffer().get(values, offset, count);
+	skipBytes(count*4);
+}
+
+/**
+Decode a four byte integer at the current position.
+@return the integer value.
+*/
+public int readInt() {
+	return __byteBuffer.getInt();
+}
+
+/**
+Decode a two byte integer at the current position.
+@return the short value.
+*/
+public short readShort() {
+	return __byteBuffer.getShort();
+}
+
+/**
+Decode a fixed length character string at the current position.
+The string is trimmed of leading and trailing white space.
+@param length the number of characters (bytes) in the string.
+@return the trimmed string (may be empty).
+*/
+public String readString(int length) {
+	char[] chars = new char[length];
+	for (int i = 0; i < length; i++) {
+		chars[i] = (char)(__byteBuffer.get() & 0xff);
+	}
+	return new String(chars).trim();
+}
+
+/**
+Return the number of bytes remaining to be decoded.
+@return the number of bytes remaining to be decoded.
+*/
+public int remaining() {
+	return __byteBuffer.remaining();
+}
+
+/**
+Set the decode position in the buffer.
+@param position the new decode position.
+*/
+public void setPosition(int position) {
+	__byteBuffer.position(position);
+}
+
+/**
+Skip bytes in the buffer.
+@param n the number of bytes to skip.
+*/
+public void skipBytes(int n) {
+	__byteBuffer.position(__byteBuffer.position() + n);
+}
+
+}
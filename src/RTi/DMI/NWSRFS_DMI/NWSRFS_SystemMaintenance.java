@@ -95,6 +95,7 @@ import java.io.FileOutputStream;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.lang.String;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Vector;
 import javax.swing.BorderFactory;
@@ -107,6 +108,7 @@ import javax.swing.JList;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
 
 import RTi.DMI.NWSRFS_DMI.NWSRFS_Util;
 import RTi.Util.GUI.JGUIUtil;
@@ -230,12 +232,21 @@ String _output_string = "Output from ofs Commands";
 DefaultListModel<String> _ListModel = null;
 JList<String> _output_JList = null;
 
+//maximum number of lines kept in the output window - the oldest
+//lines are removed so that large dumps do not use unlimited memory
+int _output_max_lines = 10000;
+
+//command that is running in the background, if any
+NWSRFS_Process _running_process = null;
+
 //Popup menu
 String _popup_view_string = "View File";
 String _popup_clear_string = "Clear Output";
+String _popup_cancel_string = "Cancel Command";
 JPopupMenu  _popup_JPopupMenu = null;
 SimpleJMenuItem _popup_view_JMenuItem = null;
 SimpleJMenuItem _popup_clear_JMenuItem = null;
+SimpleJMenuItem _popup_cancel_JMenuItem = null;
 
 //make combo box global 
 JComboBox<String> _comboBox_JComboBox = null;
@@ -1618,10 +1629,15 @@ public JPopupMenu make_sysMaint_popup_menu() {
 	_popup_clear_JMenuItem = new SimpleJMenuItem(
 		_popup_clear_string,
 		_popup_clear_string, this );
+	_popup_cancel_JMenuItem = new SimpleJMenuItem(
+		_popup_cancel_string,
+		_popup_cancel_string, this );
+	_popup_cancel_JMenuItem.setEnabled( _running_process != null );
 
 	//add menu items to menu
 	popup_menu.add( _popup_view_JMenuItem );
 	popup_menu.add( _popup_clear_JMenuItem );
+	popup_menu.add( _popup_cancel_JMenuItem );
 
 	return popup_menu;
 	
@@ -2513,10 +2529,6 @@ public int updateOutputWindow( String cmd_run, List<String> vect_to_display )
 	//output file.  To get output file name, use path of "log" file,
 	//plus name of output file ( from ofs command ), plus time stamp
 	//from log file.
-	String full_output_file = null;
-	String path = null;
-	String timestamp = null;
-	String outputfile_name = null;
 	String ofs_command = null;
 	String log_path = null;
 	//go thru vector and find 2 lines:
@@ -2532,6 +2544,62 @@ public int updateOutputWindow( String cmd_run, List<String> vect_to_display )
 			log_path = s;
 		}
 	}
+	String full_output_file = getOutputFileString( ofs_command, log_path );
+	//add this to end of vector
+	vect_to_display.add( "OUTPUT FILE: " );
+	vect_to_display.add( full_output_file );
+
+	//add command to output
+	_ListModel.addElement( cmd_run + ":" );
+	//update list model and scroll to the bottom
+	appendOutputLines( _ListModel, _output_JList, vect_to_display );
+	_output_JList.setSelectedIndex( (_ListModel.size() -1) );
+	
+	//add empty line
+	_ListModel.addElement( " " );
+
+	//clean up
+	vect_to_display = null;
+
+	return exitstat;
+
+} //end updateOutputWindow
+
+/**
+Append lines to an output window list, removing the oldest lines so that at most
+_output_max_lines lines are shown, and scroll to the bottom.
+@param model list model for the output window.
+@param list output window list.
+@param lines lines to append.
+*/
+private void appendOutputLines( DefaultListModel<String> model, JList<String> list, List<String> lines )
+{
+	for ( String line : lines ) {
+		model.addElement( line );
+	}
+	int extra = model.size() - _output_max_lines;
+	if ( extra > 0 ) {
+		model.removeRange( 0, extra - 1 );
+	}
+	//update the scroll bar to scroll to the bottom
+	list.ensureIndexIsVisible( (model.size() -1) );
+}
+
+/**
+Determine the output file created by an ofs command, for display in the output window.
+The output file is found by using the path of the output log file, plus the name of the
+output file, which follows the "-o" flag in the ofs command, plus the time stamp from the
+log file.
+@param ofs_command the ofs command that was run (or an output line containing it).
+@param log_path the output line containing the log file name, between "==>" and "<==".
+@return the output file string, in the format "==> path <==", or null if it can not be determined.
+*/
+private String getOutputFileString( String ofs_command, String log_path )
+{
+	String full_output_file = null;
+	String path = null;
+	String timestamp = null;
+	String outputfile_name = null;
 	//ofs command in format:
 	//Command Run: "ofs -p ppinit -i PUNCH.etc -o PUNCH.out"
 	//NOTICE THE QUOTES
@@ -2603,34 +2671,142 @@ public int updateOutputWindow( String cmd_run, List<String> vect_to_display )
 	if (( timestamp != null ) && ( path != null ) && ( outputfile_name != null ) ) {
 		full_output_file = "==> " + path + outputfile_name + timestamp + " <=="; 
 	}
-	//add this to end of vector
-	vect_to_display.add( "OUTPUT FILE: " );
-	vect_to_display.add( full_output_file );
 
-	//now update SIZE again!
-	size = vect_to_display.size();
+	return full_output_file;
+} //end getOutputFileString
 
-	//add command to output
-	_ListModel.addElement( cmd_run + ":" );
-	String line = null;
-	for( int i=0; i<size; i++ ) {
-		line = (String)vect_to_display.get( i );
-		//update list model
-		_ListModel.addElement( line ); 
+/**
+Listener that appends the output of a command started with one of the NWSRFS_Util.start_*()
+methods to the output window while the command runs, so that the dialog does not freeze
+during long commands.  Output lines are passed from the output reader thread to the Swing
+event thread in batches, and at most _output_max_lines lines are waiting at any time, so that
+a command producing a lot of output cannot flood the event queue or use unlimited memory.
+*/
+private class OutputWindowListener implements NWSRFS_ProcessListener
+{
+	//name of the input file for the command (e.g., "DUMPTS.GUI") used in messages
+	private String __cmd_run;
+	//run button that is disabled while the command runs
+	private SimpleJButton __run_JButton;
+	//output window when the command was started - a later dialog uses a new window
+	private DefaultListModel<String> __listModel;
+	private JList<String> __list;
+	//lines waiting to be added to the output window
+	private LinkedList<String> __pending = new LinkedList<String>();
+	private boolean __flushScheduled = false;
+	private int __dropped = 0;
+	//whether "fail" has been seen in the output, and the output log file line
+	private boolean __failed = false;
+	private String __log_path = null;
+
+	public OutputWindowListener( String cmd_run, SimpleJButton run_JButton )
+	{
+		__cmd_run = cmd_run;
+		__run_JButton = run_JButton;
+		__listModel = _ListModel;
+		__list = _output_JList;
 	}
-	//update the scroll bar to scroll to the bottom
-	_output_JList.ensureIndexIsVisible( (_ListModel.size() -1) );
-	_output_JList.setSelectedIndex( (_ListModel.size() -1) );
-	
-	//add empty line
-	_ListModel.addElement( " " );
 
-	//clean up
-	vect_to_display = null;
+	/**
+	Add lines that are waiting to the output window, called on the Swing event thread.
+	*/
+	private void flush()
+	{
+		List<String> lines;
+		int dropped;
+		synchronized ( __pending ) {
+			lines = new Vector<String>( __pending );
+			__pending.clear();
+			dropped = __dropped;
+			__dropped = 0;
+			__flushScheduled = false;
+		}
+		if ( dropped > 0 ) {
+			lines.add( 0, "... " + dropped + " lines not shown ..." );
+		}
+		appendOutputLines( __listModel, __list, lines );
+	}
 
-	return exitstat;
+	public void processOutput( NWSRFS_Process process, String line )
+	{
+		if ( line.toLowerCase().indexOf( "fail" ) > -1 ) {
+			__failed = true;
+		}
+		if ( line.indexOf( "==" ) > 0 ) {
+			__log_path = line;
+		}
+		synchronized ( __pending ) {
+			if ( __pending.size() >= _output_max_lines ) {
+				__pending.removeFirst();
+				++__dropped;
+			}
+			__pending.add( line );
+			if ( !__flushScheduled ) {
+				__flushScheduled = true;
+				SwingUtilities.invokeLater( new Runnable() {
+					public void run() {
+						flush();
+					}
+				});
+			}
+		}
+	}
 
-} //end updateOutputWindow
+	public void processFinished( final NWSRFS_Process process, final int exitStatus )
+	{
+		final String full_output_file = getOutputFileString( process.getCommand(), __log_path );
+		final boolean failed = __failed || (exitStatus != 0);
+		SwingUtilities.invokeLater( new Runnable() {
+			public void run() {
+				flush();
+				List<String> lines = new Vector<String>();
+				lines.add( "OUTPUT FILE: " );
+				lines.add( full_output_file );
+				if ( process.isCancelled() ) {
+					lines.add( __cmd_run + " canceled." );
+				}
+				else if ( failed ) {
+					lines.add( __cmd_run + " failed!" );
+				}
+				lines.add( " " );
+				appendOutputLines( __listModel, __list, lines );
+				if ( _running_process == process ) {
+					_running_process = null;
+					if ( _popup_cancel_JMenuItem != null ) {
+						_popup_cancel_JMenuItem.setEnabled( false );
+					}
+				}
+				if ( __run_JButton != null ) {
+					__run_JButton.setEnabled( true );
+				}
+			}
+		});
+	}
+
+	/**
+	Update the output window after the command has been started, called on the Swing event thread.
+	@param process the started process, or null if the command could not be started.
+	*/
+	public void started( NWSRFS_Process process )
+	{
+		__listModel.addElement( __cmd_run + ":" );
+		if ( process == null ) {
+			__listModel.addElement( "Unable to run " + __cmd_run );
+			__listModel.addElement( __cmd_run + " failed!" );
+			__listModel.addElement( " " );
+			__list.ensureIndexIsVisible( (__listModel.size() -1) );
+			return;
+		}
+		_running_process = process;
+		if ( _popup_cancel_JMenuItem != null ) {
+			_popup_cancel_JMenuItem.setEnabled( true );
+		}
+		if ( __run_JButton != null ) {
+			__run_JButton.setEnabled( false );
+		}
+		__listModel.addElement( "Command Run: \"" + process.getCommand() + "\"" );
+	}
+}
 
 //////////////////////* ACTIONS *///////////////////////////////
 /**
@@ -2650,6 +2826,11 @@ public void actionPerformed( ActionEvent event ) {
 		//Close Button works on any dialog...
 		//if ( command.equals( _redefStations_close_string ) ) {}
 		if ( source.equals( _close_JButton ) ) {
+			//do not leave a command running for a closed dialog
+			if ( _running_process != null ) {
+				_running_process.cancel();
+				_running_process = null;
+			}
 			_dialog.setVisible(false);
 			_dialog.dispose();
 		}
@@ -2878,14 +3059,9 @@ public void actionPerformed( ActionEvent event ) {
 		else if ( source.equals( _preprocessDB_run_JButton ) ) {
 			//run ofs command:
 			//ofs -p ppinit -i PPINIT.STATUS.GUI, etc.
-			List<String> preproc_vect = NWSRFS_Util.run_preprocessDB_status();
-			//update output window		
-			int exitstat = -999;
-			exitstat = updateOutputWindow( "PPINIT.STATUS.GUI", preproc_vect );
-			if ( exitstat != 0 ) {
-				_ListModel.addElement( "PPINIT.STATUS.GUI failed!" );
-			}
-			preproc_vect = null;
+			//output window is updated as the command runs
+			OutputWindowListener listener = new OutputWindowListener( "PPINIT.STATUS.GUI", _preprocessDB_run_JButton );
+			listener.started( NWSRFS_Util.start_preprocessDB_status( listener ) );
 		} //end if _preprocessDB_run_JButton 
 
 		//////////////////////////////////////
@@ -2894,15 +3070,9 @@ public void actionPerformed( ActionEvent event ) {
 		else if ( source.equals( _forecastDB_run_JButton ) ) {
 			//run ofs command:
 			//ofs -p fcinit -i FCINIT.STATUS.GUI, etc
-			List<String> forec_vect = null;
-			forec_vect = NWSRFS_Util.run_forecastDB_status();
-			//update output window		
-			int exitstat = -999;
-			exitstat = updateOutputWindow( "FCINIT.STATUS.GUI", forec_vect );
-			if ( exitstat != 0 ) {
-				_ListModel.addElement( "FCINIT.STATUS.GUI failed!" );
-			}
-			forec_vect = null;
+			//output window is updated as the command runs
+			OutputWindowListener listener = new OutputWindowListener( "FCINIT.STATUS.GUI", _forecastDB_run_JButton );
+			listener.started( NWSRFS_Util.start_forecastDB_status( listener ) );
 		} //end if _forecastDB_run_JButton 
 
 		//////////////////////////////////////
@@ -2936,15 +3106,9 @@ public void actionPerformed( ActionEvent event ) {
 		else if ( source.equals( _dumpObs_run_JButton ) ) {
 			//runs ofs command:
 			//ofs -p ppdutil -i DUMPOBS.GUI, etc
-			List<String> dumpObs_vect = null;
-			dumpObs_vect = NWSRFS_Util.run_dump_obs();
-			//update output window		
-			int exitstat = -999;
-			exitstat = updateOutputWindow ( "DUMPOBS.GUI", dumpObs_vect );
-			if ( exitstat != 0 ) {
-				_ListModel.addElement( "DUMPOBS.GUI failed!" );
-			}
-			dumpObs_vect = null;
+			//output window is updated as the command runs
+			OutputWindowListener listener = new OutputWindowListener( "DUMPOBS.GUI", _dumpObs_run_JButton );
+			listener.started( NWSRFS_Util.start_dump_obs( listener ) );
 		} //end  _dumpObs_run_JButton 
 
 		//////////////////////////////////////
@@ -2979,15 +3143,9 @@ public void actionPerformed( ActionEvent event ) {
 		else if ( source.equals( _dumpTS_run_JButton ) ) {
 			//runs ofs command:
 			//ofs -p prdutil -i DUMPTS.GUI, etc
-			List<String> dumpTS_vect = null;
-			dumpTS_vect = NWSRFS_Util.run_dump_ts();
-			//update output window		
-			int exitstat = -999;
-			exitstat = updateOutputWindow( "DUMPTS.GUI", dumpTS_vect );
-			if ( exitstat != 0 ) {
-				_ListModel.addElement( "DUMPTS.GUI failed!" );
-			}
-			dumpTS_vect = null;
+			//output window is updated as the command runs
+			OutputWindowListener listener = new OutputWindowListener( "DUMPTS.GUI", _dumpTS_run_JButton );
+			listener.started( NWSRFS_Util.start_dump_ts( listener ) );
 		} //end  _dumpTS_run_JButton 
 
 		//////////////////////////////////////////////////
@@ -3044,6 +3202,14 @@ public void actionPerformed( ActionEvent event ) {
 			_output_JList.clearSelection();
 			_ListModel.clear();
 		}	
+		//////////////////////////////////////////////////
+		//////////////* POPUP MENU CANCEL* ///////////////
+		//////////////////////////////////////////////////
+		else if ( source.equals( _popup_cancel_JMenuItem ) ) {
+			if ( _running_process != null ) {
+				_running_process.cancel();
+			}
+		}
 		
 	} 
 	catch ( Exception e ) {
@@ -93,12 +93,20 @@ import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.swing.Icon;
 import javax.swing.JFrame;
 import javax.swing.JPopupMenu;
+import javax.swing.SwingWorker;
 import RTi.DMI.NWSRFS_DMI.NWSRFS;
 import RTi.DMI.NWSRFS_DMI.NWSRFS_CarryoverGroup;
 import RTi.DMI.NWSRFS_DMI.NWSRFS_ForecastGroup;
@@ -132,6 +140,74 @@ string when formatting labels.
 */
 private final String __NoData = "No Data";
 
+/**
+Text for the placeholder node added under nodes whose children are loaded when the node is expanded.
+*/
+private final String __Loading = "Loading...";
+
+/**
+Data object for placeholder nodes, used to recognize the placeholder nodes.
+*/
+private final Object __placeholderData = new Object();
+
+/**
+Nodes whose children are being loaded in a background thread.  Only used on the event dispatch thread.
+*/
+private Set<SimpleJTree_Node> __loadingNodes = new HashSet<SimpleJTree_Node>();
+
+/**
+Incremented when the tree is cleared so that background loads for removed nodes are discarded.
+Only used on the event dispatch thread.
+*/
+private int __treeGeneration = 0;
+
+/**
+Background loads that have not finished, so that rebuild() can cancel them and wait for them
+before the tree data are refreshed.  Only used on the event dispatch thread.
+*/
+private Map<SwingWorker<?,?>,LoadState> __loadingWorkers = new IdentityHashMap<SwingWorker<?,?>,LoadState>();
+
+/**
+Tracks whether a background load has started reading from the DMI, so that a canceled load
+that has not started is not waited for.
+*/
+private static class LoadState {
+	/**
+	0 if not started, 1 if running, 2 if finished, -1 if canceled before it started.
+	*/
+	private final AtomicInteger state = new AtomicInteger( 0 );
+	/**
+	Released when a load that started has finished.
+	*/
+	private final CountDownLatch finished = new CountDownLatch( 1 );
+
+	/**
+	Called at the start of the background work.
+	@return false if the load was canceled before it started, in which case nothing should be done.
+	*/
+	private boolean begin () {
+		return state.compareAndSet( 0, 1 );
+	}
+
+	/**
+	Called at the end of the background work if begin() returned true.
+	*/
+	private void end () {
+		state.set( 2 );
+		finished.countDown();
+	}
+
+	/**
+	Wait for the background work to finish, if it started.
+	@exception InterruptedException if interrupted while waiting.
+	*/
+	private void await () throws InterruptedException {
+		if ( !state.compareAndSet( 0, -1 ) ) {
+			finished.await();
+		}
+	}
+}
+
 /**
 Parent JFrame
 */
@@ -204,6 +280,15 @@ Include rating curves in system tree.
 */
 private boolean __include_ratingCurves= false;
 
+/**
+If true, the segments of a forecast group are read when the forecast group node is first expanded,
+and the operations and time series of a segment are added when the segment node is first expanded,
+in background threads so that the GUI remains responsive.  If false, all nodes are added when the
+tree is created.  The default is the value of __forNWSRFSGUI, so that the NWSRFSGUI does not read
+every segment at startup.
+*/
+private boolean __loadOnExpand = true;
+
 /**
 Indicate whether the nodes in the JTree should be preceded by an abbreviation indicating data type.
 */
@@ -315,6 +400,15 @@ operations will be shown).</td>
 <td>false</td>
 </tr>
 
+<tr>
+<td>SystemJTree.loadOnExpand</td>
+<td>boolean indicating if the segments of a forecast group, and the operations and time series
+of a segment, should be loaded when the node is first expanded rather than when the tree is created.
+A placeholder node showing the load progress is displayed while the children are loaded in the
+background.  The NWSRFS instance does not need to have been read with segments.</td>
+<td>true if SystemJTree.forNWSRFSGUI is true, false otherwise</td>
+</tr>
+
 <tr>
 <td>SystemJTree.useAllTS</td>
 <td>boolean indicating if all Time Series should be included in JTree 
@@ -374,7 +468,7 @@ public NWSRFS_System_JTree ( JFrame parent, NWSRFS nwsrfs, String top_node_str,
 	}
 	displayTreeData();
 
-	if ( ! __checkTS ) {
+	if ( ! __checkTS || __loadOnExpand ) {
 		addSimpleJTreeListener(this );
 	}
 
@@ -397,6 +491,264 @@ public NWSRFS_System_JTree ( JFrame parent, NWSRFS nwsrfs, String top_node_str,
 	 this ( parent, nwsrfs, top_node_str, fs5files, new PropList("") );
 } //end constructor
 
+/**
+Add the operation, time series and rating curve nodes for a segment.
+@param seg the segment.
+@param seg_node the segment node.
+@param dmi the DMI used to check whether the time series have data.
+@param checkTS if true, check whether each time series has data (see __checkTS).
+@param tsHasData whether the time series have data, if determined before the nodes are added
+(see loadSegmentChildren()), or null to check each time series with the DMI.
+*/
+private void addOperationNodes ( NWSRFS_Segment seg, SimpleJTree_Node seg_node, NWSRFS_DMI dmi,
+	boolean checkTS, Map<NWSRFS_TimeSeries,Boolean> tsHasData )
+{
+	String routine = "NWSRFS_System_JTree.addOperationNodes";
+	NWSRFS_Operation op = null;
+	NWSRFS_RatingCurve rc = null;
+	int numb_ops = -99;
+	SimpleJTree_Node op_node;
+	int numb_tsids = -99;
+	SimpleJTree_Node tsid_node;
+	int numb_rcs = -99;
+	SimpleJTree_Node rc_node;
+
+	numb_ops = seg.getNumberOfOperations();
+	if ( Message.isDebugOn ) {	
+		Message.printDebug( 5, routine,	"Number of operations for segment \"" +
+		seg.toString() +  "\" = " + numb_ops );
+	}
+	for (int ofg=0; ofg<numb_ops;ofg++) {
+		op=seg.getOperation(ofg);
+		//add node 
+		String op_type = op.getSystemID();
+		if ( ! __verbose ) {
+			op_node = new SimpleJTree_Node(	op_type );
+	 		//op.getSystemID());
+		}
+		else {
+			op_node = new SimpleJTree_Node(	"OP: " + op.getSystemID());
+		}
+		op_node.setData( op );
+		op_node.setIcon( __folderIcon );
+
+//					Message.printStatus(2, routine, "OPID: " + op.getSystemID());
+
+		//flag to exclude operations.
+		if ( __include_all_operations ) {
+			try {
+				addNode( op_node, seg_node );
+			}
+			catch ( Exception e ) {
+				Message.printWarning( 2, routine, e );
+			}
+		}
+		else {
+			//not including operations, set node to null.
+			op_node = null;
+		}
+
+		//Time series
+		numb_tsids=op.getNumberOfTSIDs();
+		if ( Message.isDebugOn ) {
+			Message.printDebug( 5, routine,
+			"Number of time series = " + numb_tsids  + " for operation " + numb_tsids );
+		}
+
+		for( int tsg=0;tsg<numb_tsids;tsg++ ) {
+			if ( ! __verbose ) {
+				tsid_node = new SimpleJTree_Node(op.getTSID(tsg)+".NWSRFS."+
+						op.getTSDT(tsg)+"."+ (op.getTimeSeries(tsg)).getTSDTInterval()+	"Hour") ;
+			}
+			else {
+				tsid_node = new SimpleJTree_Node( "TS: " + op.getTSID(tsg)+	".NWSRFS."+
+						op.getTSDT(tsg)+"."+ (op.getTimeSeries(tsg)).getTSDTInterval()+	"Hour") ;
+			}
+			tsid_node.setData(op.getTimeSeries(tsg));
+
+			// If __checkTS flag is true, then read in all time series
+			// If _checkTS is False, do not read in the Time series up front
+			if ( checkTS ) {
+				if ( __useAllTS ) {
+					//see if operations are included.
+					if ( op_node != null ) {
+						try {
+							addNode( tsid_node, op_node );
+						}
+						catch ( Exception e ) {
+							Message.printWarning( 2, routine, e );
+						}
+					}
+					else { //add node to seg because operation node is null	
+						if( ( __useOnlySnowTSandOperations ) &&	(op_type.indexOf("SNOW-17") >=0 ) &&
+						( op.getTSDT(tsg).indexOf( "SWE") > 0 )) {
+							try {
+								addNode( tsid_node, seg_node );
+							}
+							catch ( Exception e ) {
+								Message.printWarning( 2, routine, e );
+							}
+						}
+						else if ( !__useOnlySnowTSandOperations ) {
+							try {
+								addNode( tsid_node, seg_node );
+							}
+							catch ( Exception e ) {
+								Message.printWarning( 2, routine, e );
+							}
+						}
+					}
+					//check and indicate TS has no data 
+					try {
+						if(!timeSeriesHasData( dmi, op.getTimeSeries(tsg), tsHasData )) {
+							tsid_node.setText( tsid_node.getText() + " - " + __NoData );
+						}
+					}
+					catch (Exception e ) { 
+						Message.printWarning( 2, routine, e); 
+					}
+				}//end if useAllTS
+				else { 	//only add TS that have data
+					try { //if you don't add this checkTimeSeriesExists to its
+						//own try/catch statement, the entire loop thru the
+						//system will end and the tree will be truncated
+					if(timeSeriesHasData( dmi, op.getTimeSeries(tsg), tsHasData )) {
+						if ( op_node != null ) {
+							try {
+								addNode( tsid_node, op_node );
+							}
+							catch ( Exception e ) {
+								Message.printWarning( 2, routine, e );
+							}
+						}
+						else {
+							//add node to seg because op node null	
+							if( ( __useOnlySnowTSandOperations ) &&
+							( op_type.indexOf( "SNOW-17") >=0 ) &&
+							( op.getTSDT(tsg).indexOf( "SWE") >= 0 )){
+								try {
+									addNode( tsid_node, seg_node );
+								}
+								catch ( Exception e ) {
+									Message.printWarning( 2, routine, e );
+								}
+							}
+							else if ( !__useOnlySnowTSandOperations ) {
+								try {
+									addNode( tsid_node, seg_node );
+								}
+								catch ( Exception e ) {
+									Message.printWarning( 2, routine, e );
+								}
+							}
+						}
+					} //end check to see if TS has data
+					}
+					catch (Exception e ) { 
+						Message.printWarning( 2, routine, e); 
+					}
+				}//end useAllTS=false
+			}//end if __checkTS
+			else { // __checkTS = false and 
+				// Check TS for data when NodeExpanding listener called.
+				// ALL time series are added if this flag is set to false
+
+				// (If useAllTS is false, at NOdeExpandingtime, the node will be
+				// removed from the JTree. IF useALLTS is true, the
+				// node name will be appended with "NO Data")
+
+				// Add all TS and on the NodeExpanding
+				// Event will determine if there is data or not.
+				if ( op_node != null ) {
+					// op_node will be null if useOnlySnow... is true
+					try {
+						addNode( tsid_node, op_node );
+					}
+					catch ( Exception e ) {
+						Message.printWarning( 2, routine, e );
+					}
+				}
+				else {
+					//add node to seg	
+					if( ( __useOnlySnowTSandOperations ) &&
+					( op_type.indexOf("SNOW-17") >=0 ) &&
+					( op.getTSDT(tsg).indexOf( "SWE") >= 0 )) {
+						try {
+							addNode( tsid_node, seg_node );
+						}
+						catch ( Exception e ) {
+							Message.printWarning( 2, routine, e );
+						}
+					}
+					else if ( !__useOnlySnowTSandOperations ) {
+						try {
+							addNode( tsid_node, seg_node );
+						}
+						catch ( Exception e ) {
+							Message.printWarning( 2, routine, e );
+						}
+					}
+				}
+			} //end !__checkTS
+		} //end for tsg loop
+
+		//RATING CURVES 
+		if ( __include_ratingCurves ) {
+			numb_rcs = op.getNumberOfRatingCurves();
+			if ( Message.isDebugOn ) {	
+				Message.printDebug( 5, routine,	"Number of rating curves= " + numb_rcs );
+			}
+			for (int rfg=0; rfg<numb_rcs; rfg++ ) {
+				rc= op.getRatingCurve(rfg);
+				//create a new node 
+				if ( ! __verbose ) {
+					rc_node = new SimpleJTree_Node( rc.getRCID() );
+				}
+				else {
+					rc_node = new SimpleJTree_Node( "RC: " + rc.getRCID() );
+				}
+				rc_node.setData( rc );
+			
+				if ( __include_all_operations) {
+					//add node
+					try {
+						addNode( rc_node, op_node );
+					}
+					catch ( Exception e ) {
+						Message.printWarning( 2, routine, e );
+					}
+				}
+				else {
+					try {
+						addNode( rc_node, seg_node );
+					}
+					catch ( Exception e ) {
+						Message.printWarning( 2, routine, e );
+					}
+				}
+			} //end for rfg
+		}//end if include rating curves
+	} //end for ofg
+}
+
+/**
+Add a placeholder child to a node so that the node can be expanded before its children are loaded
+(see nodeExpanding()).
+@param node the node whose children will be loaded when it is first expanded.
+*/
+private void addPlaceholderNode ( SimpleJTree_Node node )
+{
+	String routine = "NWSRFS_System_JTree.addPlaceholderNode";
+	SimpleJTree_Node placeholder = new SimpleJTree_Node( __Loading );
+	placeholder.setData( __placeholderData );
+	try {
+		addNode( placeholder, node );
+	}
+	catch ( Exception e ) {
+		Message.printWarning( 2, routine, e );
+	}
+}
+
 /**
 Removes the extra information added to the beginning of the node name
 if running in verbose mode (__verbose = true ).  Assumes the prefix ends in a colon ":".
@@ -416,11 +768,38 @@ protected String clean_node_name ( String name ) {
 	return s;
 }
 
+/**
+Cancel the background loads of forecast group and segment children and wait for the loads that
+have started to finish, so that the DMI is not being read by the worker threads.
+*/
+private void cancelLoads () {
+	String routine = "NWSRFS_System_JTree.cancelLoads";
+	List<SwingWorker<?,?>> workers = new ArrayList<SwingWorker<?,?>>( __loadingWorkers.keySet() );
+	for ( SwingWorker<?,?> worker : workers ) {
+		// Do not interrupt because an interrupted file channel read closes the file
+		worker.cancel( false );
+	}
+	for ( SwingWorker<?,?> worker : workers ) {
+		try {
+			__loadingWorkers.get( worker ).await();
+		}
+		catch ( InterruptedException e ) {
+			Message.printWarning( 3, routine, "Interrupted waiting for background loads to finish." );
+			Thread.currentThread().interrupt();
+			break;
+		}
+	}
+	__loadingWorkers.clear();
+}
+
 /**
 Clear all data from the tree.
 */
 public void clear () {
 	String routine = "NWSRFS_System_JTree.clear";
+	// Discard the results of background loads that are running
+	__treeGeneration++;
+	__loadingNodes.clear();
 	SimpleJTree_Node node = getRoot();
 	List v = getChildrenList(node);
 	int size = 0;
@@ -498,8 +877,6 @@ public void displayTreeData() {
 	NWSRFS_CarryoverGroup cg = null;
 	NWSRFS_ForecastGroup fg = null;
 	NWSRFS_Segment seg = null;
-	NWSRFS_Operation op = null;
-	NWSRFS_RatingCurve rc = null;
 
 	String main_cg = null;
 	if ( __forNWSRFSGUI ) {
@@ -539,15 +916,6 @@ public void displayTreeData() {
 	int numb_segs = -99;
 	SimpleJTree_Node seg_node;
 
-	int numb_ops = -99;
-	SimpleJTree_Node op_node;
-
-	int numb_tsids = -99;
-	SimpleJTree_Node tsid_node;
-
-	int numb_rcs = -99;
-	SimpleJTree_Node rc_node;
-
 	NWSRFS_DMI dmi = __nwsrfs.getDMI();
 
 	List nodes_to_expand_vect = new Vector();
@@ -580,6 +948,11 @@ public void displayTreeData() {
 			Message.printWarning( 2, routine, e );
 		}
 
+		if ( __loadOnExpand ) {
+			// Show the forecast groups, which are in memory
+			nodes_to_expand_vect.add( cg_node );
+		}
+
 		// Forecast Group
 		numb_fgs = cg.getNumberOfForecastGroups();
 		if ( Message.isDebugOn ) {	
@@ -604,6 +977,12 @@ public void displayTreeData() {
 				Message.printWarning( 2, routine, e );
 			}
 
+			if ( __loadOnExpand ) {
+				// Segments are read when the forecast group node is expanded
+				addPlaceholderNode( fg_node );
+				continue;
+			}
+
 			nodes_to_expand_vect.add( fg_node );
 
 			//Segments
@@ -612,8 +991,15 @@ public void displayTreeData() {
 				Message.printDebug( 5, routine, "Number of segments for forecast " +
 				"group: \"" + fg_node.toString() + "\" = " + numb_segs );
 			}
+			// Use the segments if they were read with the forecast group (see NWSRFS.createNWSRFSFromPRD()).
+			boolean segsRead = (fg.getNumberOfSegments() == numb_segs);
 			for (int sfg=0; sfg<numb_segs; sfg++ ) {
-				seg=dmi.readSegment(fg.getSegmentID(sfg),fg,false);
+				if ( segsRead ) {
+					seg=fg.getSegment(sfg);
+				}
+				else {
+					seg=dmi.readSegment(fg.getSegmentID(sfg),fg,false);
+				}
 
 			StopWatch tsw = new StopWatch();
 			tsw.start();
@@ -641,224 +1027,9 @@ public void displayTreeData() {
 				}
 
 				//Operations
-				numb_ops = seg.getNumberOfOperations();
-				if ( Message.isDebugOn ) {	
-					Message.printDebug( 5, routine,	"Number of operations for segment \"" +
-					seg.toString() +  "\" = " + numb_ops );
-				}
 				StopWatch opsw = new StopWatch();
 				opsw.start();
-				for (int ofg=0; ofg<numb_ops;ofg++) {
-					op=seg.getOperation(ofg);
-					//add node 
-					String op_type = op.getSystemID();
-					if ( ! __verbose ) {
-						op_node = new SimpleJTree_Node(	op_type );
-				 		//op.getSystemID());
-					}
-					else {
-						op_node = new SimpleJTree_Node(	"OP: " + op.getSystemID());
-					}
-					op_node.setData( op );
-					op_node.setIcon( __folderIcon );
-
-//					Message.printStatus(2, routine, "OPID: " + op.getSystemID());
-
-					//flag to exclude operations.
-					if ( __include_all_operations ) {
-						try {
-							addNode( op_node, seg_node );
-						}
-						catch ( Exception e ) {
-							Message.printWarning( 2, routine, e );
-						}
-					}
-					else {
-						//not including operations, set node to null.
-						op_node = null;
-					}
-
-					//Time series
-					numb_tsids=op.getNumberOfTSIDs();
-					if ( Message.isDebugOn ) {
-						Message.printDebug( 5, routine,
-						"Number of time series = " + numb_tsids  + " for operation " + numb_tsids );
-					}
-
-					for( int tsg=0;tsg<numb_tsids;tsg++ ) {
-						if ( ! __verbose ) {
-							tsid_node = new SimpleJTree_Node(op.getTSID(tsg)+".NWSRFS."+
-									op.getTSDT(tsg)+"."+ (op.getTimeSeries(tsg)).getTSDTInterval()+	"Hour") ;
-						}
-						else {
-							tsid_node = new SimpleJTree_Node( "TS: " + op.getTSID(tsg)+	".NWSRFS."+
-									op.getTSDT(tsg)+"."+ (op.getTimeSeries(tsg)).getTSDTInterval()+	"Hour") ;
-						}
-						tsid_node.setData(op.getTimeSeries(tsg));
-
-						// If __checkTS flag is true, then read in all time series
-						// If _checkTS is False, do not read in the Time series up front
-						if ( __checkTS ) {
-							if ( __useAllTS ) {
-								//see if operations are included.
-								if ( op_node != null ) {
-									try {
-										addNode( tsid_node, op_node );
-									}
-									catch ( Exception e ) {
-										Message.printWarning( 2, routine, e );
-									}
-								}
-								else { //add node to seg because operation node is null	
-									if( ( __useOnlySnowTSandOperations ) &&	(op_type.indexOf("SNOW-17") >=0 ) &&
-									( op.getTSDT(tsg).indexOf( "SWE") > 0 )) {
-										try {
-											addNode( tsid_node, seg_node );
-										}
-										catch ( Exception e ) {
-											Message.printWarning( 2, routine, e );
-										}
-									}
-									else if ( !__useOnlySnowTSandOperations ) {
-										try {
-											addNode( tsid_node, seg_node );
-										}
-										catch ( Exception e ) {
-											Message.printWarning( 2, routine, e );
-										}
-									}
-								}
-								//check and indicate TS has no data 
-								try {
-									if(!dmi.checkTimeSeriesExists(op.getTimeSeries(tsg), true )) {
-										tsid_node.setText( tsid_node.getText() + " - " + __NoData );
-									}
-								}
-								catch (Exception e ) { 
-									Message.printWarning( 2, routine, e); 
-								}
-							}//end if useAllTS
-							else { 	//only add TS that have data
-								try { //if you don't add this checkTimeSeriesExists to its
-									//own try/catch statement, the entire loop thru the
-									//system will end and the tree will be truncated
-								if(dmi.checkTimeSeriesExists(op.getTimeSeries(tsg), true )) {
-									if ( op_node != null ) {
-										try {
-											addNode( tsid_node, op_node );
-										}
-										catch ( Exception e ) {
-											Message.printWarning( 2, routine, e );
-										}
-									}
-									else {
-										//add node to seg because op node null	
-										if( ( __useOnlySnowTSandOperations ) &&
-										( op_type.indexOf( "SNOW-17") >=0 ) &&
-										( op.getTSDT(tsg).indexOf( "SWE") >= 0 )){
-											try {
-												addNode( tsid_node, seg_node );
-											}
-											catch ( Exception e ) {
-												Message.printWarning( 2, routine, e );
-											}
-										}
-										else if ( !__useOnlySnowTSandOperations ) {
-											try {
-												addNode( tsid_node, seg_node );
-											}
-											catch ( Exception e ) {
-												Message.printWarning( 2, routine, e );
-											}
-										}
-									}
-								} //end check to see if TS has data
-								}
-								catch (Exception e ) { 
-									Message.printWarning( 2, routine, e); 
-								}
-							}//end useAllTS=false
-						}//end if __checkTS
-						else { // __checkTS = false and 
-							// Check TS for data when NodeExpanding listener called.
-							// ALL time series are added if this flag is set to false
-
-							// (If useAllTS is false, at NOdeExpandingtime, the node will be
-							// removed from the JTree. IF useALLTS is true, the
-							// node name will be appended with "NO Data")
-
-							// Add all TS and on the NodeExpanding
-							// Event will determine if there is data or not.
-							if ( op_node != null ) {
-								// op_node will be null if useOnlySnow... is true
-								try {
-									addNode( tsid_node, op_node );
-								}
-								catch ( Exception e ) {
-									Message.printWarning( 2, routine, e );
-								}
-							}
-							else {
-								//add node to seg	
-								if( ( __useOnlySnowTSandOperations ) &&
-								( op_type.indexOf("SNOW-17") >=0 ) &&
-								( op.getTSDT(tsg).indexOf( "SWE") >= 0 )) {
-									try {
-										addNode( tsid_node, seg_node );
-									}
-									catch ( Exception e ) {
-										Message.printWarning( 2, routine, e );
-									}
-								}
-								else if ( !__useOnlySnowTSandOperations ) {
-									try {
-										addNode( tsid_node, seg_node );
-									}
-									catch ( Exception e ) {
-										Message.printWarning( 2, routine, e );
-									}
-								}
-							}
-						} //end !__checkTS
-					} //end for tsg loop
-
-					//RATING CURVES 
-					if ( __include_ratingCurves ) {
-						numb_rcs = op.getNumberOfRatingCurves();
-						if ( Message.isDebugOn ) {	
-							Message.printDebug( 5, routine,	"Number of rating curves= " + numb_rcs );
-						}
-						for (int rfg=0; rfg<numb_rcs; rfg++ ) {
-							rc= op.getRatingCurve(rfg);
-							//create a new node 
-							if ( ! __verbose ) {
-								rc_node = new SimpleJTree_Node( rc.getRCID() );
-							}
-							else {
-								rc_node = new SimpleJTree_Node( "RC: " + rc.getRCID() );
-							}
-							rc_node.setData( rc );
-						
-							if ( __include_all_operations) {
-								//add node
-								try {
-									addNode( rc_node, op_node );
-								}
-								catch ( Exception e ) {
-									Message.printWarning( 2, routine, e );
-								}
-							}
-							else {
-								try {
-									addNode( rc_node, seg_node );
-								}
-								catch ( Exception e ) {
-									Message.printWarning( 2, routine, e );
-								}
-							}
-						} //end for rfg
-					}//end if include rating curves
-				} //end for ofg
+				addOperationNodes( seg, seg_node, dmi, __checkTS, null );
 				opsw.stop();
 //				Message.printStatus(1, "", "Time to create operation: "	+ opsw.getSeconds());
 			} //end for sfg	
@@ -888,8 +1059,6 @@ public void displayTreeData() {
 	cg = null;
 	fg = null;
 	seg = null;
-	op = null;
-	rc = null;
 
 	setFastAdd( false );
 	
@@ -898,6 +1067,20 @@ public void displayTreeData() {
 	stopwatch = null;
 }//end displayTreeData()
 
+/**
+Returns the placeholder child of a node.
+@param node the node to check.
+@return the placeholder child of the node, or null if the children of the node have been loaded.
+*/
+private SimpleJTree_Node getPlaceholderNode ( SimpleJTree_Node node )
+{
+	Object[] arr = getChildrenArray(node);
+	if ( (arr != null) && (arr.length == 1) && (((SimpleJTree_Node)arr[0]).getData() == __placeholderData) ) {
+		return (SimpleJTree_Node)arr[0];
+	}
+	return null;
+}
+
 /**
 This method is used to get the strings needed for labelling all the GUI
 components only if a translation table is used for the application, i.e., if
@@ -993,6 +1176,14 @@ where the number of rating curves is >0, like STAGE-Q)</td>
 <td>__include_ratingCurves</td>
 </tr>
 
+<tr>
+<td>SystemJTree.loadOnExpand</td>
+<td>boolean indicating if the segments of a forecast group, and the operations and time series
+of a segment, should be loaded when the node is first expanded.</td>
+<td>same as SystemJTree.forNWSRFSGUI</td>
+<td>__loadOnExpand</td>
+</tr>
+
 <tr>
 <td>SystemJTree.useAllTS</td>
 <td>boolean indicating if all Time Series should be included in JTree 
@@ -1090,6 +1281,21 @@ public void initialize_properties ( PropList p )
 		Message.printDebug( 3, routine,	"Property: include_ratingCurves = " + __include_ratingCurves );
 	}
 
+	// loadOnExpand - default is the same as forNWSRFSGUI
+	__loadOnExpand = __forNWSRFSGUI;
+	s = p.getValue( "SystemJTree.loadOnExpand" );
+	if ( s != null ) {
+		if ( s.equalsIgnoreCase( "true" ) ) {
+			__loadOnExpand = true;
+		}
+		else if ( s.equalsIgnoreCase( "false" ) ) {
+			__loadOnExpand = false;
+		}
+	}
+	if ( Message.isDebugOn ) {	
+		Message.printDebug( 3, routine,	"Property: loadOnExpand = " + __loadOnExpand );
+	}
+
 	//useAllTS -default is True
 	s = p.getValue( "SystemJTree.useAllTS" );
 	if ( s != null ) {
@@ -1151,15 +1357,257 @@ public void initialize_properties ( PropList p )
 } //end initialize_properties
 
 /**
-Rebuilds the JTree.  With large NWSRFS data sets, this could be time-consuming.
+Read the segments of a forecast group in a background thread and replace the placeholder child
+of the forecast group node with the segment nodes.  Each segment node is given a placeholder child
+so that its operations are loaded when it is expanded.  The placeholder text shows the progress.
+@param fg_node the forecast group node.
+@param placeholder the placeholder child of the forecast group node.
+*/
+private void loadForecastGroupChildren ( final SimpleJTree_Node fg_node, final SimpleJTree_Node placeholder )
+{
+	final String routine = "NWSRFS_System_JTree.loadForecastGroupChildren";
+	final NWSRFS_ForecastGroup fg = (NWSRFS_ForecastGroup)fg_node.getData();
+	final NWSRFS_DMI dmi = __nwsrfs.getDMI();
+	final int generation = __treeGeneration;
+	final int numb_segs = fg.getNumberOfSegmentIDs();
+	// Each worker thread reads with its own file positions
+	if ( !dmi.usingConcurrentReads() ) {
+		dmi.setConcurrentReads( true );
+	}
+	__loadingNodes.add( fg_node );
+	final LoadState loadState = new LoadState();
+
+	SwingWorker<List<NWSRFS_Segment>,Integer> worker = new SwingWorker<List<NWSRFS_Segment>,Integer>() {
+		protected List<NWSRFS_Segment> doInBackground() throws Exception {
+			if ( !loadState.begin() ) {
+				// Canceled by rebuild() before starting
+				return null;
+			}
+			// Use the segments if they were read with the forecast group (see NWSRFS.createNWSRFSFromPRD()).
+			try {
+				boolean segsRead = (fg.getNumberOfSegments() == numb_segs);
+				List<NWSRFS_Segment> segs = new ArrayList<NWSRFS_Segment>( numb_segs );
+				for ( int sfg = 0; (sfg < numb_segs) && !isCancelled(); sfg++ ) {
+					if ( segsRead ) {
+						segs.add( fg.getSegment(sfg) );
+					}
+					else {
+						try {
+							segs.add( dmi.readSegment(fg.getSegmentID(sfg),fg,false) );
+						}
+						catch ( Exception e ) {
+							// Skip the segment so that the rest of the forecast group is displayed
+							Message.printWarning( 2, routine, "Error reading segment \"" +
+							fg.getSegmentID(sfg) + "\"." );
+							Message.printWarning( 2, routine, e );
+						}
+					}
+					publish( Integer.valueOf(sfg + 1) );
+				}
+				return segs;
+			}
+			finally {
+				// Do not hold the database files open in the worker thread
+				dmi.releaseThreadFiles();
+				loadState.end();
+			}
+		}
+
+		protected void process ( List<Integer> counts ) {
+			if ( generation == __treeGeneration ) {
+				placeholder.setText( __Loading + " " + counts.get(counts.size() - 1) + " of " +
+				numb_segs + " segments" );
+				repaint();
+			}
+		}
+
+		protected void done () {
+			__loadingWorkers.remove( this );
+			__loadingNodes.remove( fg_node );
+			if ( generation != __treeGeneration ) {
+				// The tree was cleared while loading
+				return;
+			}
+			List<NWSRFS_Segment> segs = null;
+			try {
+				segs = get();
+			}
+			catch ( Exception e ) {
+				// Leave the placeholder so that the load is tried again on the next expansion
+				Message.printWarning( 2, routine, "Error loading segments for forecast group \"" +
+				fg.getFGID() + "\"." );
+				Message.printWarning( 2, routine, e );
+				placeholder.setText( __Loading );
+				return;
+			}
+			try {
+				removeNode( placeholder );
+			}
+			catch ( Exception e ) {
+				Message.printWarning( 2, routine, e );
+			}
+			SimpleJTree_Node seg_node;
+			for ( NWSRFS_Segment seg : segs ) {
+				if ( ! __verbose ) {
+					seg_node = new SimpleJTree_Node(seg.getSegID());
+				}
+				else {
+					seg_node = new SimpleJTree_Node( "SEG: " + seg.getSegID());
+				}
+				seg_node.setData( seg) ;
+				seg_node.setIcon( __folderIcon );
+				try {
+					addNode( seg_node, fg_node );
+				}
+				catch ( Exception e ) {
+					Message.printWarning( 2, routine, e );
+					continue;
+				}
+				addPlaceholderNode( seg_node );
+			}
+			Message.printStatus( 2, routine, "Loaded " + segs.size() + " segments for forecast group \"" +
+			fg.getFGID() + "\"." );
+		}
+	};
+	__loadingWorkers.put( worker, loadState );
+	worker.execute();
+}
+
+/**
+Add the operation, time series and rating curve nodes for a segment, replacing the placeholder child
+of the segment node.  If the time series are checked for data (see __checkTS), the checks are done in a
+background thread before the nodes are added, and the placeholder text shows the progress.
+With the snow updating GUI the time series are always checked because the time series nodes are added
+directly under the segment node.
+@param seg_node the segment node.
+@param placeholder the placeholder child of the segment node.
+*/
+private void loadSegmentChildren ( final SimpleJTree_Node seg_node, final SimpleJTree_Node placeholder )
+{
+	final String routine = "NWSRFS_System_JTree.loadSegmentChildren";
+	final NWSRFS_Segment seg = (NWSRFS_Segment)seg_node.getData();
+	final NWSRFS_DMI dmi = __nwsrfs.getDMI();
+	final int generation = __treeGeneration;
+	final boolean checkTS = __checkTS || __forSnowUpdate;
+	if ( !checkTS ) {
+		// The operations are in memory so no background read is needed
+		try {
+			removeNode( placeholder );
+		}
+		catch ( Exception e ) {
+			Message.printWarning( 2, routine, e );
+		}
+		addOperationNodes( seg, seg_node, dmi, false, null );
+		return;
+	}
+
+	// Get the time series to check
+	final List<NWSRFS_TimeSeries> tsList = new ArrayList<NWSRFS_TimeSeries>();
+	for ( int ofg = 0; ofg < seg.getNumberOfOperations(); ofg++ ) {
+		NWSRFS_Operation op = seg.getOperation(ofg);
+		for ( int tsg = 0; tsg < op.getNumberOfTSIDs(); tsg++ ) {
+			tsList.add( op.getTimeSeries(tsg) );
+		}
+	}
+	if ( !dmi.usingConcurrentReads() ) {
+		dmi.setConcurrentReads( true );
+	}
+	__loadingNodes.add( seg_node );
+	final LoadState loadState = new LoadState();
+
+	SwingWorker<Map<NWSRFS_TimeSeries,Boolean>,Integer> worker =
+		new SwingWorker<Map<NWSRFS_TimeSeries,Boolean>,Integer>() {
+		protected Map<NWSRFS_TimeSeries,Boolean> doInBackground() throws Exception {
+			if ( !loadState.begin() ) {
+				// Canceled by rebuild() before starting
+				return null;
+			}
+			try {
+				Map<NWSRFS_TimeSeries,Boolean> tsHasData = new IdentityHashMap<NWSRFS_TimeSeries,Boolean>();
+				int size = tsList.size();
+				for ( int i = 0; (i < size) && !isCancelled(); i++ ) {
+					NWSRFS_TimeSeries ts = tsList.get(i);
+					try {
+						tsHasData.put( ts, Boolean.valueOf(dmi.checkTimeSeriesExists(ts, true)) );
+					}
+					catch ( Exception e ) {
+						// Not added to the map so the error is reported when the node is added
+						Message.printWarning( 2, routine, e );
+					}
+					publish( Integer.valueOf(i + 1) );
+				}
+				return tsHasData;
+			}
+			finally {
+				// Do not hold the database files open in the worker thread
+				dmi.releaseThreadFiles();
+				loadState.end();
+			}
+		}
+
+		protected void process ( List<Integer> counts ) {
+			if ( generation == __treeGeneration ) {
+				placeholder.setText( __Loading + " " + counts.get(counts.size() - 1) + " of " +
+				tsList.size() + " time series" );
+				repaint();
+			}
+		}
+
+		protected void done () {
+			__loadingWorkers.remove( this );
+			__loadingNodes.remove( seg_node );
+			if ( generation != __treeGeneration ) {
+				// The tree was cleared while loading
+				return;
+			}
+			Map<NWSRFS_TimeSeries,Boolean> tsHasData = null;
+			try {
+				tsHasData = get();
+			}
+			catch ( Exception e ) {
+				// Leave the placeholder so that the load is tried again on the next expansion
+				Message.printWarning( 2, routine, "Error checking time series for segment \"" +
+				seg.getSegID() + "\"." );
+				Message.printWarning( 2, routine, e );
+				placeholder.setText( __Loading );
+				return;
+			}
+			try {
+				removeNode( placeholder );
+			}
+			catch ( Exception e ) {
+				Message.printWarning( 2, routine, e );
+			}
+			addOperationNodes( seg, seg_node, dmi, true, tsHasData );
+		}
+	};
+	__loadingWorkers.put( worker, loadState );
+	worker.execute();
+}
+
+/**
+Rebuilds the JTree.  If the tree data were read from the database, only the carryover groups,
+forecast groups and segments that have changed in the database are read again (see NWSRFS.refresh()).
+Otherwise the tree data are read from the database, which could be time-consuming with large
+NWSRFS data sets.
 */
 public void rebuild() {
 	String routine = "NWSRFS_System_JTree.remake_JTree";
 
 	clear();
+	// The refresh must not run while background loads are reading from the DMI
+	cancelLoads();
 
 	try {
-		setTreeData(NWSRFS.createNWSRFSFromPRD(__fs5files, false));
+		if ( (__nwsrfs != null) && (__nwsrfs.getDMI() != null) ) {
+			__nwsrfs.refresh(Runtime.getRuntime().availableProcessors());
+		}
+		else {
+			// Read the carryover and forecast groups in parallel, and also the segments unless they
+			// are read when the forecast group nodes are expanded.
+			setTreeData(NWSRFS.createNWSRFSFromPRD(__fs5files, false, !__loadOnExpand,
+				Runtime.getRuntime().availableProcessors()));
+		}
 	}
 	catch (Exception e) {
 		Message.printWarning( 2, routine, e);
@@ -1199,6 +1647,28 @@ public void setTreeData ( NWSRFS nwsrfs )
 
 }//end setTreeData
 
+/**
+Determine whether a time series has data.
+@param dmi the DMI used to check the time series if the result was not determined in advance.
+@param ts the time series.
+@param tsHasData whether the time series have data, if determined in advance, or null to check
+the time series with the DMI.
+@return true if the time series has data.
+@exception Exception if the time series cannot be checked.
+*/
+private boolean timeSeriesHasData ( NWSRFS_DMI dmi, NWSRFS_TimeSeries ts, Map<NWSRFS_TimeSeries,Boolean> tsHasData )
+throws Exception
+{
+	if ( tsHasData == null ) {
+		return dmi.checkTimeSeriesExists( ts, true );
+	}
+	Boolean hasData = tsHasData.get( ts );
+	if ( hasData == null ) {
+		throw new Exception( "Unable to determine whether time series \"" + ts.getTSID() + "\" has data." );
+	}
+	return hasData.booleanValue();
+}
+
 /**
 Checks to see if the mouse event would trigger display of the popup menu.
 The popup menu does not display if it is null.
@@ -1524,6 +1994,22 @@ public void nodeExpanding( SimpleJTree_Node node ) {
 
 	Object data = null;	// Data object associated with the node
 	data = node.getData();
+
+	// Load the children if they have not been loaded
+	if ( __loadOnExpand ) {
+		SimpleJTree_Node placeholder = getPlaceholderNode( node );
+		if ( placeholder != null ) {
+			if ( !__loadingNodes.contains(node) ) {
+				if ( data instanceof NWSRFS_ForecastGroup ) {
+					loadForecastGroupChildren( node, placeholder );
+				}
+				else if ( data instanceof NWSRFS_Segment ) {
+					loadSegmentChildren( node, placeholder );
+				}
+			}
+			return;
+		}
+	}
 	
 	// Check time series to see if they have data.  All time
 	// series have been added to tree, but they have not been
@@ -0,0 +1,367 @@
+// NWSRFS_TimeSeriesCache - bounded cache of time series read by NWSRFS_DMI
+
+package RTi.DMI.NWSRFS_DMI;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import RTi.TS.TS;
+
+/**
+The NWSRFS_TimeSeriesCache class stores the time series read by NWSRFS_DMI (and the
+time series found by the existence checks), keyed by "TSID.DataType.Interval".
+The cache is bounded by a maximum number of entries and an estimated memory size.
+When either limit is exceeded the least recently used entries are discarded until the
+cache is below 90% of the limits, so that eviction work is done in batches.
+Reads do not lock:  the entries are stored in a ConcurrentHashMap and the access order
+is tracked with a counter.  Changes to the cache are synchronized.
+Each entry records the database files that it was read from (see NWSRFS_DMI) so that
+the entries can be invalidated when those files change.
+Hit, miss, eviction and invalidation counts are kept for tuning the limits.
+*/
+public class NWSRFS_TimeSeriesCache {
+
+/**
+Estimated size in bytes of a cache entry without data values.
+*/
+private final static long __ENTRY_BYTES = 512;
+
+/**
+Estimated size in bytes of each data value (the value and the data flag).
+*/
+private final static long __VALUE_BYTES = 10;
+
+/**
+A cache entry.
+*/
+private static class Entry {
+	/**
+	The cached time series.
+	*/
+	private final NWSRFS_TimeSeries ts;
+	/**
+	The source files of the time series (see NWSRFS_DMI).
+	*/
+	private final int source;
+	/**
+	The estimated size of the time series in bytes.
+	*/
+	private final long bytes;
+	/**
+	The access counter value when the entry was last used.
+	*/
+	private volatile long lastAccess;
+
+	private Entry(NWSRFS_TimeSeries ts, int source, long bytes, long lastAccess) {
+		this.ts = ts;
+		this.source = source;
+		this.bytes = bytes;
+		this.lastAccess = lastAccess;
+	}
+}
+
+/**
+The cached entries.
+*/
+private final ConcurrentHashMap<String,Entry> __entries = new ConcurrentHashMap<>();
+
+/**
+Counter used to order the entries by access.
+*/
+private final AtomicLong __accessCounter = new AtomicLong();
+
+/**
+Number of requests that found a time series in the cache.
+*/
+private final AtomicLong __hitCount = new AtomicLong();
+
+/**
+Number of requests that did not find a time series in the cache.
+*/
+private final AtomicLong __missCount = new AtomicLong();
+
+/**
+Number of entries discarded to stay within the limits.
+*/
+private final AtomicLong __evictionCount = new AtomicLong();
+
+/**
+Number of entries discarded because the source files changed.
+*/
+private final AtomicLong __invalidationCount = new AtomicLong();
+
+/**
+The estimated size of all entries in bytes.  Changed only while synchronized.
+*/
+private volatile long __bytes = 0;
+
+/**
+The maximum number of entries.
+*/
+private volatile int __maxEntries = 0;
+
+/**
+The maximum estimated size of the entries in bytes.
+*/
+private volatile long __maxBytes = 0;
+
+/**
+Construct a cache.
+@param maxEntries the maximum number of entries (zero to disable the cache).
+@param maxBytes the maximum estimated size of the entries in bytes (zero to disable the cache).
+*/
+public NWSRFS_TimeSeriesCache(int maxEntries, long maxBytes) {
+	setLimits(maxEntries, maxBytes);
+}
+
+/**
+Remove all entries.  The counts are not reset.
+*/
+public synchronized void clear() {
+	__entries.clear();
+	__bytes = 0;
+}
+
+/**
+Returns whether a time series is in the cache.  The entry is not marked as used and
+the hit and miss counts are not changed.
+@param key the time series key (TSID.DataType.Interval).
+@return true if the time series is in the cache.
+*/
+public boolean containsKey(String key) {
+	return __entries.containsKey(key);
+}
+
+/**
+Estimate the memory used by a time series, from the number of data values.
+@param ts the time series.
+@return the estimated size of the time series in bytes.
+*/
+private static long estimateBytes(NWSRFS_TimeSeries ts) {
+	long bytes = __ENTRY_BYTES;
+	TS observed = ts.getObservedTS();
+	if (observed != null) {
+		bytes += __VALUE_BYTES*Math.max(0, observed.getDataSize());
+	}
+	TS future = ts.getFutureTS();
+	if (future != null) {
+		bytes += __VALUE_BYTES*Math.max(0, future.getDataSize());
+	}
+	return bytes;
+}
+
+/**
+Discard the least recently used entries if the cache exceeds the limits.
+Must be called while synchronized.
+*/
+private void evict() {
+	int maxEntries = __maxEntries;
+	long maxBytes = __maxBytes;
+	if (__entries.size() <= maxEntries && __bytes <= maxBytes) {
+		return;
+	}
+	List<Map.Entry<String,Entry>> list = new ArrayList<>(__entries.entrySet());
+	Collections.sort(list, new Comparator<Map.Entry<String,Entry>>() {
+		public int compare(Map.Entry<String,Entry> e1, Map.Entry<String,Entry> e2) {
+			return Long.compare(e1.getValue().lastAccess, e2.getValue().lastAccess);
+		}
+	});
+	// Evict to 90% of the limits so that each put does not need to evict
+	long targetEntries = maxEntries - maxEntries/10;
+	long targetBytes = maxBytes - maxBytes/10;
+	for (Map.Entry<String,Entry> e : list) {
+		if (__entries.size() <= targetEntries && __bytes <= targetBytes) {
+			break;
+		}
+		if (__entries.remove(e.getKey(), e.getValue())) {
+			__bytes -= e.getValue().bytes;
+			__evictionCount.incrementAndGet();
+		}
+	}
+}
+
+/**
+Returns a time series from the cache and marks the entry as used.
+@param key the time series key (TSID.DataType.Interval).
+@return the cached time series, or null if the time series is not in the cache.
+*/
+public NWSRFS_TimeSeries get(String key) {
+	Entry entry = __entries.get(key);
+	if (entry == null) {
+		__missCount.incrementAndGet();
+		return null;
+	}
+	entry.lastAccess = __accessCounter.incrementAndGet();
+	__hitCount.incrementAndGet();
+	return entry.ts;
+}
+
+/**
+Returns a copy of the cached time series, by key.  The entries are not marked as used
+and the hit and miss counts are not changed.
+@return a copy of the cached time series, by key.
+*/
+public Map<String,NWSRFS_TimeSeries> getEntries() {
+	Map<String,NWSRFS_TimeSeries> entries = new HashMap<>();
+	for (Map.Entry<String,Entry> e : __entries.entrySet()) {
+		entries.put(e.getKey(), e.getValue().ts);
+	}
+	return entries;
+}
+
+/**
+Returns the number of entries discarded to stay within the limits.
+@return the number of entries discarded to stay within the limits.
+*/
+public long getEvictionCount() {
+	return __evictionCount.get();
+}
+
+/**
+Returns the number of requests that found a time series in the cache.
+@return the number of requests that found a time series in the cache.
+*/
+public long getHitCount() {
+	return __hitCount.get();
+}
+
+/**
+Returns the number of entries discarded because the source files changed.
+@return the number of entries discarded because the source files changed.
+*/
+public long getInvalidationCount() {
+	return __invalidationCount.get();
+}
+
+/**
+Returns the maximum estimated size of the entries in bytes.
+@return the maximum estimated size of the entries in bytes.
+*/
+public long getMaxBytes() {
+	return __maxBytes;
+}
+
+/**
+Returns the maximum number of entries.
+@return the maximum number of entries.
+*/
+public int getMaxEntries() {
+	return __maxEntries;
+}
+
+/**
+Returns the number of requests that did not find a time series in the cache.
+@return the number of requests that did not find a time series in the cache.
+*/
+public long getMissCount() {
+	return __missCount.get();
+}
+
+/**
+Returns the estimated size of the entries in bytes.
+@return the estimated size of the entries in bytes.
+*/
+public long getSizeInBytes() {
+	return __bytes;
+}
+
+/**
+Discard the entries that were read from a source.
+@param source the source files (see NWSRFS_DMI).
+*/
+public synchronized void invalidate(int source) {
+	Iterator<Map.Entry<String,Entry>> it = __entries.entrySet().iterator();
+	while (it.hasNext()) {
+		Entry entry = it.next().getValue();
+		if (entry.source == source) {
+			it.remove();
+			__bytes -= entry.bytes;
+			__invalidationCount.incrementAndGet();
+		}
+	}
+}
+
+/**
+Add a time series to the cache, replacing a previous entry with the same key, and
+discard the least recently used entries if the limits are exceeded.  A time series
+that is larger than the size limit is not cached.
+@param key the time series key (TSID.DataType.Interval).
+@param ts the time series.
+@param source the source files of the time series (see NWSRFS_DMI).
+*/
+public synchronized void put(String key, NWSRFS_TimeSeries ts, int source) {
+	if (key == null || ts == null) {
+		return;
+	}
+	long bytes = estimateBytes(ts);
+	if (__maxEntries <= 0 || bytes > __maxBytes) {
+		remove(key);
+		return;
+	}
+	Entry old = __entries.put(key, new Entry(ts, source, bytes, __accessCounter.incrementAndGet()));
+	__bytes += bytes;
+	if (old != null) {
+		__bytes -= old.bytes;
+	}
+	evict();
+}
+
+/**
+Remove a time series from the cache.
+@param key the time series key (TSID.DataType.Interval).
+*/
+public synchronized void remove(String key) {
+	Entry old = __entries.remove(key);
+	if (old != null) {
+		__bytes -= old.bytes;
+	}
+}
+
+/**
+Reset the hit, miss, eviction and invalidation counts to zero.
+*/
+public void resetCounts() {
+	__hitCount.set(0);
+	__missCount.set(0);
+	__evictionCount.set(0);
+	__invalidationCount.set(0);
+}
+
+/**
+Set the limits for the cache, discarding the least recently used entries if the cache
+exceeds the new limits.
+@param maxEntries the maximum number of entries (zero to disable the cache).
+@param maxBytes the maximum estimated size of the entries in bytes (zero to disable the cache).
+*/
+public synchronized void setLimits(int maxEntries, long maxBytes) {
+	__maxEntries = Math.max(0, maxEntries);
+	__maxBytes = Math.max(0, maxBytes);
+	evict();
+}
+
+/**
+Returns the number of entries.
+@return the number of entries.
+*/
+public int size() {
+	return __entries.size();
+}
+
+/**
+Returns a summary of the cache counts, for logging.
+@return a summary of the cache counts.
+*/
+public String toString() {
+	return "entries=" + size() + " bytes=" + getSizeInBytes() + " hits=" + getHitCount()
+		+ " misses=" + getMissCount() + " evictions=" + getEvictionCount()
+		+ " invalidations=" + getInvalidationCount();
+}
+
+}
@@ -0,0 +1,296 @@
+// NWSRFS_TimeSeriesSummary - header information for a time series, read without data
+
+package RTi.DMI.NWSRFS_DMI;
+
+import RTi.Util.Time.DateTime;
+
+/**
+The NWSRFS_TimeSeriesSummary class stores the header information for a time series
+in the processed database (PRD) or preprocessor database (PDB), as read by
+NWSRFS_DMI.readTimeSeriesSummary().  Only the index files and the time series header
+record are read, so the summary can be used to check that time series exist (e.g., to
+validate a list of time series identifiers) without reading the data.
+If the time series does not exist, exists() returns false and getMessage() describes
+why the time series was not found.
+*/
+public class NWSRFS_TimeSeriesSummary {
+
+/**
+The time series identifier that was requested.
+*/
+protected String _identifier;
+
+/**
+The time series location identifier.
+*/
+protected String _TSID;
+
+/**
+The time series data type.
+*/
+protected String _tsDataType;
+
+/**
+The time series data interval in hours.
+*/
+protected int _tsDTInterval;
+
+/**
+The database containing the time series, "PRD" or "PDB".
+*/
+protected String _database;
+
+/**
+Whether the time series is defined in the database.
+*/
+protected boolean _exists = false;
+
+/**
+Whether the time series has data values.
+*/
+protected boolean _hasData = false;
+
+/**
+The data units.
+*/
+protected String _TSUNIT;
+
+/**
+The time series description.
+*/
+protected String _TSDESC;
+
+/**
+The start of the data, or null if not known.
+*/
+protected DateTime _date1;
+
+/**
+The end of the data, or null if not known.
+*/
+protected DateTime _date2;
+
+/**
+The number of observed (regular) data values.
+*/
+protected int _numberOfObservedValues = 0;
+
+/**
+The number of future data values.
+*/
+protected int _numberOfFutureValues = 0;
+
+/**
+A message describing why the time series was not found.
+*/
+protected String _message;
+
+/**
+Constructor.
+@param identifier the time series identifier that was requested.
+@param TSID the time series location identifier.
+@param tsDataType the time series data type.
+@param tsDTInterval the time series data interval in hours.
+*/
+public NWSRFS_TimeSeriesSummary(String identifier, String TSID, String tsDataType, int tsDTInterval) {
+	_identifier = identifier;
+	_TSID = TSID;
+	_tsDataType = tsDataType;
+	_tsDTInterval = tsDTInterval;
+}
+
+/**
+Returns whether the time series is defined in the database.
+@return true if the time series is defined in the database.
+*/
+public boolean exists() {
+	return _exists;
+}
+
+/**
+Returns the database containing the time series, "PRD" (processed database) or
+"PDB" (preprocessor database).
+@return the database containing the time series.
+*/
+public String getDatabase() {
+	return _database;
+}
+
+/**
+Returns the start of the data, or null if not known.
+For preprocessor database RRS time series only the end of the data is known.
+@return the start of the data.
+*/
+public DateTime getDate1() {
+	return _date1;
+}
+
+/**
+Returns the end of the data, or null if not known.
+@return the end of the data.
+*/
+public DateTime getDate2() {
+	return _date2;
+}
+
+/**
+Returns the time series identifier that was requested.
+@return the time series identifier that was requested.
+*/
+public String getIdentifier() {
+	return _identifier;
+}
+
+/**
+Returns a message describing why the time series was not found.
+@return a message describing why the time series was not found, or null if the time series exists.
+*/
+public String getMessage() {
+	return _message;
+}
+
+/**
+Returns the number of future data values.
+@return the number of future data values.
+*/
+public int getNumberOfFutureValues() {
+	return _numberOfFutureValues;
+}
+
+/**
+Returns the number of observed (regular) data values.
+@return the number of observed data values.
+*/
+public int getNumberOfObservedValues() {
+	return _numberOfObservedValues;
+}
+
+/**
+Returns the time series data type.
+@return the time series data type.
+*/
+public String getTSDataType() {
+	return _tsDataType;
+}
+
+/**
+Returns the time series description.
+@return the time series description.
+*/
+public String getTSDESC() {
+	return _TSDESC;
+}
+
+/**
+Returns the time series data interval in hours.
+@return the time series data interval in hours.
+*/
+public int getTSDTInterval() {
+	return _tsDTInterval;
+}
+
+/**
+Returns the time series location identifier.
+@return the time series location identifier.
+*/
+public String getTSID() {
+	return _TSID;
+}
+
+/**
+Returns the data units.
+@return the data units.
+*/
+public String getTSUNIT() {
+	return _TSUNIT;
+}
+
+/**
+Returns whether the time series has data values.
+@return true if the time series has data values.
+*/
+public boolean hasData() {
+	return _hasData;
+}
+
+/**
+Sets the database containing the time series.
+@param database the database containing the time series, "PRD" or "PDB".
+*/
+public void setDatabase(String database) {
+	_database = database;
+}
+
+/**
+Sets the start of the data.
+@param date1 the start of the data.
+*/
+public void setDate1(DateTime date1) {
+	_date1 = date1;
+}
+
+/**
+Sets the end of the data.
+@param date2 the end of the data.
+*/
+public void setDate2(DateTime date2) {
+	_date2 = date2;
+}
+
+/**
+Sets whether the time series is defined in the database.
+@param exists true if the time series is defined in the database.
+*/
+public void setExists(boolean exists) {
+	_exists = exists;
+}
+
+/**
+Sets whether the time series has data values.
+@param hasData true if the time series has data values.
+*/
+public void setHasData(boolean hasData) {
+	_hasData = hasData;
+}
+
+/**
+Sets the message describing why the time series was not found.
+@param message the message.
+*/
+public void setMessage(String message) {
+	_message = message;
+}
+
+/**
+Sets the number of future data values.
+@param numberOfFutureValues the number of future data values.
+*/
+public void setNumberOfFutureValues(int numberOfFutureValues) {
+	_numberOfFutureValues = numberOfFutureValues;
+}
+
+/**
+Sets the number of observed (regular) data values.
+@param numberOfObservedValues the number of observed data values.
+*/
+public void setNumberOfObservedValues(int numberOfObservedValues) {
+	_numberOfObservedValues = numberOfObservedValues;
+}
+
+/**
+Sets the time series description.
+@param TSDESC the time series description.
+*/
+public void setTSDESC(String TSDESC) {
+	_TSDESC = TSDESC;
+}
+
+/**
+Sets the data units.
+@param TSUNIT the data units.
+*/
+public void setTSUNIT(String TSUNIT) {
+	_TSUNIT = TSUNIT;
+}
+
+}
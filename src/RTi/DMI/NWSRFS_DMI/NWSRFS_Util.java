@@ -64,9 +64,7 @@
 package RTi.DMI.NWSRFS_DMI;
 
 import java.io.BufferedReader;
-import java.io.EOFException;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.InputStreamReader;
@@ -74,9 +72,13 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.Vector;
 
 import javax.swing.JFrame;
@@ -118,6 +120,15 @@ public final static int[] monthYearDays =
 The single AppsDefaults instance used to get Apps Defaults.
 */
 private static AppsDefaults __AppsDefaults = new AppsDefaults();
+static {
+	// Tokens are looked up many times (e.g., by dialogs) so read the files into a table once
+	__AppsDefaults.setPreloadTokens ( true );
+}
+
+/**
+Snapshot of the process environment, created on first use by getEnvironment().
+*/
+private static volatile Map<String,String> __environment;
 
 /**
 NWSRFS routine to return the number of days in the month.
@@ -437,6 +448,31 @@ C
       return Y1;
 }
 
+/**
+Build a lookup from upper case identifier to record number, as used by the pointer
+classes (e.g., NWSRFS_FCSEGPTR, NWSRFS_FCRCPTR) to find the record for an identifier
+without a sequential search.  If an identifier occurs more than once, the last entry is used,
+consistent with the previous sequential searches.
+@param ids the identifiers, in file order (null entries are skipped).
+@param records the record numbers, at the same positions as the identifiers.
+@return the lookup map (empty if either list is null).
+*/
+public static Map<String,Integer> buildRecordLookup ( List<String> ids, List<Integer> records )
+{	int size = 0;
+	if ( (ids != null) && (records != null) ) {
+		size = Math.min(ids.size(), records.size());
+	}
+	Map<String,Integer> lookup = new HashMap<String,Integer>(Math.max(16, size*4/3 + 1));
+	for ( int i = 0; i < size; i++ ) {
+		String id = ids.get(i);
+		if ( id != null ) {
+			// Later entries replace earlier entries.
+			lookup.put(id.toUpperCase(), records.get(i));
+		}
+	}
+	return lookup;
+}
+
 /**
 Returns a DateTime filled in with the year, month, day and hour calculated
 from a Julian Hour.
@@ -1511,333 +1547,155 @@ ofs_yyy    : #yyy		# invalid t-r, no resource
 */
 @Deprecated
 public static String get_apps_defaults(String request) {
-	int appDFileIndex;
-	String[] appDFile;
-	String appDFileValue = null;
-	String requestValue  = null;
-
-	// Load the appDFile environment variable tokens for the various app-defaults files to pull from the users environment.
-	appDFile = new String[4];
-	appDFile[0] = "APPS_DEFAULTS_USER";	// apps-defaults personal file.
-	appDFile[1] = "APPS_DEFAULTS_PROG";	// apps-defaults for specific program.
-	appDFile[2] = "APPS_DEFAULTS_SITE";	// apps-defaults for local site	file.
-	appDFile[3] = "APPS_DEFAULTS";		// apps-defaults default file.
-
 	// Check to see if this is a UNIX/Linux machine. If not return null.
 	if ( !IOUtil.isUNIXMachine() ) {
 		// This is not UNIX/Linux.
 		return null;
 	}
-	
-	// Calls the program "get_apps_defaults" first from the system to see
-	// if it can get the value then if it has problems try the environment.
-	// If it still can not find a value it tries to look at the APPS_DEFAULTS
-	// files directly.
-	if((requestValue = keyFromAppsDefaults(request)) != null)
-	{
-		return requestValue;
-	}
-	else if((requestValue = getenv(request)) != null)
-	{
-		// Now check the environment for the request token. If it is the
-		// environment then return otherwise continue.
-		return requestValue;
-	}
-	else // Now check app-defaults files directly.
-	{
-		// Loop through the app-defaults files  
-		for(appDFileIndex=0;appDFileIndex < 4;appDFileIndex++)
-		{
-			if((appDFileValue = getenv(appDFile[appDFileIndex]))!= null)
-			{
-				// Now check to see if the token value is in the
-				// app-defaults file if so we return it.
-				if((requestValue = get_token(request,appDFileValue)) != null)
-				{
-					return requestValue;
-				}
-			}
-		}
-	}
-
-	// If have not returned by here then the request was not found in the
-	// environment or any of the apps-defaults files. So return a null
-	// String
-	return null;
+	// The AppsDefaults class checks the environment first and then the apps-defaults files,
+	// which is the same search that used to be done here, without running any processes.
+	return getAppsDefaults ( request );
 }
 
 /**
-Runs 'get_apps_defaults' using the ProcessManager with the token passed 
-in and returns the results.
-@param token  apps defaults token to run.
-@return  Value returned from running "get_apps_defaults" with the token passed in.
-If nothing is returned from the get_apps_defaults command, the method will return null.
+Return the value of an apps defaults token.  This is the same as getAppsDefaults() - the token
+is resolved within the JVM rather than by running 'get_apps_defaults'.
+@param token  apps defaults token to resolve.
+@return the value of the token or null if the token is not found.
 @deprecated Use getAppsDefaults().
 */
 @Deprecated
 public static String keyFromAppsDefaults( String token ) {
-	return __AppsDefaults.getToken( token );
-	/* FIXME SAM 2008-01-07 Rely on the AppsDefaults class and evaluate whether 
-	 * old RTi code can be phased out
-	//string to return	
-	String result = null;
+	return getAppsDefaults( token );
+}
+
 
-	String cmd = "get_apps_defaults " + token;
+// TODO SAM 2004-09-01 This should be in IOUtil, etc., if it is useful.
+/**
+This method is a replacement method for the System.getenv, which was deprecated in Java 1.4.2 (back in 1.5).
+System properties are checked first and then the environment snapshot returned by getEnvironment().
+The environment variable name is not case-sensitive.
+@param request is the request string to search the users environment.
+@return is the value of the return String token if found or null.
+*/
+public static String getenv(String request) {
+	String routine = "NWSRFS_Util.getenv";
+	int dl = 1;    // Debug level - probably want to see this because it may be config-related.
+	String env_val = null;
 	
 	if ( Message.isDebugOn ) {
-		Message.printDebug( 15, routine, "Command to run: \"" + cmd + "\"." );
+	    Message.printDebug(dl, routine, "Trying to find value for environment variable \"" + request + "\"");
+	}
+	if ( request == null ) {
+		return null;
 	}
 
-	//set up process manager to run it...
-	Vector v = null;
-	int exitstat = -99;
-	try {
-        ProcessManager pm = new ProcessManager( cmd );
-        pm.setCommandInterpreter(null);
-		pm.saveOutput( true );
-		pm.run();
-		v = pm.getOutputVector();
-		//v = pm.runUntilFinished();
-		exitstat = pm.getExitStatus();
-		if (( exitstat == 0 ) && ( v != null ) && ( v.size() > 0 )) {
-			//then command ran successfully
-			result = (String)v.elementAt( 0 );
-			if ( Message.isDebugOn ) {
-				Message.printDebug( 25, routine, "Value returned from running: \"" + cmd + "\" is: \"" + result + "\"." );
-			}
+	// Check to see if the request String is in the System
+	// properties if so return it.
+	if((env_val = System.getProperty(request)) != null)
+	{
+	    if ( Message.isDebugOn ) {
+	        Message.printDebug(dl, routine, "Found value of \"" + request +
+				"\"  = \"" + env_val + "\" in system properties." );
+	    }
+		return env_val;
+	}
+	env_val = getEnvironment().get(request);
+	if ( Message.isDebugOn ) {
+		if ( env_val == null ) {
+			Message.printDebug(dl, routine, "No match was found for environment variable \"" + request + "\"");
 		}
 		else {
-			//there was an error running the command.
-			Message.printWarning( 3, routine,
-			"Unable to run command: \"" + cmd +	"\" successfully.  Please check the apps defaults.");
-			//returns null
+			Message.printDebug(dl, routine, "Environment variable \"" + request + "\"=\"" + env_val + "\"");
 		}
 	}
-	catch ( Exception e ) {
-		Message.printWarning( 2, routine, 	
-		"Unable to run command: \"" + cmd + "\" successfully.  Please check the apps defaults.");
-		Message.printWarning( 3, routine, e );
-	}
-	//clean up
-	v = null;
-	
-	return result;
-	*/
+	return env_val;
 }
 
-// TODO SAM 2004-09-01 the PropList code works on the Apps Defaults format?
 /**
-Search the supplied apps-defaults file for the given request token. This
-method needs to be finished to allow for referback variables (tokens) in an
-apps-defaults token but currently it will not do that.
-@param request is the request string to search the apps-defaults file.
-@param appsDefaultsfile is the apps-defaults file to do the search.
-@return is the value of the apps-defaults String token if found or null.
+Return the environment of the JVM process.  The environment cannot change while the JVM is running so
+it is read once, from System.getenv() or, if that is not available, from a single run of "env" (UNIX)
+or "set" (Windows), and the same snapshot is returned on later calls.
+@return an unmodifiable map of environment variable names to values, with names compared
+ignoring case (never null).
 */
-private static String get_token(String request, String appsDefaultsFile)
+public static Map<String,String> getEnvironment ()
 {
-	String routine = "NWSRFS_Util.get_token";
-	String delim = ":";	/* delimiter character */
-	char comment = '#';	/* comment character */
-	String line = null;
-	String checkString = null;
-	List<String> parseString;
-	FileInputStream appDFS;
-	InputStreamReader appDISR;
-	BufferedReader appDBR;
-	boolean isDone = false;
-
-	try
-	{
-		// Open streams
-		appDFS = new FileInputStream(appsDefaultsFile);
-		appDISR = new InputStreamReader(appDFS);
-		appDBR = new BufferedReader(appDISR);
-
-		// Loop through the file looking for the request string
-		while((line = appDBR.readLine()) != null)
-		{ 
-			// Remove beginning and ending white space
-			line = line.trim();
-
-			// Check for blank line
-			if(line.length() == 0)
-				continue;
-
-			// Start to parse the line
-			if(line.charAt(0) == comment)
-				continue;
-
-			parseString = StringUtil.breakStringList(line,delim,3);
-
-			// If the line does not contain a deliminter continue;
-			if(parseString.size() < 2)
-				continue;
-
-			// Now check the parseString string list for the
-			// request string.
-			checkString = ((String)parseString.get(0)).trim();
-			if(checkString.equalsIgnoreCase(request))
-			{
-				checkString =
-				((String)parseString.get(1)).trim();
-				
-				// If the token has a comment before it
-				// continue.
-				if(checkString.charAt(0) == '#')
-					continue;
-
-				parseString = StringUtil.breakStringList(checkString," ",3);
-				checkString = ((String)
-					parseString.get(0)).trim();
-				isDone = true;
-				break;
+	Map<String,String> environment = __environment;
+	if ( environment == null ) {
+		synchronized ( NWSRFS_Util.class ) {
+			environment = __environment;
+			if ( environment == null ) {
+				environment = Collections.unmodifiableMap ( readEnvironment() );
+				__environment = environment;
 			}
 		}
-
-		// Clean up
-		appDBR.close();
-
-		// Now if we are done return the String
-		if(isDone)
-			return checkString;
 	}
-	// TODO SAM 2004-09-01 - no need to catch separately and not much
-	// value added with the message.
-	catch(EOFException EOFe)
-	{
-		Message.printWarning(2,routine, "An Exception occured: "+EOFe.getMessage());
-		return null;
-	}
-	catch(FileNotFoundException FNFe)
-	{
-		Message.printWarning(2,routine, "An Exception occured: "+FNFe.getMessage());
-		return null;
-	}
-	catch(SecurityException SEe)
-	{
-		Message.printWarning(2,routine, "An Exception occured: "+SEe.getMessage());
-		return null;
-	}
-	catch(IOException IOe)
-	{
-		Message.printWarning(2,routine,
-		"An Exception occured: "+IOe.getMessage());
-		return null;
-	}
-
-	// If we get here we return null.
-	return null;
+	return environment;
 }
 
-// TODO SAM 2004-09-01 This should be in IOUtil, etc., if it is useful.
 /**
-This method is a replacement method for the System.getenv, which was deprecated in Java 1.4.2 (back in 1.5).
-On UNIX, "env" is used to get the environment.  On Windows, "set" is used.
-@param request is the request string to search the users environment.
-@return is the value of the return String token if found or null.
+Read the process environment for getEnvironment().
+@return the environment variable names and values, with names compared ignoring case.
 */
-public static String getenv(String request) {
-	int i, exitstat = -999;
-	String routine = "NWSRFS_Util.getenv";
-	int dl = 1;    // Debug level - probably want to see this because it may be config-related.
-	String env_val = null;
-	String cmd = null;
-	List<String> value_list = new Vector<String>();
-	ProcessManager pm;
-	
-	if ( Message.isDebugOn ) {
-	    Message.printDebug(dl, routine, "Trying to find value for environment variable \"" + request + "\"");
+private static Map<String,String> readEnvironment ()
+{
+	String routine = "NWSRFS_Util.readEnvironment";
+	Map<String,String> environment = new TreeMap<String,String>(String.CASE_INSENSITIVE_ORDER);
+	try {
+		environment.putAll ( System.getenv() );
+		return environment;
+	}
+	catch ( Error e ) {
+		// Old JVMs throw an Error from System.getenv() - fall through and run a command
+	}
+	catch ( SecurityException e ) {
+		Message.printWarning(3, routine, "Not allowed to read the environment directly (" + e + ")." );
 	}
 
-	// Try to catch NullPointerExceptions
+	String cmd = null;
+	if (IOUtil.isUNIXMachine()) {
+	    cmd = "env";
+	}
+	else {
+	    cmd = "set";
+	}
+	List<String> value_list = null;
+	int exitstat = -999;
 	try {
-		// Check to see if the request String is in the System
-		// properties if so return it.
-		if((env_val = System.getProperty(request)) != null)
-		{
-		    if ( Message.isDebugOn ) {
-		        Message.printDebug(dl, routine, "Found value of \"" + request +
-					"\"  = \"" + env_val + "\" in system properties." );
-		    }
-			return env_val;
-		}
-		else
-		{   // Have to make a OS call to get the environment variable value.
-			if (IOUtil.isUNIXMachine())
-			{
-			    cmd = "env";
-			}
-			else {
-			    cmd = "set";
-			}
-			try	{
-				pm = new ProcessManager(cmd);
-				pm.saveOutput( true );
-				pm.run();
-				value_list = pm.getOutputList();
-				exitstat = pm.getExitStatus();
-	        }
-            catch (Exception e ) 
-            {
-                Message.printWarning(3,routine, "An exception occurred running \"" + cmd +
-                        "\" getting env var \"" + request + "\"" );
-                Message.printWarning(3, routine, e);
-                return null;
-            }
-			if ( exitstat != 0 )
-			{
-			    Message.printWarning(3,routine, "Exit status for \"" + cmd + "\" is " + exitstat
-			        + ".  Returning null for env var \"" + request + "\"" );
-				return null;
-			}
-			int size = value_list.size();
-	        if ( size == 0 )
-            {
-                Message.printWarning(3,routine, "Size of environment list is " + value_list.size() +
-                    ".  Returning null for env var \"" + request + "\"" );
-                return null;
-            }
-			// Try to parse the strings returned for the environment
-	        List<String> env_var_tokens;
-	        String env_var;
-	        for ( i=0; i<size; i++ ) {
-	            if ( Message.isDebugOn ) {
-	                Message.printDebug(dl, routine, "Env var " + (String)value_list.get(i) );
-	            }
-	            env_var_tokens = StringUtil.breakStringList(
-	                    value_list.get(i),"=",StringUtil.DELIM_ALLOW_STRINGS);
-	            env_var = env_var_tokens.get(0).trim();
-	            if ( env_var.equalsIgnoreCase(request) ) {
-	                if ( env_var_tokens.size() < 2 ) {
-	                    // No value on the end (why would this happen?)
-	                    return null;
-	                }
-	                else {
-        	            env_val = env_var_tokens.get(1).trim();
-        	            if ( Message.isDebugOn ) {
-        	                Message.printDebug(dl, routine, "Environment variable \"" + request +
-        				        "\"=\"" + env_val + "\"");
-        	            }
-        				return env_val;
-	                }
-	            }
-			}
-	        // No match was found...
-	        if ( Message.isDebugOn ) {
-	            Message.printDebug(dl, routine, "No match was found for environment variable \"" + request + "\"");
-	        }
-	        return null;
-		}
+		ProcessManager pm = new ProcessManager(cmd);
+		pm.saveOutput( true );
+		pm.run();
+		value_list = pm.getOutputList();
+		exitstat = pm.getExitStatus();
 	}
-	catch(NullPointerException NPe)
-	{
-		Message.printWarning(3,routine, "An exception occurred getting environment variable \"" + request + "\"" );
-		Message.printWarning(3, routine, NPe );
-		return null;
+	catch (Exception e ) {
+		Message.printWarning(3,routine, "An exception occurred running \"" + cmd + "\" to get the environment." );
+		Message.printWarning(3, routine, e);
+		return environment;
+	}
+	if ( exitstat != 0 ) {
+	    Message.printWarning(3,routine, "Exit status for \"" + cmd + "\" is " + exitstat +
+	    	".  The environment will be empty." );
+		return environment;
+	}
+	String env_var;
+	int pos;
+	for ( String line : value_list ) {
+		pos = line.indexOf('=');
+		if ( pos <= 0 ) {
+			continue;
+		}
+		env_var = line.substring(0,pos).trim();
+		// First in wins, as with the original search of the output
+		if ( !environment.containsKey(env_var) ) {
+			environment.put ( env_var, line.substring(pos + 1).trim() );
+		}
 	}
+	return environment;
 }
 
+
 static List<String> _translated_lines = null;
 
 static String _output_dir = null;
@@ -3314,6 +3172,59 @@ public static void rewrite_esp_file( String startdate,
 	} //end else file!=null
 } //end rewrite_esp_file
 
+/**
+Starts a command in the background, with output passed to a listener as it is produced.
+The start_*() methods use this for the ofs commands, and it can be used for any other
+command that would otherwise be run synchronously with ProcessManager.
+@param cmd command to run with the command shell.
+@param listener listener to receive the output as the command runs (can be null).
+@return the started process, which can be used to wait for or cancel the command.
+*/
+public static NWSRFS_Process startCommand( String cmd, NWSRFS_ProcessListener listener ) {
+	NWSRFS_Process process = new NWSRFS_Process( cmd );
+	process.addProcessListener( listener );
+	return process.start();
+}
+
+/**
+Checks that the input file for an ofs command can be used.  Used by the run_*() and
+start_*() methods so that both check the same way.
+@param routine the calling routine, for messages.
+@param gui_file_prop the property giving the input file (e.g., "DUMPTS.GUI").
+@param cmd the ofs command, for messages.
+@return true if the input file exists, false if not (a warning is printed).
+*/
+private static boolean checkGUIFile( String routine, String gui_file_prop, String cmd ) {
+	String gui_file = IOUtil.getPropValue( gui_file_prop );
+	if ( ( gui_file != null ) && IOUtil.fileExists( gui_file ) ) {
+		return true;
+	}
+	Message.printWarning( 2, routine, 
+	"The \"" + gui_file_prop + "\" file: \"" + gui_file +
+	"\" can not be used.  The ofs command: \"" + cmd + 
+	"\" will not be run." ); 
+	return false;
+}
+
+/**
+Edits the start and run dates in the input file for an ofs command (see editStartandRunDates()).
+Used by the run_*() and start_*() methods so that both edit the file the same way.
+@param routine the calling routine, for messages.
+@param gui_file_prop the property giving the input file (e.g., "FCEXEC.GUI").
+@param cmd the ofs command, for messages.
+@return true if the file was edited, false if not (a warning is printed).
+*/
+private static boolean editGUIFileDates( String routine, String gui_file_prop, String cmd ) {
+	String gui_file = IOUtil.getPropValue( gui_file_prop );
+	if ( ( gui_file != null ) && editStartandRunDates( gui_file ) ) {
+		return true;
+	}
+	Message.printWarning( 2, routine, 
+	"Start and Run dates were not edited in the " + gui_file_prop + " " +
+	"file so the ofs command: \"" + cmd + "\" will not be run." ); 
+	return false;
+}
+
 /**
 Runs the archive script: "RFSArchive" that is assumed to be in the
 user's path.
@@ -3490,6 +3401,40 @@ public static List<String> run_delete_ratingCurve( String rcid ) {
 
 } //end run_delete_ratingCurve
 
+/**
+Calls update_deleteRC_file() to update the DELETERC.GUI
+file with the Rating Curve ID that needs to be deleted and starts the
+ofs command:
+"ofs -p fcinit -i DELETERC.GUI -o DELETERC.GUI.out" in the background.
+This is the asynchronous version of run_delete_ratingCurve().  Unlike
+run_delete_ratingCurve(), the user is not asked to confirm the deletion,
+so the caller must confirm it (on the Swing event thread) before calling
+this method.
+@param rcid  Name of Rating Curve to delete.
+@param listener listener to receive the output as the command runs (can be null).
+@return the started process, or null if the DELETERC.GUI file could not
+be edited.
+*/
+public static NWSRFS_Process start_delete_ratingCurve( String rcid,
+NWSRFS_ProcessListener listener ) {
+	String routine = _class + ".start_delete_ratingCurve";
+
+	//ofs command
+	String cmd = "ofs -p fcinit -i DELETERC.GUI -o DELETERC.GUI.out";
+
+	if ( !update_deleteRC_file( rcid ) ) {
+		Message.printWarning( 2, routine, "Unable to edit DELETERC.GUI " +
+		"for rating curve: \"" + rcid + "\".  Not running \"" + cmd + "\"." );
+		return null;
+	}
+
+	if ( Message.isDebugOn ) {
+		Message.printDebug( 10, routine, "Starting \"" + cmd + "\"." );
+	}
+
+	return startCommand( cmd, listener );
+} //end start_delete_ratingCurve
+
 
 /**
 Run one of the following ofs commands, depending on the 
@@ -3792,10 +3737,7 @@ public static List<String> run_dump_obs() {
 	//vector to hold output
 	List<String> obs_vect = null;
 	
-	String obs_gui_file = null;
-	obs_gui_file = IOUtil.getPropValue( "DUMPOBS.GUI" );
-	if ( ( obs_gui_file != null ) && ( 
-		IOUtil.fileExists( obs_gui_file )) ) {
+	if ( checkGUIFile( routine, "DUMPOBS.GUI", cmd ) ) {
 
 		//the ofs command should be run.
 		//exitstat
@@ -3828,10 +3770,6 @@ public static List<String> run_dump_obs() {
 		pm = null;
 	}
 	else {
-		Message.printWarning( 2, routine, 
-		"The \"DUMPOBS.GUI\" file: \"" + obs_gui_file +
-		"\" can not be used.  The ofs command: \"" + cmd + 
-		"\" will not be run." ); 
 		obs_vect = new Vector<String>();
 		obs_vect.add( "Unable to run \"" + cmd + "\"" );
 	}
@@ -3839,6 +3777,26 @@ public static List<String> run_dump_obs() {
 	return obs_vect;
 } //end run_dump_obs
 
+/**
+Starts the ofs command:
+"ofs -p ppdutil -i DUMPOBS.GUI -o DUMPOBS.GUI.out" in the background.
+This is the asynchronous version of run_dump_obs().
+@param listener listener to receive the output as the command runs (can be null).
+@return the started process, or null if the DUMPOBS.GUI file can not be used.
+*/
+public static NWSRFS_Process start_dump_obs( NWSRFS_ProcessListener listener ) {
+	String routine = _class + ".start_dump_obs";
+
+	//ofs command
+	String cmd = "ofs -p ppdutil -i DUMPOBS.GUI -o DUMPOBS.GUI.out -u " + _output_dir;
+
+	if ( !checkGUIFile( routine, "DUMPOBS.GUI", cmd ) ) {
+		return null;
+	}
+
+	return startCommand( cmd, listener );
+} //end start_dump_obs
+
 
 /**
 Runs the ofs command:
@@ -3858,10 +3816,7 @@ public static List<String> run_dump_ts() {
 	//vector to hold output
 	List<String> ts_vect = null;
 	
-	String ts_gui_file = null;
-	ts_gui_file = IOUtil.getPropValue( "DUMPTS.GUI" );
-	if ( ( ts_gui_file != null ) && ( 
-		IOUtil.fileExists( ts_gui_file )) ) {
+	if ( checkGUIFile( routine, "DUMPTS.GUI", cmd ) ) {
 
 		//the ofs command should be run.
 		//exitstat
@@ -3894,10 +3849,6 @@ public static List<String> run_dump_ts() {
 		pm = null;
 	}
 	else {
-		Message.printWarning( 2, routine, 
-		"The \"DUMPTS.GUI\" file: \"" + ts_gui_file +
-		"\" can not be used.  The ofs command: \"" + cmd + 
-		"\" will not be run." ); 
 		ts_vect = new Vector<String>();
 		ts_vect.add( "Unable to run \"" + cmd + "\"" );
 	}
@@ -3905,6 +3856,26 @@ public static List<String> run_dump_ts() {
 	return ts_vect;
 } //end run_dump_ts
 
+/**
+Starts the ofs command:
+"ofs -p prdutil -i DUMPTS.GUI -o DUMPTS.GUI.out" in the background.
+This is the asynchronous version of run_dump_ts().
+@param listener listener to receive the output as the command runs (can be null).
+@return the started process, or null if the DUMPTS.GUI file can not be used.
+*/
+public static NWSRFS_Process start_dump_ts( NWSRFS_ProcessListener listener ) {
+	String routine = _class + ".start_dump_ts";
+
+	//ofs command
+	String cmd = "ofs -p prdutil -i DUMPTS.GUI -o DUMPTS.GUI.out -u " + _output_dir;
+
+	if ( !checkGUIFile( routine, "DUMPTS.GUI", cmd ) ) {
+		return null;
+	}
+
+	return startCommand( cmd, listener );
+} //end start_dump_ts
+
 /**
 Runs esp via the ofs script:
 "ofs -p fcst -i ESP.GUI -o ESP.GUI.out"
@@ -3923,10 +3894,7 @@ public static List<String> run_esp() {
 	//vector to hold output
 	List<String> esp_vect = null;
 	
-	String esp_gui_file = null;
-	esp_gui_file = IOUtil.getPropValue( "ESP.GUI" );
-	if ( ( esp_gui_file != null ) && ( 
-		IOUtil.fileExists( esp_gui_file )) ) {
+	if ( checkGUIFile( routine, "ESP.GUI", cmd ) ) {
 
 		//the ofs command should be run.
 		//exitstat
@@ -3960,10 +3928,6 @@ public static List<String> run_esp() {
 		pm = null;
 	}
 	else {
-		Message.printWarning( 2, routine, 
-		"The \"ESP.GUI\" file: \"" + esp_gui_file +
-		"\" can not be used.  The ofs command: \"" + cmd + 
-		"\" will not be run." ); 
 		esp_vect = new Vector<String>();
 		esp_vect.add( "Unable to run \"" + cmd + "\"" );
 	}
@@ -3971,6 +3935,26 @@ public static List<String> run_esp() {
 	return esp_vect;
 } //end run_esp
 
+/**
+Starts the ofs command:
+"ofs -p fcst -i ESP.GUI -o ESP.GUI.out" in the background.
+This is the asynchronous version of run_esp().
+@param listener listener to receive the output as the command runs (can be null).
+@return the started process, or null if the ESP.GUI file can not be used.
+*/
+public static NWSRFS_Process start_esp( NWSRFS_ProcessListener listener ) {
+	String routine = _class + ".start_esp";
+
+	//ofs command
+	String cmd = "ofs -p fcst -i ESP.GUI -o ESP.GUI.out -u " + _output_dir;
+
+	if ( !checkGUIFile( routine, "ESP.GUI", cmd ) ) {
+		return null;
+	}
+
+	return startCommand( cmd, listener );
+} //end start_esp
+
 
 /**
 Opens up a new xterm window and runs ESPADP from there.
@@ -4043,14 +4027,7 @@ public static List<String> run_forecast() {
 	List<String> fcexec_vect = null;
 	
 	//change start and run dates in FCEXEC.GUI
-	//pass the full filename into editStartandRunDates( name );
-	boolean file_edited = false;
-	String fcexec_gui_file = null;
-	fcexec_gui_file = IOUtil.getPropValue( "FCEXEC.GUI" );
-	if ( fcexec_gui_file != null ) {
-		file_edited = editStartandRunDates( fcexec_gui_file );
-	}	
-	if ( file_edited ) {
+	if ( editGUIFileDates( routine, "FCEXEC.GUI", cmd ) ) {
 		//then the FCEXEC.GUI file has been edited with the new
 		//dates... and the ofs command should be run.
 
@@ -4084,9 +4061,6 @@ public static List<String> run_forecast() {
 		pm = null;
 	}
 	else {
-		Message.printWarning( 2, routine, 
-		"Start and Run dates were not edited in the FCEXEC.GUI " +
-		"file so the ofs command: \"" + cmd + "\" will not be run." ); 
 		fcexec_vect = new Vector<String>();
 		fcexec_vect.add( "Unable to run \"" + cmd + "\"" );
 	}
@@ -4095,6 +4069,27 @@ public static List<String> run_forecast() {
 
 } //end run_forecast
 
+/**
+Starts the ofs command:
+"ofs -p fcst -i FCEXEC.GUI -o FCEXEC.GUI.out" in the background.
+This is the asynchronous version of run_forecast().
+@param listener listener to receive the output as the command runs (can be null).
+@return the started process, or null if the start and run dates could not be edited in the FCEXEC.GUI file.
+*/
+public static NWSRFS_Process start_forecast( NWSRFS_ProcessListener listener ) {
+	String routine = _class + ".start_forecast";
+
+	//ofs command
+	String cmd = "ofs -p fcst -i FCEXEC.GUI -o FCEXEC.GUI.out -u " + _output_dir;
+
+	//change start and run dates in FCEXEC.GUI
+	if ( !editGUIFileDates( routine, "FCEXEC.GUI", cmd ) ) {
+		return null;
+	}
+
+	return startCommand( cmd, listener );
+} //end start_forecast
+
 
 /**
 Runs the ofs command:
@@ -4150,6 +4145,26 @@ public static List<String> run_forecastDB_status() {
 
 } //end run_forecastDB_status
 
+/**
+Starts the ofs command:
+"ofs -p fcinit -i FCINIT.STATUS.GUI -o FCINIT.STATUS.GUI.out" in the background.
+This is the asynchronous version of run_forecastDB_status().
+@param listener listener to receive the output as the command runs (can be null).
+@return the started process, which is never null.
+*/
+public static NWSRFS_Process start_forecastDB_status( NWSRFS_ProcessListener listener ) {
+	String routine = _class + ".start_forecastDB_status";
+
+	//ofs command
+	String cmd = "ofs -p fcinit -i FCINIT.STATUS.GUI -o FCINIT.STATUS.GUI.out -u " + _output_dir;
+
+	if ( Message.isDebugOn ) {
+		Message.printDebug( 10, routine, "Starting \"" + cmd + "\"." );
+	}
+
+	return startCommand( cmd, listener );
+} //end start_forecastDB_status
+
 /**
 Opens up a new xterm window and runs IFP from there.
 IFP must be the user's path (.profile).
@@ -4332,6 +4347,26 @@ public static List<String> run_newRatingCurve() {
 	return newrc_vect;
 } //end run_newRatingCurve
 
+/**
+Starts the ofs command:
+"ofs -p fcinit -i NEWRC.GUI -o NEWRC.GUI.out" in the background.
+This is the asynchronous version of run_newRatingCurve().
+@param listener listener to receive the output as the command runs (can be null).
+@return the started process, which is never null.
+*/
+public static NWSRFS_Process start_newRatingCurve( NWSRFS_ProcessListener listener ) {
+	String routine = _class + ".start_newRatingCurve";
+
+	//ofs command
+	String cmd = "ofs -p fcinit -i NEWRC.GUI -o NEWRC.GUI.out -u " + _output_dir;
+
+	if ( Message.isDebugOn ) {
+		Message.printDebug( 10, routine, "Starting \"" + cmd + "\"." );
+	}
+
+	return startCommand( cmd, listener );
+} //end start_newRatingCurve
+
 
 /**
 Runs the ofs command:
@@ -4366,10 +4401,7 @@ public static List<String> run_newstation() {
 	//vector to hold output
 	List<String> newstn_vect = null;
 	
-	String newstn_gui_file = null;
-	newstn_gui_file = IOUtil.getPropValue( "NEWSTATION.GUI" );
-	if ( ( newstn_gui_file != null ) && ( 
-		IOUtil.fileExists( newstn_gui_file )) ) {
+	if ( checkGUIFile( routine, "NEWSTATION.GUI", cmd ) ) {
 
 		//the ofs command should be run.
 		//exitstat
@@ -4402,10 +4434,6 @@ public static List<String> run_newstation() {
 		pm = null;
 	}
 	else {
-		Message.printWarning( 2, routine, 
-		"The \"NEWSTATION.GUI\" file: \"" + newstn_gui_file +
-		"\" can not be used.  The ofs command: \"" + cmd + 
-		"\" will not be run." ); 
 		newstn_vect = new Vector<String>();
 		newstn_vect.add( "Unable to run \"" + cmd + "\"" );
 	}
@@ -4413,6 +4441,26 @@ public static List<String> run_newstation() {
 	return newstn_vect;
 } //end run_newstation
 
+/**
+Starts the ofs command:
+"ofs -p ppinit -i NEWSTATION.GUI -o NEWSTATION.GUI.out" in the background.
+This is the asynchronous version of run_newstation().
+@param listener listener to receive the output as the command runs (can be null).
+@return the started process, or null if the NEWSTATION.GUI file can not be used.
+*/
+public static NWSRFS_Process start_newstation( NWSRFS_ProcessListener listener ) {
+	String routine = _class + ".start_newstation";
+
+	//ofs command
+	String cmd = "ofs -p ppinit -i NEWSTATION.GUI -o NEWSTATION.GUI.out -u " + _output_dir;
+
+	if ( !checkGUIFile( routine, "NEWSTATION.GUI", cmd ) ) {
+		return null;
+	}
+
+	return startCommand( cmd, listener );
+} //end start_newstation
+
 
 /**
 Runs the ofs command:
@@ -4468,6 +4516,26 @@ public static List<String> run_preprocessDB_status() {
 
 } //end run_preprocessDB_status
 
+/**
+Starts the ofs command:
+"ofs -p ppinit -i PPINIT.STATUS.GUI -o PPNINT.STATUS.GUI.out" in the background.
+This is the asynchronous version of run_preprocessDB_status().
+@param listener listener to receive the output as the command runs (can be null).
+@return the started process, which is never null.
+*/
+public static NWSRFS_Process start_preprocessDB_status( NWSRFS_ProcessListener listener ) {
+	String routine = _class + ".start_preprocessDB_status";
+
+	//ofs command
+	String cmd = "ofs -p ppinit -i PPINIT.STATUS.GUI -o PPNINT.STATUS.GUI.out -u " + _output_dir;
+
+	if ( Message.isDebugOn ) {
+		Message.printDebug( 10, routine, "Starting \"" + cmd + "\"." );
+	}
+
+	return startCommand( cmd, listener );
+} //end start_preprocessDB_status
+
 /**
 Called by Daily Operations- PREPROCESSORS- RUN.
 Edits the PREPROCESS.GUI file by updating the RUNDATE in it.
@@ -5988,6 +6056,26 @@ public static List<String> run_redefine_ratingCurves() {
 	return redefrc_vect ;
 } //end run_redefine_ratingCurves
 
+/**
+Starts the ofs command:
+"ofs -p fcinit -i DEFRC.GUI -o DEFRC.GUI.out" in the background.
+This is the asynchronous version of run_redefine_ratingCurves().
+@param listener listener to receive the output as the command runs (can be null).
+@return the started process, which is never null.
+*/
+public static NWSRFS_Process start_redefine_ratingCurves( NWSRFS_ProcessListener listener ) {
+	String routine = _class + ".start_redefine_ratingCurves";
+
+	//ofs command
+	String cmd = "ofs -p fcinit -i DEFRC.GUI -o DEFRC.GUI.out -u " + _output_dir;
+
+	if ( Message.isDebugOn ) {
+		Message.printDebug( 10, routine, "Starting \"" + cmd + "\"." );
+	}
+
+	return startCommand( cmd, listener );
+} //end start_redefine_ratingCurves
+
 
 ////////////////////////
 
@@ -6042,6 +6130,26 @@ public static List<String> run_redefine_segments() {
 	return redefseg_vect ;
 } //end run_redefine_segments
 
+/**
+Starts the ofs command:
+"ofs -p fcinit -i RESEGDEF.GUI -o RESEGDEF.GUI.out" in the background.
+This is the asynchronous version of run_redefine_segments().
+@param listener listener to receive the output as the command runs (can be null).
+@return the started process, which is never null.
+*/
+public static NWSRFS_Process start_redefine_segments( NWSRFS_ProcessListener listener ) {
+	String routine = _class + ".start_redefine_segments";
+
+	//ofs command
+	String cmd = "ofs -p fcinit -i RESEGDEF.GUI -o RESEGDEF.GUI.out -u " + _output_dir;
+
+	if ( Message.isDebugOn ) {
+		Message.printDebug( 10, routine, "Starting \"" + cmd + "\"." );
+	}
+
+	return startCommand( cmd, listener );
+} //end start_redefine_segments
+
 /**
 Runs the ofs command:
 "ofs -p ppinit -i REDEFINE.STATIONS.GUI -o REDEFINE.STATIONS.GUI.out" 
@@ -6094,6 +6202,26 @@ public static List<String> run_redefine_stations() {
 	return redefstn_vect ;
 } //end run_redefine_stations
 
+/**
+Starts the ofs command:
+"ofs -p ppinit -i REDEFINE.STATIONS.GUI -o REDEFINE.STATIONS.GUI.out" in the background.
+This is the asynchronous version of run_redefine_stations().
+@param listener listener to receive the output as the command runs (can be null).
+@return the started process, which is never null.
+*/
+public static NWSRFS_Process start_redefine_stations( NWSRFS_ProcessListener listener ) {
+	String routine = _class + ".start_redefine_stations";
+
+	//ofs command
+	String cmd = "ofs -p ppinit -i REDEFINE.STATIONS.GUI -o REDEFINE.STATIONS.GUI.out -u " + _output_dir;
+
+	if ( Message.isDebugOn ) {
+		Message.printDebug( 10, routine, "Starting \"" + cmd + "\"." );
+	}
+
+	return startCommand( cmd, listener );
+} //end start_redefine_stations
+
 
 /**
 First edits the FCEXEC.GUI file to put the selected start and run dates in.